@@ -0,0 +1,83 @@
+package com.workflow.workflowmanagementsystem.Repository;
+
+import com.workflow.workflowmanagementsystem.entity.AuditActivityRollup;
+import com.workflow.workflowmanagementsystem.entity.TaskTrendRollup.Granularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AuditActivityRollupRepository extends JpaRepository<AuditActivityRollup, Long> {
+    
+    // Add to the count of one bucket, creating the row if needed
+    @Modifying
+    @Query(value = "INSERT INTO audit_activity_rollups (granularity, bucket_start, action_type, entity_type, user_id, " +
+                   "activity_count) VALUES (:granularity, :bucketStart, :actionType, :entityType, :userId, :delta) " +
+                   "ON CONFLICT (granularity, bucket_start, action_type, entity_type, user_id) DO UPDATE SET " +
+                   "activity_count = audit_activity_rollups.activity_count + EXCLUDED.activity_count",
+           nativeQuery = true)
+    void addCount(
+            @Param("granularity") String granularity,
+            @Param("bucketStart") LocalDateTime bucketStart,
+            @Param("actionType") String actionType,
+            @Param("entityType") String entityType,
+            @Param("userId") Long userId,
+            @Param("delta") long delta);
+    
+    // Backfill counts from audit_logs created since the given time
+    @Modifying
+    @Query(value = "INSERT INTO audit_activity_rollups (granularity, bucket_start, action_type, entity_type, user_id, " +
+                   "activity_count) " +
+                   "SELECT CAST(:granularity AS VARCHAR), date_trunc(LOWER(:granularity), a.created_at), a.action_type, " +
+                   "a.entity_type, a.user_id, COUNT(*) " +
+                   "FROM audit_logs a WHERE a.created_at >= :since " +
+                   "GROUP BY 2, 3, 4, 5 " +
+                   "ON CONFLICT (granularity, bucket_start, action_type, entity_type, user_id) DO UPDATE SET " +
+                   "activity_count = EXCLUDED.activity_count",
+           nativeQuery = true)
+    int backfillCounts(@Param("granularity") String granularity, @Param("since") LocalDateTime since);
+    
+    // Remove the counts of buckets starting at or after the given time, before they are backfilled again
+    @Modifying
+    @Query("DELETE FROM AuditActivityRollup r WHERE r.granularity = :granularity AND r.bucketStart >= :since")
+    int deleteCountsSince(@Param("granularity") Granularity granularity, @Param("since") LocalDateTime since);
+    
+    // Counts per action and entity type for buckets in [fromDate, toDate): [actionType, entityType, count]
+    @Query("SELECT r.actionType, r.entityType, SUM(r.activityCount) FROM AuditActivityRollup r " +
+           "WHERE r.granularity = :granularity AND r.bucketStart >= :fromDate AND r.bucketStart < :toDate " +
+           "GROUP BY r.actionType, r.entityType")
+    List<Object[]> summarize(
+            @Param("granularity") Granularity granularity,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate);
+    
+    // Count per bucket for buckets in [fromDate, toDate): [bucketStart, count]
+    @Query("SELECT r.bucketStart, SUM(r.activityCount) FROM AuditActivityRollup r " +
+           "WHERE r.granularity = :granularity AND r.bucketStart >= :fromDate AND r.bucketStart < :toDate " +
+           "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<Object[]> countByBucket(
+            @Param("granularity") Granularity granularity,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate);
+    
+    // Count by action type over all buckets: [actionType, count]
+    @Query("SELECT r.actionType, SUM(r.activityCount) FROM AuditActivityRollup r " +
+           "WHERE r.granularity = :granularity GROUP BY r.actionType")
+    List<Object[]> countByActionType(@Param("granularity") Granularity granularity);
+    
+    // Count by entity type over all buckets: [entityType, count]
+    @Query("SELECT r.entityType, SUM(r.activityCount) FROM AuditActivityRollup r " +
+           "WHERE r.granularity = :granularity GROUP BY r.entityType")
+    List<Object[]> countByEntityType(@Param("granularity") Granularity granularity);
+    
+    // Count by user over all buckets, busiest first: [username, count]
+    @Query("SELECT u.username, SUM(r.activityCount) FROM AuditActivityRollup r, User u " +
+           "WHERE u.id = r.userId AND r.granularity = :granularity " +
+           "GROUP BY u.username ORDER BY SUM(r.activityCount) DESC")
+    List<Object[]> countByUser(@Param("granularity") Granularity granularity);
+}
\ No newline at end of file
@@ -2,15 +2,19 @@ package com.workflow.workflowmanagementsystem.Repository;
 
 import com.workflow.workflowmanagementsystem.entity.AuditLog;
 import com.workflow.workflowmanagementsystem.entity.AuditLog.ActionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
@@ -27,6 +31,9 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     // Find audit logs by entity type and entity ID
     List<AuditLog> findByEntityTypeAndEntityIdOrderByCreatedAtDesc(String entityType, Long entityId);
     
+    // Audit history of one entity, newest first (id breaks ties between entries written in the same instant)
+    List<AuditLog> findByEntityTypeAndEntityIdOrderByCreatedAtDescIdDesc(String entityType, Long entityId);
+    
     // Find audit logs within date range
     @Query("SELECT a FROM AuditLog a WHERE " +
            "a.createdAt BETWEEN :startDate AND :endDate " +
@@ -51,18 +58,22 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
             @Param("endDate") LocalDateTime endDate,
             Pageable pageable);
     
-    // Count audit logs by action type
-    @Query("SELECT a.actionType, COUNT(a) FROM AuditLog a GROUP BY a.actionType")
-    List<Object[]> countAuditLogsByActionType();
-    
-    // Count audit logs by entity type
-    @Query("SELECT a.entityType, COUNT(a) FROM AuditLog a GROUP BY a.entityType")
-    List<Object[]> countAuditLogsByEntityType();
-    
-    // Count audit logs by user
-    @Query("SELECT u.username, COUNT(a) FROM AuditLog a " +
-           "JOIN a.user u GROUP BY u.username ORDER BY COUNT(a) DESC")
-    List<Object[]> countAuditLogsByUser();
+    // Audit logs matching the export filters, read through a forward-only cursor; must be consumed in a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM AuditLog a JOIN FETCH a.user WHERE " +
+           "(:actionType IS NULL OR a.actionType = :actionType) AND " +
+           "(:entityType IS NULL OR a.entityType = :entityType) AND " +
+           "(:userId IS NULL OR a.user.id = :userId) AND " +
+           "a.createdAt > :sinceDate " +
+           "ORDER BY a.createdAt DESC")
+    Stream<AuditLog> streamAuditLogsForExport(
+            @Param("actionType") ActionType actionType,
+            @Param("entityType") String entityType,
+            @Param("userId") Long userId,
+            @Param("sinceDate") LocalDateTime sinceDate);
     
     // Find recent audit logs for a user
     @Query("SELECT a FROM AuditLog a WHERE " +
@@ -78,25 +89,38 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
            "ORDER BY a.createdAt DESC")
     Page<AuditLog> searchAuditLogs(@Param("searchTerm") String searchTerm, Pageable pageable);
     
-    // Get audit log statistics for dashboard
-    @Query("SELECT " +
-           "COUNT(a) as totalLogs, " +
-           "COUNT(DISTINCT a.user.id) as uniqueUsers, " +
-           "COUNT(DISTINCT a.entityType) as entityTypes, " +
-           "COUNT(CASE WHEN a.actionType = 'CREATE' THEN 1 END) as creates, " +
-           "COUNT(CASE WHEN a.actionType = 'UPDATE' THEN 1 END) as updates, " +
-           "COUNT(CASE WHEN a.actionType = 'DELETE' THEN 1 END) as deletes " +
-           "FROM AuditLog a WHERE " +
-           "a.createdAt BETWEEN :startDate AND :endDate")
-    Object[] getAuditLogStatistics(
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate);
+    // Full-text search on the generated search_vector column (GIN indexed) since a date, with the optional
+    // audit log report filters, ranked by relevance then recency
+    @Query(value = "SELECT a.* FROM audit_logs a WHERE a.search_vector @@ to_tsquery('english', :query) " +
+                   "AND a.created_at > :since " +
+                   "AND (CAST(:actionType AS VARCHAR) IS NULL OR a.action_type = :actionType) " +
+                   "AND (CAST(:entityType AS VARCHAR) IS NULL OR a.entity_type = :entityType) " +
+                   "AND (CAST(:userId AS BIGINT) IS NULL OR a.user_id = :userId) " +
+                   "ORDER BY ts_rank(a.search_vector, to_tsquery('english', :query)) DESC, a.created_at DESC",
+           nativeQuery = true)
+    List<AuditLog> searchAuditLogsFullText(
+            @Param("query") String query,
+            @Param("since") LocalDateTime since,
+            @Param("actionType") String actionType,
+            @Param("entityType") String entityType,
+            @Param("userId") Long userId,
+            Pageable pageable);
     
-    // Find failed login attempts
-    @Query("SELECT a FROM AuditLog a WHERE " +
-           "a.actionType = 'LOGIN' AND a.description LIKE '%failed%' " +
-           "ORDER BY a.createdAt DESC")
-    List<AuditLog> findFailedLoginAttempts();
+    // LIKE search on the description with the same filters, for a database without the search_vector column
+    @Query(value = "SELECT a.* FROM audit_logs a WHERE LOWER(a.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+                   "AND a.created_at > :since " +
+                   "AND (CAST(:actionType AS VARCHAR) IS NULL OR a.action_type = :actionType) " +
+                   "AND (CAST(:entityType AS VARCHAR) IS NULL OR a.entity_type = :entityType) " +
+                   "AND (CAST(:userId AS BIGINT) IS NULL OR a.user_id = :userId) " +
+                   "ORDER BY a.created_at DESC",
+           nativeQuery = true)
+    List<AuditLog> searchAuditLogsByDescription(
+            @Param("searchTerm") String searchTerm,
+            @Param("since") LocalDateTime since,
+            @Param("actionType") String actionType,
+            @Param("entityType") String entityType,
+            @Param("userId") Long userId,
+            Pageable pageable);
     
     // Find audit logs for specific entity changes
     @Query("SELECT a FROM AuditLog a WHERE " +
@@ -107,14 +131,6 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
             @Param("entityType") String entityType,
             @Param("entityId") Long entityId);
     
-    // Get daily activity count
-    @Query("SELECT DATE(a.createdAt), COUNT(a) FROM AuditLog a " +
-           "WHERE a.createdAt BETWEEN :startDate AND :endDate " +
-           "GROUP BY DATE(a.createdAt) ORDER BY DATE(a.createdAt)")
-    List<Object[]> getDailyActivityCount(
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate);
-    
     // Additional methods for ReportService
     List<AuditLog> findByActionTypeAndEntityTypeAndUserIdAndCreatedAtGreaterThanOrderByCreatedAtDesc(
             @Param("actionType") ActionType actionType,
@@ -0,0 +1,75 @@
+package com.workflow.workflowmanagementsystem.Repository;
+
+import com.workflow.workflowmanagementsystem.entity.AuditUserSketch;
+import com.workflow.workflowmanagementsystem.entity.TaskTrendRollup.Granularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sketch registers are updated in SQL so concurrent writers never overwrite each other. A user id hashes to the
+ * first 64 bits of md5 of the decimal user id, exactly as in util.HyperLogLog: the top bits pick the register and the
+ * rank is the position of the first set bit after them.
+ */
+@Repository
+public interface AuditUserSketchRepository extends JpaRepository<AuditUserSketch, Long> {
+    
+    // Raise one register of a bucket's sketch to at least the given rank, creating the sketch if needed
+    @Modifying
+    @Query(value = "INSERT INTO audit_user_sketches (granularity, bucket_start, registers) " +
+                   "VALUES (:granularity, :bucketStart, " +
+                   "set_byte(decode(repeat('00', :registerCount), 'hex'), :registerIndex, :rank)) " +
+                   "ON CONFLICT (granularity, bucket_start) DO UPDATE SET " +
+                   "registers = set_byte(audit_user_sketches.registers, :registerIndex, :rank) " +
+                   "WHERE get_byte(audit_user_sketches.registers, :registerIndex) < :rank",
+           nativeQuery = true)
+    void raiseRegister(
+            @Param("granularity") String granularity,
+            @Param("bucketStart") LocalDateTime bucketStart,
+            @Param("registerCount") int registerCount,
+            @Param("registerIndex") int registerIndex,
+            @Param("rank") int rank);
+    
+    // Backfill sketches from the distinct users of each bucket in audit_logs created since the given time
+    @Modifying
+    @Query(value = "WITH hashed AS (" +
+                   "SELECT DISTINCT date_trunc(LOWER(:granularity), a.created_at) AS bucket_start, a.user_id, " +
+                   "CAST('x' || substr(md5(CAST(a.user_id AS TEXT)), 1, 16) AS BIT(64)) AS bits " +
+                   "FROM audit_logs a WHERE a.user_id IS NOT NULL AND a.created_at >= :since), " +
+                   "ranks AS (" +
+                   "SELECT bucket_start, (CAST(bits AS BIGINT) >> (64 - :precision)) & (:registerCount - 1) AS register_index, " +
+                   "MAX(COALESCE(NULLIF(position(B'1' IN substring(bits FROM :precision + 1)), 0), 65 - :precision)) AS register_rank " +
+                   "FROM hashed GROUP BY 1, 2) " +
+                   "INSERT INTO audit_user_sketches (granularity, bucket_start, registers) " +
+                   "SELECT CAST(:granularity AS VARCHAR), b.bucket_start, " +
+                   "decode(string_agg(lpad(to_hex(COALESCE(r.register_rank, 0)), 2, '0'), '' ORDER BY i), 'hex') " +
+                   "FROM (SELECT DISTINCT bucket_start FROM ranks) b " +
+                   "CROSS JOIN generate_series(0, :registerCount - 1) AS i " +
+                   "LEFT JOIN ranks r ON r.bucket_start = b.bucket_start AND r.register_index = i " +
+                   "GROUP BY b.bucket_start " +
+                   "ON CONFLICT (granularity, bucket_start) DO UPDATE SET registers = EXCLUDED.registers",
+           nativeQuery = true)
+    int backfillSketches(
+            @Param("granularity") String granularity,
+            @Param("precision") int precision,
+            @Param("registerCount") int registerCount,
+            @Param("since") LocalDateTime since);
+    
+    // Remove the sketches of buckets starting at or after the given time, before they are backfilled again
+    @Modifying
+    @Query("DELETE FROM AuditUserSketch s WHERE s.granularity = :granularity AND s.bucketStart >= :since")
+    int deleteSketchesSince(@Param("granularity") Granularity granularity, @Param("since") LocalDateTime since);
+    
+    // Registers of the sketches for buckets in [fromDate, toDate)
+    @Query("SELECT s.registers FROM AuditUserSketch s " +
+           "WHERE s.granularity = :granularity AND s.bucketStart >= :fromDate AND s.bucketStart < :toDate")
+    List<byte[]> findRegisters(
+            @Param("granularity") Granularity granularity,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate);
+}
\ No newline at end of file
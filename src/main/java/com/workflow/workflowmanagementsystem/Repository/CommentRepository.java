@@ -4,11 +4,13 @@ import com.workflow.workflowmanagementsystem.entity.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,6 +25,11 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     // Find comments by task with pagination
     Page<Comment> findByTaskIdOrderByCreatedAtDesc(Long taskId, Pageable pageable);
     
+    // Delete the comments of tasks removed by a bulk delete
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Comment c WHERE c.task.id IN :taskIds")
+    int deleteByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+    
     // Count comments by task
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.task.id = :taskId")
     Long countCommentsByTask(@Param("taskId") Long taskId);
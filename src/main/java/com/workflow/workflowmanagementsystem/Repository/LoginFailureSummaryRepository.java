@@ -0,0 +1,40 @@
+package com.workflow.workflowmanagementsystem.Repository;
+
+import com.workflow.workflowmanagementsystem.entity.LoginFailureSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LoginFailureSummaryRepository extends JpaRepository<LoginFailureSummary, Long> {
+    
+    // Add to the failures and lockouts of one hour, creating the row if needed
+    @Modifying
+    @Query(value = "INSERT INTO login_failure_summaries (key_type, key_value, bucket_start, failure_count, " +
+                   "lockout_count, last_failure_at) " +
+                   "VALUES (:keyType, :keyValue, :bucketStart, :failures, :lockouts, :lastFailureAt) " +
+                   "ON CONFLICT (key_type, key_value, bucket_start) DO UPDATE SET " +
+                   "failure_count = login_failure_summaries.failure_count + EXCLUDED.failure_count, " +
+                   "lockout_count = login_failure_summaries.lockout_count + EXCLUDED.lockout_count, " +
+                   "last_failure_at = GREATEST(login_failure_summaries.last_failure_at, EXCLUDED.last_failure_at)",
+           nativeQuery = true)
+    void addFailures(
+            @Param("keyType") String keyType,
+            @Param("keyValue") String keyValue,
+            @Param("bucketStart") LocalDateTime bucketStart,
+            @Param("failures") long failures,
+            @Param("lockouts") long lockouts,
+            @Param("lastFailureAt") LocalDateTime lastFailureAt);
+    
+    // Usernames and IPs with the most failures since a date: [keyType, keyValue, failures, lockouts, lastFailureAt]
+    @Query("SELECT s.keyType, s.keyValue, SUM(s.failureCount), SUM(s.lockoutCount), MAX(s.lastFailureAt) " +
+           "FROM LoginFailureSummary s WHERE s.bucketStart >= :sinceDate " +
+           "GROUP BY s.keyType, s.keyValue ORDER BY SUM(s.failureCount) DESC")
+    List<Object[]> findTopFailures(@Param("sinceDate") LocalDateTime sinceDate, Pageable pageable);
+}
\ No newline at end of file
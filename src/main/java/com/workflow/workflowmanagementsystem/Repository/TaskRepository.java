@@ -1,45 +1,79 @@
 package com.workflow.workflowmanagementsystem.Repository;
 
+import com.workflow.workflowmanagementsystem.dto.TaskSummary;
 import com.workflow.workflowmanagementsystem.entity.Task;
 import com.workflow.workflowmanagementsystem.entity.Task.TaskPriority;
 import com.workflow.workflowmanagementsystem.entity.Task.TaskStatus;
+import com.workflow.workflowmanagementsystem.entity.User;
+import com.workflow.workflowmanagementsystem.entity.WorkflowStatusLayer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
     
+    // Select clause for read-only task rows projected straight into TaskSummary (no managed entities)
+    String TASK_SUMMARY_SELECT = "SELECT new com.workflow.workflowmanagementsystem.dto.TaskSummary(" +
+           "t.id, t.title, t.description, l.statusCategory, l.isFinal, t.priority, " +
+           "a.id, CONCAT(a.firstName, ' ', a.lastName), w.id, w.name, l.id, l.name, " +
+           "c.id, CONCAT(c.firstName, ' ', c.lastName), t.createdAt, t.dueDate, t.estimatedHours, t.actualHours, " +
+           "tm.id, tm.name, SIZE(tm.members)) " +
+           "FROM Task t JOIN t.workflow w JOIN t.createdBy c LEFT JOIN t.workflowStatusLayer l " +
+           "LEFT JOIN t.assignedTo a LEFT JOIN a.team tm ";
+    
+    // Native condition for a completed task, matching TaskStatusUtil.getStatus on the joined status layer l
+    String COMPLETED_TASK_SQL = "COALESCE(l.status_category = 'COMPLETED', l.is_final, false)";
+    
+    // Paged listing of all tasks with the list fetch plan
+    @Override
+    @EntityGraph(value = Task.LIST_GRAPH)
+    Page<Task> findAll(Pageable pageable);
+    
     // findByStatus method removed as status is now derived from workflowStatusLayer
     
     // Find tasks by priority
+    @EntityGraph(value = Task.LIST_GRAPH)
     List<Task> findByPriority(TaskPriority priority);
     
     // Find tasks by assigned user
+    @EntityGraph(value = Task.LIST_GRAPH)
     List<Task> findByAssignedToId(Long assignedToId);
     
     // Find tasks by workflow
+    @EntityGraph(value = Task.LIST_GRAPH)
     List<Task> findByWorkflowId(Long workflowId);
     
     // Find tasks by creator
+    @EntityGraph(value = Task.LIST_GRAPH)
     List<Task> findByCreatedById(Long createdBy);
     
     // Find tasks due before a specific date
+    @EntityGraph(value = Task.LIST_GRAPH)
     List<Task> findByDueDateBefore(LocalDateTime dueDate);
     
     // Find overdue tasks - updated to check workflow status layer instead of direct status
     @Query("SELECT t FROM Task t WHERE t.dueDate < :currentDate AND (t.workflowStatusLayer.isFinal = false OR t.workflowStatusLayer IS NULL)")
+    @EntityGraph(value = Task.LIST_GRAPH)
     List<Task> findOverdueTasks(@Param("currentDate") LocalDateTime currentDate);
     
     // Find tasks due within next N days - updated to check workflow status layer instead of direct status
     @Query("SELECT t FROM Task t WHERE t.dueDate BETWEEN :startDate AND :endDate AND (t.workflowStatusLayer.isFinal = false OR t.workflowStatusLayer IS NULL)")
+    @EntityGraph(value = Task.LIST_GRAPH)
     List<Task> findTasksDueWithinDateRange(
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
@@ -48,18 +82,51 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT t FROM Task t WHERE " +
            "LOWER(t.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    @EntityGraph(value = Task.LIST_GRAPH)
     Page<Task> searchTasks(@Param("searchTerm") String searchTerm, Pageable pageable);
     
-    // Count tasks by status - updated to use workflowStatusLayer
-    @Query("SELECT " +
-           "CASE WHEN t.workflowStatusLayer.isFinal = true THEN 'COMPLETED' " +
-           "WHEN t.workflowStatusLayer IS NULL THEN 'PENDING' " +
-           "WHEN LOWER(t.workflowStatusLayer.name) LIKE '%hold%' OR LOWER(t.workflowStatusLayer.name) LIKE '%pause%' THEN 'ON_HOLD' " +
-           "WHEN LOWER(t.workflowStatusLayer.name) LIKE '%cancel%' THEN 'CANCELLED' " +
-           "WHEN LOWER(t.workflowStatusLayer.name) LIKE '%progress%' OR LOWER(t.workflowStatusLayer.name) LIKE '%active%' THEN 'IN_PROGRESS' " +
-           "ELSE 'PENDING' END as status, COUNT(t) FROM Task t GROUP BY status")
+    // Full-text search on the generated search_vector column (GIN indexed), ranked by relevance
+    @Query(value = "SELECT t.* FROM tasks t WHERE t.search_vector @@ to_tsquery('english', :query) " +
+                   "ORDER BY ts_rank(t.search_vector, to_tsquery('english', :query)) DESC, t.id DESC",
+           countQuery = "SELECT COUNT(*) FROM tasks t WHERE t.search_vector @@ to_tsquery('english', :query)",
+           nativeQuery = true)
+    Page<Task> searchTasksFullText(@Param("query") String query, Pageable pageable);
+    
+    // Highlighted search fragments for a page of tasks: [taskId, headline]
+    @Query(value = "SELECT t.id, ts_headline('english', CONCAT_WS(' - ', t.title, t.description), " +
+                   "to_tsquery('english', :query), :options) FROM tasks t WHERE t.id IN (:ids)",
+           nativeQuery = true)
+    List<Object[]> findSearchHeadlines(
+            @Param("ids") List<Long> ids,
+            @Param("query") String query,
+            @Param("options") String options);
+    
+    // Count tasks by status - grouped on the status category stored on the workflowStatusLayer
+    @Query("SELECT COALESCE(CAST(l.statusCategory AS String), 'PENDING') as status, COUNT(t) " +
+           "FROM Task t LEFT JOIN t.workflowStatusLayer l GROUP BY status")
     List<Object[]> countTasksByStatus();
     
+    // Task counts for every (status category, priority, department, assignee) - used to rebuild the dashboard counters
+    @Query("SELECT l.statusCategory, l.isFinal, t.priority, d.id, a.id, COUNT(t) FROM Task t " +
+           "LEFT JOIN t.workflowStatusLayer l JOIN t.workflow w LEFT JOIN w.department d LEFT JOIN t.assignedTo a " +
+           "GROUP BY l.statusCategory, l.isFinal, t.priority, d.id, a.id")
+    List<Object[]> countTasksForDashboardCounters();
+    
+    // Task and past-due counts per status layer (null layer included) - used by the lifecycle pages
+    @Query("SELECT l.id, l.statusCategory, l.isFinal, COUNT(t), " +
+           "SUM(CASE WHEN t.dueDate < :currentDate THEN 1 ELSE 0 END) " +
+           "FROM Task t LEFT JOIN t.workflowStatusLayer l " +
+           "GROUP BY l.id, l.statusCategory, l.isFinal")
+    List<Object[]> countTasksForLifecycle(@Param("currentDate") LocalDateTime currentDate);
+    
+    // Count overdue tasks, optionally within a department
+    @Query("SELECT COUNT(t) FROM Task t LEFT JOIN t.workflowStatusLayer l WHERE " +
+           "t.dueDate < :currentDate AND (l.id IS NULL OR l.isFinal = false) AND " +
+           "(:departmentId IS NULL OR t.workflow.department.id = :departmentId)")
+    long countOverdueTasks(
+            @Param("currentDate") LocalDateTime currentDate,
+            @Param("departmentId") Long departmentId);
+    
     // Count tasks by priority
     @Query("SELECT t.priority, COUNT(t) FROM Task t GROUP BY t.priority")
     List<Object[]> countTasksByPriority();
@@ -70,18 +137,13 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
            "GROUP BY u.username")
     List<Object[]> countTasksByAssignedUser();
     
-    // Find tasks with pagination and filtering - updated to handle derived status
-    @Query("SELECT t FROM Task t WHERE " +
-           "(:status IS NULL OR " +
-           "  (:status = 'PENDING' AND (t.workflowStatusLayer IS NULL OR (t.workflowStatusLayer.isFinal = false AND LOWER(t.workflowStatusLayer.name) NOT LIKE '%hold%' AND LOWER(t.workflowStatusLayer.name) NOT LIKE '%progress%' AND LOWER(t.workflowStatusLayer.name) NOT LIKE '%cancel%'))) OR " +
-           "  (:status = 'IN_PROGRESS' AND t.workflowStatusLayer IS NOT NULL AND t.workflowStatusLayer.isFinal = false AND (LOWER(t.workflowStatusLayer.name) LIKE '%progress%' OR LOWER(t.workflowStatusLayer.name) LIKE '%active%')) OR " +
-           "  (:status = 'ON_HOLD' AND t.workflowStatusLayer IS NOT NULL AND t.workflowStatusLayer.isFinal = false AND (LOWER(t.workflowStatusLayer.name) LIKE '%hold%' OR LOWER(t.workflowStatusLayer.name) LIKE '%pause%')) OR " +
-           "  (:status = 'CANCELLED' AND t.workflowStatusLayer IS NOT NULL AND t.workflowStatusLayer.isFinal = false AND LOWER(t.workflowStatusLayer.name) LIKE '%cancel%') OR " +
-           "  (:status = 'COMPLETED' AND t.workflowStatusLayer.isFinal = true)" +
-           ") AND " +
+    // Find tasks with pagination and filtering - status filters on the stored status category
+    @Query("SELECT t FROM Task t LEFT JOIN t.workflowStatusLayer l WHERE " +
+           "(:status IS NULL OR l.statusCategory = :status OR (:status = 'PENDING' AND l.id IS NULL)) AND " +
            "(:priority IS NULL OR t.priority = :priority) AND " +
            "(:assignedToId IS NULL OR t.assignedTo.id = :assignedToId) AND " +
            "(:workflowId IS NULL OR t.workflow.id = :workflowId)")
+    @EntityGraph(value = Task.LIST_GRAPH)
     Page<Task> findTasksWithFilters(
             @Param("status") TaskStatus status,
             @Param("priority") TaskPriority priority,
@@ -89,9 +151,44 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
             @Param("workflowId") Long workflowId,
             Pageable pageable);
     
+    // Keyset page of filtered tasks ordered by (createdAt, id) descending - no OFFSET and no count query
+    @Query("SELECT t FROM Task t LEFT JOIN t.workflowStatusLayer l WHERE " +
+           "(:status IS NULL OR l.statusCategory = :status OR (:status = 'PENDING' AND l.id IS NULL)) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:assignedToId IS NULL OR t.assignedTo.id = :assignedToId) AND " +
+           "(:workflowId IS NULL OR t.workflow.id = :workflowId) AND " +
+           "(:workflowStatusLayerId IS NULL OR l.id = :workflowStatusLayerId) AND " +
+           "(:cursorId IS NULL OR t.createdAt < :cursorCreatedAt OR (t.createdAt = :cursorCreatedAt AND t.id < :cursorId)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    @EntityGraph(value = Task.LIST_GRAPH)
+    List<Task> findTasksWithFiltersAfter(
+            @Param("status") TaskStatus status,
+            @Param("priority") TaskPriority priority,
+            @Param("assignedToId") Long assignedToId,
+            @Param("workflowId") Long workflowId,
+            @Param("workflowStatusLayerId") Long workflowStatusLayerId,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+    
+    // Count for the keyset task listing, only run when the caller asks for a total
+    @Query("SELECT COUNT(t) FROM Task t LEFT JOIN t.workflowStatusLayer l WHERE " +
+           "(:status IS NULL OR l.statusCategory = :status OR (:status = 'PENDING' AND l.id IS NULL)) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:assignedToId IS NULL OR t.assignedTo.id = :assignedToId) AND " +
+           "(:workflowId IS NULL OR t.workflow.id = :workflowId) AND " +
+           "(:workflowStatusLayerId IS NULL OR l.id = :workflowStatusLayerId)")
+    long countTasksWithFilters(
+            @Param("status") TaskStatus status,
+            @Param("priority") TaskPriority priority,
+            @Param("assignedToId") Long assignedToId,
+            @Param("workflowId") Long workflowId,
+            @Param("workflowStatusLayerId") Long workflowStatusLayerId);
+    
     // Find tasks created within date range
     @Query("SELECT t FROM Task t WHERE " +
            "t.createdAt BETWEEN :startDate AND :endDate")
+    @EntityGraph(value = Task.LIST_GRAPH)
     List<Task> findTasksByDateRange(
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
@@ -99,35 +196,79 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     // Find completed tasks within date range - updated to check workflow status layer
     @Query("SELECT t FROM Task t WHERE " +
            "t.completedAt BETWEEN :startDate AND :endDate AND t.workflowStatusLayer.isFinal = true")
+    @EntityGraph(value = Task.LIST_GRAPH)
     List<Task> findCompletedTasksByDateRange(
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
     
-    // Get task completion statistics - updated to use workflow status layer
+    // Get task completion statistics - counted on the stored status category
     @Query("SELECT COUNT(t) as total, " +
-           "SUM(CASE WHEN t.workflowStatusLayer.isFinal = true THEN 1 ELSE 0 END) as completed, " +
-           "SUM(CASE WHEN t.workflowStatusLayer.isFinal = false AND (LOWER(t.workflowStatusLayer.name) LIKE '%progress%' OR LOWER(t.workflowStatusLayer.name) LIKE '%active%') THEN 1 ELSE 0 END) as inProgress, " +
-           "SUM(CASE WHEN t.workflowStatusLayer IS NULL OR (t.workflowStatusLayer.isFinal = false AND LOWER(t.workflowStatusLayer.name) NOT LIKE '%hold%' AND LOWER(t.workflowStatusLayer.name) NOT LIKE '%progress%' AND LOWER(t.workflowStatusLayer.name) NOT LIKE '%cancel%') THEN 1 ELSE 0 END) as pending " +
-           "FROM Task t WHERE t.workflow.id = :workflowId")
+           "SUM(CASE WHEN l.statusCategory = 'COMPLETED' THEN 1 ELSE 0 END) as completed, " +
+           "SUM(CASE WHEN l.statusCategory = 'IN_PROGRESS' THEN 1 ELSE 0 END) as inProgress, " +
+           "SUM(CASE WHEN l.id IS NULL OR l.statusCategory = 'PENDING' THEN 1 ELSE 0 END) as pending " +
+           "FROM Task t LEFT JOIN t.workflowStatusLayer l WHERE t.workflow.id = :workflowId")
     Object[] getTaskStatisticsByWorkflow(@Param("workflowId") Long workflowId);
     
-    // Find tasks for a user with specific filters - updated to handle derived status
-    @Query("SELECT t FROM Task t WHERE " +
+    // Find tasks for a user with specific filters - status filters on the stored status category
+    @Query("SELECT t FROM Task t LEFT JOIN t.workflowStatusLayer l WHERE " +
            "(t.assignedTo.id = :userId OR t.createdBy.id = :userId) AND " +
-           "(:status IS NULL OR " +
-           "  (:status = 'PENDING' AND (t.workflowStatusLayer IS NULL OR (t.workflowStatusLayer.isFinal = false AND LOWER(t.workflowStatusLayer.name) NOT LIKE '%hold%' AND LOWER(t.workflowStatusLayer.name) NOT LIKE '%progress%' AND LOWER(t.workflowStatusLayer.name) NOT LIKE '%cancel%'))) OR " +
-           "  (:status = 'IN_PROGRESS' AND t.workflowStatusLayer IS NOT NULL AND t.workflowStatusLayer.isFinal = false AND (LOWER(t.workflowStatusLayer.name) LIKE '%progress%' OR LOWER(t.workflowStatusLayer.name) LIKE '%active%')) OR " +
-           "  (:status = 'ON_HOLD' AND t.workflowStatusLayer IS NOT NULL AND t.workflowStatusLayer.isFinal = false AND (LOWER(t.workflowStatusLayer.name) LIKE '%hold%' OR LOWER(t.workflowStatusLayer.name) LIKE '%pause%')) OR " +
-           "  (:status = 'CANCELLED' AND t.workflowStatusLayer IS NOT NULL AND t.workflowStatusLayer.isFinal = false AND LOWER(t.workflowStatusLayer.name) LIKE '%cancel%') OR " +
-           "  (:status = 'COMPLETED' AND t.workflowStatusLayer.isFinal = true)" +
-           ") AND " +
+           "(:status IS NULL OR l.statusCategory = :status OR (:status = 'PENDING' AND l.id IS NULL)) AND " +
            "(:priority IS NULL OR t.priority = :priority)")
+    @EntityGraph(value = Task.LIST_GRAPH)
     Page<Task> findTasksForUser(
             @Param("userId") Long userId,
             @Param("status") TaskStatus status,
             @Param("priority") TaskPriority priority,
             Pageable pageable);
     
+    // Keyset page of a user's tasks ordered by (dueDate, id) ascending - no OFFSET and no count query
+    @Query("SELECT t FROM Task t LEFT JOIN t.workflowStatusLayer l WHERE " +
+           "(t.assignedTo.id = :userId OR t.createdBy.id = :userId) AND " +
+           "(:status IS NULL OR l.statusCategory = :status OR (:status = 'PENDING' AND l.id IS NULL)) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:cursorId IS NULL OR t.dueDate > :cursorDueDate OR (t.dueDate = :cursorDueDate AND t.id > :cursorId)) " +
+           "ORDER BY t.dueDate ASC, t.id ASC")
+    @EntityGraph(value = Task.LIST_GRAPH)
+    List<Task> findTasksForUserAfter(
+            @Param("userId") Long userId,
+            @Param("status") TaskStatus status,
+            @Param("priority") TaskPriority priority,
+            @Param("cursorDueDate") LocalDateTime cursorDueDate,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+    
+    // Count for the keyset "my tasks" listing, only run when the caller asks for a total
+    @Query("SELECT COUNT(t) FROM Task t LEFT JOIN t.workflowStatusLayer l WHERE " +
+           "(t.assignedTo.id = :userId OR t.createdBy.id = :userId) AND " +
+           "(:status IS NULL OR l.statusCategory = :status OR (:status = 'PENDING' AND l.id IS NULL)) AND " +
+           "(:priority IS NULL OR t.priority = :priority)")
+    long countTasksForUser(
+            @Param("userId") Long userId,
+            @Param("status") TaskStatus status,
+            @Param("priority") TaskPriority priority);
+    
+    // Read-only task rows by priority
+    @Query(TASK_SUMMARY_SELECT + "WHERE t.priority = :priority")
+    List<TaskSummary> findTaskSummariesByPriority(@Param("priority") TaskPriority priority);
+    
+    // Read-only task rows by assigned user
+    @Query(TASK_SUMMARY_SELECT + "WHERE a.id = :assignedToId")
+    List<TaskSummary> findTaskSummariesByAssignedToId(@Param("assignedToId") Long assignedToId);
+    
+    // Read-only overdue task rows
+    @Query(TASK_SUMMARY_SELECT + "WHERE t.dueDate < :currentDate AND (l.id IS NULL OR l.isFinal = false)")
+    List<TaskSummary> findOverdueTaskSummaries(@Param("currentDate") LocalDateTime currentDate);
+    
+    // Read-only task rows due within a date range
+    @Query(TASK_SUMMARY_SELECT + "WHERE t.dueDate BETWEEN :startDate AND :endDate AND (l.id IS NULL OR l.isFinal = false)")
+    List<TaskSummary> findTaskSummariesDueWithinDateRange(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+    
+    // Read-only task rows by workflow status layer
+    @Query(TASK_SUMMARY_SELECT + "WHERE l.id = :workflowStatusLayerId")
+    List<TaskSummary> findTaskSummariesByWorkflowStatusLayerId(@Param("workflowStatusLayerId") Long workflowStatusLayerId);
+    
     // Check if task title exists in a workflow (excluding current task)
     boolean existsByTitleIgnoreCaseAndWorkflowIdAndIdNot(String title, Long workflowId, Long id);
     
@@ -135,6 +276,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     boolean existsByTitleIgnoreCaseAndWorkflowId(String title, Long workflowId);
     
     // Find tasks by workflow status layer
+    @EntityGraph(value = Task.LIST_GRAPH)
     List<Task> findByWorkflowStatusLayerId(Long workflowStatusLayerId);
     
     // Find tasks with workflow status layer filter
@@ -142,9 +284,145 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
            "t.workflowStatusLayer.id = :workflowStatusLayerId AND " +
            "(:priority IS NULL OR t.priority = :priority) AND " +
            "(:assignedToId IS NULL OR t.assignedTo.id = :assignedToId)")
+    @EntityGraph(value = Task.LIST_GRAPH)
     Page<Task> findTasksWithWorkflowStatusLayerFilter(
             @Param("workflowStatusLayerId") Long workflowStatusLayerId,
             @Param("priority") TaskPriority priority,
             @Param("assignedToId") Long assignedToId,
             Pageable pageable);
+    
+    // Lower-cased task titles of a workflow - duplicate title check for the task import
+    @Query("SELECT LOWER(t.title) FROM Task t WHERE t.workflow.id = :workflowId")
+    List<String> findLowerCaseTitlesByWorkflowId(@Param("workflowId") Long workflowId);
+    
+    // Tasks for a bulk operation, with the list fetch plan
+    @EntityGraph(value = Task.LIST_GRAPH)
+    List<Task> findByIdIn(Collection<Long> ids);
+    
+    // Set-based updates for bulk operations - the persistence context is flushed before and cleared after
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.assignedTo = :assignedTo, t.version = t.version + 1, t.updatedAt = :now WHERE t.id IN :ids")
+    int bulkAssign(
+            @Param("ids") Collection<Long> ids,
+            @Param("assignedTo") User assignedTo,
+            @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.priority = :priority, t.version = t.version + 1, t.updatedAt = :now WHERE t.id IN :ids")
+    int bulkUpdatePriority(
+            @Param("ids") Collection<Long> ids,
+            @Param("priority") TaskPriority priority,
+            @Param("now") LocalDateTime now);
+    
+    // Move tasks to a non-final layer, clearing completedAt as Task.setWorkflowStatusLayer does
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.workflowStatusLayer = :statusLayer, t.completedAt = NULL, " +
+           "t.actualHours = COALESCE(:actualHours, t.actualHours), t.version = t.version + 1, t.updatedAt = :now WHERE t.id IN :ids")
+    int bulkMoveToStatusLayer(
+            @Param("ids") Collection<Long> ids,
+            @Param("statusLayer") WorkflowStatusLayer statusLayer,
+            @Param("actualHours") Integer actualHours,
+            @Param("now") LocalDateTime now);
+    
+    // Move tasks to a final layer, keeping the completedAt of tasks that were already completed
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.workflowStatusLayer = :statusLayer, t.completedAt = COALESCE(t.completedAt, :now), " +
+           "t.actualHours = COALESCE(:actualHours, t.actualHours), t.version = t.version + 1, t.updatedAt = :now WHERE t.id IN :ids")
+    int bulkMoveToFinalStatusLayer(
+            @Param("ids") Collection<Long> ids,
+            @Param("statusLayer") WorkflowStatusLayer statusLayer,
+            @Param("actualHours") Integer actualHours,
+            @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.id IN :ids")
+    int bulkDelete(@Param("ids") Collection<Long> ids);
+    
+    // Compare-and-set status transition: applies only if the task is still at the version the caller read (0 rows otherwise)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Task t SET t.workflowStatusLayer = :statusLayer, t.completedAt = :completedAt, " +
+           "t.actualHours = COALESCE(:actualHours, t.actualHours), t.version = t.version + 1, t.updatedAt = :now " +
+           "WHERE t.id = :id AND t.version = :expectedVersion")
+    int compareAndSetStatusLayer(
+            @Param("id") Long id,
+            @Param("expectedVersion") long expectedVersion,
+            @Param("statusLayer") WorkflowStatusLayer statusLayer,
+            @Param("completedAt") LocalDateTime completedAt,
+            @Param("actualHours") Integer actualHours,
+            @Param("now") LocalDateTime now);
+    
+    // Task report rows through a forward-only cursor, must be consumed in a transaction:
+    // [title, statusCategory, isFinal, priority, workflow, assignee, creator, dueDate, completedAt,
+    //  estimatedHours, actualHours, description]
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.title, l.statusCategory, l.isFinal, t.priority, w.name, a.username, c.username, " +
+           "t.dueDate, t.completedAt, t.estimatedHours, t.actualHours, t.description " +
+           "FROM Task t JOIN t.workflow w LEFT JOIN t.workflowStatusLayer l LEFT JOIN t.assignedTo a " +
+           "LEFT JOIN t.createdBy c WHERE " +
+           "(:status IS NULL OR l.statusCategory = :status OR (:status = 'PENDING' AND l.id IS NULL)) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:departmentId IS NULL OR w.department.id = :departmentId) " +
+           "ORDER BY t.id")
+    Stream<Object[]> streamTaskReportRows(
+            @Param("status") TaskStatus status,
+            @Param("priority") TaskPriority priority,
+            @Param("departmentId") Long departmentId);
+    
+    // Task report counts for the same filters as streamTaskReportRows: [statusCategory, isFinal, priority, count]
+    @Query("SELECT l.statusCategory, l.isFinal, t.priority, COUNT(t) " +
+           "FROM Task t JOIN t.workflow w LEFT JOIN t.workflowStatusLayer l WHERE " +
+           "(:status IS NULL OR l.statusCategory = :status OR (:status = 'PENDING' AND l.id IS NULL)) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:departmentId IS NULL OR w.department.id = :departmentId) " +
+           "GROUP BY l.statusCategory, l.isFinal, t.priority")
+    List<Object[]> countTaskReportGroups(
+            @Param("status") TaskStatus status,
+            @Param("priority") TaskPriority priority,
+            @Param("departmentId") Long departmentId);
+    
+    // Hours over all completed tasks, as a single row: [count, average estimated hours, average actual hours]
+    @Query("SELECT COUNT(t), AVG(t.estimatedHours), AVG(t.actualHours) FROM Task t JOIN t.workflowStatusLayer l " +
+           "WHERE l.statusCategory = 'COMPLETED' OR (l.statusCategory IS NULL AND l.isFinal = true)")
+    List<Object[]> getCompletedTaskHours();
+    
+    // Productivity per assignee: [username, total, completed, overdue, average whole days from creation to completion]
+    @Query(value = "SELECT u.username, COUNT(*), " +
+                   "COUNT(*) FILTER (WHERE " + COMPLETED_TASK_SQL + "), " +
+                   "COUNT(*) FILTER (WHERE t.due_date < :now AND NOT " + COMPLETED_TASK_SQL + "), " +
+                   "AVG(FLOOR(EXTRACT(EPOCH FROM (t.completed_at - t.created_at)) / 86400)) " +
+                   "FILTER (WHERE " + COMPLETED_TASK_SQL + " AND t.completed_at IS NOT NULL) " +
+                   "FROM tasks t JOIN users u ON u.id = t.assigned_to " +
+                   "LEFT JOIN workflow_status_layers l ON l.id = t.workflow_status_layer_id " +
+                   "GROUP BY u.id, u.username",
+           nativeQuery = true)
+    List<Object[]> summarizeTasksByAssignee(@Param("now") LocalDateTime now);
+    
+    // Productivity per user over the tasks assigned to or created by them (as in findTasksForUser), users without
+    // tasks included: [id, username, first name, last name, email, total, completed, overdue, average whole days
+    // from creation to completion]. A task a user both created and is assigned to is counted once.
+    @Query(value = "SELECT u.id, u.username, u.first_name, u.last_name, u.email, COUNT(t.id), " +
+                   "COUNT(t.id) FILTER (WHERE " + COMPLETED_TASK_SQL + "), " +
+                   "COUNT(t.id) FILTER (WHERE t.due_date < :now AND NOT " + COMPLETED_TASK_SQL + "), " +
+                   "AVG(FLOOR(EXTRACT(EPOCH FROM (t.completed_at - t.created_at)) / 86400)) " +
+                   "FILTER (WHERE " + COMPLETED_TASK_SQL + " AND t.completed_at IS NOT NULL) " +
+                   "FROM users u " +
+                   "LEFT JOIN (SELECT assigned_to AS user_id, id, due_date, created_at, completed_at, workflow_status_layer_id " +
+                   "FROM tasks WHERE assigned_to IS NOT NULL " +
+                   "UNION ALL SELECT created_by, id, due_date, created_at, completed_at, workflow_status_layer_id " +
+                   "FROM tasks WHERE assigned_to IS NULL OR assigned_to <> created_by) t ON t.user_id = u.id " +
+                   "LEFT JOIN workflow_status_layers l ON l.id = t.workflow_status_layer_id " +
+                   "WHERE (CAST(:userId AS BIGINT) IS NULL OR u.id = :userId) " +
+                   "AND (CAST(:departmentId AS BIGINT) IS NULL OR EXISTS (SELECT 1 FROM user_roles ur " +
+                   "WHERE ur.user_id = u.id AND ur.department_id = :departmentId " +
+                   "AND (ur.is_active IS NULL OR ur.is_active))) " +
+                   "GROUP BY u.id, u.username, u.first_name, u.last_name, u.email " +
+                   "ORDER BY u.username",
+           nativeQuery = true)
+    List<Object[]> summarizeUserProductivity(
+            @Param("now") LocalDateTime now,
+            @Param("userId") Long userId,
+            @Param("departmentId") Long departmentId);
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.workflow.workflowmanagementsystem.Repository;
+
+import com.workflow.workflowmanagementsystem.entity.TaskTrendRollup;
+import com.workflow.workflowmanagementsystem.entity.TaskTrendRollup.Granularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTrendRollupRepository extends JpaRepository<TaskTrendRollup, Long> {
+    
+    // Add to the created/completed/overdue counts of one bucket, creating the row if needed. The overdue count
+    // never goes below zero: a task that became overdue after the last refresh is not counted there yet.
+    @Modifying
+    @Query(value = "INSERT INTO task_trend_rollups (granularity, bucket_start, workflow_id, department_id, " +
+                   "created_count, completed_count, overdue_count) " +
+                   "VALUES (:granularity, :bucketStart, :workflowId, :departmentId, :createdDelta, :completedDelta, " +
+                   "GREATEST(:overdueDelta, 0)) " +
+                   "ON CONFLICT (granularity, bucket_start, workflow_id) DO UPDATE SET " +
+                   "created_count = task_trend_rollups.created_count + EXCLUDED.created_count, " +
+                   "completed_count = task_trend_rollups.completed_count + EXCLUDED.completed_count, " +
+                   "overdue_count = GREATEST(task_trend_rollups.overdue_count + :overdueDelta, 0), " +
+                   "department_id = EXCLUDED.department_id",
+           nativeQuery = true)
+    void addCounts(
+            @Param("granularity") String granularity,
+            @Param("bucketStart") LocalDateTime bucketStart,
+            @Param("workflowId") Long workflowId,
+            @Param("departmentId") Long departmentId,
+            @Param("createdDelta") long createdDelta,
+            @Param("completedDelta") long completedDelta,
+            @Param("overdueDelta") long overdueDelta);
+    
+    // Backfill created counts from tasks.created_at
+    @Modifying
+    @Query(value = "INSERT INTO task_trend_rollups (granularity, bucket_start, workflow_id, department_id, " +
+                   "created_count, completed_count, overdue_count) " +
+                   "SELECT CAST(:granularity AS VARCHAR), date_trunc(LOWER(:granularity), t.created_at), t.workflow_id, " +
+                   "w.department_id, COUNT(*), 0, 0 " +
+                   "FROM tasks t JOIN workflows w ON w.id = t.workflow_id " +
+                   "GROUP BY 2, 3, 4 " +
+                   "ON CONFLICT (granularity, bucket_start, workflow_id) DO UPDATE SET " +
+                   "created_count = EXCLUDED.created_count, department_id = EXCLUDED.department_id",
+           nativeQuery = true)
+    int backfillCreatedCounts(@Param("granularity") String granularity);
+    
+    // Backfill completed counts from tasks.completed_at
+    @Modifying
+    @Query(value = "INSERT INTO task_trend_rollups (granularity, bucket_start, workflow_id, department_id, " +
+                   "created_count, completed_count, overdue_count) " +
+                   "SELECT CAST(:granularity AS VARCHAR), date_trunc(LOWER(:granularity), t.completed_at), t.workflow_id, " +
+                   "w.department_id, 0, COUNT(*), 0 " +
+                   "FROM tasks t JOIN workflows w ON w.id = t.workflow_id WHERE t.completed_at IS NOT NULL " +
+                   "GROUP BY 2, 3, 4 " +
+                   "ON CONFLICT (granularity, bucket_start, workflow_id) DO UPDATE SET " +
+                   "completed_count = EXCLUDED.completed_count, department_id = EXCLUDED.department_id",
+           nativeQuery = true)
+    int backfillCompletedCounts(@Param("granularity") String granularity);
+    
+    // Zero the overdue counts of the buckets starting in a window, before refreshOverdueCounts recounts them, so
+    // buckets whose tasks were rescheduled, completed or deleted do not keep their old count
+    @Modifying
+    @Query(value = "UPDATE task_trend_rollups SET overdue_count = 0 " +
+                   "WHERE granularity = :granularity AND bucket_start >= :fromDate AND bucket_start < :toDate " +
+                   "AND overdue_count <> 0",
+           nativeQuery = true)
+    int clearOverdueCounts(
+            @Param("granularity") String granularity,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate);
+    
+    // Recompute overdue counts (tasks not completed by their due date, bucketed by due date) for due dates in a window.
+    // Only buckets that still have overdue tasks are written, so the window must be cleared first.
+    @Modifying
+    @Query(value = "INSERT INTO task_trend_rollups (granularity, bucket_start, workflow_id, department_id, " +
+                   "created_count, completed_count, overdue_count) " +
+                   "SELECT CAST(:granularity AS VARCHAR), date_trunc(LOWER(:granularity), t.due_date), t.workflow_id, " +
+                   "w.department_id, 0, 0, COUNT(*) " +
+                   "FROM tasks t JOIN workflows w ON w.id = t.workflow_id " +
+                   "WHERE t.due_date >= :fromDate AND t.due_date < :toDate " +
+                   "AND (t.completed_at IS NULL OR t.completed_at > t.due_date) " +
+                   "GROUP BY 2, 3, 4 " +
+                   "ON CONFLICT (granularity, bucket_start, workflow_id) DO UPDATE SET " +
+                   "overdue_count = EXCLUDED.overdue_count, department_id = EXCLUDED.department_id",
+           nativeQuery = true)
+    int refreshOverdueCounts(
+            @Param("granularity") String granularity,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate);
+    
+    // Trend series for a date range: [bucketStart, created, completed, overdue]
+    @Query("SELECT r.bucketStart, SUM(r.createdCount), SUM(r.completedCount), SUM(r.overdueCount) " +
+           "FROM TaskTrendRollup r WHERE r.granularity = :granularity AND r.bucketStart >= :fromDate AND " +
+           "(:departmentId IS NULL OR r.departmentId = :departmentId) " +
+           "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<Object[]> findTrend(
+            @Param("granularity") Granularity granularity,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("departmentId") Long departmentId);
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.workflow.workflowmanagementsystem.Repository;
 
+import com.workflow.workflowmanagementsystem.dto.UserSummary;
 import com.workflow.workflowmanagementsystem.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -29,4 +30,25 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT u FROM User u WHERE u.team.department.id = :departmentId AND u.enabled = true")
     List<User> findActiveUsersByDepartmentId(@Param("departmentId") Long departmentId);
+    
+    // Read-only user rows projected straight into UserSummary (no managed entities)
+    String USER_SUMMARY_SELECT = "SELECT new com.workflow.workflowmanagementsystem.dto.UserSummary(" +
+           "u.id, u.username, u.email, u.firstName, u.lastName, u.enabled, tm.id, tm.name, SIZE(tm.members)) " +
+           "FROM User u LEFT JOIN u.team tm ";
+    
+    @Query(USER_SUMMARY_SELECT)
+    List<UserSummary> findUserSummaries();
+    
+    @Query(USER_SUMMARY_SELECT + "WHERE u.enabled = true")
+    List<UserSummary> findActiveUserSummaries();
+    
+    @Query(USER_SUMMARY_SELECT + "WHERE tm.id = :teamId AND u.enabled = true")
+    List<UserSummary> findActiveUserSummariesByTeamId(@Param("teamId") Long teamId);
+    
+    @Query(USER_SUMMARY_SELECT + "WHERE tm.department.id = :departmentId AND u.enabled = true")
+    List<UserSummary> findActiveUserSummariesByDepartmentId(@Param("departmentId") Long departmentId);
+    
+    // User IDs, usernames and emails for the task import lookup
+    @Query("SELECT u.id, u.username, u.email FROM User u")
+    List<Object[]> findUsernamesAndEmails();
 }
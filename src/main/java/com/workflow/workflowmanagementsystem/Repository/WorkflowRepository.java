@@ -1,45 +1,73 @@
 package com.workflow.workflowmanagementsystem.Repository;
 
+import com.workflow.workflowmanagementsystem.dto.WorkflowSummary;
 import com.workflow.workflowmanagementsystem.entity.Workflow;
 import com.workflow.workflowmanagementsystem.entity.Workflow.WorkflowStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface WorkflowRepository extends JpaRepository<Workflow, Long> {
     
+    // Paged listing of all workflows with the list fetch plan
+    @Override
+    @EntityGraph(value = Workflow.LIST_GRAPH)
+    Page<Workflow> findAll(Pageable pageable);
+    
     // Find workflows by status
+    @EntityGraph(value = Workflow.LIST_GRAPH)
     List<Workflow> findByStatus(WorkflowStatus status);
     
     // Find workflows by department
+    @EntityGraph(value = Workflow.LIST_GRAPH)
     List<Workflow> findByDepartmentId(Long departmentId);
     
     // Find workflows by creator
+    @EntityGraph(value = Workflow.LIST_GRAPH)
     List<Workflow> findByCreatedById(Long createdBy);
     
     // Find active workflows
+    @EntityGraph(value = Workflow.LIST_GRAPH)
     List<Workflow> findByIsActiveTrue();
     
     // Find workflows by status and department
+    @EntityGraph(value = Workflow.LIST_GRAPH)
     List<Workflow> findByStatusAndDepartmentId(WorkflowStatus status, Long departmentId);
     
     // Search workflows by name or description
     @Query("SELECT w FROM Workflow w WHERE " +
            "LOWER(w.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(w.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    @EntityGraph(value = Workflow.LIST_GRAPH)
     Page<Workflow> searchWorkflows(@Param("searchTerm") String searchTerm, Pageable pageable);
     
+    // Full-text search on the generated search_vector column (GIN indexed), ranked by relevance
+    @Query(value = "SELECT w.* FROM workflows w WHERE w.search_vector @@ to_tsquery('english', :query) " +
+                   "ORDER BY ts_rank(w.search_vector, to_tsquery('english', :query)) DESC, w.id DESC",
+           countQuery = "SELECT COUNT(*) FROM workflows w WHERE w.search_vector @@ to_tsquery('english', :query)",
+           nativeQuery = true)
+    Page<Workflow> searchWorkflowsFullText(@Param("query") String query, Pageable pageable);
+    
     // Count workflows by status
     @Query("SELECT w.status, COUNT(w) FROM Workflow w GROUP BY w.status")
     List<Object[]> countWorkflowsByStatus();
     
+    // Workflow counts for every (status, department) - used to rebuild the dashboard counters
+    @Query("SELECT w.status, d.id, COUNT(w) FROM Workflow w LEFT JOIN w.department d GROUP BY w.status, d.id")
+    List<Object[]> countWorkflowsForDashboardCounters();
+    
     // Count workflows by department
     @Query("SELECT d.name, COUNT(w) FROM Workflow w " +
            "JOIN w.department d GROUP BY d.name")
@@ -50,6 +78,7 @@ public interface WorkflowRepository extends JpaRepository<Workflow, Long> {
            "(:status IS NULL OR w.status = :status) AND " +
            "(:departmentId IS NULL OR w.department.id = :departmentId) AND " +
            "(:isActive IS NULL OR w.isActive = :isActive)")
+    @EntityGraph(value = Workflow.LIST_GRAPH)
     Page<Workflow> findWorkflowsWithFilters(
             @Param("status") WorkflowStatus status,
             @Param("departmentId") Long departmentId,
@@ -59,13 +88,48 @@ public interface WorkflowRepository extends JpaRepository<Workflow, Long> {
     // Find workflows created within date range
     @Query("SELECT w FROM Workflow w WHERE " +
            "w.createdAt BETWEEN :startDate AND :endDate")
+    @EntityGraph(value = Workflow.LIST_GRAPH)
     List<Workflow> findWorkflowsByDateRange(
             @Param("startDate") java.time.LocalDateTime startDate,
             @Param("endDate") java.time.LocalDateTime endDate);
     
+    // Read-only workflow rows by department
+    @Query("SELECT new com.workflow.workflowmanagementsystem.dto.WorkflowSummary(w.id, w.name, w.description, w.status, w.isActive) " +
+           "FROM Workflow w WHERE w.department.id = :departmentId")
+    List<WorkflowSummary> findWorkflowSummariesByDepartmentId(@Param("departmentId") Long departmentId);
+    
     // Check if workflow name exists (excluding current workflow)
     boolean existsByNameIgnoreCaseAndIdNot(String name, Long id);
     
     // Check if workflow name exists
     boolean existsByNameIgnoreCase(String name);
+    
+    // Workflow IDs and names for the task import lookup
+    @Query("SELECT w.id, w.name FROM Workflow w")
+    List<Object[]> findWorkflowNames();
+    
+    // Workflow report rows through a forward-only cursor, must be consumed in a transaction:
+    // [name, status, department, creator, createdAt, taskCount, description]
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT w.name, w.status, d.name, c.username, w.createdAt, " +
+           "(SELECT COUNT(t) FROM Task t WHERE t.workflow = w), w.description " +
+           "FROM Workflow w LEFT JOIN w.department d LEFT JOIN w.createdBy c WHERE " +
+           "(:status IS NULL OR w.status = :status) AND " +
+           "(:departmentId IS NULL OR d.id = :departmentId) " +
+           "ORDER BY w.id")
+    Stream<Object[]> streamWorkflowReportRows(
+            @Param("status") WorkflowStatus status,
+            @Param("departmentId") Long departmentId);
+    
+    // Workflow report counts for the same filters as streamWorkflowReportRows: [status, department, count]
+    @Query("SELECT w.status, d.name, COUNT(w) FROM Workflow w LEFT JOIN w.department d WHERE " +
+           "(:status IS NULL OR w.status = :status) AND " +
+           "(:departmentId IS NULL OR d.id = :departmentId) " +
+           "GROUP BY w.status, d.name")
+    List<Object[]> countWorkflowReportGroups(
+            @Param("status") WorkflowStatus status,
+            @Param("departmentId") Long departmentId);
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,18 +29,6 @@ public interface WorkflowStatusLayerRepository extends JpaRepository<WorkflowSta
     @Query("SELECT ws FROM WorkflowStatusLayer ws WHERE ws.workflow.id = :workflowId ORDER BY ws.order ASC")
     Optional<WorkflowStatusLayer> findFirstByWorkflowIdOrderByOrderAsc(@Param("workflowId") Long workflowId);
     
-    /**
-     * Find the next status in the workflow sequence
-     */
-    @Query("SELECT ws FROM WorkflowStatusLayer ws WHERE ws.workflow.id = :workflowId AND ws.order > :currentOrder ORDER BY ws.order ASC")
-    Optional<WorkflowStatusLayer> findNextStatus(@Param("workflowId") Long workflowId, @Param("currentOrder") Integer currentOrder);
-    
-    /**
-     * Find the previous status in the workflow sequence
-     */
-    @Query("SELECT ws FROM WorkflowStatusLayer ws WHERE ws.workflow.id = :workflowId AND ws.order < :currentOrder ORDER BY ws.order DESC")
-    Optional<WorkflowStatusLayer> findPreviousStatus(@Param("workflowId") Long workflowId, @Param("currentOrder") Integer currentOrder);
-    
     /**
      * Check if a status name already exists for a workflow (excluding a specific status ID)
      */
@@ -56,6 +45,11 @@ public interface WorkflowStatusLayerRepository extends JpaRepository<WorkflowSta
      */
     List<WorkflowStatusLayer> findByWorkflowIdAndIsFinalTrueOrderByOrderAsc(Long workflowId);
     
+    /**
+     * Find all final statuses for several workflows
+     */
+    List<WorkflowStatusLayer> findByWorkflowIdInAndIsFinalTrueOrderByOrderAsc(Collection<Long> workflowIds);
+    
     /**
      * Count the number of statuses for a workflow
      */
@@ -67,4 +61,15 @@ public interface WorkflowStatusLayerRepository extends JpaRepository<WorkflowSta
      */
     @Query("SELECT COALESCE(MAX(ws.order), 0) FROM WorkflowStatusLayer ws WHERE ws.workflow.id = :workflowId")
     Integer findMaxOrderByWorkflowId(@Param("workflowId") Long workflowId);
+    
+    /**
+     * Find status layers whose status category has not been resolved yet
+     */
+    List<WorkflowStatusLayer> findByStatusCategoryIsNull();
+    
+    /**
+     * Status layer IDs, workflow IDs and names in workflow order - used by the task import lookup
+     */
+    @Query("SELECT ws.id, ws.workflow.id, ws.name FROM WorkflowStatusLayer ws ORDER BY ws.workflow.id, ws.order")
+    List<Object[]> findStatusLayerNames();
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.workflow.workflowmanagementsystem.component;
+
+import com.workflow.workflowmanagementsystem.service.AuditActivityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Component to build the audit activity rollups and user sketches from existing audit logs the first time
+ * the application starts with an empty rollup table. On later starts only recent buckets are recomputed,
+ * bringing back activity that was not flushed before the previous shutdown.
+ */
+@Component
+public class AuditActivityRollupBackfill implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditActivityRollupBackfill.class);
+
+    @Autowired
+    private AuditActivityService auditActivityService;
+
+    @Override
+    public void run(String... args) {
+        if (auditActivityService.hasRollups()) {
+            auditActivityService.reconcile();
+            return;
+        }
+
+        auditActivityService.backfill();
+        logger.info("Backfilled audit activity rollups from existing audit logs");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,363 @@
+package com.workflow.workflowmanagementsystem.component;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.CSVWriter;
+import com.opencsv.enums.CSVReaderNullFieldIndicator;
+import com.opencsv.exceptions.CsvValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileCopyUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Component to keep audit_logs partitioned by month. On startup it applies templates/sql/audit-log-partitions.sql,
+ * which converts the table once and defines ensure_audit_log_partition(). A nightly job then creates the partitions
+ * for the coming months and, when app.audit.retention.months is set, archives older partitions.
+ * <p>
+ * Archiving writes the month to a gzipped CSV file in app.audit.archive.dir, makes its partition read-only and then
+ * drops it, so audit_logs only holds the retained months. Queries through AuditLogRepository no longer see an archived
+ * month until {@link #restorePartition} loads it back from its file. Archived and restored months are recorded in
+ * audit_log_archives, and the maintenance job leaves restored months alone.
+ */
+@Component
+public class AuditLogPartitionManager implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogPartitionManager.class);
+
+    private static final String SCRIPT = "templates/sql/audit-log-partitions.sql";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("audit_logs_\\d{4}_\\d{2}");
+
+    private static final int RESTORE_BATCH_SIZE = 1000;
+
+    private static final String READ_ONLY_TRIGGER = "audit_logs_archived_read_only";
+
+    private static final String READ_ONLY_TRUNCATE_TRIGGER = "audit_logs_archived_no_truncate";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.audit.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.audit.retention.months:0}")
+    private int retentionMonths;
+
+    @Value("${app.audit.archive.dir:audit-archive}")
+    private String archiveDir;
+
+    @Override
+    public void run(String... args) throws Exception {
+        ClassPathResource resource = new ClassPathResource(SCRIPT);
+        if (!resource.exists()) {
+            logger.warn("Audit log partition SQL file not found: " + SCRIPT);
+            return;
+        }
+
+        try {
+            String sqlScript = FileCopyUtils.copyToString(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
+            // Function bodies contain semicolons, so the driver gets the whole script and splits it itself
+            jdbcTemplate.execute(sqlScript.replaceAll("(?m)^--.*$", "").trim());
+            maintainPartitions();
+        } catch (Exception e) {
+            // Audit logging keeps working on an unpartitioned table
+            logger.warn("Failed to partition audit_logs", e);
+        }
+    }
+
+    /**
+     * Creates the partitions for the current and coming months, then applies the retention policy.
+     */
+    @Scheduled(cron = "${app.audit.partitions.maintenance-cron:0 15 2 * * *}")
+    public void maintainPartitions() {
+        YearMonth currentMonth = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            jdbcTemplate.queryForObject("SELECT ensure_audit_log_partition(?)", String.class,
+                    Date.valueOf(currentMonth.plusMonths(i).atDay(1)));
+        }
+
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = currentMonth.minusMonths(retentionMonths);
+            // Restored months stay writable until archived again by hand
+            List<String> recorded = jdbcTemplate.queryForList("SELECT partition_name FROM audit_log_archives", String.class);
+            for (String partition : getMonthlyPartitions()) {
+                if (!monthOf(partition).isBefore(oldestKept)) {
+                    continue;
+                }
+                try {
+                    if (!recorded.contains(partition)) {
+                        archive(partition);
+                    } else if (isArchived(partition)) {
+                        // Archived, but the drop failed last time
+                        dropArchived(partition);
+                    }
+                } catch (RuntimeException e) {
+                    logger.error("Failed to archive audit log partition {}, it is kept", partition, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Archives a month now, whatever the retention policy
+     * @return the number of archived rows
+     * @throws IllegalArgumentException if the month has no partition
+     * @throws IllegalStateException if the month is already archived
+     */
+    public long archivePartition(YearMonth month) {
+        String partition = partitionName(month);
+        if (!partitionExists(partition)) {
+            throw new IllegalArgumentException("No audit log partition for " + month);
+        }
+        if (isArchived(partition)) {
+            throw new IllegalStateException("Audit logs for " + month + " are already archived");
+        }
+        return archive(partition);
+    }
+
+    /**
+     * Loads an archived month back from its archive file into a new partition. A month whose partition could not be
+     * dropped after archiving is still attached and read-only, and is made writable instead. Either way the month is
+     * recorded as restored, so the maintenance job does not archive it again.
+     * @return the number of rows in the restored month
+     */
+    public long restorePartition(YearMonth month) throws IOException {
+        String partition = partitionName(month);
+        if (isArchived(partition) && partitionExists(partition)) {
+            Long rows = new TransactionTemplate(transactionManager).execute(status -> {
+                jdbcTemplate.execute("DROP TRIGGER IF EXISTS " + READ_ONLY_TRIGGER + " ON " + partition);
+                jdbcTemplate.execute("DROP TRIGGER IF EXISTS " + READ_ONLY_TRUNCATE_TRIGGER + " ON " + partition);
+                jdbcTemplate.update("UPDATE audit_log_archives SET restored_at = now() WHERE partition_name = ?", partition);
+                return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partition, Long.class);
+            });
+            logger.info("Made archived audit log partition {} writable again", partition);
+            return rows != null ? rows : 0;
+        }
+
+        Path archive = archiveFile(partition);
+        if (!Files.exists(archive)) {
+            throw new IllegalArgumentException("No audit log archive for " + month);
+        }
+
+        Map<String, String> columnTypes = getCopyColumnTypes();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long restored = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT ensure_audit_log_partition(?)", String.class, Date.valueOf(month.atDay(1)));
+            Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partition, Long.class);
+            if (existing != null && existing > 0) {
+                throw new IllegalStateException("Audit logs for " + month + " are already in the database");
+            }
+            try (CSVReader reader = new CSVReaderBuilder(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(archive)), StandardCharsets.UTF_8))
+                    .withFieldAsNull(CSVReaderNullFieldIndicator.EMPTY_SEPARATORS)
+                    .build()) {
+                long rows = insertArchivedRows(reader, columnTypes);
+                jdbcTemplate.update("INSERT INTO audit_log_archives (partition_name, archived_at, row_count, restored_at) " +
+                        "VALUES (?, now(), ?, now()) ON CONFLICT (partition_name) DO UPDATE SET restored_at = now()",
+                        partition, rows);
+                return rows;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (CsvValidationException e) {
+                throw new IllegalStateException("Invalid audit log archive " + archive, e);
+            }
+        });
+        logger.info("Restored {} audit logs for {} from {}", restored, month, archive);
+        return restored != null ? restored : 0;
+    }
+
+    // Writes the partition to its archive file and makes it read-only, all while holding a lock that blocks writes,
+    // so no row can be added or changed between the copy and the switch, then drops it
+    private long archive(String partition) {
+        Path archive = archiveFile(partition);
+        Path temporary = archive.resolveSibling(archive.getFileName() + ".tmp");
+        List<String> columns = new ArrayList<>(getCopyColumnTypes().keySet());
+
+        Long archived;
+        try {
+            Files.createDirectories(archive.getParent());
+            archived = new TransactionTemplate(transactionManager).execute(status -> {
+                jdbcTemplate.execute("LOCK TABLE " + partition + " IN SHARE MODE");
+                long written = writeArchive(partition, columns, temporary);
+                Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partition, Long.class);
+                if (count == null || count != written) {
+                    throw new IllegalStateException("Audit log partition " + partition + " changed while it was archived");
+                }
+
+                jdbcTemplate.execute("CREATE TRIGGER " + READ_ONLY_TRIGGER + " BEFORE INSERT OR UPDATE OR DELETE ON " +
+                        partition + " FOR EACH ROW EXECUTE FUNCTION reject_archived_audit_log_change()");
+                jdbcTemplate.execute("CREATE TRIGGER " + READ_ONLY_TRUNCATE_TRIGGER + " BEFORE TRUNCATE ON " +
+                        partition + " FOR EACH STATEMENT EXECUTE FUNCTION reject_archived_audit_log_change()");
+                jdbcTemplate.update("INSERT INTO audit_log_archives (partition_name, archived_at, row_count) " +
+                        "VALUES (?, now(), ?) ON CONFLICT (partition_name) DO UPDATE SET " +
+                        "archived_at = EXCLUDED.archived_at, row_count = EXCLUDED.row_count, restored_at = NULL",
+                        partition, written);
+
+                // Last, so a failure above leaves no archive file for a partition that is still writable
+                try {
+                    Files.move(temporary, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return written;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException e) {
+                logger.warn("Could not delete {}", temporary);
+            }
+        }
+        logger.info("Archived {} audit logs from {} to {}", archived, partition, archive);
+        dropArchived(partition);
+        return archived != null ? archived : 0;
+    }
+
+    // Drops an archived partition in its own transaction. audit_logs is locked first, in the order writers lock it
+    // and then the partition, so the drop waits for them instead of deadlocking. A failed drop leaves the partition
+    // attached and read-only for the next maintenance run.
+    private void dropArchived(String partition) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE audit_logs IN ACCESS EXCLUSIVE MODE");
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        });
+        logger.info("Dropped archived audit log partition {}", partition);
+    }
+
+    // Streams the rows with a cursor on the caller's transaction (fetch size needs one) into the compressed file
+    private long writeArchive(String partition, List<String> columns, Path file) {
+        JdbcTemplate streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(1000);
+        long[] written = {0};
+        try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8))) {
+            writer.writeNext(columns.toArray(String[]::new));
+            streamingTemplate.query("SELECT " + String.join(", ", columns) + " FROM " + partition, rs -> {
+                String[] row = new String[columns.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = rs.getString(i + 1);
+                }
+                // Quoted fields keep empty strings apart from NULLs, which are written unquoted
+                writer.writeNext(row, true);
+                written[0]++;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return written[0];
+    }
+
+    private boolean isArchived(String partition) {
+        Integer archived = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_log_archives " +
+                "WHERE partition_name = ? AND restored_at IS NULL", Integer.class, partition);
+        return archived != null && archived > 0;
+    }
+
+    private boolean partitionExists(String partition) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+    }
+
+    private long insertArchivedRows(CSVReader reader, Map<String, String> columnTypes) throws IOException, CsvValidationException {
+        String[] header = reader.readNext();
+        if (header == null) {
+            return 0;
+        }
+        List<String> placeholders = new ArrayList<>();
+        for (String column : header) {
+            String type = columnTypes.get(column);
+            if (type == null) {
+                throw new IllegalStateException("Archived column " + column + " no longer exists in audit_logs");
+            }
+            placeholders.add("CAST(? AS " + type + ")");
+        }
+        String sql = "INSERT INTO audit_logs (" + String.join(", ", header) + ") VALUES (" + String.join(", ", placeholders) + ")";
+
+        long restored = 0;
+        List<Object[]> batch = new ArrayList<>(RESTORE_BATCH_SIZE);
+        String[] row;
+        while ((row = reader.readNext()) != null) {
+            batch.add(row);
+            if (batch.size() == RESTORE_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                restored += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            restored += batch.size();
+        }
+        return restored;
+    }
+
+    // Non-generated columns of audit_logs in table order, with their SQL types
+    private Map<String, String> getCopyColumnTypes() {
+        Map<String, String> columnTypes = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT attname, format_type(atttypid, atttypmod) FROM pg_attribute " +
+                "WHERE attrelid = 'audit_logs'::regclass AND attnum > 0 AND NOT attisdropped AND attgenerated = '' " +
+                "ORDER BY attnum", rs -> {
+            columnTypes.put(rs.getString(1), rs.getString(2));
+        });
+        return columnTypes;
+    }
+
+    private List<String> getMonthlyPartitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'audit_logs'::regclass ORDER BY c.relname", String.class)
+                .stream()
+                .filter(name -> MONTHLY_PARTITION.matcher(name).matches())
+                .toList();
+    }
+
+    private YearMonth monthOf(String partition) {
+        return YearMonth.parse(partition.substring("audit_logs_".length()), PARTITION_SUFFIX);
+    }
+
+    private String partitionName(YearMonth month) {
+        return "audit_logs_" + month.format(PARTITION_SUFFIX);
+    }
+
+    private Path archiveFile(String partition) {
+        return Paths.get(archiveDir).toAbsolutePath().resolve(partition + ".csv.gz");
+    }
+}
\ No newline at end of file
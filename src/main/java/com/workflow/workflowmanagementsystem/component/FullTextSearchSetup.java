@@ -0,0 +1,79 @@
+package com.workflow.workflowmanagementsystem.component;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileCopyUtils;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Component to create the full-text search columns and GIN indexes on startup.
+ * Hibernate's schema update cannot create generated tsvector columns, so the
+ * idempotent statements in templates/sql/full-text-search.sql are applied here.
+ * Searches on a table without the column use LIKE matching instead, see {@link #isAvailable}.
+ */
+@Component
+public class FullTextSearchSetup implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(FullTextSearchSetup.class);
+
+    private static final String SCRIPT = "templates/sql/full-text-search.sql";
+
+    private static final List<String> SEARCHABLE_TABLES = List.of("tasks", "workflows", "audit_logs");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Tables with a search_vector column, known once the script has run
+    private final Set<String> availableTables = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void run(String... args) throws Exception {
+        ClassPathResource resource = new ClassPathResource(SCRIPT);
+        if (!resource.exists()) {
+            logger.warn("Full-text search SQL file not found: " + SCRIPT);
+            return;
+        }
+
+        String sqlScript = FileCopyUtils.copyToString(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
+
+        // Drop comment lines, then split the script into individual statements
+        String[] sqlStatements = sqlScript.replaceAll("(?m)^--.*$", "").split(";(?=([^']*'[^']*')*[^']*$)");
+
+        for (String statement : sqlStatements) {
+            statement = statement.trim();
+            if (!statement.isEmpty()) {
+                try {
+                    jdbcTemplate.execute(statement);
+                } catch (Exception e) {
+                    // The remaining statements still run; the columns that exist afterwards are checked below
+                    logger.warn("Failed to apply full-text search statement: " + statement.substring(0, Math.min(100, statement.length())) + "...", e);
+                }
+            }
+        }
+
+        availableTables.addAll(jdbcTemplate.queryForList("SELECT DISTINCT table_name::text FROM information_schema.columns " +
+                "WHERE table_schema = current_schema() AND column_name = 'search_vector'", String.class));
+        for (String table : SEARCHABLE_TABLES) {
+            if (!availableTables.contains(table)) {
+                logger.warn("Full-text search is not available on " + table + ", searching it uses LIKE matching");
+            }
+        }
+    }
+
+    /**
+     * Whether the table has its search_vector column. Until the script has run on startup, no table has.
+     */
+    public boolean isAvailable(String table) {
+        return availableTables.contains(table);
+    }
+}
\ No newline at end of file
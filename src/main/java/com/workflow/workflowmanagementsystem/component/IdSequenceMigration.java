@@ -0,0 +1,57 @@
+package com.workflow.workflowmanagementsystem.component;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileCopyUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Component to move tasks, audit logs, comments and workflow status layers to their pooled id sequences.
+ * Runs templates/sql/id-sequences.sql before the EntityManagerFactory starts (see IdSequenceConfig), so the
+ * sequences are past the existing ids before Hibernate allocates any. The sample data loader runs it again
+ * after inserting rows with explicit ids.
+ */
+@Component(IdSequenceMigration.BEAN_NAME)
+public class IdSequenceMigration {
+
+    public static final String BEAN_NAME = "idSequenceMigration";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceMigration.class);
+
+    private static final String SCRIPT = "templates/sql/id-sequences.sql";
+
+    // Built from the DataSource directly, since this runs before the JPA infrastructure exists
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceMigration(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PostConstruct
+    public void migrate() {
+        ClassPathResource resource = new ClassPathResource(SCRIPT);
+        if (!resource.exists()) {
+            logger.warn("Id sequence SQL file not found: " + SCRIPT);
+            return;
+        }
+
+        try {
+            String sqlScript = FileCopyUtils.copyToString(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
+            // The script is a single DO block, so it is executed as one statement
+            jdbcTemplate.execute(sqlScript.replaceAll("(?m)^--.*$", "").trim());
+        } catch (IOException e) {
+            logger.warn("Failed to read id sequence SQL file: " + SCRIPT, e);
+        } catch (Exception e) {
+            // Hibernate still creates missing sequences; existing tables may then need the script applied manually
+            logger.warn("Failed to apply id sequence migration", e);
+        }
+    }
+}
\ No newline at end of file
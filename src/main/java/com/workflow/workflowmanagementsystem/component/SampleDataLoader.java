@@ -28,6 +28,9 @@ public class SampleDataLoader implements CommandLineRunner {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private IdSequenceMigration idSequenceMigration;
+
     @Value("${app.sample-data.enabled:false}")
     private boolean sampleDataEnabled;
 
@@ -45,6 +48,8 @@ public class SampleDataLoader implements CommandLineRunner {
             if (forceReload || !hasExistingData()) {
                 logger.info("Loading sample data...");
                 loadSampleData();
+                // The sample rows have explicit ids - move the id sequences past them
+                idSequenceMigration.migrate();
                 logger.info("Sample data loaded successfully!");
             } else {
                 logger.info("Database already contains data. Skipping sample data loading. " +
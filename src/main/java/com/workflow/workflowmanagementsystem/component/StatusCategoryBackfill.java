@@ -0,0 +1,41 @@
+package com.workflow.workflowmanagementsystem.component;
+
+import com.workflow.workflowmanagementsystem.Repository.WorkflowStatusLayerRepository;
+import com.workflow.workflowmanagementsystem.entity.WorkflowStatusLayer;
+import com.workflow.workflowmanagementsystem.util.TaskStatusUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Component to backfill the status category of workflow status layers that were
+ * created before the column existed (or loaded directly from SQL scripts).
+ */
+@Component
+public class StatusCategoryBackfill implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusCategoryBackfill.class);
+
+    @Autowired
+    private WorkflowStatusLayerRepository workflowStatusLayerRepository;
+
+    @Override
+    public void run(String... args) {
+        List<WorkflowStatusLayer> statusLayers = workflowStatusLayerRepository.findByStatusCategoryIsNull();
+        if (statusLayers.isEmpty()) {
+            return;
+        }
+
+        for (WorkflowStatusLayer statusLayer : statusLayers) {
+            statusLayer.setStatusCategory(
+                    TaskStatusUtil.deriveStatusCategory(statusLayer.getName(), statusLayer.getIsFinal()));
+        }
+        workflowStatusLayerRepository.saveAll(statusLayers);
+
+        logger.info("Backfilled status category for {} workflow status layers", statusLayers.size());
+    }
+}
\ No newline at end of file
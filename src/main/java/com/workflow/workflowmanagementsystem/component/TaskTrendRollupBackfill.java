@@ -0,0 +1,31 @@
+package com.workflow.workflowmanagementsystem.component;
+
+import com.workflow.workflowmanagementsystem.service.TaskTrendService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Component to build the task trend rollups from existing task data the first time the application
+ * starts with an empty rollup table.
+ */
+@Component
+public class TaskTrendRollupBackfill implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskTrendRollupBackfill.class);
+
+    @Autowired
+    private TaskTrendService taskTrendService;
+
+    @Override
+    public void run(String... args) {
+        if (taskTrendService.hasRollups()) {
+            return;
+        }
+
+        taskTrendService.backfill();
+        logger.info("Backfilled task trend rollups from existing tasks");
+    }
+}
\ No newline at end of file
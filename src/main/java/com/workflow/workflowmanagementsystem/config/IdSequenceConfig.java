@@ -0,0 +1,18 @@
+package com.workflow.workflowmanagementsystem.config;
+
+import com.workflow.workflowmanagementsystem.component.IdSequenceMigration;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Makes the EntityManagerFactory wait for the id sequence migration, the same way Boot orders it after Flyway.
+ */
+@Configuration
+public class IdSequenceConfig {
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor idSequenceMigrationDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor(IdSequenceMigration.BEAN_NAME);
+    }
+}
\ No newline at end of file
@@ -1,24 +1,44 @@
 package com.workflow.workflowmanagementsystem.controller;
 
-import com.workflow.workflowmanagementsystem.Repository.AuditLogRepository;
 import com.workflow.workflowmanagementsystem.Repository.DepartmentRepository;
 import com.workflow.workflowmanagementsystem.Repository.RoleRepository;
 import com.workflow.workflowmanagementsystem.Repository.TeamRepository;
 import com.workflow.workflowmanagementsystem.Repository.UserRepository;
 import com.workflow.workflowmanagementsystem.Repository.UserRoleRepository;
+import com.workflow.workflowmanagementsystem.component.AuditLogPartitionManager;
+import com.workflow.workflowmanagementsystem.dto.AuditActivityStats;
+import com.workflow.workflowmanagementsystem.dto.AuditSinkStats;
+import com.workflow.workflowmanagementsystem.dto.LoginFailureReport;
+import com.workflow.workflowmanagementsystem.dto.ReportCacheStats;
 import com.workflow.workflowmanagementsystem.entity.AuditLog;
 import com.workflow.workflowmanagementsystem.entity.User;
+import com.workflow.workflowmanagementsystem.service.AuditActivityService;
+import com.workflow.workflowmanagementsystem.service.AuditHistoryService;
+import com.workflow.workflowmanagementsystem.service.AuditSink;
+import com.workflow.workflowmanagementsystem.service.LoginAttemptService;
+import com.workflow.workflowmanagementsystem.service.ReportCacheService;
 import com.workflow.workflowmanagementsystem.util.RoleUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Controller
@@ -41,7 +61,22 @@ public class AdminController {
     private UserRoleRepository userRoleRepository;
     
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditSink auditSink;
+    
+    @Autowired
+    private AuditLogPartitionManager auditLogPartitionManager;
+    
+    @Autowired
+    private AuditActivityService auditActivityService;
+    
+    @Autowired
+    private AuditHistoryService auditHistoryService;
+    
+    @Autowired
+    private LoginAttemptService loginAttemptService;
+    
+    @Autowired
+    private ReportCacheService reportCacheService;
 
     @GetMapping({"", "/"})
     public String adminPanel(Model model, HttpServletRequest request) {
@@ -57,7 +92,7 @@ public class AdminController {
         auditLog.setUser(currentUser);
         auditLog.setIpAddress(getClientIpAddress(request));
         auditLog.setUserAgent(request.getHeader("User-Agent"));
-        auditLogRepository.save(auditLog);
+        auditSink.record(auditLog);
 
         // Get admin statistics
         Map<String, Long> stats = new HashMap<>();
@@ -73,6 +108,95 @@ public class AdminController {
         return "admin/admin-panel";
     }
     
+    // Audit writer metrics: queue depth, dropped rows and commit-to-write latency
+    @GetMapping("/api/audit-sink")
+    @ResponseBody
+    public AuditSinkStats auditSinkStats() {
+        return auditSink.getStats();
+    }
+    
+    // Hit, miss and eviction counts of the report page cache
+    @GetMapping("/api/report-cache")
+    @ResponseBody
+    public ReportCacheStats reportCacheStats() {
+        return reportCacheService.getStats();
+    }
+    
+    // Audit activity over the last days, from the hourly and daily rollups
+    @GetMapping("/api/audit-activity")
+    @ResponseBody
+    public AuditActivityStats auditActivity(@RequestParam(defaultValue = "30") int days) {
+        LocalDateTime now = LocalDateTime.now();
+        return auditActivityService.getAuditLogStatistics(now.minusDays(days), now);
+    }
+    
+    // Usernames and IPs with the most failed logins over the last hours
+    @GetMapping("/api/login-failures")
+    @ResponseBody
+    public List<LoginFailureReport> loginFailures(@RequestParam(defaultValue = "24") int hours,
+                                                  @RequestParam(defaultValue = "50") int limit) {
+        return loginAttemptService.getTopFailures(hours, limit);
+    }
+    
+    // Lift a username's login lockout
+    @PostMapping("/api/login-failures/{username}/unlock")
+    @ResponseBody
+    public Map<String, Object> unlockLogin(@PathVariable String username) {
+        return Map.of("username", username, "wasLocked", loginAttemptService.unlock(username));
+    }
+    
+    // Audited fields of a task, workflow or status layer as they were right after the given audit entry
+    @GetMapping("/api/audit/{entityType}/{entityId}/state/{auditLogId}")
+    @ResponseBody
+    public ResponseEntity<Map<String, String>> auditedState(@PathVariable String entityType, @PathVariable Long entityId,
+                                                            @PathVariable Long auditLogId) {
+        try {
+            return ResponseEntity.ok(auditHistoryService.getStateAt(entityType, entityId, auditLogId));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).build();
+        }
+    }
+    
+    // Archive a month of audit logs (e.g. 2024-03) now: written to the archive dir and dropped
+    @PostMapping("/api/audit-archive/{month}/archive")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> archiveAuditMonth(@PathVariable String month) {
+        try {
+            YearMonth yearMonth = YearMonth.parse(month);
+            long archived = auditLogPartitionManager.archivePartition(yearMonth);
+            return ResponseEntity.ok(Map.of("month", yearMonth.toString(), "archived", archived));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // Load an archived month of audit logs (e.g. 2024-03) back from its archive file
+    @PostMapping("/api/audit-archive/{month}/restore")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> restoreAuditArchive(@PathVariable String month) {
+        try {
+            YearMonth yearMonth = YearMonth.parse(month);
+            long restored = auditLogPartitionManager.restorePartition(yearMonth);
+            return ResponseEntity.ok(Map.of("month", yearMonth.toString(), "restored", restored));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     private String getClientIpAddress(HttpServletRequest request) {
         String xForwardedFor = request.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty() && !"unknown".equalsIgnoreCase(xForwardedFor)) {
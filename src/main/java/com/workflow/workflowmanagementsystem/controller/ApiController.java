@@ -8,6 +8,7 @@ import com.workflow.workflowmanagementsystem.dto.SystemOverviewStats;
 import com.workflow.workflowmanagementsystem.dto.TeamDto;
 import com.workflow.workflowmanagementsystem.dto.TeamStats;
 import com.workflow.workflowmanagementsystem.dto.UserDto;
+import com.workflow.workflowmanagementsystem.dto.UserSummary;
 import com.workflow.workflowmanagementsystem.entity.Department;
 import com.workflow.workflowmanagementsystem.entity.Role;
 import com.workflow.workflowmanagementsystem.entity.Team;
@@ -182,21 +183,13 @@ public class ApiController {
 
     // User endpoints
     @GetMapping("/users")
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        List<UserDto> userDtos = users.stream()
-                .map(this::convertToUserDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(userDtos);
+    public ResponseEntity<List<UserSummary>> getAllUsers() {
+        return ResponseEntity.ok(userService.getAllUserSummaries());
     }
 
     @GetMapping("/users/active")
-    public ResponseEntity<List<UserDto>> getActiveUsers() {
-        List<User> users = userService.getActiveUsers();
-        List<UserDto> userDtos = users.stream()
-                .map(this::convertToUserDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(userDtos);
+    public ResponseEntity<List<UserSummary>> getActiveUsers() {
+        return ResponseEntity.ok(userService.getActiveUserSummaries());
     }
 
     @GetMapping("/users/{id}")
@@ -216,21 +209,13 @@ public class ApiController {
     }
 
     @GetMapping("/users/department/{departmentId}")
-    public ResponseEntity<List<UserDto>> getUsersByDepartment(@PathVariable Long departmentId) {
-        List<User> users = userService.getUsersByDepartment(departmentId);
-        List<UserDto> userDtos = users.stream()
-                .map(this::convertToUserDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(userDtos);
+    public ResponseEntity<List<UserSummary>> getUsersByDepartment(@PathVariable Long departmentId) {
+        return ResponseEntity.ok(userService.getUserSummariesByDepartment(departmentId));
     }
 
     @GetMapping("/users/team/{teamId}")
-    public ResponseEntity<List<UserDto>> getUsersByTeam(@PathVariable Long teamId) {
-        List<User> users = userService.getUsersByTeam(teamId);
-        List<UserDto> userDtos = users.stream()
-                .map(this::convertToUserDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(userDtos);
+    public ResponseEntity<List<UserSummary>> getUsersByTeam(@PathVariable Long teamId) {
+        return ResponseEntity.ok(userService.getUserSummariesByTeam(teamId));
     }
 
     // Statistics endpoints
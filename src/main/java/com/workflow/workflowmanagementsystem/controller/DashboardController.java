@@ -10,8 +10,11 @@ import com.workflow.workflowmanagementsystem.dto.DepartmentDto;
 import com.workflow.workflowmanagementsystem.entity.AuditLog;
 import com.workflow.workflowmanagementsystem.entity.Department;
 import com.workflow.workflowmanagementsystem.entity.User;
+import com.workflow.workflowmanagementsystem.service.DashboardCounterService;
 import com.workflow.workflowmanagementsystem.service.DepartmentService;
+import com.workflow.workflowmanagementsystem.service.SectionExecutor;
 import com.workflow.workflowmanagementsystem.service.TaskService;
+import com.workflow.workflowmanagementsystem.service.TaskTrendService;
 import com.workflow.workflowmanagementsystem.service.WorkflowService;
 import com.workflow.workflowmanagementsystem.util.RoleUtil;
 import jakarta.servlet.http.HttpServletRequest;
@@ -72,6 +75,15 @@ public class DashboardController {
     @Autowired
     private UserRoleRepository userRoleRepository;
     
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+    
+    @Autowired
+    private TaskTrendService taskTrendService;
+    
+    @Autowired
+    private SectionExecutor sectionExecutor;
+    
     // Main dashboard page
     @GetMapping({"", "/"})
     public String dashboard(Model model, HttpServletRequest request) {
@@ -100,32 +112,46 @@ public class DashboardController {
             @RequestParam(required = false) Long department) {
         Map<String, Object> statistics = new HashMap<>();
         
-        // Get workflow statistics
-        Map<String, Object> workflowStats = workflowService.getWorkflowStatistics();
-        List<Object[]> workflowStatusStats = (List<Object[]>) workflowStats.get("statusStatistics");
-        
-        // Get task statistics
-        Map<String, Object> taskStats = taskService.getTaskStatistics();
-        List<Object[]> taskStatusStats = (List<Object[]>) taskStats.get("statusStatistics");
-        List<Object[]> taskPriorityStats = (List<Object[]>) taskStats.get("priorityStatistics");
-        
-        // Calculate totals
-        int totalWorkflows = workflowStatusStats.stream().mapToInt(arr -> ((Long) arr[1]).intValue()).sum();
-        int totalTasks = taskStatusStats.stream().mapToInt(arr -> ((Long) arr[1]).intValue()).sum();
-        int pendingTasks = getTaskCountByStatus(taskStatusStats, "PENDING");
-        int overdueTasks = taskService.getOverdueTasks().size();
-        List<Department> getDepartmentsForDashboard = departmentService.getAllDepartments();
-        // Basic statistics
-        statistics.put("totalWorkflows", totalWorkflows);
-        statistics.put("totalTasks", totalTasks);
-        statistics.put("pendingTasks", pendingTasks);
-        statistics.put("overdueTasks", overdueTasks);
-        statistics.put("taskStatusStats", taskStatusStats);
-        statistics.put("workflowStatusStats", workflowStatusStats);
-        statistics.put("priorityStats", taskPriorityStats);
-        statistics.put("getDepartmentsForDashboard", getDepartmentsForDashboard);
-        // Task trend data (last 7 days or based on dateRange)
-        statistics.put("taskTrendData", getTaskTrendData(dateRange != null ? dateRange : 7));
+        // The database reads run as parallel sections while the counters are read; a section that is too slow
+        // is left out of the response and listed under incompleteSections
+        try (SectionExecutor.Scope scope = sectionExecutor.open()) {
+            SectionExecutor.Section<Long> overdueTasks = scope.fork("overdueTasks",
+                    () -> taskService.countOverdueTasks(department));
+            SectionExecutor.Section<List<Department>> departments = scope.fork("departments",
+                    departmentService::getAllDepartments);
+            SectionExecutor.Section<Map<String, Object>> taskTrendData = scope.fork("taskTrendData",
+                    () -> taskTrendService.getTrendData(dateRange != null ? dateRange : 7, department));
+            
+            // Workflow and task counts come from the in-memory dashboard counters
+            List<Object[]> workflowStatusStats = toStats(dashboardCounterService.getWorkflowCountsByStatus(department));
+            List<Object[]> taskStatusStats = toStats(dashboardCounterService.getTaskCountsByStatus(department));
+            List<Object[]> taskPriorityStats = toStats(dashboardCounterService.getTaskCountsByPriority(department));
+            
+            // Calculate totals
+            int totalWorkflows = workflowStatusStats.stream().mapToInt(arr -> ((Long) arr[1]).intValue()).sum();
+            int totalTasks = taskStatusStats.stream().mapToInt(arr -> ((Long) arr[1]).intValue()).sum();
+            int pendingTasks = getTaskCountByStatus(taskStatusStats, "PENDING");
+            // Basic statistics
+            statistics.put("totalWorkflows", totalWorkflows);
+            statistics.put("totalTasks", totalTasks);
+            statistics.put("pendingTasks", pendingTasks);
+            statistics.put("taskStatusStats", taskStatusStats);
+            statistics.put("workflowStatusStats", workflowStatusStats);
+            statistics.put("priorityStats", taskPriorityStats);
+            
+            scope.join();
+            if (overdueTasks.isCompleted()) {
+                statistics.put("overdueTasks", overdueTasks.get(0L).intValue());
+            }
+            statistics.put("getDepartmentsForDashboard", departments.get(Collections.emptyList()));
+            // Task trend data (last 7 days or based on dateRange)
+            if (taskTrendData.isCompleted()) {
+                statistics.put("taskTrendData", taskTrendData.get(null));
+            }
+            if (!scope.getIncompleteSections().isEmpty()) {
+                statistics.put("incompleteSections", scope.getIncompleteSections());
+            }
+        }
         
         return statistics;
     }
@@ -221,6 +247,13 @@ public class DashboardController {
         return notifications.stream().limit(10).collect(Collectors.toList());
     }
     
+    // Helper method to convert counter maps to [name, count] rows like the GROUP BY queries return
+    private List<Object[]> toStats(Map<? extends Enum<?>, Long> counts) {
+        return counts.entrySet().stream()
+                .map(entry -> new Object[]{entry.getKey().name(), entry.getValue()})
+                .collect(Collectors.toList());
+    }
+    
     // Helper method to get task count by status
     private int getTaskCountByStatus(List<Object[]> taskStatusStats, String status) {
         return taskStatusStats.stream()
@@ -229,27 +262,4 @@ public class DashboardController {
                 .findFirst()
                 .orElse(0);
     }
-    
-    // Helper method to generate task trend data
-    private Map<String, Object> getTaskTrendData(int days) {
-        List<String> labels = new ArrayList<>();
-        List<Integer> data = new ArrayList<>();
-        
-        // Get completed tasks for the specified number of days
-        LocalDateTime endDate = LocalDateTime.now();
-        LocalDateTime startDate = endDate.minusDays(days);
-        
-        // For demo purposes, return sample data
-        for (int i = days - 1; i >= 0; i--) {
-            LocalDateTime dayStart = endDate.minusDays(i);
-            labels.add(dayStart.toLocalDate().toString());
-            data.add((int) (Math.random() * 10)); // Sample data
-        }
-        
-        Map<String, Object> trendData = new HashMap<>();
-        trendData.put("labels", labels);
-        trendData.put("data", data);
-        
-        return trendData;
-    }
 }
\ No newline at end of file
@@ -4,33 +4,66 @@ import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
+import com.workflow.workflowmanagementsystem.dto.ReportJobProgress;
 import com.workflow.workflowmanagementsystem.entity.AuditLog;
+import com.workflow.workflowmanagementsystem.service.ReportJobService;
 import com.workflow.workflowmanagementsystem.service.ReportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @Controller
 @RequestMapping("/reports")
 public class ReportController {
 
+    private static final Logger logger = LoggerFactory.getLogger(ReportController.class);
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    // Writes a CSV export to the given stream and returns the number of rows
+    @FunctionalInterface
+    private interface CsvExport {
+        long writeTo(OutputStream outputStream) throws IOException;
+    }
+
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private ReportJobService reportJobService;
+
     @GetMapping({"", "/"})
     public String reports(Model model) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -97,9 +130,10 @@ public class ReportController {
     public String auditLogs(@RequestParam(required = false) String actionType,
                            @RequestParam(required = false) String entityType,
                            @RequestParam(required = false) Long userId,
+                           @RequestParam(required = false) String search,
                            Model model) {
         
-        model.addAttribute("auditLogs", reportService.getAuditLogData(actionType, entityType, userId));
+        model.addAttribute("auditLogs", reportService.getAuditLogData(actionType, entityType, userId, search));
         model.addAttribute("actionTypes", reportService.getActionTypeOptions());
         model.addAttribute("entityTypes", reportService.getEntityTypeOptions());
         model.addAttribute("users", reportService.getUserOptions());
@@ -108,68 +142,167 @@ public class ReportController {
         model.addAttribute("selectedActionType", actionType);
         model.addAttribute("selectedEntityType", entityType);
         model.addAttribute("selectedUserId", userId);
+        model.addAttribute("search", search);
         
         return "reports/audit-logs";
     }
     
-    // CSV Export endpoints
+    // CSV Export endpoints - rows are streamed from a database cursor straight into the response
     
     @GetMapping("/task-report/export")
-    public void exportTaskReport(@RequestParam(required = false) String status,
+    public ResponseEntity<StreamingResponseBody> exportTaskReport(@RequestParam(required = false) String status,
                               @RequestParam(required = false) String priority,
                               @RequestParam(required = false) Long departmentId,
-                              jakarta.servlet.http.HttpServletResponse response) throws IOException {
+                              HttpServletRequest request) {
         
-        Map<String, Object> reportData = reportService.getTaskReportData(status, priority, departmentId);
-        byte[] csvData = reportService.exportToCSV(reportData);
-        
-        response.setContentType("text/csv");
-        response.setHeader("Content-Disposition", "attachment; filename=\"task-report.csv\"");
-        response.getOutputStream().write(csvData);
+        return streamCsv("task-report.csv", request,
+                outputStream -> reportService.streamTaskReportToCSV(status, priority, departmentId, outputStream));
     }
     
     @GetMapping("/workflow-report/export")
-    public void exportWorkflowReport(@RequestParam(required = false) String status,
+    public ResponseEntity<StreamingResponseBody> exportWorkflowReport(@RequestParam(required = false) String status,
                                  @RequestParam(required = false) Long departmentId,
-                                 jakarta.servlet.http.HttpServletResponse response) throws IOException {
+                                 HttpServletRequest request) {
         
-        Map<String, Object> reportData = reportService.getWorkflowReportData(status, departmentId);
-        byte[] csvData = reportService.exportToCSV(reportData);
-        
-        response.setContentType("text/csv");
-        response.setHeader("Content-Disposition", "attachment; filename=\"workflow-report.csv\"");
-        response.getOutputStream().write(csvData);
+        return streamCsv("workflow-report.csv", request,
+                outputStream -> reportService.streamWorkflowReportToCSV(status, departmentId, outputStream));
     }
     
     @GetMapping("/user-productivity/export")
-    public void exportUserProductivityReport(@RequestParam(required = false) Long userId,
+    public ResponseEntity<StreamingResponseBody> exportUserProductivityReport(@RequestParam(required = false) Long userId,
                                          @RequestParam(required = false) Long departmentId,
-                                         jakarta.servlet.http.HttpServletResponse response) throws IOException {
+                                         HttpServletRequest request) {
         
-        Map<String, Object> reportData = reportService.getUserProductivityData(userId, departmentId);
-        byte[] csvData = reportService.exportToCSV(reportData);
-        
-        response.setContentType("text/csv");
-        response.setHeader("Content-Disposition", "attachment; filename=\"user-productivity-report.csv\"");
-        response.getOutputStream().write(csvData);
+        return streamCsv("user-productivity-report.csv", request,
+                outputStream -> reportService.streamUserProductivityToCSV(userId, departmentId, outputStream));
     }
     
     @GetMapping("/audit-logs/export")
-    public void exportAuditLogs(@RequestParam(required = false) String actionType,
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(@RequestParam(required = false) String actionType,
                               @RequestParam(required = false) String entityType,
                               @RequestParam(required = false) Long userId,
-                              jakarta.servlet.http.HttpServletResponse response) throws IOException {
-        
-        Map<String, Object> reportData = new HashMap<>();
-        reportData.put("reportType", "Audit Logs");
-        reportData.put("generatedAt", java.time.LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        reportData.put("auditLogs", reportService.getAuditLogData(actionType, entityType, userId).stream().map(this::auditLogToMap).collect(java.util.stream.Collectors.toList()));
+                              HttpServletRequest request) {
         
-        byte[] csvData = reportService.exportToCSV(reportData);
+        return streamCsv("audit-logs.csv", request,
+                outputStream -> reportService.streamAuditLogsToCSV(actionType, entityType, userId, outputStream));
+    }
+    
+    // Runs the export on an async request thread, gzip-compressed when the client accepts it.
+    // A client that disconnects makes the next flush fail, which closes the cursor and ends the export.
+    private ResponseEntity<StreamingResponseBody> streamCsv(String filename, HttpServletRequest request, CsvExport export) {
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        StreamingResponseBody body = outputStream -> {
+            long start = System.currentTimeMillis();
+            try {
+                long rows;
+                if (gzip) {
+                    // Sync flush so every flush of the export reaches the client
+                    GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 8192, true);
+                    rows = export.writeTo(gzipStream);
+                    gzipStream.finish();
+                } else {
+                    rows = export.writeTo(outputStream);
+                }
+                logger.debug("Exported {} rows to {} in {} ms", rows, filename, System.currentTimeMillis() - start);
+            } catch (IOException e) {
+                logger.info("Export of {} stopped after {} ms: {}", filename, System.currentTimeMillis() - start, e.getMessage());
+                throw e;
+            }
+        };
+        
+        return csvResponse(filename, gzip).body(body);
+    }
+    
+    private ResponseEntity.BodyBuilder csvResponse(String filename, boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response;
+    }
+    
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+    
+    // Report job endpoints (API) - a job runs an export in the background and keeps the result for download
+    
+    @PostMapping("/api/jobs")
+    @ResponseBody
+    public ResponseEntity<ReportJobProgress> submitReportJob(@RequestParam String type,
+                              @RequestParam(required = false) String status,
+                              @RequestParam(required = false) String priority,
+                              @RequestParam(required = false) Long departmentId,
+                              @RequestParam(required = false) Long userId,
+                              @RequestParam(required = false) String actionType,
+                              @RequestParam(required = false) String entityType) {
+        try {
+            ReportJobService.Filters filters = new ReportJobService.Filters(status, priority, departmentId, userId,
+                    actionType, entityType);
+            return ResponseEntity.accepted()
+                    .body(reportJobService.submit(ReportJobService.ReportType.fromName(type), filters, currentUsername()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+    
+    @GetMapping("/api/jobs")
+    @ResponseBody
+    public List<ReportJobProgress> getReportJobs() {
+        return reportJobService.getJobs(currentUsername());
+    }
+    
+    @GetMapping("/api/jobs/{jobId}")
+    @ResponseBody
+    public ResponseEntity<ReportJobProgress> getReportJob(@PathVariable String jobId) {
+        return reportJobService.getJob(jobId, currentUsername())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping("/api/jobs/{jobId}/cancel")
+    @ResponseBody
+    public ResponseEntity<ReportJobProgress> cancelReportJob(@PathVariable String jobId) {
+        return reportJobService.cancel(jobId, currentUsername())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    // The stored result is gzipped; it is sent as is when the client accepts gzip and decompressed otherwise
+    @GetMapping("/api/jobs/{jobId}/download")
+    public ResponseEntity<StreamingResponseBody> downloadReportJob(@PathVariable String jobId, HttpServletRequest request) {
+        Optional<ReportJobProgress> job = reportJobService.getJob(jobId, currentUsername());
+        Optional<Path> result = reportJobService.getResult(jobId, currentUsername());
+        if (job.isEmpty() || result.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
         
-        response.setContentType("text/csv");
-        response.setHeader("Content-Disposition", "attachment; filename=\"audit-logs.csv\"");
-        response.getOutputStream().write(csvData);
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        Path file = result.get();
+        StreamingResponseBody body = outputStream -> {
+            try (InputStream input = gzip ? Files.newInputStream(file) : new GZIPInputStream(Files.newInputStream(file))) {
+                input.transferTo(outputStream);
+            }
+        };
+        return csvResponse(job.get().getFileName(), gzip).body(body);
+    }
+    
+    private String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
     }
     
     // PDF Export endpoints
@@ -206,9 +339,10 @@ public class ReportController {
     public void exportAuditLogsToPDF(@RequestParam(required = false) String actionType,
                                     @RequestParam(required = false) String entityType,
                                     @RequestParam(required = false) Long userId,
+                                    @RequestParam(required = false) String search,
                                     jakarta.servlet.http.HttpServletResponse response) throws IOException, DocumentException {
         
-        List<AuditLog> auditLogs = reportService.getAuditLogData(actionType, entityType, userId);
+        List<AuditLog> auditLogs = reportService.getAuditLogData(actionType, entityType, userId, search);
         generateAuditLogsPDF(auditLogs, response);
     }
     
@@ -363,13 +497,13 @@ public class ReportController {
         document.add(timestamp);
         
         // Create table
-        PdfPTable table = new PdfPTable(5); // Username, Total Tasks, Completed Tasks, Completion Rate, Average Completion Days
+        PdfPTable table = new PdfPTable(6); // Username, Total Tasks, Completed Tasks, Overdue Tasks, Completion Rate, Average Completion Days
         table.setWidthPercentage(100);
-        table.setWidths(new float[]{20f, 15f, 15f, 20f, 20f});
+        table.setWidths(new float[]{20f, 13f, 13f, 13f, 18f, 18f});
         
         // Add table headers
         Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.WHITE);
-        String[] headers = {"Username", "Total Tasks", "Completed Tasks", "Completion Rate (%)", "Average Completion Days"};
+        String[] headers = {"Username", "Total Tasks", "Completed Tasks", "Overdue Tasks", "Completion Rate (%)", "Average Completion Days"};
         
         for (String header : headers) {
             PdfPCell cell = new PdfPCell(new Phrase(header, headerFont));
@@ -388,6 +522,7 @@ public class ReportController {
             table.addCell(createCell((String) user.get("username"), dataFont));
             table.addCell(createCell(user.get("totalTasks").toString(), dataFont));
             table.addCell(createCell(user.get("completedTasks").toString(), dataFont));
+            table.addCell(createCell(user.get("overdueTasks").toString(), dataFont));
             table.addCell(createCell(user.get("completionRate").toString(), dataFont));
             table.addCell(createCell(user.get("averageCompletionDays").toString(), dataFont));
         }
@@ -467,16 +602,4 @@ public class ReportController {
         cell.setHorizontalAlignment(Element.ALIGN_LEFT);
         return cell;
     }
-    
-    private Map<String, Object> auditLogToMap(AuditLog auditLog) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", auditLog.getId());
-        map.put("action", auditLog.getActionType().getDisplayName());
-        map.put("entityType", auditLog.getEntityType());
-        map.put("description", auditLog.getDescription());
-        map.put("user", auditLog.getUser().getUsername());
-        map.put("ipAddress", auditLog.getIpAddress());
-        map.put("createdAt", auditLog.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        return map;
-    }
 }
\ No newline at end of file
@@ -2,40 +2,56 @@ package com.workflow.workflowmanagementsystem.controller;
 
 import com.workflow.workflowmanagementsystem.Repository.UserRepository;
 import com.workflow.workflowmanagementsystem.Repository.UserRoleRepository;
+import com.workflow.workflowmanagementsystem.dto.BulkTaskRequest;
+import com.workflow.workflowmanagementsystem.dto.BulkTaskResult;
+import com.workflow.workflowmanagementsystem.dto.KeysetPage;
+import com.workflow.workflowmanagementsystem.dto.TaskImportProgress;
 import com.workflow.workflowmanagementsystem.dto.TaskDto;
-import com.workflow.workflowmanagementsystem.dto.WorkflowDto;
+import com.workflow.workflowmanagementsystem.dto.TaskSummary;
+import com.workflow.workflowmanagementsystem.dto.WorkflowStateMachine;
 import com.workflow.workflowmanagementsystem.dto.WorkflowStatusLayerDto;
+import com.workflow.workflowmanagementsystem.dto.WorkflowSummary;
 import com.workflow.workflowmanagementsystem.entity.Task;
 import com.workflow.workflowmanagementsystem.entity.Task.TaskPriority;
 import com.workflow.workflowmanagementsystem.entity.Task.TaskStatus;
 import com.workflow.workflowmanagementsystem.entity.User;
 import com.workflow.workflowmanagementsystem.entity.Workflow;
 import com.workflow.workflowmanagementsystem.entity.WorkflowStatusLayer;
+import com.workflow.workflowmanagementsystem.service.TaskBulkService;
+import com.workflow.workflowmanagementsystem.service.TaskImportService;
 import com.workflow.workflowmanagementsystem.service.TaskService;
 import com.workflow.workflowmanagementsystem.service.UserService;
 import com.workflow.workflowmanagementsystem.service.WorkflowService;
 import com.workflow.workflowmanagementsystem.service.DepartmentService;
+import com.workflow.workflowmanagementsystem.util.CursorUtil;
 import com.workflow.workflowmanagementsystem.util.RoleUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Controller
 @RequestMapping("/tasks")
@@ -44,6 +60,12 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
     
+    @Autowired
+    private TaskBulkService taskBulkService;
+    
+    @Autowired
+    private TaskImportService taskImportService;
+    
     @Autowired
     private WorkflowService workflowService;
     
@@ -64,6 +86,15 @@ public class TaskController {
         return RoleUtil.getCurrentUser(userRepository);
     }
     
+    // Reject page sizes below 1 with a 400 and cap large ones, so neither pagination mode sees an unusable size
+    private int checkPageSize(int size) {
+        try {
+            return CursorUtil.pageSize(size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
     // List all tasks
     @GetMapping
     public String listTasks(
@@ -74,36 +105,61 @@ public class TaskController {
             @RequestParam(required = false) Long workflowId,
             @RequestParam(required = false) Long workflowStatusLayerId,
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
             Model model,
             HttpServletRequest request) {
         
         // Set user roles in session
         User currentUser = getCurrentUser();
         RoleUtil.setUserRolesInSession(currentUser, userRoleRepository, request);
+        size = checkPageSize(size);
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Task> tasks;
+        TaskPriority priorityEnum = null;
+        if (priority != null && !priority.isEmpty()) {
+            priorityEnum = TaskPriority.valueOf(priority.toUpperCase());
+        }
         
-        if (search != null && !search.trim().isEmpty()) {
-            tasks = taskService.searchTasks(search, pageable);
-        } else {
-            TaskPriority priorityEnum = null;
-            if (priority != null && !priority.isEmpty()) {
-                priorityEnum = TaskPriority.valueOf(priority.toUpperCase());
+        // Keyset (cursor) mode avoids OFFSET scans and the count query on deep pages
+        boolean cursorMode = (keyset || cursor != null) && (search == null || search.trim().isEmpty());
+        if (cursorMode) {
+            KeysetPage<Task> tasks;
+            try {
+                tasks = taskService.getTasksWithFiltersKeyset(null, priorityEnum, assignedToId,
+                        workflowId, workflowStatusLayerId, cursor, size, includeTotal);
+            } catch (IllegalArgumentException e) {
+                // Malformed or tampered cursor: start over from the first page
+                cursor = null;
+                tasks = taskService.getTasksWithFiltersKeyset(null, priorityEnum, assignedToId,
+                        workflowId, workflowStatusLayerId, null, size, includeTotal);
+                model.addAttribute("error", "Invalid page link, showing the first page instead");
             }
+            model.addAttribute("tasks", tasks);
+            model.addAttribute("totalItems", tasks.getTotalElements());
+        } else {
+            Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+            Page<Task> tasks;
             
-            // Use workflow status layer filtering if provided, otherwise use regular filtering
-            if (workflowStatusLayerId != null) {
+            if (search != null && !search.trim().isEmpty()) {
+                tasks = taskService.searchTasks(search, pageable);
+                model.addAttribute("searchHighlights", taskService.getSearchHighlights(search, tasks.getContent()));
+            } else if (workflowStatusLayerId != null) {
+                // Use workflow status layer filtering if provided, otherwise use regular filtering
                 tasks = taskService.getTasksWithWorkflowStatusLayerFilter(workflowStatusLayerId, priorityEnum, assignedToId, pageable);
             } else {
                 tasks = taskService.getTasksWithFilters(null, priorityEnum, assignedToId, workflowId, pageable);
             }
+            
+            model.addAttribute("tasks", tasks);
+            model.addAttribute("totalPages", tasks.getTotalPages());
+            model.addAttribute("totalItems", tasks.getTotalElements());
         }
         
-        model.addAttribute("tasks", tasks);
+        model.addAttribute("cursorMode", cursorMode);
+        model.addAttribute("cursor", cursor);
+        model.addAttribute("size", size);
         model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", tasks.getTotalPages());
-        model.addAttribute("totalItems", tasks.getTotalElements());
         model.addAttribute("priority", priority);
         model.addAttribute("assignedToId", assignedToId);
         model.addAttribute("workflowId", workflowId);
@@ -416,13 +472,16 @@ public class TaskController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
             Model model,
             HttpServletRequest request) {
         
         User currentUser = getCurrentUser();
         // Set user roles in session
         RoleUtil.setUserRolesInSession(currentUser, userRoleRepository, request);
-        Pageable pageable = PageRequest.of(page, size, Sort.by("dueDate").ascending());
+        size = checkPageSize(size);
         
         TaskStatus statusEnum = null;
         if (status != null && !status.isEmpty()) {
@@ -434,12 +493,34 @@ public class TaskController {
             priorityEnum = TaskPriority.valueOf(priority.toUpperCase());
         }
         
-        Page<Task> tasks = taskService.getTasksForUser(currentUser.getId(), statusEnum, priorityEnum, pageable);
+        // Keyset (cursor) mode avoids OFFSET scans and the count query on deep pages
+        boolean cursorMode = keyset || cursor != null;
+        if (cursorMode) {
+            KeysetPage<Task> tasks;
+            try {
+                tasks = taskService.getTasksForUserKeyset(currentUser.getId(), statusEnum, priorityEnum,
+                        cursor, size, includeTotal);
+            } catch (IllegalArgumentException e) {
+                // Malformed or tampered cursor: start over from the first page
+                cursor = null;
+                tasks = taskService.getTasksForUserKeyset(currentUser.getId(), statusEnum, priorityEnum,
+                        null, size, includeTotal);
+                model.addAttribute("error", "Invalid page link, showing the first page instead");
+            }
+            model.addAttribute("tasks", tasks);
+            model.addAttribute("totalItems", tasks.getTotalElements());
+        } else {
+            Pageable pageable = PageRequest.of(page, size, Sort.by("dueDate").ascending());
+            Page<Task> tasks = taskService.getTasksForUser(currentUser.getId(), statusEnum, priorityEnum, pageable);
+            model.addAttribute("tasks", tasks);
+            model.addAttribute("totalPages", tasks.getTotalPages());
+            model.addAttribute("totalItems", tasks.getTotalElements());
+        }
         
-        model.addAttribute("tasks", tasks);
+        model.addAttribute("cursorMode", cursorMode);
+        model.addAttribute("cursor", cursor);
+        model.addAttribute("size", size);
         model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", tasks.getTotalPages());
-        model.addAttribute("totalItems", tasks.getTotalElements());
         model.addAttribute("status", status);
         model.addAttribute("priority", priority);
         model.addAttribute("statusOptions", TaskStatus.values());
@@ -459,6 +540,46 @@ public class TaskController {
         return convertToTaskDto(task);
     }
     
+    // List tasks with keyset pagination (API)
+    @GetMapping("/api/list")
+    @ResponseBody
+    public ResponseEntity<KeysetPage<TaskDto>> listTasksKeyset(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) TaskPriority priority,
+            @RequestParam(required = false) Long assignedToId,
+            @RequestParam(required = false) Long workflowId,
+            @RequestParam(required = false) Long workflowStatusLayerId,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(taskService.getTasksWithFiltersKeyset(status, priority, assignedToId, workflowId,
+                    workflowStatusLayerId, cursor, size, includeTotal).map(this::convertToTaskDto));
+        } catch (IllegalArgumentException e) {
+            // Malformed or tampered cursor, or a page size below 1
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // List current user's tasks with keyset pagination (API)
+    @GetMapping("/api/my-tasks")
+    @ResponseBody
+    public ResponseEntity<KeysetPage<TaskDto>> myTasksKeyset(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) TaskPriority priority,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        User currentUser = getCurrentUser();
+        try {
+            return ResponseEntity.ok(taskService.getTasksForUserKeyset(currentUser.getId(), status, priority, cursor,
+                    size, includeTotal).map(this::convertToTaskDto));
+        } catch (IllegalArgumentException e) {
+            // Malformed or tampered cursor, or a page size below 1
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // Get tasks by status (API)
     @GetMapping("/api/status/{status}")
     @ResponseBody
@@ -472,41 +593,29 @@ public class TaskController {
     // Get tasks by priority (API)
     @GetMapping("/api/priority/{priority}")
     @ResponseBody
-    public List<TaskDto> getTasksByPriority(@PathVariable TaskPriority priority) {
-        List<Task> tasks = taskService.getTasksByPriority(priority);
-        return tasks.stream()
-                .map(this::convertToTaskDto)
-                .collect(java.util.stream.Collectors.toList());
+    public List<TaskSummary> getTasksByPriority(@PathVariable TaskPriority priority) {
+        return taskService.getTaskSummariesByPriority(priority);
     }
     
     // Get tasks assigned to user (API)
     @GetMapping("/api/assigned/{userId}")
     @ResponseBody
-    public List<TaskDto> getTasksByAssignedUser(@PathVariable Long userId) {
-        List<Task> tasks = taskService.getTasksByAssignedUser(userId);
-        return tasks.stream()
-                .map(this::convertToTaskDto)
-                .collect(java.util.stream.Collectors.toList());
+    public List<TaskSummary> getTasksByAssignedUser(@PathVariable Long userId) {
+        return taskService.getTaskSummariesByAssignedUser(userId);
     }
     
     // Get overdue tasks (API)
     @GetMapping("/api/overdue")
     @ResponseBody
-    public List<TaskDto> getOverdueTasks() {
-        List<Task> tasks = taskService.getOverdueTasks();
-        return tasks.stream()
-                .map(this::convertToTaskDto)
-                .collect(java.util.stream.Collectors.toList());
+    public List<TaskSummary> getOverdueTasks() {
+        return taskService.getOverdueTaskSummaries();
     }
     
     // Get tasks due within next 7 days (API)
     @GetMapping("/api/due-soon")
     @ResponseBody
-    public List<TaskDto> getTasksDueSoon() {
-        List<Task> tasks = taskService.getTasksDueWithinDays(7);
-        return tasks.stream()
-                .map(this::convertToTaskDto)
-                .collect(java.util.stream.Collectors.toList());
+    public List<TaskSummary> getTasksDueSoon() {
+        return taskService.getTaskSummariesDueWithinDays(7);
     }
     
     // Get task statistics (API)
@@ -520,45 +629,110 @@ public class TaskController {
     @PostMapping("/workflow-status/{id}")
     public String changeTaskWorkflowStatus(@PathVariable Long id,
                                      @RequestParam Long workflowStatusLayerId,
+                                     @RequestParam(required = false) Long expectedWorkflowStatusLayerId,
                                      RedirectAttributes redirectAttributes) {
         try {
             User currentUser = getCurrentUser();
-            taskService.changeTaskWorkflowStatus(id, workflowStatusLayerId, currentUser.getId());
+            taskService.changeTaskWorkflowStatus(id, workflowStatusLayerId, expectedWorkflowStatusLayerId, currentUser.getId());
             redirectAttributes.addFlashAttribute("success", "Task workflow status updated successfully!");
+        } catch (OptimisticLockingFailureException e) {
+            // Moved by someone else since the page was loaded; the message names the layer it is in now
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", e.getMessage());
         }
         return "redirect:/tasks";
     }
     
+    // Bulk operations (API) - each returns one result per requested task
+    @PostMapping("/api/bulk/assign")
+    @ResponseBody
+    public ResponseEntity<BulkTaskResult> bulkAssign(@RequestBody BulkTaskRequest request) {
+        return bulkResponse(() -> taskBulkService.assignTasks(
+                request.taskIds(), request.assignedToId(), getCurrentUser().getId()));
+    }
+    
+    @PostMapping("/api/bulk/workflow-status")
+    @ResponseBody
+    public ResponseEntity<BulkTaskResult> bulkChangeWorkflowStatus(@RequestBody BulkTaskRequest request) {
+        return bulkResponse(() -> taskBulkService.changeWorkflowStatus(
+                request.taskIds(), request.workflowStatusLayerId(), getCurrentUser().getId()));
+    }
+    
+    @PostMapping("/api/bulk/priority")
+    @ResponseBody
+    public ResponseEntity<BulkTaskResult> bulkChangePriority(@RequestBody BulkTaskRequest request) {
+        return bulkResponse(() -> taskBulkService.changePriority(
+                request.taskIds(), request.priority(), getCurrentUser().getId()));
+    }
+    
+    @PostMapping("/api/bulk/complete")
+    @ResponseBody
+    public ResponseEntity<BulkTaskResult> bulkComplete(@RequestBody BulkTaskRequest request) {
+        return bulkResponse(() -> taskBulkService.completeTasks(
+                request.taskIds(), request.actualHours(), getCurrentUser().getId()));
+    }
+    
+    @PostMapping("/api/bulk/delete")
+    @ResponseBody
+    public ResponseEntity<BulkTaskResult> bulkDelete(@RequestBody BulkTaskRequest request) {
+        return bulkResponse(() -> taskBulkService.deleteTasks(request.taskIds(), getCurrentUser().getId()));
+    }
+    
+    // Invalid requests and missing users or status layers fail the whole operation
+    private ResponseEntity<BulkTaskResult> bulkResponse(Supplier<BulkTaskResult> operation) {
+        try {
+            return ResponseEntity.ok(operation.get());
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Start a CSV import of tasks (API) - the import runs in the background, poll its progress below
+    @PostMapping("/api/import")
+    @ResponseBody
+    public ResponseEntity<TaskImportProgress> importTasks(@RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.accepted().body(taskImportService.startImport(file, getCurrentUser().getId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    // Progress and row errors of a CSV import (API)
+    @GetMapping("/api/import/{importId}")
+    @ResponseBody
+    public ResponseEntity<TaskImportProgress> getImportProgress(@PathVariable String importId) {
+        return taskImportService.getProgress(importId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     // Get next workflow status layers for a task (API)
     @GetMapping("/api/next-status-layers/{taskId}")
     @ResponseBody
     public List<WorkflowStatusLayerDto> getNextWorkflowStatusLayers(@PathVariable Long taskId) {
-        List<WorkflowStatusLayer> statusLayers = taskService.getNextWorkflowStatusLayers(taskId);
-        return statusLayers.stream()
-                .map(this::convertToWorkflowStatusLayerDto)
+        return taskService.getNextWorkflowStatusLayers(taskId).stream()
+                .map(WorkflowStateMachine.StatusLayer::toDto)
                 .collect(java.util.stream.Collectors.toList());
     }
     
     // Get tasks by workflow status layer (API)
     @GetMapping("/api/workflow-status-layer/{workflowStatusLayerId}")
     @ResponseBody
-    public List<TaskDto> getTasksByWorkflowStatusLayer(@PathVariable Long workflowStatusLayerId) {
-        List<Task> tasks = taskService.getTasksByWorkflowStatusLayer(workflowStatusLayerId);
-        return tasks.stream()
-                .map(this::convertToTaskDto)
-                .collect(java.util.stream.Collectors.toList());
+    public List<TaskSummary> getTasksByWorkflowStatusLayer(@PathVariable Long workflowStatusLayerId) {
+        return taskService.getTaskSummariesByWorkflowStatusLayer(workflowStatusLayerId);
     }
     
     // API endpoint to get workflows by department (for dynamic loading)
     @GetMapping("/api/workflows-by-department/{departmentId}")
     @ResponseBody
-    public List<WorkflowDto> getWorkflowsByDepartment(@PathVariable Long departmentId) {
-        List<Workflow> workflows = workflowService.getWorkflowsByDepartment(departmentId);
-        return workflows.stream()
-                .map(this::convertToWorkflowDto)
-                .collect(java.util.stream.Collectors.toList());
+    public List<WorkflowSummary> getWorkflowsByDepartment(@PathVariable Long departmentId) {
+        return workflowService.getWorkflowSummariesByDepartment(departmentId);
     }
     
     // API endpoint to get status layers by workflow (for dynamic loading)
@@ -571,17 +745,6 @@ public class TaskController {
                 .collect(java.util.stream.Collectors.toList());
     }
     
-    // Helper method to convert Workflow to WorkflowDto
-    private WorkflowDto convertToWorkflowDto(Workflow workflow) {
-        WorkflowDto dto = new WorkflowDto();
-        dto.setId(workflow.getId());
-        dto.setName(workflow.getName());
-        dto.setDescription(workflow.getDescription());
-        dto.setStatus(workflow.getStatus() != null ? workflow.getStatus().name() : null);
-        dto.setIsActive(workflow.getIsActive());
-        return dto;
-    }
-    
     // Helper method to convert WorkflowStatusLayer to WorkflowStatusLayerDto
     private WorkflowStatusLayerDto convertToWorkflowStatusLayerDto(WorkflowStatusLayer statusLayer) {
         WorkflowStatusLayerDto dto = new WorkflowStatusLayerDto();
@@ -1,8 +1,10 @@
 package com.workflow.workflowmanagementsystem.controller;
 
 import com.workflow.workflowmanagementsystem.Repository.TaskRepository;
+import com.workflow.workflowmanagementsystem.dto.TaskLifecycleCounts;
 import com.workflow.workflowmanagementsystem.entity.Task;
 import com.workflow.workflowmanagementsystem.entity.WorkflowStatusLayer;
+import com.workflow.workflowmanagementsystem.service.TaskService;
 import com.workflow.workflowmanagementsystem.service.WorkflowService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -13,7 +15,6 @@ import org.springframework.web.bind.annotation.PathVariable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Controller
 public class TaskLifecycleController {
@@ -21,50 +22,27 @@ public class TaskLifecycleController {
     @Autowired
     private TaskRepository taskRepository;
     
+    @Autowired
+    private TaskService taskService;
+    
     @Autowired
     private WorkflowService workflowService;
     
     @GetMapping("/task/lifecycle")
     public String taskLifecycle(Model model) {
-        // Get all tasks
-        List<Task> allTasks = taskRepository.findAll();
-        
         // Get all workflow status layers for the lifecycle view
         List<WorkflowStatusLayer> allStatusLayers = workflowService.getAllStatusLayers();
         
-        // Calculate statistics using workflow status layers
-        Map<String, Long> stats = new HashMap<>();
-        stats.put("totalTasks", (long) allTasks.size());
-        
-        // Count tasks by workflow status layers
-        if (allStatusLayers != null && !allStatusLayers.isEmpty()) {
-            for (WorkflowStatusLayer statusLayer : allStatusLayers) {
-                String layerName = statusLayer.getName();
-                long count = allTasks.stream()
-                        .filter(task -> task.getWorkflowStatusLayer() != null &&
-                                       task.getWorkflowStatusLayer().getId().equals(statusLayer.getId()))
-                        .count();
-                stats.put(layerName.replace(" ", "_") + "Tasks", count);
-            }
-        }
-        
-        // Count tasks by derived status for backward compatibility
-        stats.put("completedTasks", allTasks.stream().filter(task -> task.getStatus() == Task.TaskStatus.COMPLETED).count());
-        stats.put("inProgressTasks", allTasks.stream().filter(task -> task.getStatus() == Task.TaskStatus.IN_PROGRESS).count());
-        stats.put("pendingTasks", allTasks.stream().filter(task -> task.getStatus() == Task.TaskStatus.PENDING).count());
-        stats.put("onHoldTasks", allTasks.stream().filter(task -> task.getStatus() == Task.TaskStatus.ON_HOLD).count());
-        stats.put("cancelledTasks", allTasks.stream().filter(task -> task.getStatus() == Task.TaskStatus.CANCELLED).count());
+        // Task counts are aggregated by the database
+        TaskLifecycleCounts counts = taskService.getLifecycleCounts();
+        Map<String, Long> stats = buildStats(counts, allStatusLayers);
         
         model.addAttribute("statusLayers", allStatusLayers);
         model.addAttribute("stats", stats);
         model.addAttribute("totalTasks", stats.get("totalTasks"));
         model.addAttribute("completedTasks", stats.get("completedTasks"));
         model.addAttribute("inProgressTasks", stats.get("inProgressTasks"));
-        model.addAttribute("overdueTasks", allTasks.stream()
-                .filter(task -> task.getDueDate() != null &&
-                               task.getDueDate().isBefore(java.time.LocalDateTime.now()) &&
-                               task.getStatus() != Task.TaskStatus.COMPLETED)
-                .count());
+        model.addAttribute("overdueTasks", counts.overdueTasks());
         
         return "task/lifecycle";
     }
@@ -75,34 +53,12 @@ public class TaskLifecycleController {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid task Id:" + id));
         
-        // Get all tasks for statistics
-        List<Task> allTasks = taskRepository.findAll();
-        
         // Get workflow status layers for the specific task's workflow
         List<WorkflowStatusLayer> workflowStatusLayers = workflowService.getStatusLayersForWorkflow(task.getWorkflow().getId());
         
-        // Calculate statistics using workflow status layers
-        Map<String, Long> stats = new HashMap<>();
-        stats.put("totalTasks", (long) allTasks.size());
-        
-        // Count tasks by workflow status layers for this specific workflow
-        if (workflowStatusLayers != null && !workflowStatusLayers.isEmpty()) {
-            for (WorkflowStatusLayer statusLayer : workflowStatusLayers) {
-                String layerName = statusLayer.getName();
-                long count = allTasks.stream()
-                        .filter(t -> t.getWorkflowStatusLayer() != null &&
-                                       t.getWorkflowStatusLayer().getId().equals(statusLayer.getId()))
-                        .count();
-                stats.put(layerName.replace(" ", "_") + "Tasks", count);
-            }
-        }
-        
-        // Count tasks by derived status for backward compatibility
-        stats.put("completedTasks", allTasks.stream().filter(t -> t.getStatus() == Task.TaskStatus.COMPLETED).count());
-        stats.put("inProgressTasks", allTasks.stream().filter(t -> t.getStatus() == Task.TaskStatus.IN_PROGRESS).count());
-        stats.put("pendingTasks", allTasks.stream().filter(t -> t.getStatus() == Task.TaskStatus.PENDING).count());
-        stats.put("onHoldTasks", allTasks.stream().filter(t -> t.getStatus() == Task.TaskStatus.ON_HOLD).count());
-        stats.put("cancelledTasks", allTasks.stream().filter(t -> t.getStatus() == Task.TaskStatus.CANCELLED).count());
+        // Task counts are aggregated by the database
+        TaskLifecycleCounts counts = taskService.getLifecycleCounts();
+        Map<String, Long> stats = buildStats(counts, workflowStatusLayers);
         
         model.addAttribute("task", task);
         model.addAttribute("statusLayers", workflowStatusLayers);
@@ -110,12 +66,29 @@ public class TaskLifecycleController {
         model.addAttribute("totalTasks", stats.get("totalTasks"));
         model.addAttribute("completedTasks", stats.get("completedTasks"));
         model.addAttribute("inProgressTasks", stats.get("inProgressTasks"));
-        model.addAttribute("overdueTasks", allTasks.stream()
-                .filter(t -> t.getDueDate() != null &&
-                               t.getDueDate().isBefore(java.time.LocalDateTime.now()) &&
-                               t.getStatus() != Task.TaskStatus.COMPLETED)
-                .count());
+        model.addAttribute("overdueTasks", counts.overdueTasks());
         
         return "task/individual-lifecycle";
     }
+    
+    // Statistics keyed by status layer name and by derived status
+    private Map<String, Long> buildStats(TaskLifecycleCounts counts, List<WorkflowStatusLayer> statusLayers) {
+        Map<String, Long> stats = new HashMap<>();
+        stats.put("totalTasks", counts.totalTasks());
+        
+        // Count tasks by workflow status layers
+        if (statusLayers != null) {
+            for (WorkflowStatusLayer statusLayer : statusLayers) {
+                stats.put(statusLayer.getName().replace(" ", "_") + "Tasks", counts.countForStatusLayer(statusLayer.getId()));
+            }
+        }
+        
+        // Count tasks by derived status for backward compatibility
+        stats.put("completedTasks", counts.countForStatus(Task.TaskStatus.COMPLETED));
+        stats.put("inProgressTasks", counts.countForStatus(Task.TaskStatus.IN_PROGRESS));
+        stats.put("pendingTasks", counts.countForStatus(Task.TaskStatus.PENDING));
+        stats.put("onHoldTasks", counts.countForStatus(Task.TaskStatus.ON_HOLD));
+        stats.put("cancelledTasks", counts.countForStatus(Task.TaskStatus.CANCELLED));
+        return stats;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.workflow.workflowmanagementsystem.dto;
+
+/**
+ * Audit activity over a date range, read from the audit rollups. uniqueUsers is a HyperLogLog estimate
+ * (about 3% standard error); the other figures are exact.
+ */
+public record AuditActivityStats(long totalLogs, long uniqueUsers, long entityTypes,
+                                 long creates, long updates, long deletes) {
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.workflow.workflowmanagementsystem.dto;
+
+/**
+ * Audit writer metrics. Queue figures and latencies only apply to the async sink; latency is measured
+ * from the commit that queued a row to the write of its batch.
+ */
+public record AuditSinkStats(String mode, int queueDepth, int queueCapacity, long recorded, long written,
+                             long dropped, long failed, double averageLatencyMs, long maxLatencyMs) {
+}
\ No newline at end of file
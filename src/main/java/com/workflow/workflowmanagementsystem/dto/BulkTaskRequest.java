@@ -0,0 +1,12 @@
+package com.workflow.workflowmanagementsystem.dto;
+
+import com.workflow.workflowmanagementsystem.entity.Task.TaskPriority;
+
+import java.util.List;
+
+/**
+ * Request body for the bulk task endpoints. Only the fields used by the operation need to be set.
+ */
+public record BulkTaskRequest(List<Long> taskIds, Long assignedToId, Long workflowStatusLayerId,
+                              TaskPriority priority, Integer actualHours) {
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.workflow.workflowmanagementsystem.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk task operation, with one result per requested task.
+ */
+public record BulkTaskResult(int requested, int succeeded, int failed, List<Item> results) {
+
+    public record Item(Long taskId, boolean success, String message) {
+
+        public static Item success(Long taskId) {
+            return new Item(taskId, true, null);
+        }
+
+        public static Item failure(Long taskId, String message) {
+            return new Item(taskId, false, message);
+        }
+    }
+
+    public static BulkTaskResult of(List<Item> results) {
+        int succeeded = (int) results.stream().filter(Item::success).count();
+        return new BulkTaskResult(results.size(), succeeded, results.size() - succeeded, results);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.workflow.workflowmanagementsystem.dto;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset (cursor) paginated listing. The total count is only
+ * filled in when the caller asked for it, so it may be null.
+ */
+public class KeysetPage<T> {
+    private final List<T> content;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+    private final Long totalElements;
+
+    public KeysetPage(List<T> content, int size, boolean hasNext, String nextCursor, Long totalElements) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+    }
+
+    public <R> KeysetPage<R> map(Function<? super T, ? extends R> converter) {
+        List<R> converted = content.stream().map(converter).collect(Collectors.toList());
+        return new KeysetPage<>(converted, size, hasNext, nextCursor, totalElements);
+    }
+
+    public List<T> getContent() { return content; }
+    public int getSize() { return size; }
+    public boolean isHasNext() { return hasNext; }
+    public String getNextCursor() { return nextCursor; }
+    public Long getTotalElements() { return totalElements; }
+    public boolean isEmpty() { return content.isEmpty(); }
+}
\ No newline at end of file
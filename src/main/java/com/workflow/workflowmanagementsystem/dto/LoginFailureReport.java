@@ -0,0 +1,12 @@
+package com.workflow.workflowmanagementsystem.dto;
+
+import com.workflow.workflowmanagementsystem.entity.LoginFailureSummary;
+
+import java.time.LocalDateTime;
+
+/**
+ * Failed logins for one username or client IP over a period, and whether it is locked out right now
+ */
+public record LoginFailureReport(LoginFailureSummary.KeyType keyType, String key, long failures, long lockouts,
+                                 LocalDateTime lastFailureAt, boolean locked) {
+}
\ No newline at end of file
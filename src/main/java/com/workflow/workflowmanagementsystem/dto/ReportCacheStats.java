@@ -0,0 +1,9 @@
+package com.workflow.workflowmanagementsystem.dto;
+
+/**
+ * Report cache metrics since startup. Evictions count entries dropped for the size bound or their age,
+ * invalidations count data changes that cleared the cache.
+ */
+public record ReportCacheStats(int size, int maxEntries, long hits, long misses, double hitRate,
+                               long evictions, long invalidations) {
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.workflow.workflowmanagementsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a background report export. Written by the report job thread and read by the job endpoints.
+ * The result is available for download while the job is {@link Status#COMPLETED} and not past {@link #getExpiresAt()}.
+ */
+public class ReportJobProgress {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    private final String id;
+    private final String reportType;
+    private final String fileName;
+    private final String owner;
+    private final LocalDateTime queuedAt = LocalDateTime.now();
+    private Status status = Status.QUEUED;
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiresAt;
+    private long bytesWritten;
+    private long rows;
+    private boolean cancelRequested;
+
+    public ReportJobProgress(String id, String reportType, String fileName, String owner) {
+        this.id = id;
+        this.reportType = reportType;
+        this.fileName = fileName;
+        this.owner = owner;
+    }
+
+    /**
+     * @return false if the job was cancelled while it was queued
+     */
+    public synchronized boolean start() {
+        if (cancelRequested) {
+            return false;
+        }
+        status = Status.RUNNING;
+        startedAt = LocalDateTime.now();
+        return true;
+    }
+
+    public synchronized void bytesWritten(long count) {
+        bytesWritten += count;
+    }
+
+    public synchronized void complete(long rows, LocalDateTime expiresAt) {
+        this.status = Status.COMPLETED;
+        this.rows = rows;
+        this.expiresAt = expiresAt;
+        finishedAt = LocalDateTime.now();
+    }
+
+    public synchronized void fail(String message) {
+        this.status = Status.FAILED;
+        this.message = message;
+        finishedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Asks the job to stop; a queued job is cancelled at once, a running one at its next write
+     * @return false if the job had already finished
+     */
+    public synchronized boolean cancel() {
+        if (isFinished()) {
+            return false;
+        }
+        cancelRequested = true;
+        if (status == Status.QUEUED) {
+            cancelled();
+        }
+        return true;
+    }
+
+    public synchronized void cancelled() {
+        status = Status.CANCELLED;
+        message = "Cancelled";
+        finishedAt = LocalDateTime.now();
+    }
+
+    public String getId() { return id; }
+    public String getReportType() { return reportType; }
+    public String getFileName() { return fileName; }
+    @JsonIgnore
+    public String getOwner() { return owner; }
+    public LocalDateTime getQueuedAt() { return queuedAt; }
+    public synchronized Status getStatus() { return status; }
+    public synchronized String getMessage() { return message; }
+    public synchronized LocalDateTime getStartedAt() { return startedAt; }
+    public synchronized LocalDateTime getFinishedAt() { return finishedAt; }
+    public synchronized LocalDateTime getExpiresAt() { return expiresAt; }
+    public synchronized long getBytesWritten() { return bytesWritten; }
+    public synchronized long getRows() { return rows; }
+    @JsonIgnore
+    public synchronized boolean isCancelRequested() { return cancelRequested; }
+
+    public synchronized boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.workflow.workflowmanagementsystem.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress of a task CSV import. Written by the import thread and read by the progress endpoint.
+ * At most {@link #MAX_REPORTED_ERRORS} row errors are kept; {@link #getFailedRows()} counts all of them.
+ */
+public class TaskImportProgress {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    public record RowError(long row, String message) {
+    }
+
+    private final String id;
+    private final String fileName;
+    private final LocalDateTime queuedAt = LocalDateTime.now();
+    private Status status = Status.QUEUED;
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long rowsRead;
+    private long importedRows;
+    private long failedRows;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public TaskImportProgress(String id, String fileName) {
+        this.id = id;
+        this.fileName = fileName;
+    }
+
+    public synchronized void start() {
+        status = Status.RUNNING;
+        startedAt = LocalDateTime.now();
+    }
+
+    public synchronized void rowRead() {
+        rowsRead++;
+    }
+
+    public synchronized void rowsImported(int count) {
+        importedRows += count;
+    }
+
+    public synchronized void rowFailed(long row, String error) {
+        failedRows++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, error));
+        }
+    }
+
+    public synchronized void complete() {
+        status = Status.COMPLETED;
+        finishedAt = LocalDateTime.now();
+    }
+
+    public synchronized void fail(String message) {
+        this.status = Status.FAILED;
+        this.message = message;
+        finishedAt = LocalDateTime.now();
+    }
+
+    public String getId() { return id; }
+    public String getFileName() { return fileName; }
+    public LocalDateTime getQueuedAt() { return queuedAt; }
+    public synchronized Status getStatus() { return status; }
+    public synchronized String getMessage() { return message; }
+    public synchronized LocalDateTime getStartedAt() { return startedAt; }
+    public synchronized LocalDateTime getFinishedAt() { return finishedAt; }
+    public synchronized long getRowsRead() { return rowsRead; }
+    public synchronized long getImportedRows() { return importedRows; }
+    public synchronized long getFailedRows() { return failedRows; }
+    public synchronized List<RowError> getErrors() { return new ArrayList<>(errors); }
+
+    public synchronized boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+}
\ No newline at end of file
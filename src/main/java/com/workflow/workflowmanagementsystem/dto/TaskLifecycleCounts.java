@@ -0,0 +1,20 @@
+package com.workflow.workflowmanagementsystem.dto;
+
+import com.workflow.workflowmanagementsystem.entity.Task.TaskStatus;
+
+import java.util.Map;
+
+/**
+ * Task counts for the lifecycle pages, aggregated by the database in a single query.
+ */
+public record TaskLifecycleCounts(long totalTasks, long overdueTasks,
+                                  Map<Long, Long> countsByStatusLayer, Map<TaskStatus, Long> countsByStatus) {
+
+    public long countForStatusLayer(Long statusLayerId) {
+        return countsByStatusLayer.getOrDefault(statusLayerId, 0L);
+    }
+
+    public long countForStatus(TaskStatus status) {
+        return countsByStatus.getOrDefault(status, 0L);
+    }
+}
\ No newline at end of file
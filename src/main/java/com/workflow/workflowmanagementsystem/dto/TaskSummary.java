@@ -0,0 +1,47 @@
+package com.workflow.workflowmanagementsystem.dto;
+
+import com.workflow.workflowmanagementsystem.entity.Task.TaskPriority;
+import com.workflow.workflowmanagementsystem.entity.Task.TaskStatus;
+import com.workflow.workflowmanagementsystem.util.TaskStatusUtil;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only task row selected directly by JPQL constructor expressions.
+ * Serializes to the same JSON as {@link TaskDto}.
+ */
+public record TaskSummary(
+        Long id,
+        String title,
+        String description,
+        TaskStatus status,
+        TaskPriority priority,
+        Long assignedToId,
+        String assignedToName,
+        Long workflowId,
+        String workflowName,
+        Long workflowStatusLayerId,
+        String workflowStatusLayerName,
+        Long createdById,
+        String createdByName,
+        LocalDateTime createdAt,
+        LocalDateTime dueDate,
+        Integer estimatedHours,
+        Integer actualHours,
+        Long teamId,
+        String teamName,
+        int teamMemberCount) {
+
+    // Query constructor - resolves the status from the layer columns like Task.getStatus()
+    public TaskSummary(Long id, String title, String description, TaskStatus statusCategory, Boolean isFinal,
+                       TaskPriority priority, Long assignedToId, String assignedToName, Long workflowId,
+                       String workflowName, Long workflowStatusLayerId, String workflowStatusLayerName,
+                       Long createdById, String createdByName, LocalDateTime createdAt, LocalDateTime dueDate,
+                       Integer estimatedHours, Integer actualHours, Long teamId, String teamName,
+                       Integer teamMemberCount) {
+        this(id, title, description, TaskStatusUtil.getStatus(statusCategory, isFinal), priority,
+                assignedToId, assignedToName, workflowId, workflowName, workflowStatusLayerId,
+                workflowStatusLayerName, createdById, createdByName, createdAt, dueDate, estimatedHours,
+                actualHours, teamId, teamName, teamMemberCount != null ? teamMemberCount : 0);
+    }
+}
\ No newline at end of file
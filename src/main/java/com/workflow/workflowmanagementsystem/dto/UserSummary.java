@@ -0,0 +1,17 @@
+package com.workflow.workflowmanagementsystem.dto;
+
+/**
+ * Read-only user row selected directly by JPQL constructor expressions.
+ * Serializes to the same JSON as {@link UserDto}.
+ */
+public record UserSummary(
+        Long id,
+        String username,
+        String email,
+        String firstName,
+        String lastName,
+        Boolean enabled,
+        Long teamId,
+        String teamName,
+        int teamMemberCount) {
+}
\ No newline at end of file
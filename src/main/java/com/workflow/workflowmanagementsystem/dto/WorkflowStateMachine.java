@@ -0,0 +1,121 @@
+package com.workflow.workflowmanagementsystem.dto;
+
+import com.workflow.workflowmanagementsystem.entity.Task.TaskStatus;
+import com.workflow.workflowmanagementsystem.entity.WorkflowStatusLayer;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of a workflow's status layers in layer order, used to navigate task
+ * transitions without querying the layers again. Instances are cached and shared between threads.
+ */
+public final class WorkflowStateMachine {
+
+    public record StatusLayer(Long id, String name, String description, Integer order, boolean isFinal,
+                              TaskStatus statusCategory, String color, Long workflowId) {
+
+        public static StatusLayer of(WorkflowStatusLayer layer, Long workflowId) {
+            return new StatusLayer(layer.getId(), layer.getName(), layer.getDescription(), layer.getOrder(),
+                    Boolean.TRUE.equals(layer.getIsFinal()), layer.getStatusCategory(), layer.getColor(), workflowId);
+        }
+
+        public WorkflowStatusLayerDto toDto() {
+            return new WorkflowStatusLayerDto(id, name, description, order, isFinal, color, workflowId);
+        }
+    }
+
+    private final Long workflowId;
+    private final List<StatusLayer> layers;
+    private final Map<Long, StatusLayer> layersById;
+    private final Set<Long> finalLayerIds;
+    private final Map<TaskStatus, StatusLayer> firstLayerByCategory;
+
+    public WorkflowStateMachine(Long workflowId, List<WorkflowStatusLayer> statusLayers) {
+        this.workflowId = workflowId;
+        this.layers = statusLayers.stream()
+                .map(layer -> StatusLayer.of(layer, workflowId))
+                .sorted(Comparator.comparing(StatusLayer::order))
+                .toList();
+
+        Map<Long, StatusLayer> byId = new HashMap<>();
+        Set<Long> finalIds = new HashSet<>();
+        Map<TaskStatus, StatusLayer> byCategory = new EnumMap<>(TaskStatus.class);
+        for (StatusLayer layer : layers) {
+            byId.put(layer.id(), layer);
+            if (layer.isFinal()) {
+                finalIds.add(layer.id());
+            }
+            if (layer.statusCategory() != null) {
+                byCategory.putIfAbsent(layer.statusCategory(), layer);
+            }
+        }
+        this.layersById = Map.copyOf(byId);
+        this.finalLayerIds = Set.copyOf(finalIds);
+        this.firstLayerByCategory = Collections.unmodifiableMap(byCategory);
+    }
+
+    public Long getWorkflowId() {
+        return workflowId;
+    }
+
+    public List<StatusLayer> getLayers() {
+        return layers;
+    }
+
+    public Optional<StatusLayer> getLayer(Long layerId) {
+        return layerId != null ? Optional.ofNullable(layersById.get(layerId)) : Optional.empty();
+    }
+
+    public boolean isFinal(Long layerId) {
+        return layerId != null && finalLayerIds.contains(layerId);
+    }
+
+    public Optional<StatusLayer> getFirstLayer() {
+        return layers.stream().findFirst();
+    }
+
+    public Optional<StatusLayer> getFirstFinalLayer() {
+        return layers.stream().filter(StatusLayer::isFinal).findFirst();
+    }
+
+    public Optional<StatusLayer> getFirstNonFinalLayer() {
+        return layers.stream().filter(layer -> !layer.isFinal()).findFirst();
+    }
+
+    public Optional<StatusLayer> getFirstLayerInCategory(TaskStatus category) {
+        return Optional.ofNullable(firstLayerByCategory.get(category));
+    }
+
+    public Optional<StatusLayer> getNextLayer(Integer currentOrder) {
+        return layers.stream().filter(layer -> layer.order() > currentOrder).findFirst();
+    }
+
+    public Optional<StatusLayer> getPreviousLayer(Integer currentOrder) {
+        StatusLayer previous = null;
+        for (StatusLayer layer : layers) {
+            if (layer.order() >= currentOrder) {
+                break;
+            }
+            previous = layer;
+        }
+        return Optional.ofNullable(previous);
+    }
+
+    // Layers a task in the given layer can move to: all of them if it has no layer, otherwise the ones after it
+    public List<StatusLayer> getLayersAfter(Long currentLayerId) {
+        if (currentLayerId == null) {
+            return layers;
+        }
+        return getLayer(currentLayerId)
+                .map(current -> layers.stream().filter(layer -> layer.order() > current.order()).toList())
+                .orElse(List.of());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.workflow.workflowmanagementsystem.dto;
+
+import com.workflow.workflowmanagementsystem.entity.Workflow.WorkflowStatus;
+
+/**
+ * Read-only workflow row selected directly by JPQL constructor expressions.
+ * Serializes to the same JSON as {@link WorkflowDto}.
+ */
+public record WorkflowSummary(Long id, String name, String description, String status, Boolean isActive) {
+
+    // Query constructor
+    public WorkflowSummary(Long id, String name, String description, WorkflowStatus status, Boolean isActive) {
+        this(id, name, description, status != null ? status.name() : null, isActive);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.workflow.workflowmanagementsystem.entity;
+
+import com.workflow.workflowmanagementsystem.entity.TaskTrendRollup.Granularity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated audit log counts per time bucket, action type, entity type and user, used by the audit statistics.
+ * Rows are maintained by AuditActivityService as audit logs are written and outlive archived audit partitions.
+ */
+@Entity
+@Table(name = "audit_activity_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_audit_activity_rollup_bucket",
+               columnNames = {"granularity", "bucket_start", "action_type", "entity_type", "user_id"}),
+       indexes = @Index(name = "idx_audit_activity_rollup_range", columnList = "granularity, bucket_start"))
+public class AuditActivityRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private Granularity granularity;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action_type", nullable = false)
+    private AuditLog.ActionType actionType;
+    
+    @Column(name = "entity_type", nullable = false, length = 50)
+    private String entityType;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "activity_count", nullable = false)
+    private long activityCount;
+    
+    // Constructors
+    public AuditActivityRollup() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Granularity getGranularity() {
+        return granularity;
+    }
+    
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public AuditLog.ActionType getActionType() {
+        return actionType;
+    }
+    
+    public void setActionType(AuditLog.ActionType actionType) {
+        this.actionType = actionType;
+    }
+    
+    public String getEntityType() {
+        return entityType;
+    }
+    
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public long getActivityCount() {
+        return activityCount;
+    }
+    
+    public void setActivityCount(long activityCount) {
+        this.activityCount = activityCount;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.workflow.workflowmanagementsystem.entity;
+
+import com.workflow.workflowmanagementsystem.entity.TaskTrendRollup.Granularity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * HyperLogLog registers of the users who wrote audit logs in one time bucket. Sketches of several buckets
+ * merge into the approximate number of distinct users over their whole range (see util.HyperLogLog).
+ */
+@Entity
+@Table(name = "audit_user_sketches",
+       uniqueConstraints = @UniqueConstraint(name = "uk_audit_user_sketch_bucket",
+               columnNames = {"granularity", "bucket_start"}))
+public class AuditUserSketch {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private Granularity granularity;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "registers", nullable = false, columnDefinition = "bytea")
+    private byte[] registers;
+    
+    // Constructors
+    public AuditUserSketch() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Granularity getGranularity() {
+        return granularity;
+    }
+    
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public byte[] getRegisters() {
+        return registers;
+    }
+    
+    public void setRegisters(byte[] registers) {
+        this.registers = registers;
+    }
+}
\ No newline at end of file
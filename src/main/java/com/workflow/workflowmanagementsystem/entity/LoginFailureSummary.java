@@ -0,0 +1,104 @@
+package com.workflow.workflowmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Failed logins and lockouts per username or client IP and hour. Rows are written in the background by
+ * LoginAttemptService; lockouts themselves are decided from its in-memory counters.
+ */
+@Entity
+@Table(name = "login_failure_summaries",
+       uniqueConstraints = @UniqueConstraint(name = "uk_login_failure_summary_bucket",
+               columnNames = {"key_type", "key_value", "bucket_start"}),
+       indexes = @Index(name = "idx_login_failure_summary_bucket", columnList = "bucket_start"))
+public class LoginFailureSummary {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "key_type", nullable = false, length = 10)
+    private KeyType keyType;
+    
+    @Column(name = "key_value", nullable = false)
+    private String keyValue;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "failure_count", nullable = false)
+    private long failureCount;
+    
+    @Column(name = "lockout_count", nullable = false)
+    private long lockoutCount;
+    
+    @Column(name = "last_failure_at")
+    private LocalDateTime lastFailureAt;
+    
+    // Constructors
+    public LoginFailureSummary() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public KeyType getKeyType() {
+        return keyType;
+    }
+    
+    public void setKeyType(KeyType keyType) {
+        this.keyType = keyType;
+    }
+    
+    public String getKeyValue() {
+        return keyValue;
+    }
+    
+    public void setKeyValue(String keyValue) {
+        this.keyValue = keyValue;
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public long getFailureCount() {
+        return failureCount;
+    }
+    
+    public void setFailureCount(long failureCount) {
+        this.failureCount = failureCount;
+    }
+    
+    public long getLockoutCount() {
+        return lockoutCount;
+    }
+    
+    public void setLockoutCount(long lockoutCount) {
+        this.lockoutCount = lockoutCount;
+    }
+    
+    public LocalDateTime getLastFailureAt() {
+        return lastFailureAt;
+    }
+    
+    public void setLastFailureAt(LocalDateTime lastFailureAt) {
+        this.lastFailureAt = lastFailureAt;
+    }
+    
+    // What a failure is counted against
+    public enum KeyType {
+        USERNAME, IP
+    }
+}
\ No newline at end of file
@@ -5,16 +5,32 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tasks")
+@NamedEntityGraph(name = Task.LIST_GRAPH, attributeNodes = {
+        @NamedAttributeNode("workflow"),
+        @NamedAttributeNode("workflowStatusLayer"),
+        @NamedAttributeNode("assignedTo"),
+        @NamedAttributeNode("createdBy")
+})
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_workflow_status_layer", columnList = "workflow_status_layer_id"),
+        @Index(name = "idx_tasks_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_tasks_due_date_id", columnList = "due_date, id")
+})
 public class Task {
     
+    // Fetch plan for list views and DTO conversion, which read all four associations of every row
+    public static final String LIST_GRAPH = "Task.list";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence so inserts can be batched - see templates/sql/id-sequences.sql for existing databases
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Task title is required")
@@ -67,6 +83,12 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Optimistic lock; status transitions compare-and-set on it (existing rows start at 0)
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+    
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Comment> comments = new ArrayList<>();
     
@@ -108,25 +130,8 @@ public class Task {
     }
     
     public TaskStatus getStatus() {
-        // Status is fully derived from workflowStatusLayer using utility class
-        if (workflowStatusLayer == null) {
-            return TaskStatus.PENDING;
-        }
-        
-        // Check if the status layer name maps to a specific status
-        String layerName = workflowStatusLayer.getName().toLowerCase();
-        if (workflowStatusLayer.getIsFinal()) {
-            return TaskStatus.COMPLETED;
-        } else if (layerName.contains("hold") || layerName.contains("pause")) {
-            return TaskStatus.ON_HOLD;
-        } else if (layerName.contains("cancel")) {
-            return TaskStatus.CANCELLED;
-        } else if (layerName.contains("progress") || layerName.contains("active")) {
-            return TaskStatus.IN_PROGRESS;
-        } else {
-            // Default to PENDING for any other non-final status
-            return TaskStatus.PENDING;
-        }
+        // Status is read from the category stored on the workflowStatusLayer
+        return TaskStatusUtil.getStatusFromWorkflowStatusLayer(workflowStatusLayer);
     }
     
     // setStatus method removed as status is now fully derived from workflowStatusLayer
@@ -211,6 +216,14 @@ public class Task {
         this.updatedAt = updatedAt;
     }
     
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
     public List<Comment> getComments() {
         return comments;
     }
@@ -0,0 +1,115 @@
+package com.workflow.workflowmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated task counts per time bucket and workflow, used by the dashboard trend chart.
+ * Rows are maintained by TaskTrendService; ids are stored directly so rollups survive entity changes.
+ */
+@Entity
+@Table(name = "task_trend_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_task_trend_rollup_bucket",
+               columnNames = {"granularity", "bucket_start", "workflow_id"}),
+       indexes = @Index(name = "idx_task_trend_rollup_range", columnList = "granularity, bucket_start, department_id"))
+public class TaskTrendRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private Granularity granularity;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "workflow_id", nullable = false)
+    private Long workflowId;
+    
+    @Column(name = "department_id")
+    private Long departmentId;
+    
+    @Column(name = "created_count", nullable = false)
+    private long createdCount;
+    
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+    
+    @Column(name = "overdue_count", nullable = false)
+    private long overdueCount;
+    
+    // Constructors
+    public TaskTrendRollup() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Granularity getGranularity() {
+        return granularity;
+    }
+    
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public Long getWorkflowId() {
+        return workflowId;
+    }
+    
+    public void setWorkflowId(Long workflowId) {
+        this.workflowId = workflowId;
+    }
+    
+    public Long getDepartmentId() {
+        return departmentId;
+    }
+    
+    public void setDepartmentId(Long departmentId) {
+        this.departmentId = departmentId;
+    }
+    
+    public long getCreatedCount() {
+        return createdCount;
+    }
+    
+    public void setCreatedCount(long createdCount) {
+        this.createdCount = createdCount;
+    }
+    
+    public long getCompletedCount() {
+        return completedCount;
+    }
+    
+    public void setCompletedCount(long completedCount) {
+        this.completedCount = completedCount;
+    }
+    
+    public long getOverdueCount() {
+        return overdueCount;
+    }
+    
+    public void setOverdueCount(long overdueCount) {
+        this.overdueCount = overdueCount;
+    }
+    
+    // Enum for rollup bucket size
+    public enum Granularity {
+        HOUR, DAY
+    }
+}
\ No newline at end of file
@@ -10,9 +10,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = Workflow.LIST_GRAPH, attributeNodes = {
+        @NamedAttributeNode("createdBy"),
+        @NamedAttributeNode("department")
+})
 @Table(name = "workflows")
 public class Workflow {
     
+    // Fetch plan for workflow list views, which show the creator and department of every row
+    public static final String LIST_GRAPH = "Workflow.list";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
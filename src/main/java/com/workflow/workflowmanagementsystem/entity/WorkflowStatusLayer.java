@@ -11,11 +11,14 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "workflow_status_layers")
+@Table(name = "workflow_status_layers", indexes = {
+        @Index(name = "idx_wsl_status_category", columnList = "status_category, id")
+})
 public class WorkflowStatusLayer {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workflow_status_layers_seq")
+    @SequenceGenerator(name = "workflow_status_layers_seq", sequenceName = "workflow_status_layers_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Status name is required")
@@ -34,6 +37,12 @@ public class WorkflowStatusLayer {
     @Column(name = "is_final", nullable = false)
     private Boolean isFinal = false;
     
+    // Task status category this layer maps to; resolved when the layer is saved
+    // so task queries can filter on it with plain equality instead of name matching
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_category", length = 20)
+    private Task.TaskStatus statusCategory;
+    
     @Column(name = "color", length = 7)
     private String color = "#007bff"; // Default blue color
     
@@ -101,6 +110,14 @@ public class WorkflowStatusLayer {
         this.isFinal = isFinal;
     }
     
+    public Task.TaskStatus getStatusCategory() {
+        return statusCategory;
+    }
+    
+    public void setStatusCategory(Task.TaskStatus statusCategory) {
+        this.statusCategory = statusCategory;
+    }
+    
     public String getColor() {
         return color;
     }
@@ -158,6 +175,7 @@ public class WorkflowStatusLayer {
                 ", name='" + name + '\'' +
                 ", order=" + order +
                 ", isFinal=" + isFinal +
+                ", statusCategory=" + statusCategory +
                 ", workflowId=" + (workflow != null ? workflow.getId() : null) +
                 '}';
     }
@@ -0,0 +1,272 @@
+package com.workflow.workflowmanagementsystem.service;
+
+import com.workflow.workflowmanagementsystem.dto.AuditSinkStats;
+import com.workflow.workflowmanagementsystem.entity.AuditLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Audit sink that keeps audit inserts off the request path. Rows are queued when the business transaction
+ * commits (rolled back changes are not audited) and a background thread writes them in multi-row batches.
+ * The queue is bounded: when it is full, callers either wait up to app.audit.async.block-timeout-ms or the
+ * row is dropped straight away (app.audit.async.overflow-policy). Queued rows are drained on shutdown.
+ */
+@Service
+@ConditionalOnProperty(name = "app.audit.sink.mode", havingValue = "async")
+public class AsyncAuditSink implements AuditSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncAuditSink.class);
+
+    // Must match the allocationSize of AuditLog's id sequence
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final int WRITE_ATTEMPTS = 3;
+
+    private static final String INSERT_SQL = "INSERT INTO audit_logs (id, action_type, entity_type, entity_id, description, " +
+            "user_id, ip_address, user_agent, old_values, new_values, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int[] INSERT_TYPES = {
+            Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.VARCHAR,
+            Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP
+    };
+
+    public enum OverflowPolicy {
+        BLOCK, DROP
+    }
+
+    // What is written for one audit row, captured when it is recorded
+    private record PendingAuditLog(AuditLog.ActionType actionType, String entityType, Long entityId, String description,
+                                   Long userId, String ipAddress, String userAgent, String oldValues, String newValues,
+                                   LocalDateTime createdAt, long queuedAtNanos) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AuditActivityService auditActivityService;
+
+    @Value("${app.audit.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.audit.async.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.audit.async.overflow-policy:BLOCK}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${app.audit.async.block-timeout-ms:2000}")
+    private long blockTimeoutMs;
+
+    @Value("${app.audit.async.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<PendingAuditLog> queue;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final AtomicLong dropped = new AtomicLong();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Async audit writer started (queue capacity {}, batch size {}, overflow policy {})",
+                queueCapacity, batchSize, overflowPolicy);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(shutdownTimeoutMs);
+        if (writer.isAlive()) {
+            writer.interrupt();
+            logger.warn("Audit writer did not drain within {} ms, {} audit rows were not written",
+                    shutdownTimeoutMs, queue.size());
+        }
+    }
+
+    @Override
+    public void record(AuditLog auditLog) {
+        recordAll(List.of(auditLog));
+    }
+
+    @Override
+    public void recordAll(Collection<AuditLog> auditLogs) {
+        List<AuditLog> snapshot = List.copyOf(auditLogs);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(snapshot);
+                }
+            });
+        } else {
+            enqueue(snapshot);
+        }
+    }
+
+    @Override
+    public AuditSinkStats getStats() {
+        long writtenCount = written.sum();
+        double averageLatencyMs = writtenCount > 0 ? totalLatencyNanos.sum() / 1_000_000.0 / writtenCount : 0;
+        return new AuditSinkStats("async", queue.size(), queueCapacity, recorded.sum(), writtenCount,
+                dropped.get(), failed.sum(), averageLatencyMs, TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+    }
+
+    private void enqueue(List<AuditLog> auditLogs) {
+        long now = System.nanoTime();
+        for (AuditLog auditLog : auditLogs) {
+            recorded.increment();
+            PendingAuditLog pending = new PendingAuditLog(auditLog.getActionType(), auditLog.getEntityType(),
+                    auditLog.getEntityId(), auditLog.getDescription(),
+                    auditLog.getUser() != null ? auditLog.getUser().getId() : null,
+                    auditLog.getIpAddress(), auditLog.getUserAgent(), auditLog.getOldValues(), auditLog.getNewValues(),
+                    auditLog.getCreatedAt() != null ? auditLog.getCreatedAt() : LocalDateTime.now(), now);
+            if (!running || !offer(pending)) {
+                drop(pending);
+            }
+        }
+    }
+
+    private boolean offer(PendingAuditLog pending) {
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            return queue.offer(pending);
+        }
+        try {
+            return queue.offer(pending, blockTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drop(PendingAuditLog pending) {
+        // Log the first drop and then every thousandth, so a full queue does not flood the log
+        if (dropped.incrementAndGet() % 1000 == 1) {
+            logger.warn("Audit queue full or stopped, dropped {} audit rows so far (latest: {} {} {})",
+                    dropped.get(), pending.actionType(), pending.entityType(), pending.entityId());
+        }
+    }
+
+    // Runs until shutdown and the queue is empty
+    private void writeLoop() {
+        List<PendingAuditLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAuditLog first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeWithRetry(List<PendingAuditLog> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(batch));
+                long now = System.nanoTime();
+                for (PendingAuditLog pending : batch) {
+                    long latency = now - pending.queuedAtNanos();
+                    totalLatencyNanos.add(latency);
+                    maxLatencyNanos.accumulateAndGet(latency, Math::max);
+                }
+                written.add(batch.size());
+                return;
+            } catch (DataAccessException e) {
+                if (attempt >= WRITE_ATTEMPTS) {
+                    failed.add(batch.size());
+                    logger.error("Failed to write {} audit rows after {} attempts", batch.size(), attempt, e);
+                    return;
+                }
+                logger.warn("Writing {} audit rows failed, retrying: {}", batch.size(), e.getMessage());
+                Thread.sleep(500L * attempt);
+            }
+        }
+    }
+
+    // One statement per batch: the driver rewrites the JDBC batch into multi-row inserts (reWriteBatchedInserts)
+    private void insert(List<PendingAuditLog> batch) {
+        List<Long> ids = allocateIds(batch.size());
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingAuditLog pending = batch.get(i);
+            rows.add(new Object[] {
+                    ids.get(i), pending.actionType().name(), pending.entityType(), pending.entityId(),
+                    pending.description(), pending.userId(), pending.ipAddress(), pending.userAgent(),
+                    pending.oldValues(), pending.newValues(), Timestamp.valueOf(pending.createdAt())
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, INSERT_TYPES);
+        auditActivityService.recordActivities(batch.stream()
+                .map(pending -> new AuditActivityService.Activity(pending.createdAt(), pending.actionType(),
+                        pending.entityType(), pending.userId()))
+                .toList());
+    }
+
+    // Ids are taken the way Hibernate's pooled optimizer takes them: each sequence value v reserves (v - 50, v]
+    // (the very first value of a fresh sequence only yields id 1, hence the loop)
+    private List<Long> allocateIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+            List<Long> highValues = jdbcTemplate.queryForList(
+                    "SELECT nextval('audit_logs_seq') FROM generate_series(1, ?)", Long.class, blocks);
+            for (Long high : highValues) {
+                for (long id = Math.max(1, high - ID_BLOCK_SIZE + 1); id <= high && ids.size() < count; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+}
\ No newline at end of file
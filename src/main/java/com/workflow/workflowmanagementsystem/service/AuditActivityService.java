@@ -0,0 +1,322 @@
+package com.workflow.workflowmanagementsystem.service;
+
+import com.workflow.workflowmanagementsystem.Repository.AuditActivityRollupRepository;
+import com.workflow.workflowmanagementsystem.Repository.AuditUserSketchRepository;
+import com.workflow.workflowmanagementsystem.dto.AuditActivityStats;
+import com.workflow.workflowmanagementsystem.entity.AuditLog;
+import com.workflow.workflowmanagementsystem.entity.TaskTrendRollup.Granularity;
+import com.workflow.workflowmanagementsystem.util.HyperLogLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the hourly and daily audit activity rollups and user sketches, and serves the audit statistics
+ * from them instead of aggregating audit_logs. Recorded activity is added to in-memory counts and registers once
+ * the transaction that wrote the audit rows commits, and a background flush upserts them in its own transaction,
+ * so request transactions never lock the shared per-bucket rows. Statistics lag by up to one flush interval.
+ * Activity still pending when the application stops is lost although its audit rows are committed, so the buckets
+ * of the last hours are recomputed from audit_logs periodically and on startup. A longer outage needs a backfill.
+ * Date ranges are widened to whole hours: daily buckets cover the full days inside a range and hourly buckets
+ * the hours at either end.
+ */
+@Service
+public class AuditActivityService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditActivityService.class);
+    
+    // The part of an audit log the rollups keep
+    public record Activity(LocalDateTime createdAt, AuditLog.ActionType actionType, String entityType, Long userId) {
+        
+        public static Activity of(AuditLog auditLog) {
+            return new Activity(auditLog.getCreatedAt(), auditLog.getActionType(), auditLog.getEntityType(),
+                    auditLog.getUser() != null ? auditLog.getUser().getId() : null);
+        }
+    }
+    
+    private record CountKey(Granularity granularity, LocalDateTime bucketStart, AuditLog.ActionType actionType,
+                            String entityType, Long userId) {
+    }
+    
+    private record RegisterKey(Granularity granularity, LocalDateTime bucketStart, int registerIndex) {
+    }
+    
+    private record Segment(Granularity granularity, LocalDateTime fromDate, LocalDateTime toDate) {
+    }
+    
+    // Rows are upserted in key order so concurrent writers lock them in the same order
+    private static final Comparator<CountKey> COUNT_KEY_ORDER = Comparator.comparing(CountKey::granularity)
+            .thenComparing(CountKey::bucketStart)
+            .thenComparing(CountKey::actionType)
+            .thenComparing(CountKey::entityType)
+            .thenComparing(CountKey::userId);
+    
+    // Backfilling from here covers every audit log
+    private static final LocalDateTime ALL_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    private static final Comparator<RegisterKey> REGISTER_KEY_ORDER = Comparator.comparing(RegisterKey::granularity)
+            .thenComparing(RegisterKey::bucketStart)
+            .thenComparingInt(RegisterKey::registerIndex);
+    
+    @Autowired
+    private AuditActivityRollupRepository auditActivityRollupRepository;
+    
+    @Autowired
+    private AuditUserSketchRepository auditUserSketchRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.audit.activity.reconcile-hours:48}")
+    private int reconcileHours;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    // Activity recorded since the last flush, guarded by this
+    private Map<CountKey, Long> pendingCounts = new HashMap<>();
+    
+    private Map<RegisterKey, Integer> pendingRanks = new HashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+    
+    // Record a written audit log
+    public void record(AuditLog auditLog) {
+        recordActivities(List.of(Activity.of(auditLog)));
+    }
+    
+    // Record many written audit logs; they are counted once the current transaction commits
+    public void recordActivities(Collection<Activity> activities) {
+        Map<CountKey, Long> counts = new HashMap<>();
+        Map<RegisterKey, Integer> ranks = new HashMap<>();
+        for (Activity activity : activities) {
+            if (activity.createdAt() == null || activity.userId() == null) {
+                continue;
+            }
+            int registerIndex = HyperLogLog.registerIndex(activity.userId());
+            int rank = HyperLogLog.rank(activity.userId());
+            for (Granularity granularity : Granularity.values()) {
+                LocalDateTime bucketStart = bucketStart(granularity, activity.createdAt());
+                counts.merge(new CountKey(granularity, bucketStart, activity.actionType(), activity.entityType(),
+                        activity.userId()), 1L, Long::sum);
+                ranks.merge(new RegisterKey(granularity, bucketStart, registerIndex), rank, Math::max);
+            }
+        }
+        if (!counts.isEmpty()) {
+            afterCommit(() -> addPending(counts, ranks));
+        }
+    }
+    
+    /**
+     * Writes the pending activity with one upsert per bucket key and sketch register.
+     * Runs periodically and on shutdown; activity that fails to write is kept for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${app.audit.activity.flush-interval-ms:5000}",
+               initialDelayString = "${app.audit.activity.flush-interval-ms:5000}")
+    public void flush() {
+        writePending();
+    }
+    
+    /**
+     * Recomputes the buckets of the last reconcile-hours from audit_logs, replacing their counts and sketches.
+     * Brings back activity that was pending when the application stopped, and any drift from activity counted
+     * while a recompute ran. Skipped while pending activity cannot be written, since it would then be counted twice.
+     */
+    @Scheduled(fixedDelayString = "${app.audit.activity.reconcile-interval-ms:600000}",
+               initialDelayString = "${app.audit.activity.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        if (!writePending()) {
+            return;
+        }
+        LocalDateTime since = LocalDateTime.now().minusHours(reconcileHours).truncatedTo(ChronoUnit.DAYS);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Granularity granularity : Granularity.values()) {
+                    auditActivityRollupRepository.deleteCountsSince(granularity, since);
+                    auditActivityRollupRepository.backfillCounts(granularity.name(), since);
+                    auditUserSketchRepository.deleteSketchesSince(granularity, since);
+                    auditUserSketchRepository.backfillSketches(granularity.name(), HyperLogLog.PRECISION,
+                            HyperLogLog.REGISTERS, since);
+                }
+            });
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Reconciling audit activity since {} failed: {}", since, e.getMessage());
+        }
+    }
+    
+    // Whether everything pending was written
+    private boolean writePending() {
+        Map<CountKey, Long> counts;
+        Map<RegisterKey, Integer> ranks;
+        synchronized (this) {
+            if (pendingCounts.isEmpty()) {
+                return true;
+            }
+            counts = pendingCounts;
+            ranks = pendingRanks;
+            pendingCounts = new HashMap<>();
+            pendingRanks = new HashMap<>();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(counts, ranks));
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Writing audit activity for {} buckets failed, retrying on the next flush: {}",
+                    counts.size(), e.getMessage());
+            addPending(counts, ranks);
+            return false;
+        }
+        return true;
+    }
+    
+    private synchronized void addPending(Map<CountKey, Long> counts, Map<RegisterKey, Integer> ranks) {
+        counts.forEach((key, count) -> pendingCounts.merge(key, count, Long::sum));
+        ranks.forEach((key, rank) -> pendingRanks.merge(key, rank, Math::max));
+    }
+    
+    private void write(Map<CountKey, Long> counts, Map<RegisterKey, Integer> ranks) {
+        counts.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(COUNT_KEY_ORDER))
+                .forEach(count -> auditActivityRollupRepository.addCount(count.getKey().granularity().name(),
+                        count.getKey().bucketStart(), count.getKey().actionType().name(), count.getKey().entityType(),
+                        count.getKey().userId(), count.getValue()));
+        ranks.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(REGISTER_KEY_ORDER))
+                .forEach(rank -> auditUserSketchRepository.raiseRegister(rank.getKey().granularity().name(),
+                        rank.getKey().bucketStart(), HyperLogLog.REGISTERS, rank.getKey().registerIndex(), rank.getValue()));
+    }
+    
+    // Rebuild all rollups and sketches from audit_logs
+    @Transactional
+    public void backfill() {
+        for (Granularity granularity : Granularity.values()) {
+            auditActivityRollupRepository.backfillCounts(granularity.name(), ALL_TIME);
+            auditUserSketchRepository.backfillSketches(granularity.name(), HyperLogLog.PRECISION, HyperLogLog.REGISTERS,
+                    ALL_TIME);
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public boolean hasRollups() {
+        return auditActivityRollupRepository.count() > 0;
+    }
+    
+    /**
+     * Audit activity between two dates, both included
+     */
+    @Transactional(readOnly = true)
+    public AuditActivityStats getAuditLogStatistics(LocalDateTime startDate, LocalDateTime endDate) {
+        long total = 0;
+        Map<AuditLog.ActionType, Long> byActionType = new EnumMap<>(AuditLog.ActionType.class);
+        Set<String> entityTypes = new HashSet<>();
+        HyperLogLog users = new HyperLogLog();
+        for (Segment segment : segments(startDate, endDate)) {
+            for (Object[] row : auditActivityRollupRepository.summarize(segment.granularity(), segment.fromDate(), segment.toDate())) {
+                long count = ((Number) row[2]).longValue();
+                total += count;
+                byActionType.merge((AuditLog.ActionType) row[0], count, Long::sum);
+                entityTypes.add((String) row[1]);
+            }
+            for (byte[] registers : auditUserSketchRepository.findRegisters(segment.granularity(), segment.fromDate(), segment.toDate())) {
+                users.merge(HyperLogLog.of(registers));
+            }
+        }
+        return new AuditActivityStats(total, users.estimate(), entityTypes.size(),
+                byActionType.getOrDefault(AuditLog.ActionType.CREATE, 0L),
+                byActionType.getOrDefault(AuditLog.ActionType.UPDATE, 0L),
+                byActionType.getOrDefault(AuditLog.ActionType.DELETE, 0L));
+    }
+    
+    // Audit logs per day between two dates, both included: [LocalDate, count]
+    @Transactional(readOnly = true)
+    public List<Object[]> getDailyActivityCount(LocalDateTime startDate, LocalDateTime endDate) {
+        List<Object[]> days = new ArrayList<>();
+        for (Object[] row : auditActivityRollupRepository.countByBucket(Granularity.DAY,
+                startDate.truncatedTo(ChronoUnit.DAYS), endDate.truncatedTo(ChronoUnit.DAYS).plusDays(1))) {
+            days.add(new Object[] {((LocalDateTime) row[0]).toLocalDate(), row[1]});
+        }
+        return days;
+    }
+    
+    // Audit logs by action type: [ActionType, count]
+    @Transactional(readOnly = true)
+    public List<Object[]> countAuditLogsByActionType() {
+        return auditActivityRollupRepository.countByActionType(Granularity.DAY);
+    }
+    
+    // Audit logs by entity type: [entityType, count]
+    @Transactional(readOnly = true)
+    public List<Object[]> countAuditLogsByEntityType() {
+        return auditActivityRollupRepository.countByEntityType(Granularity.DAY);
+    }
+    
+    // Audit logs by user, busiest first: [username, count]
+    @Transactional(readOnly = true)
+    public List<Object[]> countAuditLogsByUser() {
+        return auditActivityRollupRepository.countByUser(Granularity.DAY);
+    }
+    
+    // Hours at the start, whole days in the middle, hours at the end
+    private List<Segment> segments(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime from = startDate.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime to = endDate.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        LocalDateTime firstDay = from.truncatedTo(ChronoUnit.DAYS);
+        if (firstDay.isBefore(from)) {
+            firstDay = firstDay.plusDays(1);
+        }
+        LocalDateTime lastDay = to.truncatedTo(ChronoUnit.DAYS);
+        if (!firstDay.isBefore(lastDay)) {
+            return List.of(new Segment(Granularity.HOUR, from, to));
+        }
+        return List.of(new Segment(Granularity.HOUR, from, firstDay),
+                new Segment(Granularity.DAY, firstDay, lastDay),
+                new Segment(Granularity.HOUR, lastDay, to));
+    }
+    
+    private LocalDateTime bucketStart(Granularity granularity, LocalDateTime at) {
+        return at.truncatedTo(granularity == Granularity.HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS);
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
\ No newline at end of file
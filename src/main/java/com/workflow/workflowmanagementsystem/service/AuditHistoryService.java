@@ -0,0 +1,76 @@
+package com.workflow.workflowmanagementsystem.service;
+
+import com.workflow.workflowmanagementsystem.Repository.AuditLogRepository;
+import com.workflow.workflowmanagementsystem.Repository.TaskRepository;
+import com.workflow.workflowmanagementsystem.Repository.WorkflowRepository;
+import com.workflow.workflowmanagementsystem.Repository.WorkflowStatusLayerRepository;
+import com.workflow.workflowmanagementsystem.entity.AuditLog;
+import com.workflow.workflowmanagementsystem.util.AuditDiffUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rebuilds the audited fields of a task, workflow or status layer as they were right after a given audit entry.
+ * Starting from the entity's current state, the old values of every later entry are applied newest first.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AuditHistoryService {
+    
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private WorkflowRepository workflowRepository;
+    
+    @Autowired
+    private WorkflowStatusLayerRepository workflowStatusLayerRepository;
+    
+    /**
+     * State of an entity right after an audit entry
+     * @param entityType Task, Workflow or WorkflowStatusLayer
+     * @param entityId The id of the entity, which must still exist
+     * @param auditLogId An audit entry of that entity
+     * @return The audited fields by name
+     * @throws IllegalStateException if a later entry was written before field-level diffs and cannot be undone
+     */
+    public Map<String, String> getStateAt(String entityType, Long entityId, Long auditLogId) {
+        Map<String, String> state = getCurrentState(entityType, entityId);
+        
+        List<AuditLog> history = auditLogRepository.findByEntityTypeAndEntityIdOrderByCreatedAtDescIdDesc(entityType, entityId);
+        for (AuditLog auditLog : history) {
+            if (auditLog.getId().equals(auditLogId)) {
+                return state;
+            }
+            if (auditLog.getOldValues() == null && auditLog.getNewValues() == null) {
+                continue;
+            }
+            if (!AuditDiffUtil.isDiff(auditLog.getOldValues())) {
+                throw new IllegalStateException("Audit entry " + auditLog.getId() +
+                        " predates field-level diffs, earlier states cannot be rebuilt");
+            }
+            state.putAll(AuditDiffUtil.decode(auditLog.getOldValues()));
+        }
+        throw new EntityNotFoundException("Audit entry " + auditLogId + " not found for " + entityType + " " + entityId);
+    }
+    
+    private Map<String, String> getCurrentState(String entityType, Long entityId) {
+        return switch (entityType) {
+            case "Task" -> AuditDiffUtil.snapshot(taskRepository.findById(entityId)
+                    .orElseThrow(() -> new EntityNotFoundException("Task not found with ID: " + entityId)));
+            case "Workflow" -> AuditDiffUtil.snapshot(workflowRepository.findById(entityId)
+                    .orElseThrow(() -> new EntityNotFoundException("Workflow not found with ID: " + entityId)));
+            case "WorkflowStatusLayer" -> AuditDiffUtil.snapshot(workflowStatusLayerRepository.findById(entityId)
+                    .orElseThrow(() -> new EntityNotFoundException("Workflow status layer not found with ID: " + entityId)));
+            default -> throw new IllegalArgumentException("Audit history is not kept for " + entityType);
+        };
+    }
+}
\ No newline at end of file
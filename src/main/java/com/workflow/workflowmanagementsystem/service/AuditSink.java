@@ -0,0 +1,20 @@
+package com.workflow.workflowmanagementsystem.service;
+
+import com.workflow.workflowmanagementsystem.dto.AuditSinkStats;
+import com.workflow.workflowmanagementsystem.entity.AuditLog;
+
+import java.util.Collection;
+
+/**
+ * Destination for the audit rows written by the services, selected with app.audit.sink.mode.
+ * DurableAuditSink saves them in the caller's transaction; AsyncAuditSink hands them to a
+ * background writer once the transaction commits.
+ */
+public interface AuditSink {
+
+    void record(AuditLog auditLog);
+
+    void recordAll(Collection<AuditLog> auditLogs);
+
+    AuditSinkStats getStats();
+}
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.workflow.workflowmanagementsystem.service;
+
+import com.workflow.workflowmanagementsystem.Repository.TaskRepository;
+import com.workflow.workflowmanagementsystem.Repository.WorkflowRepository;
+import com.workflow.workflowmanagementsystem.entity.Task;
+import com.workflow.workflowmanagementsystem.entity.Task.TaskPriority;
+import com.workflow.workflowmanagementsystem.entity.Task.TaskStatus;
+import com.workflow.workflowmanagementsystem.entity.Workflow;
+import com.workflow.workflowmanagementsystem.entity.Workflow.WorkflowStatus;
+import com.workflow.workflowmanagementsystem.util.TaskStatusUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * In-memory task and workflow counters for the dashboard.
+ * Task and workflow mutations adjust the counters once their transaction commits, and a periodic
+ * reconciliation rebuilds them from the database to correct any drift (e.g. rows changed outside the services).
+ */
+@Service
+public class DashboardCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardCounterService.class);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    private volatile Map<TaskCounterKey, LongAdder> taskCounters = new ConcurrentHashMap<>();
+
+    private volatile Map<WorkflowCounterKey, LongAdder> workflowCounters = new ConcurrentHashMap<>();
+
+    private volatile boolean initialized = false;
+
+    /**
+     * Task counter dimensions
+     */
+    public record TaskCounterKey(TaskStatus status, TaskPriority priority, Long departmentId, Long assigneeId) {
+
+        public static TaskCounterKey of(Task task) {
+            Long departmentId = task.getWorkflow() != null && task.getWorkflow().getDepartment() != null
+                    ? task.getWorkflow().getDepartment().getId() : null;
+            Long assigneeId = task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
+            return new TaskCounterKey(task.getStatus(), task.getPriority(), departmentId, assigneeId);
+        }
+    }
+
+    /**
+     * Workflow counter dimensions
+     */
+    public record WorkflowCounterKey(WorkflowStatus status, Long departmentId) {
+
+        public static WorkflowCounterKey of(Workflow workflow) {
+            return new WorkflowCounterKey(workflow.getStatus(),
+                    workflow.getDepartment() != null ? workflow.getDepartment().getId() : null);
+        }
+    }
+
+    // Mutation hooks - keys are captured now, counters change only after commit
+
+    public void taskCreated(Task task) {
+        TaskCounterKey key = TaskCounterKey.of(task);
+        afterCommit(() -> adjust(taskCounters, key, 1));
+    }
+
+    public void taskDeleted(Task task) {
+        TaskCounterKey key = TaskCounterKey.of(task);
+        afterCommit(() -> adjust(taskCounters, key, -1));
+    }
+
+    public void taskChanged(TaskCounterKey before, Task task) {
+        TaskCounterKey after = TaskCounterKey.of(task);
+        if (!after.equals(before)) {
+            afterCommit(() -> {
+                adjust(taskCounters, before, -1);
+                adjust(taskCounters, after, 1);
+            });
+        }
+    }
+
+    public void workflowCreated(Workflow workflow) {
+        WorkflowCounterKey key = WorkflowCounterKey.of(workflow);
+        afterCommit(() -> adjust(workflowCounters, key, 1));
+    }
+
+    public void workflowDeleted(Workflow workflow) {
+        WorkflowCounterKey key = WorkflowCounterKey.of(workflow);
+        afterCommit(() -> adjust(workflowCounters, key, -1));
+    }
+
+    public void workflowChanged(WorkflowCounterKey before, Workflow workflow) {
+        WorkflowCounterKey after = WorkflowCounterKey.of(workflow);
+        if (!after.equals(before)) {
+            afterCommit(() -> {
+                adjust(workflowCounters, before, -1);
+                adjust(workflowCounters, after, 1);
+            });
+        }
+    }
+
+    // For changes that move many tasks at once (status layer categories, workflow departments)
+    public void reconcileAfterCommit() {
+        afterCommit(this::reconcile);
+    }
+
+    // Read side
+
+    public Map<TaskStatus, Long> getTaskCountsByStatus(Long departmentId) {
+        return sumTasks(departmentId, TaskCounterKey::status, new EnumMap<>(TaskStatus.class));
+    }
+
+    public Map<TaskPriority, Long> getTaskCountsByPriority(Long departmentId) {
+        return sumTasks(departmentId, TaskCounterKey::priority, new EnumMap<>(TaskPriority.class));
+    }
+
+    public Map<Long, Long> getTaskCountsByAssignee(Long departmentId) {
+        return sumTasks(departmentId, TaskCounterKey::assigneeId, new HashMap<>());
+    }
+
+    public Map<WorkflowStatus, Long> getWorkflowCountsByStatus(Long departmentId) {
+        ensureInitialized();
+        Map<WorkflowStatus, Long> counts = new EnumMap<>(WorkflowStatus.class);
+        workflowCounters.forEach((key, counter) -> {
+            long count = counter.sum();
+            if (count > 0 && key.status() != null
+                    && (departmentId == null || departmentId.equals(key.departmentId()))) {
+                counts.merge(key.status(), count, Long::sum);
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * Rebuilds all counters from the database. Runs periodically and on first use.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.counters.reconcile-interval-ms:300000}",
+               initialDelayString = "${app.dashboard.counters.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        Map<TaskCounterKey, LongAdder> rebuiltTasks = new ConcurrentHashMap<>();
+        for (Object[] row : taskRepository.countTasksForDashboardCounters()) {
+            TaskStatus status = TaskStatusUtil.getStatus((TaskStatus) row[0], (Boolean) row[1]);
+            TaskCounterKey key = new TaskCounterKey(status, (TaskPriority) row[2], (Long) row[3], (Long) row[4]);
+            adjust(rebuiltTasks, key, (Long) row[5]);
+        }
+
+        Map<WorkflowCounterKey, LongAdder> rebuiltWorkflows = new ConcurrentHashMap<>();
+        for (Object[] row : workflowRepository.countWorkflowsForDashboardCounters()) {
+            adjust(rebuiltWorkflows, new WorkflowCounterKey((WorkflowStatus) row[0], (Long) row[1]), (Long) row[2]);
+        }
+
+        if (initialized && !sameCounts(taskCounters, rebuiltTasks)) {
+            logger.info("Dashboard task counters drifted from the database and were reconciled");
+        }
+
+        taskCounters = rebuiltTasks;
+        workflowCounters = rebuiltWorkflows;
+        initialized = true;
+    }
+
+    private <K> Map<K, Long> sumTasks(Long departmentId, Function<TaskCounterKey, K> dimension, Map<K, Long> counts) {
+        ensureInitialized();
+        taskCounters.forEach((key, counter) -> {
+            long count = counter.sum();
+            K group = dimension.apply(key);
+            if (count > 0 && group != null
+                    && (departmentId == null || departmentId.equals(key.departmentId()))) {
+                counts.merge(group, count, Long::sum);
+            }
+        });
+        return counts;
+    }
+
+    private void ensureInitialized() {
+        if (!initialized) {
+            reconcile();
+        }
+    }
+
+    private <K> void adjust(Map<K, LongAdder> counters, K key, long delta) {
+        counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+    }
+
+    private boolean sameCounts(Map<TaskCounterKey, LongAdder> current, Map<TaskCounterKey, LongAdder> rebuilt) {
+        Map<TaskCounterKey, Long> currentCounts = new HashMap<>();
+        current.forEach((key, counter) -> {
+            if (counter.sum() != 0) {
+                currentCounts.put(key, counter.sum());
+            }
+        });
+        Map<TaskCounterKey, Long> rebuiltCounts = new HashMap<>();
+        rebuilt.forEach((key, counter) -> rebuiltCounts.put(key, counter.sum()));
+        return Objects.equals(currentCounts, rebuiltCounts);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
\ No newline at end of file
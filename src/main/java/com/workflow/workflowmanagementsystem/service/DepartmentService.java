@@ -4,6 +4,7 @@ package com.workflow.workflowmanagementsystem.service;
 import com.workflow.workflowmanagementsystem.Repository.DepartmentRepository;
 import com.workflow.workflowmanagementsystem.entity.Department;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,6 +16,9 @@ public class DepartmentService {
     @Autowired
     private DepartmentRepository departmentRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<Department> getAllDepartments() {
         return departmentRepository.findAll();
     }
@@ -27,7 +31,9 @@ public class DepartmentService {
         if (departmentRepository.existsByName(department.getName())) {
             throw new RuntimeException("Department with name '" + department.getName() + "' already exists");
         }
-        return departmentRepository.save(department);
+        Department savedDepartment = departmentRepository.save(department);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Department"));
+        return savedDepartment;
     }
 
     public Department updateDepartment(Long id, Department departmentDetails) {
@@ -41,12 +47,15 @@ public class DepartmentService {
 
         department.setName(departmentDetails.getName());
         department.setDescription(departmentDetails.getDescription());
-        return departmentRepository.save(department);
+        Department savedDepartment = departmentRepository.save(department);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Department"));
+        return savedDepartment;
     }
 
     public void deleteDepartment(Long id) {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
         departmentRepository.delete(department);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Department"));
     }
 }
\ No newline at end of file
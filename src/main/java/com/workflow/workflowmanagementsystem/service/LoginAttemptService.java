@@ -0,0 +1,253 @@
+package com.workflow.workflowmanagementsystem.service;
+
+import com.workflow.workflowmanagementsystem.Repository.LoginFailureSummaryRepository;
+import com.workflow.workflowmanagementsystem.dto.LoginFailureReport;
+import com.workflow.workflowmanagementsystem.entity.LoginFailureSummary.KeyType;
+import com.workflow.workflowmanagementsystem.util.SlidingWindowCounter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks failed logins per username and per client IP over a sliding window and locks a key out once it
+ * reaches its threshold. Counting happens in memory on Spring Security's authentication events; the
+ * per-hour summaries shown to admins are written to login_failure_summaries by a background flush.
+ * A successful login clears its username's failures but not its IP's, since one address may try many accounts.
+ * Usernames and IPs are tracked in separate maps with separate caps, so a burst of random usernames cannot
+ * stop an attacker's address from being counted.
+ */
+@Service
+public class LoginAttemptService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptService.class);
+
+    private static final int WINDOW_SLOTS = 15;
+
+    private record Key(KeyType type, String value) {
+    }
+
+    private record SummaryKey(Key key, LocalDateTime bucketStart) {
+    }
+
+    private record Summary(long failures, long lockouts, LocalDateTime lastFailureAt) {
+
+        Summary plus(Summary other) {
+            return new Summary(failures + other.failures, lockouts + other.lockouts,
+                    lastFailureAt.isAfter(other.lastFailureAt) ? lastFailureAt : other.lastFailureAt);
+        }
+    }
+
+    private static final class Tracker {
+
+        private final SlidingWindowCounter failures;
+
+        private final AtomicLong lockedUntilMillis = new AtomicLong();
+
+        private Tracker(Duration window) {
+            this.failures = new SlidingWindowCounter(window, WINDOW_SLOTS);
+        }
+    }
+
+    @Autowired
+    private LoginFailureSummaryRepository loginFailureSummaryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.security.login.window-minutes:15}")
+    private int windowMinutes;
+
+    @Value("${app.security.login.max-failures-per-user:5}")
+    private int maxFailuresPerUser;
+
+    @Value("${app.security.login.max-failures-per-ip:50}")
+    private int maxFailuresPerIp;
+
+    @Value("${app.security.login.lockout-minutes:15}")
+    private int lockoutMinutes;
+
+    @Value("${app.security.login.max-tracked-usernames:100000}")
+    private int maxTrackedUsernames;
+
+    @Value("${app.security.login.max-tracked-ips:100000}")
+    private int maxTrackedIps;
+
+    private final Map<Key, Tracker> usernameTrackers = new ConcurrentHashMap<>();
+
+    private final Map<Key, Tracker> ipTrackers = new ConcurrentHashMap<>();
+
+    private final Map<SummaryKey, Summary> pendingSummaries = new ConcurrentHashMap<>();
+
+    private final LongAdder untracked = new LongAdder();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener
+    public void onAuthenticationFailure(AuthenticationFailureBadCredentialsEvent event) {
+        long now = System.currentTimeMillis();
+        Authentication authentication = event.getAuthentication();
+        recordFailure(new Key(KeyType.USERNAME, authentication.getName()), maxFailuresPerUser, now);
+        String ipAddress = getRemoteAddress(authentication);
+        if (ipAddress != null) {
+            recordFailure(new Key(KeyType.IP, ipAddress), maxFailuresPerIp, now);
+        }
+    }
+
+    @EventListener
+    public void onAuthenticationSuccess(AuthenticationSuccessEvent event) {
+        usernameTrackers.remove(new Key(KeyType.USERNAME, event.getAuthentication().getName()));
+    }
+
+    /**
+     * Whether logins for this username, or from this IP, are locked out right now
+     */
+    public boolean isBlocked(String username, String ipAddress) {
+        long now = System.currentTimeMillis();
+        return isLocked(new Key(KeyType.USERNAME, username), now)
+                || (ipAddress != null && isLocked(new Key(KeyType.IP, ipAddress), now));
+    }
+
+    /**
+     * Lifts a username's lockout and clears its failures
+     * @return whether the username was locked out
+     */
+    public boolean unlock(String username) {
+        Tracker tracker = usernameTrackers.remove(new Key(KeyType.USERNAME, username));
+        return tracker != null && tracker.lockedUntilMillis.get() > System.currentTimeMillis();
+    }
+
+    /**
+     * Usernames and IPs with the most failed logins over the last hours, from the persisted summaries
+     * plus those not flushed yet
+     */
+    public List<LoginFailureReport> getTopFailures(int hours, int limit) {
+        flushSummaries();
+        long now = System.currentTimeMillis();
+        List<LoginFailureReport> reports = new ArrayList<>();
+        LocalDateTime since = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(Math.max(0, hours - 1));
+        for (Object[] row : loginFailureSummaryRepository.findTopFailures(since, PageRequest.of(0, limit))) {
+            KeyType keyType = (KeyType) row[0];
+            String key = (String) row[1];
+            reports.add(new LoginFailureReport(keyType, key, ((Number) row[2]).longValue(),
+                    ((Number) row[3]).longValue(), (LocalDateTime) row[4], isLocked(new Key(keyType, key), now)));
+        }
+        return reports;
+    }
+
+    /**
+     * Writes the summaries counted since the last flush and forgets keys with no recent failures.
+     */
+    @Scheduled(fixedDelayString = "${app.security.login.flush-interval-ms:10000}")
+    public void flushSummaries() {
+        List<Map.Entry<SummaryKey, Summary>> batch = new ArrayList<>();
+        for (SummaryKey key : pendingSummaries.keySet()) {
+            Summary summary = pendingSummaries.remove(key);
+            if (summary != null) {
+                batch.add(Map.entry(key, summary));
+            }
+        }
+        if (!batch.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> batch.forEach(entry ->
+                        loginFailureSummaryRepository.addFailures(entry.getKey().key().type().name(),
+                                entry.getKey().key().value(), entry.getKey().bucketStart(), entry.getValue().failures(),
+                                entry.getValue().lockouts(), entry.getValue().lastFailureAt())));
+            } catch (RuntimeException e) {
+                // Kept for the next flush
+                batch.forEach(entry -> pendingSummaries.merge(entry.getKey(), entry.getValue(), Summary::plus));
+                logger.warn("Failed to write {} login failure summaries: {}", batch.size(), e.getMessage());
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        for (Map<Key, Tracker> trackers : List.of(usernameTrackers, ipTrackers)) {
+            trackers.entrySet().removeIf(entry ->
+                    entry.getValue().failures.count(now) == 0 && entry.getValue().lockedUntilMillis.get() <= now);
+        }
+        long skipped = untracked.sumThenReset();
+        if (skipped > 0) {
+            logger.warn("{} failed logins were not tracked because {} usernames are already tracked", skipped,
+                    maxTrackedUsernames);
+        }
+    }
+
+    private void recordFailure(Key key, int maxFailures, long now) {
+        Map<Key, Tracker> trackers = trackersFor(key);
+        Tracker tracker = trackers.get(key);
+        if (tracker == null) {
+            if (key.type() == KeyType.USERNAME && trackers.size() >= maxTrackedUsernames) {
+                untracked.increment();
+                return;
+            }
+            if (key.type() == KeyType.IP && trackers.size() >= maxTrackedIps) {
+                // A new address is always counted; it takes the place of one that is not locked out
+                evictUnlocked(trackers, now);
+            }
+            tracker = trackers.computeIfAbsent(key, k -> new Tracker(Duration.ofMinutes(windowMinutes)));
+        }
+
+        long lockouts = 0;
+        int failures = tracker.failures.increment(now);
+        long lockedUntil = tracker.lockedUntilMillis.get();
+        // Only the thread that starts the lockout counts it
+        if (failures >= maxFailures && lockedUntil <= now
+                && tracker.lockedUntilMillis.compareAndSet(lockedUntil, now + Duration.ofMinutes(lockoutMinutes).toMillis())) {
+            lockouts = 1;
+            logger.warn("Locked out {} {} for {} minutes after {} failed logins", key.type(), key.value(),
+                    lockoutMinutes, failures);
+        }
+
+        LocalDateTime at = LocalDateTime.now();
+        pendingSummaries.merge(new SummaryKey(key, at.truncatedTo(ChronoUnit.HOURS)), new Summary(1, lockouts, at),
+                Summary::plus);
+    }
+
+    private boolean isLocked(Key key, long now) {
+        Tracker tracker = trackersFor(key).get(key);
+        return tracker != null && tracker.lockedUntilMillis.get() > now;
+    }
+
+    private Map<Key, Tracker> trackersFor(Key key) {
+        return key.type() == KeyType.USERNAME ? usernameTrackers : ipTrackers;
+    }
+
+    // Locked-out keys are kept, so the map only grows past its cap while every tracked key is locked out
+    private void evictUnlocked(Map<Key, Tracker> trackers, long now) {
+        for (Map.Entry<Key, Tracker> entry : trackers.entrySet()) {
+            if (entry.getValue().lockedUntilMillis.get() <= now && trackers.remove(entry.getKey(), entry.getValue())) {
+                return;
+            }
+        }
+    }
+
+    private String getRemoteAddress(Authentication authentication) {
+        return authentication.getDetails() instanceof WebAuthenticationDetails details ? details.getRemoteAddress() : null;
+    }
+}
\ No newline at end of file
@@ -22,6 +22,7 @@ import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -217,6 +218,21 @@ public class NotificationService implements MqttCallback {
         }
     }
     
+    // Send a single notification to one recipient for a bulk task operation
+    public void notifyTasksChangedInBulk(String title, String message, String type, String subtopic,
+                                         List<Long> taskIds, Long userId) {
+        try {
+            Map<String, Object> notification = createNotification(title, message, type, null, userId);
+            notification.put("taskIds", taskIds);
+            
+            sendNotification(topicPrefix + "/tasks/" + subtopic, notification);
+            logger.info("Sent bulk {} notification for {} tasks to user {}", type, taskIds.size(), userId);
+            
+        } catch (Exception e) {
+            logger.error("Failed to send bulk task notification: {}", e.getMessage());
+        }
+    }
+    
     // Send custom notification
     public void sendCustomNotification(String title, String message, String type, Long entityId, Long userId) {
         try {
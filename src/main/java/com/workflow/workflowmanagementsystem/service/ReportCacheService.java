@@ -0,0 +1,124 @@
+package com.workflow.workflowmanagementsystem.service;
+
+import com.workflow.workflowmanagementsystem.dto.ReportCacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Cache of report page data keyed by report type and normalized filters.
+ * Entries are kept in least recently used order up to app.reports.cache.max-entries, and the whole cache is
+ * cleared after every commit that published a {@link ReportDataChangedEvent}. A report computed while such a commit
+ * happened is returned but not cached, so a cached report never predates the last change made through the services.
+ * Changes made elsewhere (e.g. directly in the database) are picked up once an entry reaches
+ * app.reports.cache.max-age-seconds.
+ */
+@Service
+public class ReportCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportCacheService.class);
+
+    @Value("${app.reports.cache.max-entries:200}")
+    private int maxEntries;
+
+    @Value("${app.reports.cache.max-age-seconds:600}")
+    private long maxAgeSeconds;
+
+    private final Map<List<String>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<String>, Entry> eldest) {
+            if (size() > maxEntries) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // Incremented by every invalidation; a report is only stored if no invalidation happened while it was computed
+    private long generation;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    private long invalidations;
+
+    private record Entry(Map<String, Object> report, long createdAt) {
+    }
+
+    /**
+     * Cache key of a report: its type followed by the filter values, with blank values as null and
+     * text compared case-insensitively like the report filters themselves
+     */
+    public static List<String> key(String reportType, Object... filters) {
+        List<String> key = new ArrayList<>(filters.length + 1);
+        key.add(reportType);
+        for (Object filter : filters) {
+            String value = filter != null ? filter.toString().trim().toLowerCase(Locale.ROOT) : null;
+            key.add(value == null || value.isEmpty() ? null : value);
+        }
+        return key;
+    }
+
+    /**
+     * The cached report for a key, computed by the loader on a miss. The returned map is shared and must not be
+     * modified.
+     */
+    public Map<String, Object> get(List<String> key, Supplier<Map<String, Object>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && System.currentTimeMillis() - entry.createdAt() < maxAgeSeconds * 1000) {
+                hits++;
+                return entry.report();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions++;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        Map<String, Object> report = loader.get();
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                entries.put(key, new Entry(report, System.currentTimeMillis()));
+            }
+        }
+        return report;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReportDataChanged(ReportDataChangedEvent event) {
+        int cleared;
+        synchronized (this) {
+            generation++;
+            invalidations++;
+            cleared = entries.size();
+            entries.clear();
+        }
+        if (cleared > 0) {
+            logger.debug("{} changed, cleared {} cached reports", event.entityType(), cleared);
+        }
+    }
+
+    public synchronized ReportCacheStats getStats() {
+        long requests = hits + misses;
+        return new ReportCacheStats(entries.size(), maxEntries, hits, misses,
+                requests > 0 ? (double) hits / requests : 0.0, evictions, invalidations);
+    }
+}
\ No newline at end of file
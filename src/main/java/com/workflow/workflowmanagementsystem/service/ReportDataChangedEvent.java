@@ -0,0 +1,9 @@
+package com.workflow.workflowmanagementsystem.service;
+
+/**
+ * Published by service methods that change data shown in reports. Cached reports are dropped once the
+ * publishing transaction commits (see ReportCacheService).
+ * @param entityType The kind of entity that changed, e.g. "Task"
+ */
+public record ReportDataChangedEvent(String entityType) {
+}
\ No newline at end of file
@@ -0,0 +1,303 @@
+package com.workflow.workflowmanagementsystem.service;
+
+import com.workflow.workflowmanagementsystem.dto.ReportJobProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Background CSV report exports.
+ * Jobs run the same streaming exports as the report export endpoints, but on a fixed pool of
+ * app.reports.jobs.threads threads with a bounded queue instead of a request thread, and each user may have at most
+ * app.reports.jobs.max-per-user jobs queued or running. The result is written gzipped to app.reports.jobs.result-dir
+ * and kept for app.reports.jobs.result-ttl-hours after the job finishes, along with its progress.
+ * <p>
+ * Jobs are tracked in memory only, so result files left over from a previous run are deleted on startup.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    public enum ReportType {
+        TASK_REPORT("task-report"),
+        WORKFLOW_REPORT("workflow-report"),
+        USER_PRODUCTIVITY("user-productivity"),
+        AUDIT_LOGS("audit-logs");
+
+        private final String name;
+
+        ReportType(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static ReportType fromName(String name) {
+            for (ReportType type : values()) {
+                if (type.name.equalsIgnoreCase(name)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown report type: " + name);
+        }
+    }
+
+    // Filters of a report job; each report type uses the same ones as its export endpoint
+    public record Filters(String status, String priority, Long departmentId, Long userId,
+                          String actionType, String entityType) {
+    }
+
+    @Autowired
+    private ReportService reportService;
+
+    @Value("${app.reports.jobs.threads:2}")
+    private int threads;
+
+    @Value("${app.reports.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${app.reports.jobs.max-per-user:2}")
+    private int maxJobsPerUser;
+
+    @Value("${app.reports.jobs.result-ttl-hours:24}")
+    private long resultTtlHours;
+
+    @Value("${app.reports.jobs.result-dir:report-jobs}")
+    private String resultDir;
+
+    private final Map<String, ReportJobProgress> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor jobExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        jobExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        deleteLeftoverResults();
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * Queue a report export for a user
+     * @return the progress of the queued job, to be polled with {@link #getJob(String, String)}
+     * @throws IllegalStateException if the user already has the maximum number of jobs or the queue is full
+     */
+    public ReportJobProgress submit(ReportType type, Filters filters, String owner) {
+        ReportJobProgress progress = new ReportJobProgress(UUID.randomUUID().toString(), type.getName(),
+                type.getName() + ".csv", owner);
+        // The per-user check and the registration happen together so concurrent submits cannot both pass
+        synchronized (jobs) {
+            long active = jobs.values().stream()
+                    .filter(job -> job.getOwner().equals(owner) && !job.isFinished())
+                    .count();
+            if (active >= maxJobsPerUser) {
+                throw new IllegalStateException("You already have " + active + " report jobs queued or running");
+            }
+            jobs.put(progress.getId(), progress);
+        }
+
+        try {
+            jobExecutor.execute(() -> run(type, filters, progress));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(progress.getId());
+            throw new IllegalStateException("Too many report jobs are queued, try again later");
+        }
+        logger.info("Report job {} queued: {} for {}", progress.getId(), type.getName(), owner);
+        return progress;
+    }
+
+    public Optional<ReportJobProgress> getJob(String jobId, String owner) {
+        return Optional.ofNullable(jobs.get(jobId)).filter(job -> job.getOwner().equals(owner));
+    }
+
+    // Jobs of a user, newest first
+    public List<ReportJobProgress> getJobs(String owner) {
+        return jobs.values().stream()
+                .filter(job -> job.getOwner().equals(owner))
+                .sorted(Comparator.comparing(ReportJobProgress::getQueuedAt).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Cancel a queued or running job of a user
+     * @return the job, empty if the user has no such job
+     */
+    public Optional<ReportJobProgress> cancel(String jobId, String owner) {
+        Optional<ReportJobProgress> job = getJob(jobId, owner);
+        job.ifPresent(ReportJobProgress::cancel);
+        return job;
+    }
+
+    /**
+     * The gzipped CSV result of a completed job of a user, empty while it is not available
+     */
+    public Optional<Path> getResult(String jobId, String owner) {
+        return getJob(jobId, owner)
+                .filter(job -> job.getStatus() == ReportJobProgress.Status.COMPLETED)
+                .map(job -> resultFile(job.getId()))
+                .filter(Files::exists);
+    }
+
+    /**
+     * Forgets jobs that finished more than the result TTL ago and deletes their results.
+     */
+    @Scheduled(fixedDelayString = "${app.reports.jobs.cleanup-interval-ms:600000}")
+    public void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofHours(resultTtlHours));
+        for (ReportJobProgress job : jobs.values()) {
+            if (job.isFinished() && job.getFinishedAt().isBefore(cutoff)) {
+                jobs.remove(job.getId());
+                deleteQuietly(resultFile(job.getId()));
+            }
+        }
+    }
+
+    private void run(ReportType type, Filters filters, ReportJobProgress progress) {
+        if (!progress.start()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Path result = resultFile(progress.getId());
+        Path temporary = result.resolveSibling(result.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(result.getParent());
+            long rows;
+            try (GZIPOutputStream gzip = new GZIPOutputStream(Files.newOutputStream(temporary), 65536);
+                 OutputStream output = new ProgressOutputStream(gzip, progress)) {
+                rows = export(type, filters, output);
+                output.flush();
+                gzip.finish();
+            }
+            Files.move(temporary, result, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            progress.complete(rows, LocalDateTime.now().plus(Duration.ofHours(resultTtlHours)));
+            logger.info("Report job {} completed: {} rows in {} ms", progress.getId(), rows,
+                    System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            if (progress.isCancelRequested()) {
+                progress.cancelled();
+                logger.info("Report job {} cancelled after {} ms", progress.getId(), System.currentTimeMillis() - start);
+            } else {
+                logger.error("Report job {} failed", progress.getId(), e);
+                progress.fail("Report failed: " + e.getMessage());
+            }
+        } finally {
+            deleteQuietly(temporary);
+        }
+    }
+
+    private long export(ReportType type, Filters filters, OutputStream output) throws IOException {
+        return switch (type) {
+            case TASK_REPORT -> reportService.streamTaskReportToCSV(filters.status(), filters.priority(),
+                    filters.departmentId(), output);
+            case WORKFLOW_REPORT -> reportService.streamWorkflowReportToCSV(filters.status(), filters.departmentId(), output);
+            case USER_PRODUCTIVITY -> reportService.streamUserProductivityToCSV(filters.userId(), filters.departmentId(), output);
+            case AUDIT_LOGS -> reportService.streamAuditLogsToCSV(filters.actionType(), filters.entityType(),
+                    filters.userId(), output);
+        };
+    }
+
+    private Path resultFile(String jobId) {
+        return Paths.get(resultDir).toAbsolutePath().resolve(jobId + ".csv.gz");
+    }
+
+    private void deleteLeftoverResults() {
+        Path directory = Paths.get(resultDir).toAbsolutePath();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.{csv.gz,tmp}")) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not clean up report job results in {}", directory, e);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete report job file {}", file);
+        }
+    }
+
+    // Counts the CSV bytes written and stops the export at its next write once the job is cancelled
+    private static class ProgressOutputStream extends FilterOutputStream {
+
+        private final ReportJobProgress progress;
+
+        ProgressOutputStream(OutputStream out, ReportJobProgress progress) {
+            super(out);
+            this.progress = progress;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkCancelled();
+            out.write(b);
+            progress.bytesWritten(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkCancelled();
+            out.write(b, off, len);
+            progress.bytesWritten(len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            checkCancelled();
+            out.flush();
+        }
+
+        private void checkCancelled() throws IOException {
+            if (progress.isCancelRequested()) {
+                throw new InterruptedIOException("Report job cancelled");
+            }
+        }
+    }
+}
\ No newline at end of file
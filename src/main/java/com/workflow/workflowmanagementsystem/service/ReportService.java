@@ -4,39 +4,74 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.opencsv.CSVWriter;
 import com.workflow.workflowmanagementsystem.Repository.AuditLogRepository;
 import com.workflow.workflowmanagementsystem.Repository.DepartmentRepository;
+import com.workflow.workflowmanagementsystem.Repository.TaskRepository;
 import com.workflow.workflowmanagementsystem.Repository.UserRepository;
+import com.workflow.workflowmanagementsystem.Repository.WorkflowRepository;
+import com.workflow.workflowmanagementsystem.component.FullTextSearchSetup;
 import com.workflow.workflowmanagementsystem.entity.AuditLog;
 import com.workflow.workflowmanagementsystem.entity.Department;
 import com.workflow.workflowmanagementsystem.entity.Task;
-import com.workflow.workflowmanagementsystem.entity.User;
 import com.workflow.workflowmanagementsystem.entity.Workflow;
+import com.workflow.workflowmanagementsystem.util.SearchQueryUtil;
+import com.workflow.workflowmanagementsystem.util.TaskStatusUtil;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.ByteArrayOutputStream;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ReportService {
     
+    // Audit log reports and exports cover this many days
+    private static final int AUDIT_LOG_REPORT_DAYS = 30;
+    
+    // Detail rows kept for a report page; totals and statistics always cover every matching row
+    private static final int REPORT_DETAIL_ROWS = 1000;
+    
+    // Rows between flushes of a streamed export, so the client receives data while the cursor is still open
+    private static final int EXPORT_FLUSH_ROWS = 1000;
+    
+    private static final String[] TASK_REPORT_HEADER = {"Task Title", "Status", "Priority", "Workflow", "Assigned To",
+            "Created By", "Due Date", "Completed Date", "Estimated Hours", "Actual Hours", "Description"};
+    
+    private static final String[] WORKFLOW_REPORT_HEADER = {"Workflow Name", "Status", "Department", "Created By",
+            "Created Date", "Task Count", "Description"};
+    
+    private static final String[] USER_PRODUCTIVITY_HEADER = {"Username", "Total Tasks", "Completed Tasks",
+            "Overdue Tasks", "Completion Rate (%)", "Average Completion Days"};
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     @Autowired
     private WorkflowService workflowService;
     
     @Autowired
-    private TaskService taskService;
+    private UserRepository userRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private WorkflowRepository workflowRepository;
     
     @Autowired
     private DepartmentRepository departmentRepository;
@@ -47,20 +82,39 @@ public class ReportService {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private ReportCacheService reportCacheService;
+    
+    @Autowired
+    private SectionExecutor sectionExecutor;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private FullTextSearchSetup fullTextSearchSetup;
+    
+    // Report pages are computed in a read-only transaction only when they are not cached
+    private TransactionTemplate readOnlyTransaction;
+    
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+    
     // Generate workflow summary report
+    @Transactional(readOnly = true)
     public Map<String, Object> generateWorkflowSummaryReport() {
         Map<String, Object> report = new HashMap<>();
         report.put("reportType", "Workflow Summary");
         report.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         report.put("generatedBy", "System");
         
-        // Get all workflows
-        Pageable pageable = PageRequest.of(0, 1000);
-        Page<Workflow> workflows = workflowService.getAllWorkflows(pageable);
-        
         // Calculate statistics
         Map<String, Object> statistics = new HashMap<>();
-        statistics.put("totalWorkflows", workflows.getTotalElements());
+        long totalWorkflows = workflowRepository.count();
+        statistics.put("totalWorkflows", totalWorkflows);
         
         // Status distribution
         Map<String, Object> workflowStats = workflowService.getWorkflowStatistics();
@@ -83,86 +137,72 @@ public class ReportService {
         report.put("statistics", statistics);
         
         // Workflow details
-        List<Map<String, Object>> workflowDetails = workflows.getContent().stream()
-                .map(this::workflowToMap)
-                .collect(Collectors.toList());
-        report.put("workflows", workflowDetails);
+        putWorkflowDetails(report, null, null, totalWorkflows);
         
         return report;
     }
     
-    // Generate task performance report
+    // Generate task performance report - the counts, averages and details are independent queries run as parallel
+    // sections; a section that is too slow is left out and listed under incompleteSections
     public Map<String, Object> generateTaskPerformanceReport() {
         Map<String, Object> report = new HashMap<>();
         report.put("reportType", "Task Performance");
         report.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         report.put("generatedBy", "System");
         
-        // Get all tasks
-        Pageable pageable = PageRequest.of(0, 1000);
-        Page<Task> tasks = taskService.getAllTasks(pageable);
-        
-        // Calculate statistics
-        Map<String, Object> statistics = new HashMap<>();
-        statistics.put("totalTasks", tasks.getTotalElements());
-        
-        // Status distribution
-        Map<String, Object> taskStats = taskService.getTaskStatistics();
-        List<Object[]> statusStats = (List<Object[]>) taskStats.get("statusStatistics");
-        
-        Map<String, Long> statusDistribution = new HashMap<>();
-        for (Object[] stat : statusStats) {
-            statusDistribution.put(stat[0].toString(), (Long) stat[1]);
-        }
-        statistics.put("statusDistribution", statusDistribution);
-        
-        // Priority distribution
-        List<Object[]> priorityStats = (List<Object[]>) taskStats.get("priorityStatistics");
-        Map<String, Long> priorityDistribution = new HashMap<>();
-        for (Object[] stat : priorityStats) {
-            priorityDistribution.put(stat[0].toString(), (Long) stat[1]);
-        }
-        statistics.put("priorityDistribution", priorityDistribution);
-        
-        // User assignment distribution
-        List<Object[]> userStats = (List<Object[]>) taskStats.get("userStatistics");
-        Map<String, Long> userDistribution = new HashMap<>();
-        for (Object[] stat : userStats) {
-            userDistribution.put(stat[0].toString(), (Long) stat[1]);
-        }
-        statistics.put("userDistribution", userDistribution);
-        
-        // Performance metrics
-        List<Task> completedTasks = tasks.getContent().stream()
-                .filter(task -> task.getStatus() == Task.TaskStatus.COMPLETED)
-                .collect(Collectors.toList());
-        
-        if (!completedTasks.isEmpty()) {
-            double avgEstimatedHours = completedTasks.stream()
-                    .filter(task -> task.getEstimatedHours() != null)
-                    .mapToInt(Task::getEstimatedHours)
-                    .average()
-                    .orElse(0.0);
+        try (SectionExecutor.Scope scope = sectionExecutor.open()) {
+            SectionExecutor.Section<Long> totalTasks = scope.fork("totalTasks", taskRepository::count);
+            SectionExecutor.Section<Map<String, Long>> statusDistribution = scope.fork("statusDistribution",
+                    () -> toDistribution(taskRepository.countTasksByStatus()));
+            SectionExecutor.Section<Map<String, Long>> priorityDistribution = scope.fork("priorityDistribution",
+                    () -> toDistribution(taskRepository.countTasksByPriority()));
+            SectionExecutor.Section<Map<String, Long>> userDistribution = scope.fork("userDistribution",
+                    () -> toDistribution(taskRepository.countTasksByAssignedUser()));
+            // [count, average estimated hours, average actual hours] over all completed tasks
+            SectionExecutor.Section<Object[]> completedHours = scope.fork("performance",
+                    () -> taskRepository.getCompletedTaskHours().get(0));
+            SectionExecutor.Section<List<Map<String, Object>>> tasks = scope.fork("tasks",
+                    () -> loadTaskDetails(null, null, null));
+            scope.join();
+            
+            // Calculate statistics
+            Map<String, Object> statistics = new HashMap<>();
+            if (totalTasks.isCompleted()) {
+                statistics.put("totalTasks", totalTasks.get(0L));
+            }
+            if (statusDistribution.isCompleted()) {
+                statistics.put("statusDistribution", statusDistribution.get(null));
+            }
+            if (priorityDistribution.isCompleted()) {
+                statistics.put("priorityDistribution", priorityDistribution.get(null));
+            }
+            if (userDistribution.isCompleted()) {
+                statistics.put("userDistribution", userDistribution.get(null));
+            }
             
-            double avgActualHours = completedTasks.stream()
-                    .filter(task -> task.getActualHours() != null)
-                    .mapToInt(Task::getActualHours)
-                    .average()
-                    .orElse(0.0);
+            // Performance metrics
+            Object[] completed = completedHours.get(null);
+            if (completed != null && ((Number) completed[0]).longValue() > 0) {
+                double avgEstimatedHours = completed[1] != null ? ((Number) completed[1]).doubleValue() : 0.0;
+                double avgActualHours = completed[2] != null ? ((Number) completed[2]).doubleValue() : 0.0;
+                
+                statistics.put("averageEstimatedHours", avgEstimatedHours);
+                statistics.put("averageActualHours", avgActualHours);
+                statistics.put("efficiencyRatio", avgEstimatedHours > 0 ? avgActualHours / avgEstimatedHours : 0.0);
+            }
             
-            statistics.put("averageEstimatedHours", avgEstimatedHours);
-            statistics.put("averageActualHours", avgActualHours);
-            statistics.put("efficiencyRatio", avgEstimatedHours > 0 ? avgActualHours / avgEstimatedHours : 0.0);
+            report.put("statistics", statistics);
+            
+            // Task details
+            List<Map<String, Object>> taskDetails = tasks.get(Collections.emptyList());
+            report.put("tasks", taskDetails);
+            report.put("detailsTruncated", !totalTasks.isCompleted() || totalTasks.get(0L) > taskDetails.size());
+            
+            if (!scope.getIncompleteSections().isEmpty()) {
+                report.put("incompleteSections", scope.getIncompleteSections());
+            }
         }
         
-        report.put("statistics", statistics);
-        
-        // Task details
-        List<Map<String, Object>> taskDetails = tasks.getContent().stream()
-                .map(this::taskToMap)
-                .collect(Collectors.toList());
-        report.put("tasks", taskDetails);
-        
         return report;
     }
     
@@ -173,54 +213,24 @@ public class ReportService {
         report.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         report.put("generatedBy", "System");
         
-        // Get all tasks
-        Pageable pageable = PageRequest.of(0, 1000);
-        Page<Task> tasks = taskService.getAllTasks(pageable);
-        
-        // Group tasks by assigned user
-        Map<String, List<Task>> tasksByUser = tasks.getContent().stream()
-                .filter(task -> task.getAssignedTo() != null)
-                .collect(Collectors.groupingBy(task -> task.getAssignedTo().getUsername()));
-        
+        // One row per assignee, grouped in the database:
+        // [username, total, completed, overdue, average completion days]
         List<Map<String, Object>> userProductivity = new ArrayList<>();
-        
-        for (Map.Entry<String, List<Task>> entry : tasksByUser.entrySet()) {
-            String username = entry.getKey();
-            List<Task> userTasks = entry.getValue();
+        for (Object[] row : taskRepository.summarizeTasksByAssignee(LocalDateTime.now())) {
+            long totalTasks = ((Number) row[1]).longValue();
+            long completedTasks = ((Number) row[2]).longValue();
             
             Map<String, Object> userStats = new HashMap<>();
-            userStats.put("username", username);
-            userStats.put("totalTasks", userTasks.size());
-            
-            long completedTasks = userTasks.stream()
-                    .filter(task -> task.getStatus() == Task.TaskStatus.COMPLETED)
-                    .count();
+            userStats.put("username", row[0]);
+            userStats.put("totalTasks", (int) totalTasks);
             userStats.put("completedTasks", (int) completedTasks);
+            userStats.put("overdueTasks", ((Number) row[3]).intValue());
             
-            long overdueTasks = userTasks.stream()
-                    .filter(task -> task.getDueDate().isBefore(LocalDateTime.now()) &&
-                                   task.getStatus() != Task.TaskStatus.COMPLETED)
-                    .count();
-            userStats.put("overdueTasks", (int) overdueTasks);
-            
-            double completionRate = userTasks.size() > 0 ? (double) completedTasks / userTasks.size() * 100 : 0.0;
+            double completionRate = totalTasks > 0 ? (double) completedTasks / totalTasks * 100 : 0.0;
             userStats.put("completionRate", Math.round(completionRate * 100.0) / 100.0);
             
-            // Calculate average completion time
-            List<Task> completed = userTasks.stream()
-                    .filter(task -> task.getStatus() == Task.TaskStatus.COMPLETED &&
-                                   task.getCompletedAt() != null)
-                    .collect(Collectors.toList());
-            
-            if (!completed.isEmpty()) {
-                double avgCompletionDays = completed.stream()
-                        .mapToLong(task -> java.time.Duration.between(task.getCreatedAt(), task.getCompletedAt()).toDays())
-                        .average()
-                        .orElse(0.0);
-                userStats.put("averageCompletionDays", Math.round(avgCompletionDays * 100.0) / 100.0);
-            } else {
-                userStats.put("averageCompletionDays", 0.0);
-            }
+            double avgCompletionDays = row[4] != null ? ((Number) row[4]).doubleValue() : 0.0;
+            userStats.put("averageCompletionDays", Math.round(avgCompletionDays * 100.0) / 100.0);
             
             userProductivity.add(userStats);
         }
@@ -233,180 +243,242 @@ public class ReportService {
         return report;
     }
     
-    // Export report to CSV
-    public byte[] exportToCSV(Map<String, Object> report) throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    /**
+     * Writes the task report for the given filters as CSV, reading the rows through a database cursor.
+     * Rows are projected columns rather than entities, and the output is flushed every
+     * {@value #EXPORT_FLUSH_ROWS} rows. The output stream is flushed but not closed.
+     * @return The number of exported tasks
+     */
+    @Transactional(readOnly = true)
+    public long streamTaskReportToCSV(String status, String priority, Long departmentId,
+                                      OutputStream outputStream) throws IOException {
+        CSVWriter csvWriter = newCsvWriter(outputStream);
+        csvWriter.writeNext(TASK_REPORT_HEADER);
+        
+        Task.TaskStatus taskStatus = findByDisplayName(Task.TaskStatus.values(), Task.TaskStatus::getDisplayName, status);
+        Task.TaskPriority taskPriority = findByDisplayName(Task.TaskPriority.values(), Task.TaskPriority::getDisplayName, priority);
+        if ((hasText(status) && taskStatus == null) || (hasText(priority) && taskPriority == null)) {
+            // Unknown filter values match nothing, as in the report
+            csvWriter.flush();
+            return 0;
+        }
         
-        try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
-             CSVWriter csvWriter = new CSVWriter(writer)) {
-            
-            String reportType = (String) report.get("reportType");
-            
-            switch (reportType) {
-                case "Workflow Summary":
-                case "Workflow Report":
-                    exportWorkflowSummaryToCSV(report, csvWriter);
-                    break;
-                case "Task Performance":
-                case "Task Report":
-                    exportTaskPerformanceToCSV(report, csvWriter);
-                    break;
-                case "User Productivity":
-                    exportUserProductivityToCSV(report, csvWriter);
-                    break;
-                case "Audit Logs":
-                    exportAuditLogsToCSV(report, csvWriter);
-                    break;
-                default:
-                    throw new IllegalArgumentException("Unknown report type: " + reportType);
+        long count = 0;
+        try (Stream<Object[]> rows = taskRepository.streamTaskReportRows(taskStatus, taskPriority, departmentId)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Map<String, Object> task = taskReportRow(iterator.next());
+                csvWriter.writeNext(new String[] {
+                    (String) task.get("title"),
+                    (String) task.get("status"),
+                    (String) task.get("priority"),
+                    (String) task.get("workflow"),
+                    (String) task.get("assignedTo"),
+                    (String) task.get("createdBy"),
+                    (String) task.get("dueDate"),
+                    (String) task.get("completedAt"),
+                    task.get("estimatedHours") != null ? task.get("estimatedHours").toString() : "",
+                    task.get("actualHours") != null ? task.get("actualHours").toString() : "",
+                    (String) task.get("description")
+                });
+                if (++count % EXPORT_FLUSH_ROWS == 0) {
+                    csvWriter.flush();
+                }
             }
         }
+        csvWriter.flush();
+        return count;
+    }
+    
+    /**
+     * Writes the workflow report for the given filters as CSV, reading the rows through a database cursor.
+     * Task counts come from a subquery per row instead of loading each workflow's tasks.
+     * @return The number of exported workflows
+     */
+    @Transactional(readOnly = true)
+    public long streamWorkflowReportToCSV(String status, Long departmentId, OutputStream outputStream) throws IOException {
+        CSVWriter csvWriter = newCsvWriter(outputStream);
+        csvWriter.writeNext(WORKFLOW_REPORT_HEADER);
+        
+        Workflow.WorkflowStatus workflowStatus = findByDisplayName(Workflow.WorkflowStatus.values(),
+                Workflow.WorkflowStatus::getDisplayName, status);
+        if (hasText(status) && workflowStatus == null) {
+            csvWriter.flush();
+            return 0;
+        }
         
-        return outputStream.toByteArray();
-    }
-    
-    // Export workflow summary to CSV
-    private void exportWorkflowSummaryToCSV(Map<String, Object> report, CSVWriter csvWriter) {
-        // Header
-        String[] header = {"Workflow Name", "Status", "Department", "Created By", "Created Date", "Task Count", "Description"};
-        csvWriter.writeNext(header);
-        
-        // Data
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> workflows = (List<Map<String, Object>>) report.get("workflows");
-        
-        for (Map<String, Object> workflow : workflows) {
-            String[] row = {
-                (String) workflow.get("name"),
-                (String) workflow.get("status"),
-                (String) workflow.get("department"),
-                (String) workflow.get("createdBy"),
-                (String) workflow.get("createdAt"),
-                workflow.get("taskCount").toString(),
-                (String) workflow.get("description")
-            };
-            csvWriter.writeNext(row);
+        long count = 0;
+        try (Stream<Object[]> rows = workflowRepository.streamWorkflowReportRows(workflowStatus, departmentId)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Map<String, Object> workflow = workflowReportRow(iterator.next());
+                csvWriter.writeNext(new String[] {
+                    (String) workflow.get("name"),
+                    (String) workflow.get("status"),
+                    (String) workflow.get("department"),
+                    (String) workflow.get("createdBy"),
+                    (String) workflow.get("createdAt"),
+                    workflow.get("taskCount").toString(),
+                    (String) workflow.get("description")
+                });
+                if (++count % EXPORT_FLUSH_ROWS == 0) {
+                    csvWriter.flush();
+                }
+            }
         }
+        csvWriter.flush();
+        return count;
     }
     
-    // Export task performance to CSV
-    private void exportTaskPerformanceToCSV(Map<String, Object> report, CSVWriter csvWriter) {
-        // Header
-        String[] header = {"Task Title", "Status", "Priority", "Workflow", "Assigned To", "Created By", 
-                           "Due Date", "Completed Date", "Estimated Hours", "Actual Hours", "Description"};
-        csvWriter.writeNext(header);
-        
-        // Data
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> tasks = (List<Map<String, Object>>) report.get("tasks");
-        
-        for (Map<String, Object> task : tasks) {
-            String[] row = {
-                (String) task.get("title"),
-                (String) task.get("status"),
-                (String) task.get("priority"),
-                (String) task.get("workflow"),
-                (String) task.get("assignedTo"),
-                (String) task.get("createdBy"),
-                (String) task.get("dueDate"),
-                (String) task.get("completedAt"),
-                task.get("estimatedHours") != null ? task.get("estimatedHours").toString() : "",
-                task.get("actualHours") != null ? task.get("actualHours").toString() : "",
-                (String) task.get("description")
-            };
-            csvWriter.writeNext(row);
+    /**
+     * Writes the user productivity report as CSV from a single grouped query over all filtered users
+     * @return The number of exported users
+     */
+    @Transactional(readOnly = true)
+    public long streamUserProductivityToCSV(Long userId, Long departmentId, OutputStream outputStream) throws IOException {
+        CSVWriter csvWriter = newCsvWriter(outputStream);
+        csvWriter.writeNext(USER_PRODUCTIVITY_HEADER);
+        
+        long count = 0;
+        for (Object[] row : taskRepository.summarizeUserProductivity(LocalDateTime.now(), userId, departmentId)) {
+            Map<String, Object> userData = userProductivityRow(row);
+            csvWriter.writeNext(new String[] {
+                userData.get("username").toString(),
+                userData.get("totalTasks").toString(),
+                userData.get("completedTasks").toString(),
+                userData.get("overdueTasks").toString(),
+                userData.get("completionRate").toString(),
+                userData.get("averageCompletionDays").toString()
+            });
+            if (++count % EXPORT_FLUSH_ROWS == 0) {
+                csvWriter.flush();
+            }
         }
+        csvWriter.flush();
+        return count;
     }
     
-    // Export user productivity to CSV
-    private void exportUserProductivityToCSV(Map<String, Object> report, CSVWriter csvWriter) {
-        // Header
-        String[] header = {"Username", "Total Tasks", "Completed Tasks",
-                           "Completion Rate (%)", "Average Completion Days"};
-        csvWriter.writeNext(header);
-        
-        // Data - check for both possible keys to handle different report formats
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> userData = (List<Map<String, Object>>) report.get("users");
-        
-        if (userData == null) {
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> userProductivity = (List<Map<String, Object>>) report.get("userProductivity");
-            userData = userProductivity;
+    /**
+     * Writes the audit logs matching the report filters as CSV, reading them through a database cursor.
+     * Each row is written and detached before the next one is fetched, so memory use stays flat however
+     * many rows match. The output stream is flushed but not closed.
+     * @return The number of exported audit logs
+     */
+    @Transactional(readOnly = true)
+    public long streamAuditLogsToCSV(String actionType, String entityType, Long userId,
+                                     OutputStream outputStream) throws IOException {
+        CSVWriter csvWriter = newCsvWriter(outputStream);
+        csvWriter.writeNext(new String[] {"Date/Time", "Action", "Entity Type", "Description", "User", "IP Address"});
+        
+        AuditLog.ActionType action = null;
+        if (actionType != null && !actionType.trim().isEmpty()) {
+            action = findActionTypeByDisplayName(actionType);
+            if (action == null) {
+                // Unknown action type matches nothing, as in the report
+                csvWriter.flush();
+                return 0;
+            }
         }
         
-        if (userData != null) {
-            for (Map<String, Object> user : userData) {
-                String[] row = {
-                    (String) user.get("username"),
-                    user.get("totalTasks").toString(),
-                    user.get("completedTasks").toString(),
-                    user.get("completionRate").toString(),
-                    user.get("averageCompletionDays").toString()
-                };
-                csvWriter.writeNext(row);
+        long count = 0;
+        try (Stream<AuditLog> auditLogs = auditLogRepository.streamAuditLogsForExport(action,
+                entityType != null && !entityType.trim().isEmpty() ? entityType : null, userId,
+                LocalDateTime.now().minusDays(AUDIT_LOG_REPORT_DAYS))) {
+            Iterator<AuditLog> iterator = auditLogs.iterator();
+            while (iterator.hasNext()) {
+                AuditLog log = iterator.next();
+                csvWriter.writeNext(new String[] {
+                    log.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                    log.getActionType().getDisplayName(),
+                    log.getEntityType(),
+                    log.getDescription(),
+                    log.getUser().getUsername(),
+                    log.getIpAddress()
+                });
+                // Users stay managed - there are few of them and most rows share one
+                entityManager.detach(log);
+                if (++count % EXPORT_FLUSH_ROWS == 0) {
+                    csvWriter.flush();
+                }
             }
         }
+        csvWriter.flush();
+        return count;
     }
     
-    // Export audit logs to CSV
-    private void exportAuditLogsToCSV(Map<String, Object> report, CSVWriter csvWriter) {
-        // Header
-        String[] header = {"Date/Time", "Action", "Entity Type", "Description", "User", "IP Address"};
-        csvWriter.writeNext(header);
-        
-        // Data
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> auditLogs = (List<Map<String, Object>>) report.get("auditLogs");
-        
-        for (Map<String, Object> log : auditLogs) {
-            String[] row = {
-                (String) log.get("createdAt"),
-                (String) log.get("action"),
-                (String) log.get("entityType"),
-                (String) log.get("description"),
-                (String) log.get("user"),
-                (String) log.get("ipAddress")
-            };
-            csvWriter.writeNext(row);
-        }
+    private CSVWriter newCsvWriter(OutputStream outputStream) {
+        return new CSVWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+    }
+    
+    private String formatDateTime(LocalDateTime dateTime, String missing) {
+        return dateTime != null ? dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : missing;
     }
     
-    // Convert workflow to map
-    private Map<String, Object> workflowToMap(Workflow workflow) {
+    // Map a workflow report row from WorkflowRepository.streamWorkflowReportRows
+    private Map<String, Object> workflowReportRow(Object[] row) {
         Map<String, Object> map = new HashMap<>();
-        map.put("id", workflow.getId());
-        map.put("name", workflow.getName());
-        map.put("description", workflow.getDescription());
-        map.put("status", workflow.getStatus().getDisplayName());
-        map.put("department", workflow.getDepartment() != null ? workflow.getDepartment().getName() : "N/A");
-        map.put("createdBy", workflow.getCreatedBy() != null ? workflow.getCreatedBy().getUsername() : "N/A");
-        map.put("createdAt", workflow.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        map.put("updatedAt", workflow.getUpdatedAt() != null ? workflow.getUpdatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "N/A");
-        map.put("isActive", workflow.getIsActive());
-        map.put("taskCount", workflow.getTasks() != null ? workflow.getTasks().size() : 0);
+        map.put("name", row[0]);
+        map.put("status", ((Workflow.WorkflowStatus) row[1]).getDisplayName());
+        map.put("department", row[2] != null ? row[2] : "N/A");
+        map.put("createdBy", row[3] != null ? row[3] : "N/A");
+        map.put("createdAt", formatDateTime((LocalDateTime) row[4], ""));
+        map.put("taskCount", row[5]);
+        map.put("description", row[6]);
         return map;
     }
     
-    // Convert task to map
-    private Map<String, Object> taskToMap(Task task) {
+    // Map a task report row from TaskRepository.streamTaskReportRows
+    private Map<String, Object> taskReportRow(Object[] row) {
         Map<String, Object> map = new HashMap<>();
-        map.put("id", task.getId());
-        map.put("title", task.getTitle());
-        map.put("description", task.getDescription());
-        map.put("status", task.getStatus().getDisplayName());
-        map.put("priority", task.getPriority().getDisplayName());
-        map.put("workflow", task.getWorkflow() != null ? task.getWorkflow().getName() : "N/A");
-        map.put("assignedTo", task.getAssignedTo() != null ? task.getAssignedTo().getUsername() : "Unassigned");
-        map.put("createdBy", task.getCreatedBy() != null ? task.getCreatedBy().getUsername() : "N/A");
-        map.put("createdAt", task.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        map.put("dueDate", task.getDueDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        map.put("completedAt", task.getCompletedAt() != null ? task.getCompletedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "N/A");
-        map.put("estimatedHours", task.getEstimatedHours());
-        map.put("actualHours", task.getActualHours());
+        map.put("title", row[0]);
+        map.put("status", TaskStatusUtil.getStatus((Task.TaskStatus) row[1], (Boolean) row[2]).getDisplayName());
+        map.put("priority", ((Task.TaskPriority) row[3]).getDisplayName());
+        map.put("workflow", row[4]);
+        map.put("assignedTo", row[5] != null ? row[5] : "Unassigned");
+        map.put("createdBy", row[6] != null ? row[6] : "N/A");
+        map.put("dueDate", formatDateTime((LocalDateTime) row[7], ""));
+        map.put("completedAt", formatDateTime((LocalDateTime) row[8], "N/A"));
+        map.put("estimatedHours", row[9]);
+        map.put("actualHours", row[10]);
+        map.put("description", row[11]);
         return map;
     }
     
+    // The first REPORT_DETAIL_ROWS matching tasks; detailsTruncated tells the page there are more to export
+    private void putTaskDetails(Map<String, Object> report, Task.TaskStatus status, Task.TaskPriority priority,
+                                Long departmentId, long totalTasks) {
+        List<Map<String, Object>> tasks = loadTaskDetails(status, priority, departmentId);
+        report.put("tasks", tasks);
+        report.put("detailsTruncated", totalTasks > tasks.size());
+    }
+    
+    // Must run in a transaction, the rows are read through a cursor
+    private List<Map<String, Object>> loadTaskDetails(Task.TaskStatus status, Task.TaskPriority priority, Long departmentId) {
+        try (Stream<Object[]> rows = taskRepository.streamTaskReportRows(status, priority, departmentId)) {
+            return rows.limit(REPORT_DETAIL_ROWS).map(this::taskReportRow).collect(Collectors.toList());
+        }
+    }
+    
+    // [name, count] rows from a grouped count query as a map
+    private Map<String, Long> toDistribution(List<Object[]> stats) {
+        Map<String, Long> distribution = new HashMap<>();
+        for (Object[] stat : stats) {
+            distribution.put(stat[0].toString(), (Long) stat[1]);
+        }
+        return distribution;
+    }
+    
+    // The first REPORT_DETAIL_ROWS matching workflows; detailsTruncated tells the page there are more to export
+    private void putWorkflowDetails(Map<String, Object> report, Workflow.WorkflowStatus status, Long departmentId,
+                                    long totalWorkflows) {
+        List<Map<String, Object>> workflows;
+        try (Stream<Object[]> rows = workflowRepository.streamWorkflowReportRows(status, departmentId)) {
+            workflows = rows.limit(REPORT_DETAIL_ROWS).map(this::workflowReportRow).collect(Collectors.toList());
+        }
+        report.put("workflows", workflows);
+        report.put("detailsTruncated", totalWorkflows > workflows.size());
+    }
+    
     // Methods for ReportController
     
     public List<String> getAvailableReportTypes() {
@@ -414,98 +486,102 @@ public class ReportService {
     }
     
     public Map<String, Object> getTaskReportData(String status, String priority, Long departmentId) {
+        return reportCacheService.get(ReportCacheService.key("task-report", status, priority, departmentId),
+                () -> readOnlyTransaction.execute(tx -> buildTaskReportData(status, priority, departmentId)));
+    }
+    
+    public Map<String, Object> getWorkflowReportData(String status, Long departmentId) {
+        return reportCacheService.get(ReportCacheService.key("workflow-report", status, departmentId),
+                () -> readOnlyTransaction.execute(tx -> buildWorkflowReportData(status, departmentId)));
+    }
+    
+    public Map<String, Object> getUserProductivityData(Long userId, Long departmentId) {
+        return reportCacheService.get(ReportCacheService.key("user-productivity", userId, departmentId),
+                () -> readOnlyTransaction.execute(tx -> buildUserProductivityData(userId, departmentId)));
+    }
+    
+    private Map<String, Object> buildTaskReportData(String status, String priority, Long departmentId) {
         Map<String, Object> report = new HashMap<>();
         report.put("reportType", "Task Report");
         report.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         
-        // Get filtered tasks based on parameters
-        List<Task> tasks = getFilteredTasks(status, priority, departmentId);
-        report.put("tasks", tasks.stream().map(this::taskToMap).collect(Collectors.toList()));
-        report.put("totalTasks", tasks.size());
-        
-        // Calculate statistics
-        Map<String, Long> statusStats = tasks.stream()
-                .collect(Collectors.groupingBy(task -> task.getStatus().getDisplayName(), Collectors.counting()));
+        Task.TaskStatus taskStatus = findByDisplayName(Task.TaskStatus.values(), Task.TaskStatus::getDisplayName, status);
+        Task.TaskPriority taskPriority = findByDisplayName(Task.TaskPriority.values(), Task.TaskPriority::getDisplayName, priority);
+        boolean unknownFilter = (hasText(status) && taskStatus == null) || (hasText(priority) && taskPriority == null);
+        
+        // Counts per (status layer category, final flag, priority) for the filters, grouped in the database
+        long totalTasks = 0;
+        Map<String, Long> statusStats = new HashMap<>();
+        Map<String, Long> priorityStats = new HashMap<>();
+        if (!unknownFilter) {
+            for (Object[] row : taskRepository.countTaskReportGroups(taskStatus, taskPriority, departmentId)) {
+                long count = ((Number) row[3]).longValue();
+                totalTasks += count;
+                statusStats.merge(TaskStatusUtil.getStatus((Task.TaskStatus) row[0], (Boolean) row[1]).getDisplayName(),
+                        count, Long::sum);
+                priorityStats.merge(((Task.TaskPriority) row[2]).getDisplayName(), count, Long::sum);
+            }
+        }
+        report.put("totalTasks", totalTasks);
         report.put("statusStatistics", statusStats);
-        
-        Map<String, Long> priorityStats = tasks.stream()
-                .collect(Collectors.groupingBy(task -> task.getPriority().getDisplayName(), Collectors.counting()));
         report.put("priorityStatistics", priorityStats);
         
+        if (totalTasks > 0) {
+            putTaskDetails(report, taskStatus, taskPriority, departmentId, totalTasks);
+        } else {
+            report.put("tasks", Collections.emptyList());
+            report.put("detailsTruncated", false);
+        }
+        
         return report;
     }
     
-    public Map<String, Object> getWorkflowReportData(String status, Long departmentId) {
+    private Map<String, Object> buildWorkflowReportData(String status, Long departmentId) {
         Map<String, Object> report = new HashMap<>();
         report.put("reportType", "Workflow Report");
         report.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         
-        // Get filtered workflows based on parameters
-        List<Workflow> workflows = getFilteredWorkflows(status, departmentId);
-        report.put("workflows", workflows.stream().map(this::workflowToMap).collect(Collectors.toList()));
-        report.put("totalWorkflows", workflows.size());
-        
-        // Calculate statistics
-        Map<String, Long> statusStats = workflows.stream()
-                .collect(Collectors.groupingBy(w -> w.getStatus().getDisplayName(), Collectors.counting()));
+        Workflow.WorkflowStatus workflowStatus = findByDisplayName(Workflow.WorkflowStatus.values(),
+                Workflow.WorkflowStatus::getDisplayName, status);
+        
+        // Counts per (status, department) for the filters, grouped in the database
+        long totalWorkflows = 0;
+        Map<String, Long> statusStats = new HashMap<>();
+        Map<String, Long> deptStats = new HashMap<>();
+        if (!hasText(status) || workflowStatus != null) {
+            for (Object[] row : workflowRepository.countWorkflowReportGroups(workflowStatus, departmentId)) {
+                long count = ((Number) row[2]).longValue();
+                totalWorkflows += count;
+                statusStats.merge(((Workflow.WorkflowStatus) row[0]).getDisplayName(), count, Long::sum);
+                if (row[1] != null) {
+                    deptStats.merge((String) row[1], count, Long::sum);
+                }
+            }
+        }
+        report.put("totalWorkflows", totalWorkflows);
         report.put("statusStatistics", statusStats);
-        
-        Map<String, Long> deptStats = workflows.stream()
-                .filter(w -> w.getDepartment() != null)
-                .collect(Collectors.groupingBy(w -> w.getDepartment().getName(), Collectors.counting()));
         report.put("departmentStatistics", deptStats);
         
+        if (totalWorkflows > 0) {
+            putWorkflowDetails(report, workflowStatus, departmentId, totalWorkflows);
+        } else {
+            report.put("workflows", Collections.emptyList());
+            report.put("detailsTruncated", false);
+        }
+        
         return report;
     }
     
-    public Map<String, Object> getUserProductivityData(Long userId, Long departmentId) {
+    private Map<String, Object> buildUserProductivityData(Long userId, Long departmentId) {
         Map<String, Object> report = new HashMap<>();
         report.put("reportType", "User Productivity");
         report.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         
-        // Get all users with optional filtering
-        List<User> users = getFilteredUsers(userId, departmentId);
-        
-        List<Map<String, Object>> productivityData = new ArrayList<>();
-        for (User user : users) {
-            Map<String, Object> userData = new HashMap<>();
-            userData.put("id", user.getId());
-            userData.put("username", user.getUsername());
-            userData.put("firstName", user.getFirstName());
-            userData.put("lastName", user.getLastName());
-            userData.put("email", user.getEmail());
-            
-            // Get task statistics for this user
-            Pageable pageable = PageRequest.of(0, 1000);
-            Page<Task> userTasks = taskService.getTasksForUser(user.getId(), null, null, pageable);
-            
-            long totalTasks = userTasks.getTotalElements();
-            long completedTasks = userTasks.getContent().stream()
-                    .filter(task -> task.getStatus() == Task.TaskStatus.COMPLETED)
-                    .count();
-            
-            userData.put("totalTasks", totalTasks);
-            userData.put("completedTasks", completedTasks);
-            userData.put("completionRate", totalTasks > 0 ? (double) completedTasks / totalTasks * 100 : 0.0);
-            
-            // Calculate average completion days
-            List<Task> completed = userTasks.getContent().stream()
-                    .filter(task -> task.getStatus() == Task.TaskStatus.COMPLETED &&
-                                   task.getCompletedAt() != null)
-                    .collect(Collectors.toList());
-            
-            if (!completed.isEmpty()) {
-                double avgCompletionDays = completed.stream()
-                        .mapToLong(task -> java.time.Duration.between(task.getCreatedAt(), task.getCompletedAt()).toDays())
-                        .average()
-                        .orElse(0.0);
-                userData.put("averageCompletionDays", Math.round(avgCompletionDays * 100.0) / 100.0);
-            } else {
-                userData.put("averageCompletionDays", 0.0);
-            }
-            
-            productivityData.add(userData);
-        }
+        // One row per filtered user, grouped in the database
+        List<Map<String, Object>> productivityData = taskRepository
+                .summarizeUserProductivity(LocalDateTime.now(), userId, departmentId).stream()
+                .map(this::userProductivityRow)
+                .collect(Collectors.toList());
         
         report.put("users", productivityData);
         report.put("totalUsers", productivityData.size());
@@ -513,6 +589,47 @@ public class ReportService {
         return report;
     }
     
+    // Map a summarizeUserProductivity row to the values shown and exported for one user
+    private Map<String, Object> userProductivityRow(Object[] row) {
+        long totalTasks = ((Number) row[5]).longValue();
+        long completedTasks = ((Number) row[6]).longValue();
+        
+        Map<String, Object> userData = new HashMap<>();
+        userData.put("id", ((Number) row[0]).longValue());
+        userData.put("username", row[1]);
+        userData.put("firstName", row[2]);
+        userData.put("lastName", row[3]);
+        userData.put("email", row[4]);
+        userData.put("totalTasks", totalTasks);
+        userData.put("completedTasks", completedTasks);
+        userData.put("overdueTasks", ((Number) row[7]).longValue());
+        
+        double completionRate = totalTasks > 0 ? (double) completedTasks / totalTasks * 100 : 0.0;
+        userData.put("completionRate", Math.round(completionRate * 100.0) / 100.0);
+        
+        double avgCompletionDays = row[8] != null ? ((Number) row[8]).doubleValue() : 0.0;
+        userData.put("averageCompletionDays", Math.round(avgCompletionDays * 100.0) / 100.0);
+        
+        return userData;
+    }
+    
+    // Helper method to find an enum constant by display name, null for a blank or unknown name
+    private <E extends Enum<E>> E findByDisplayName(E[] values, Function<E, String> displayName, String name) {
+        if (!hasText(name)) {
+            return null;
+        }
+        for (E value : values) {
+            if (displayName.apply(value).equalsIgnoreCase(name)) {
+                return value;
+            }
+        }
+        return null;
+    }
+    
+    private boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+    
     // Helper method to find ActionType by display name
     private AuditLog.ActionType findActionTypeByDisplayName(String displayName) {
         for (AuditLog.ActionType action : AuditLog.ActionType.values()) {
@@ -523,8 +640,29 @@ public class ReportService {
         return null;
     }
     
-    public List<AuditLog> getAuditLogData(String actionType, String entityType, Long userId) {
-        LocalDateTime since = LocalDateTime.now().minusDays(30); // Last 30 days
+    public List<AuditLog> getAuditLogData(String actionType, String entityType, Long userId, String search) {
+        LocalDateTime since = LocalDateTime.now().minusDays(AUDIT_LOG_REPORT_DAYS);
+        
+        String query = SearchQueryUtil.toPrefixQuery(search);
+        if (query != null) {
+            // Search the descriptions through the full-text index, ranked by relevance, with the other filters applied;
+            // LIKE matching when the search_vector column is missing
+            String action = null;
+            if (actionType != null && !actionType.trim().isEmpty()) {
+                AuditLog.ActionType actionEnum = findActionTypeByDisplayName(actionType);
+                if (actionEnum == null) {
+                    return Collections.emptyList();
+                }
+                action = actionEnum.name();
+            }
+            String entity = entityType != null && !entityType.trim().isEmpty() ? entityType : null;
+            if (!fullTextSearchSetup.isAvailable("audit_logs")) {
+                return auditLogRepository.searchAuditLogsByDescription(search.trim(), since, action, entity, userId,
+                        PageRequest.of(0, REPORT_DETAIL_ROWS));
+            }
+            return auditLogRepository.searchAuditLogsFullText(query, since, action, entity, userId,
+                    PageRequest.of(0, REPORT_DETAIL_ROWS));
+        }
         
         if (actionType != null && !actionType.trim().isEmpty() && entityType != null && !entityType.trim().isEmpty() && userId != null) {
             // All filters applied
@@ -611,42 +749,4 @@ public class ReportService {
     public List<String> getEntityTypeOptions() {
         return Arrays.asList("Task", "Workflow", "User", "Department", "Team", "Role");
     }
-    
-    // Helper methods for filtering
-    
-    private List<Task> getFilteredTasks(String status, String priority, Long departmentId) {
-        Pageable pageable = PageRequest.of(0, 1000);
-        Page<Task> allTasks = taskService.getAllTasks(pageable);
-        
-        return allTasks.getContent().stream()
-                .filter(task -> status == null || status.trim().isEmpty() || task.getStatus().getDisplayName().equalsIgnoreCase(status))
-                .filter(task -> priority == null || priority.trim().isEmpty() || task.getPriority().getDisplayName().equalsIgnoreCase(priority))
-                .filter(task -> departmentId == null ||
-                        (task.getWorkflow() != null && task.getWorkflow().getDepartment() != null &&
-                         task.getWorkflow().getDepartment().getId().equals(departmentId)))
-                .collect(Collectors.toList());
-    }
-    
-    private List<Workflow> getFilteredWorkflows(String status, Long departmentId) {
-        Pageable pageable = PageRequest.of(0, 1000);
-        Page<Workflow> allWorkflows = workflowService.getAllWorkflows(pageable);
-        
-        return allWorkflows.getContent().stream()
-                .filter(workflow -> status == null || status.trim().isEmpty() || workflow.getStatus().getDisplayName().equalsIgnoreCase(status))
-                .filter(workflow -> departmentId == null ||
-                        (workflow.getDepartment() != null && workflow.getDepartment().getId().equals(departmentId)))
-                .collect(Collectors.toList());
-    }
-    
-    private List<User> getFilteredUsers(Long userId, Long departmentId) {
-        List<User> allUsers = userRepository.findAll();
-        
-        return allUsers.stream()
-                .filter(user -> userId == null || user.getId().equals(userId))
-                .filter(user -> departmentId == null ||
-                        (user.getUserRoles().stream()
-                                .filter(ur -> ur.isActive() == null || ur.isActive())
-                                .anyMatch(ur -> ur.getDepartment() != null && ur.getDepartment().getId().equals(departmentId))))
-                .collect(Collectors.toList());
-    }
 }
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.workflow.workflowmanagementsystem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent sections of a report or dashboard response concurrently on a dedicated pool.
+ * <p>
+ * A {@link Scope} forks sections and joins them; each section has its own deadline, counted from when it was forked.
+ * A section that misses its deadline, fails, or cannot be queued because the pool is saturated is left out and
+ * reported by {@link Scope#getIncompleteSections()}, so the caller can return the other sections as a partial result.
+ * Each section runs in its own read-only transaction, outside the caller's, whose timeout is the time left until the
+ * section's deadline (rounded up to whole seconds). Spring applies it as the JDBC query timeout, so a late section's
+ * query is cancelled by the database instead of holding a pool thread and a connection after it was left out.
+ */
+@Service
+public class SectionExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SectionExecutor.class);
+
+    @Value("${app.sections.threads:8}")
+    private int threads;
+
+    @Value("${app.sections.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.sections.timeout-ms:5000}")
+    private long defaultTimeoutMs;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ThreadPoolExecutor sectionPool;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        sectionPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "section-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        sectionPool.shutdownNow();
+    }
+
+    public Scope open() {
+        return new Scope(Duration.ofMillis(defaultTimeoutMs));
+    }
+
+    /**
+     * Result of one section, available once its scope was joined
+     */
+    public static class Section<T> {
+
+        private final String name;
+        private final Future<T> future;
+        private final long deadlineNanos;
+        private T value;
+        private boolean completed;
+
+        private Section(String name, Future<T> future, long deadlineNanos) {
+            this.name = name;
+            this.future = future;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        /**
+         * @return the section's value, or the fallback if it did not complete in time
+         */
+        public T get(T fallback) {
+            return completed ? value : fallback;
+        }
+    }
+
+    /**
+     * Sections forked together. {@link #join()} must be called before reading their values; closing the scope
+     * interrupts sections that are still running.
+     */
+    public class Scope implements AutoCloseable {
+
+        private final Duration defaultTimeout;
+        private final List<Section<?>> sections = new ArrayList<>();
+        private final List<String> incompleteSections = new ArrayList<>();
+
+        private Scope(Duration defaultTimeout) {
+            this.defaultTimeout = defaultTimeout;
+        }
+
+        public <T> Section<T> fork(String name, Supplier<T> task) {
+            return fork(name, defaultTimeout, task);
+        }
+
+        public <T> Section<T> fork(String name, Duration timeout, Supplier<T> task) {
+            long deadlineNanos = System.nanoTime() + timeout.toNanos();
+            Future<T> future;
+            try {
+                future = sectionPool.submit(() -> runBefore(name, deadlineNanos, task));
+            } catch (RuntimeException e) {
+                // Rejected by the saturated pool
+                future = CompletableFuture.failedFuture(e);
+            }
+            Section<T> section = new Section<>(name, future, deadlineNanos);
+            sections.add(section);
+            return section;
+        }
+
+        /**
+         * Waits for every section until its deadline
+         */
+        public void join() {
+            for (Section<?> section : sections) {
+                await(section);
+            }
+        }
+
+        private <T> void await(Section<T> section) {
+            try {
+                long remaining = Math.max(0, section.deadlineNanos - System.nanoTime());
+                section.value = section.future.get(remaining, TimeUnit.NANOSECONDS);
+                section.completed = true;
+            } catch (TimeoutException e) {
+                logger.warn("Section {} did not complete in time and was left out", section.name);
+                incompleteSections.add(section.name);
+            } catch (ExecutionException e) {
+                logger.error("Section {} failed and was left out", section.name, e.getCause());
+                incompleteSections.add(section.name);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                incompleteSections.add(section.name);
+            }
+        }
+
+        /**
+         * Names of the sections that timed out or failed, in the order they were forked
+         */
+        public List<String> getIncompleteSections() {
+            return incompleteSections;
+        }
+
+        @Override
+        public void close() {
+            for (Section<?> section : sections) {
+                section.future.cancel(true);
+            }
+        }
+    }
+
+    private <T> T runBefore(String name, long deadlineNanos, Supplier<T> task) {
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        if (remainingMs <= 0) {
+            throw new IllegalStateException("Section " + name + " was still queued at its deadline");
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) TimeUnit.MILLISECONDS.toSeconds(remainingMs + 999));
+        return transaction.execute(status -> task.get());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,390 @@
+package com.workflow.workflowmanagementsystem.service;
+
+import com.workflow.workflowmanagementsystem.Repository.CommentRepository;
+import com.workflow.workflowmanagementsystem.Repository.TaskRepository;
+import com.workflow.workflowmanagementsystem.Repository.UserRepository;
+import com.workflow.workflowmanagementsystem.Repository.WorkflowStatusLayerRepository;
+import com.workflow.workflowmanagementsystem.dto.BulkTaskResult;
+import com.workflow.workflowmanagementsystem.entity.AuditLog;
+import com.workflow.workflowmanagementsystem.entity.Task;
+import com.workflow.workflowmanagementsystem.entity.Task.TaskPriority;
+import com.workflow.workflowmanagementsystem.entity.User;
+import com.workflow.workflowmanagementsystem.entity.WorkflowStatusLayer;
+import com.workflow.workflowmanagementsystem.service.DashboardCounterService.TaskCounterKey;
+import com.workflow.workflowmanagementsystem.util.AuditDiffUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bulk task operations (assign, workflow status, priority, complete, delete).
+ * The requested tasks are loaded in one query and changed with one set-based statement per operation;
+ * audit rows are saved together and each recipient gets a single notification once the transaction commits.
+ */
+@Service
+@Transactional
+public class TaskBulkService {
+
+    public static final int MAX_BULK_SIZE = 1000;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkflowStatusLayerRepository workflowStatusLayerRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private AuditSink auditSink;
+
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+
+    @Autowired
+    private TaskTrendService taskTrendService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Assign tasks to a user
+    public BulkTaskResult assignTasks(List<Long> taskIds, Long assignedToId, Long assignedByUserId) {
+        User assignedTo = findUser(assignedToId);
+        User assignedBy = findUser(assignedByUserId);
+
+        List<BulkTaskResult.Item> results = new ArrayList<>();
+        Map<Long, Task> tasks = loadTasks(taskIds, results);
+        if (tasks.isEmpty()) {
+            return BulkTaskResult.of(results);
+        }
+
+        Map<Long, TaskCounterKey> counterKeys = counterKeys(tasks.values());
+        List<AuditLog> auditLogs = new ArrayList<>();
+        for (Task task : tasks.values()) {
+            String description = String.format("Assigned task '%s' to %s", task.getTitle(), assignedTo.getUsername());
+            if (task.getAssignedTo() != null) {
+                description += String.format(" (reassigned from %s)", task.getAssignedTo().getUsername());
+            }
+            AuditLog auditLog = new AuditLog(AuditLog.ActionType.ASSIGN, "Task", task.getId(), description, assignedBy);
+            AuditDiffUtil.recordChange(auditLog, "assignedToId",
+                    task.getAssignedTo() != null ? task.getAssignedTo().getId() : null, assignedTo.getId());
+            auditLogs.add(auditLog);
+        }
+
+        taskRepository.bulkAssign(tasks.keySet(), assignedTo, LocalDateTime.now());
+
+        // The loaded tasks are detached now - mirror the update on them for the counters
+        for (Task task : tasks.values()) {
+            task.setAssignedTo(assignedTo);
+            dashboardCounterService.taskChanged(counterKeys.get(task.getId()), task);
+            results.add(BulkTaskResult.Item.success(task.getId()));
+        }
+        auditSink.recordAll(auditLogs);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Task"));
+
+        notifyAfterCommit(Map.of(assignedTo.getId(), new ArrayList<>(tasks.keySet())), "Tasks Assigned",
+                count -> count + " task(s) have been assigned to you by " + assignedBy.getUsername(),
+                "TASKS_ASSIGNED", "assigned");
+
+        return BulkTaskResult.of(results);
+    }
+
+    // Move tasks to a workflow status layer - tasks of other workflows are rejected
+    public BulkTaskResult changeWorkflowStatus(List<Long> taskIds, Long workflowStatusLayerId, Long changedByUserId) {
+        User changedBy = findUser(changedByUserId);
+        WorkflowStatusLayer statusLayer = workflowStatusLayerRepository.findById(workflowStatusLayerId)
+                .orElseThrow(() -> new EntityNotFoundException("Workflow status layer not found with ID: " + workflowStatusLayerId));
+
+        List<BulkTaskResult.Item> results = new ArrayList<>();
+        Map<Long, Task> tasks = loadTasks(taskIds, results);
+        Long workflowId = statusLayer.getWorkflow().getId();
+        tasks.values().removeIf(task -> {
+            if (!task.getWorkflow().getId().equals(workflowId)) {
+                results.add(BulkTaskResult.Item.failure(task.getId(), "Status layer does not belong to the task's workflow"));
+                return true;
+            }
+            return false;
+        });
+
+        moveToStatusLayer(tasks.values(), statusLayer, null, false, changedBy, results);
+        return BulkTaskResult.of(results);
+    }
+
+    // Complete tasks by moving each to the first final status layer of its workflow
+    public BulkTaskResult completeTasks(List<Long> taskIds, Integer actualHours, Long completedByUserId) {
+        User completedBy = findUser(completedByUserId);
+
+        List<BulkTaskResult.Item> results = new ArrayList<>();
+        Map<Long, Task> tasks = loadTasks(taskIds, results);
+
+        Map<Long, List<Task>> tasksByWorkflow = new LinkedHashMap<>();
+        for (Task task : tasks.values()) {
+            tasksByWorkflow.computeIfAbsent(task.getWorkflow().getId(), id -> new ArrayList<>()).add(task);
+        }
+
+        Map<Long, WorkflowStatusLayer> finalLayers = new HashMap<>();
+        if (!tasksByWorkflow.isEmpty()) {
+            for (WorkflowStatusLayer layer : workflowStatusLayerRepository
+                    .findByWorkflowIdInAndIsFinalTrueOrderByOrderAsc(tasksByWorkflow.keySet())) {
+                finalLayers.putIfAbsent(layer.getWorkflow().getId(), layer);
+            }
+        }
+
+        // One update per workflow, since each workflow has its own final layer
+        tasksByWorkflow.forEach((workflowId, workflowTasks) -> {
+            WorkflowStatusLayer finalLayer = finalLayers.get(workflowId);
+            if (finalLayer == null) {
+                workflowTasks.forEach(task -> results.add(
+                        BulkTaskResult.Item.failure(task.getId(), "Workflow has no final status layer")));
+            } else {
+                moveToStatusLayer(workflowTasks, finalLayer, actualHours, true, completedBy, results);
+            }
+        });
+
+        return BulkTaskResult.of(results);
+    }
+
+    // Change the priority of tasks
+    public BulkTaskResult changePriority(List<Long> taskIds, TaskPriority priority, Long changedByUserId) {
+        if (priority == null) {
+            throw new IllegalArgumentException("Priority is required");
+        }
+        User changedBy = findUser(changedByUserId);
+
+        List<BulkTaskResult.Item> results = new ArrayList<>();
+        Map<Long, Task> tasks = loadTasks(taskIds, results);
+        if (tasks.isEmpty()) {
+            return BulkTaskResult.of(results);
+        }
+
+        Map<Long, TaskCounterKey> counterKeys = counterKeys(tasks.values());
+        List<AuditLog> auditLogs = new ArrayList<>();
+        for (Task task : tasks.values()) {
+            String oldPriority = task.getPriority() != null ? task.getPriority().name() : "None";
+            AuditLog auditLog = new AuditLog(AuditLog.ActionType.UPDATE, "Task", task.getId(),
+                    String.format("Changed priority from %s to %s for task: %s", oldPriority, priority.name(), task.getTitle()),
+                    changedBy);
+            AuditDiffUtil.recordChange(auditLog, "priority", task.getPriority(), priority);
+            auditLogs.add(auditLog);
+        }
+
+        taskRepository.bulkUpdatePriority(tasks.keySet(), priority, LocalDateTime.now());
+
+        for (Task task : tasks.values()) {
+            task.setPriority(priority);
+            dashboardCounterService.taskChanged(counterKeys.get(task.getId()), task);
+            results.add(BulkTaskResult.Item.success(task.getId()));
+        }
+        auditSink.recordAll(auditLogs);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Task"));
+
+        notifyAfterCommit(groupByRecipient(tasks.values(), this::assigneeId), "Tasks Updated",
+                count -> "The priority of " + count + " task(s) was changed to " + priority.name()
+                        + " by " + changedBy.getUsername(),
+                "TASKS_UPDATED", "updated");
+
+        return BulkTaskResult.of(results);
+    }
+
+    // Delete tasks together with their comments
+    public BulkTaskResult deleteTasks(List<Long> taskIds, Long deletedByUserId) {
+        User deletedBy = findUser(deletedByUserId);
+
+        List<BulkTaskResult.Item> results = new ArrayList<>();
+        Map<Long, Task> tasks = loadTasks(taskIds, results);
+        if (tasks.isEmpty()) {
+            return BulkTaskResult.of(results);
+        }
+
+        List<AuditLog> auditLogs = new ArrayList<>();
+        for (Task task : tasks.values()) {
+            auditLogs.add(new AuditLog(AuditLog.ActionType.DELETE, "Task", task.getId(),
+                    "Deleted task: " + task.getTitle(), deletedBy));
+        }
+        Map<Long, List<Long>> recipients = groupByRecipient(tasks.values(), this::assigneeId);
+
+        commentRepository.deleteByTaskIdIn(tasks.keySet());
+        taskRepository.bulkDelete(tasks.keySet());
+
+        for (Task task : tasks.values()) {
+            dashboardCounterService.taskDeleted(task);
+            results.add(BulkTaskResult.Item.success(task.getId()));
+        }
+        taskTrendService.recordDeletedTasks(tasks.values());
+        auditSink.recordAll(auditLogs);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Task"));
+
+        notifyAfterCommit(recipients, "Tasks Deleted",
+                count -> count + " task(s) assigned to you were deleted by " + deletedBy.getUsername(),
+                "TASKS_DELETED", "updated");
+
+        return BulkTaskResult.of(results);
+    }
+
+    // Shared by workflow status changes and completion - all tasks belong to the layer's workflow
+    private void moveToStatusLayer(Collection<Task> tasks, WorkflowStatusLayer statusLayer, Integer actualHours,
+                                   boolean completion, User changedBy, List<BulkTaskResult.Item> results) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        Map<Long, TaskCounterKey> counterKeys = counterKeys(tasks);
+        Map<Long, LocalDateTime> previousCompletedAt = new HashMap<>();
+        List<AuditLog> auditLogs = new ArrayList<>();
+        for (Task task : tasks) {
+            previousCompletedAt.put(task.getId(), task.getCompletedAt());
+            AuditLog auditLog;
+            if (completion) {
+                auditLog = new AuditLog(AuditLog.ActionType.COMPLETE, "Task", task.getId(),
+                        "Completed task: " + task.getTitle(), changedBy);
+            } else {
+                String oldLayerName = task.getWorkflowStatusLayer() != null ? task.getWorkflowStatusLayer().getName() : "None";
+                auditLog = new AuditLog(AuditLog.ActionType.UPDATE, "Task", task.getId(),
+                        String.format("Changed workflow status from %s to %s for task: %s",
+                                oldLayerName, statusLayer.getName(), task.getTitle()),
+                        changedBy);
+            }
+            Map<String, String> before = new LinkedHashMap<>();
+            before.put("statusLayerId", task.getWorkflowStatusLayer() != null ? task.getWorkflowStatusLayer().getId().toString() : null);
+            before.put("actualHours", task.getActualHours() != null ? task.getActualHours().toString() : null);
+            Map<String, String> after = new LinkedHashMap<>(before);
+            after.put("statusLayerId", statusLayer.getId().toString());
+            if (actualHours != null) {
+                after.put("actualHours", actualHours.toString());
+            }
+            AuditDiffUtil.recordChanges(auditLog, before, after);
+            auditLogs.add(auditLog);
+        }
+
+        List<Long> ids = tasks.stream().map(Task::getId).toList();
+        LocalDateTime now = LocalDateTime.now();
+        boolean isFinal = Boolean.TRUE.equals(statusLayer.getIsFinal());
+        if (isFinal) {
+            taskRepository.bulkMoveToFinalStatusLayer(ids, statusLayer, actualHours, now);
+        } else {
+            taskRepository.bulkMoveToStatusLayer(ids, statusLayer, actualHours, now);
+        }
+
+        // Mirror the update on the detached tasks, using the same completion time as the database
+        for (Task task : tasks) {
+            task.setWorkflowStatusLayer(statusLayer);
+            task.setCompletedAt(isFinal ? (previousCompletedAt.get(task.getId()) != null
+                    ? previousCompletedAt.get(task.getId()) : now) : null);
+            if (actualHours != null) {
+                task.setActualHours(actualHours);
+            }
+            dashboardCounterService.taskChanged(counterKeys.get(task.getId()), task);
+            results.add(BulkTaskResult.Item.success(task.getId()));
+        }
+        taskTrendService.recordCompletionChanges(tasks, previousCompletedAt);
+        auditSink.recordAll(auditLogs);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Task"));
+
+        if (completion) {
+            notifyAfterCommit(groupByRecipient(tasks, task -> task.getWorkflow().getCreatedBy() != null
+                            ? task.getWorkflow().getCreatedBy().getId() : null),
+                    "Tasks Completed", count -> count + " task(s) have been completed by " + changedBy.getUsername(),
+                    "TASKS_COMPLETED", "completed");
+        } else {
+            notifyAfterCommit(groupByRecipient(tasks, this::assigneeId), "Tasks Updated",
+                    count -> count + " task(s) were moved to " + statusLayer.getName() + " by " + changedBy.getUsername(),
+                    "TASKS_UPDATED", "updated");
+        }
+    }
+
+    // Load the requested tasks in one query, recording a failure for each ID that does not exist
+    private Map<Long, Task> loadTasks(List<Long> taskIds, List<BulkTaskResult.Item> results) {
+        if (taskIds == null || taskIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one task ID is required");
+        }
+        List<Long> distinctIds = taskIds.stream().filter(id -> id != null).distinct().toList();
+        if (distinctIds.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("A bulk operation can change at most " + MAX_BULK_SIZE + " tasks");
+        }
+
+        Map<Long, Task> found = new HashMap<>();
+        for (Task task : taskRepository.findByIdIn(distinctIds)) {
+            found.put(task.getId(), task);
+        }
+
+        // Keep the request order
+        Map<Long, Task> tasks = new LinkedHashMap<>();
+        for (Long id : distinctIds) {
+            Task task = found.get(id);
+            if (task != null) {
+                tasks.put(id, task);
+            } else {
+                results.add(BulkTaskResult.Item.failure(id, "Task not found with ID: " + id));
+            }
+        }
+        return tasks;
+    }
+
+    private User findUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
+    }
+
+    private Map<Long, TaskCounterKey> counterKeys(Collection<Task> tasks) {
+        Map<Long, TaskCounterKey> counterKeys = new HashMap<>();
+        tasks.forEach(task -> counterKeys.put(task.getId(), TaskCounterKey.of(task)));
+        return counterKeys;
+    }
+
+    private Long assigneeId(Task task) {
+        return task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
+    }
+
+    private Map<Long, List<Long>> groupByRecipient(Collection<Task> tasks, Function<Task, Long> recipient) {
+        Map<Long, List<Long>> taskIdsByRecipient = new HashMap<>();
+        for (Task task : tasks) {
+            Long recipientId = recipient.apply(task);
+            if (recipientId != null) {
+                taskIdsByRecipient.computeIfAbsent(recipientId, id -> new ArrayList<>()).add(task.getId());
+            }
+        }
+        return taskIdsByRecipient;
+    }
+
+    // One notification per recipient, sent only if the transaction commits
+    private void notifyAfterCommit(Map<Long, List<Long>> taskIdsByRecipient, String title,
+                                   Function<Integer, String> message, String type, String subtopic) {
+        if (taskIdsByRecipient.isEmpty()) {
+            return;
+        }
+        Runnable send = () -> taskIdsByRecipient.forEach((recipientId, ids) ->
+                notificationService.notifyTasksChangedInBulk(title, message.apply(ids.size()),
+                        type, subtopic, ids, recipientId));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send.run();
+                }
+            });
+        } else {
+            send.run();
+        }
+    }
+}
\ No newline at end of file
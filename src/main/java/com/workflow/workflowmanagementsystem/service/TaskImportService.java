@@ -0,0 +1,465 @@
+package com.workflow.workflowmanagementsystem.service;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import com.workflow.workflowmanagementsystem.Repository.TaskRepository;
+import com.workflow.workflowmanagementsystem.Repository.UserRepository;
+import com.workflow.workflowmanagementsystem.Repository.WorkflowRepository;
+import com.workflow.workflowmanagementsystem.Repository.WorkflowStatusLayerRepository;
+import com.workflow.workflowmanagementsystem.dto.TaskImportProgress;
+import com.workflow.workflowmanagementsystem.entity.AuditLog;
+import com.workflow.workflowmanagementsystem.entity.Task;
+import com.workflow.workflowmanagementsystem.entity.Task.TaskPriority;
+import com.workflow.workflowmanagementsystem.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Streaming CSV import of tasks.
+ * The file is read one row at a time with opencsv and each row is validated against workflow, status layer and
+ * user lookups loaded once per import. Valid rows are inserted in chunks of {@link #CHUNK_SIZE}, each chunk with
+ * its audit rows in its own transaction, so memory use does not grow with the file size.
+ * <p>
+ * Header columns: {@code title}, {@code workflow} (name or ID) and {@code due_date} are required;
+ * {@code description}, {@code status} (status layer name), {@code priority}, {@code assignee} (username or email)
+ * and {@code estimated_hours} are optional. A due date without a time means the end of that day.
+ */
+@Service
+public class TaskImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskImportService.class);
+
+    public static final int CHUNK_SIZE = 500;
+
+    // Finished imports stay available to the progress endpoint for this long
+    private static final Duration JOB_RETENTION = Duration.ofHours(24);
+
+    private static final DateTimeFormatter DATE_TIME_WITH_SPACE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]");
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private WorkflowStatusLayerRepository workflowStatusLayerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuditSink auditSink;
+
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+
+    @Autowired
+    private TaskTrendService taskTrendService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, TaskImportProgress> imports = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    // Imports run one at a time, in the order they were uploaded
+    private ExecutorService importExecutor;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        importExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        importExecutor.shutdownNow();
+    }
+
+    /**
+     * Queue an import of an uploaded CSV file. The upload is copied to a temporary file and imported in the background.
+     * @return the progress of the queued import, to be polled with {@link #getProgress(String)}
+     */
+    public TaskImportProgress startImport(MultipartFile file, Long importedByUserId) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("The import file is empty");
+        }
+        if (!userRepository.existsById(importedByUserId)) {
+            throw new EntityNotFoundException("User not found with ID: " + importedByUserId);
+        }
+
+        Path tempFile = Files.createTempFile("task-import-", ".csv");
+        file.transferTo(tempFile);
+
+        removeExpiredImports();
+        TaskImportProgress progress = new TaskImportProgress(UUID.randomUUID().toString(), file.getOriginalFilename());
+        imports.put(progress.getId(), progress);
+
+        importExecutor.execute(() -> {
+            try (Reader reader = Files.newBufferedReader(tempFile, StandardCharsets.UTF_8)) {
+                importTasks(reader, importedByUserId, progress);
+            } catch (IOException e) {
+                progress.fail("Could not read the import file: " + e.getMessage());
+            } finally {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    logger.warn("Could not delete temporary import file {}", tempFile);
+                }
+            }
+        });
+        return progress;
+    }
+
+    public Optional<TaskImportProgress> getProgress(String importId) {
+        return Optional.ofNullable(imports.get(importId));
+    }
+
+    /**
+     * Import tasks from a CSV stream on the calling thread, recording progress and row errors.
+     */
+    public TaskImportProgress importTasks(Reader source, Long importedByUserId, TaskImportProgress progress) {
+        progress.start();
+        try (CSVReader csvReader = new CSVReader(source)) {
+            String[] header = csvReader.readNext();
+            if (header == null) {
+                progress.fail("The import file is empty");
+                return progress;
+            }
+            ImportColumns columns = ImportColumns.of(header);
+            ImportLookup lookup = loadLookup();
+
+            List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            long rowNumber = 0;
+            String[] line;
+            while ((line = csvReader.readNext()) != null) {
+                rowNumber++;
+                if (isBlankLine(line)) {
+                    continue;
+                }
+                progress.rowRead();
+                try {
+                    chunk.add(parseRow(rowNumber, line, columns, lookup));
+                } catch (IllegalArgumentException e) {
+                    progress.rowFailed(rowNumber, e.getMessage());
+                }
+
+                if (chunk.size() >= CHUNK_SIZE) {
+                    insertChunk(chunk, importedByUserId, lookup, progress);
+                    chunk.clear();
+                    logger.info("Task import {}: {} rows read, {} imported, {} failed", progress.getId(),
+                            progress.getRowsRead(), progress.getImportedRows(), progress.getFailedRows());
+                }
+            }
+            if (!chunk.isEmpty()) {
+                insertChunk(chunk, importedByUserId, lookup, progress);
+            }
+            progress.complete();
+        } catch (IllegalArgumentException e) {
+            progress.fail(e.getMessage());
+        } catch (IOException | CsvValidationException e) {
+            progress.fail("Could not read the import file: " + e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Task import {} failed", progress.getId(), e);
+            progress.fail("Import failed: " + e.getMessage());
+        }
+
+        logger.info("Task import {} finished with status {}: {} rows read, {} imported, {} failed", progress.getId(),
+                progress.getStatus(), progress.getRowsRead(), progress.getImportedRows(), progress.getFailedRows());
+        return progress;
+    }
+
+    // Insert one chunk of validated rows and their audit rows in a single transaction
+    private void insertChunk(List<ImportRow> rows, Long importedByUserId, ImportLookup lookup, TaskImportProgress progress) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                User importedBy = userRepository.getReferenceById(importedByUserId);
+
+                List<Task> tasks = new ArrayList<>(rows.size());
+                for (ImportRow row : rows) {
+                    tasks.add(toTask(row, importedBy));
+                }
+                List<Task> savedTasks = taskRepository.saveAll(tasks);
+
+                List<AuditLog> auditLogs = new ArrayList<>(savedTasks.size());
+                for (Task task : savedTasks) {
+                    dashboardCounterService.taskCreated(task);
+                    auditLogs.add(new AuditLog(AuditLog.ActionType.CREATE, "Task", task.getId(),
+                            "Imported task: " + task.getTitle() + " in workflow: "
+                                    + lookup.workflowNames.get(task.getWorkflow().getId()), importedBy));
+                }
+                taskTrendService.recordCreatedTasks(savedTasks);
+                auditSink.recordAll(auditLogs);
+                eventPublisher.publishEvent(new ReportDataChangedEvent("Task"));
+            });
+            progress.rowsImported(rows.size());
+        } catch (RuntimeException e) {
+            logger.warn("Task import {}: chunk of {} rows failed", progress.getId(), rows.size(), e);
+            for (ImportRow row : rows) {
+                progress.rowFailed(row.row(), "Not imported, the rows around it could not be saved: " + e.getMessage());
+            }
+        }
+    }
+
+    private Task toTask(ImportRow row, User importedBy) {
+        Task task = new Task();
+        task.setTitle(row.title());
+        task.setDescription(row.description());
+        task.setWorkflow(workflowRepository.getReferenceById(row.workflowId()));
+        task.setWorkflowStatusLayer(workflowStatusLayerRepository.getReferenceById(row.statusLayerId()));
+        task.setPriority(row.priority());
+        if (row.assigneeId() != null) {
+            task.setAssignedTo(userRepository.getReferenceById(row.assigneeId()));
+        }
+        task.setCreatedBy(importedBy);
+        task.setDueDate(row.dueDate());
+        task.setEstimatedHours(row.estimatedHours());
+        return task;
+    }
+
+    // Validate one CSV row against the lookups - throws IllegalArgumentException with the row error
+    private ImportRow parseRow(long rowNumber, String[] line, ImportColumns columns, ImportLookup lookup) {
+        String title = columns.value(line, columns.title);
+        if (title == null) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        if (title.length() > 200) {
+            throw new IllegalArgumentException("Title must not exceed 200 characters");
+        }
+
+        String description = columns.value(line, columns.description);
+        if (description != null && description.length() > 1000) {
+            throw new IllegalArgumentException("Description must not exceed 1000 characters");
+        }
+
+        String workflowValue = columns.value(line, columns.workflow);
+        if (workflowValue == null) {
+            throw new IllegalArgumentException("Workflow is required");
+        }
+        Long workflowId = lookup.findWorkflowId(workflowValue);
+        if (workflowId == null) {
+            throw new IllegalArgumentException("Workflow not found: " + workflowValue);
+        }
+
+        String statusValue = columns.value(line, columns.status);
+        Long statusLayerId;
+        if (statusValue != null) {
+            statusLayerId = lookup.statusLayerIds.getOrDefault(workflowId, Map.of()).get(statusValue.toLowerCase(Locale.ROOT));
+            if (statusLayerId == null) {
+                throw new IllegalArgumentException("Status layer '" + statusValue + "' not found in workflow " + workflowValue);
+            }
+        } else {
+            statusLayerId = lookup.firstStatusLayerIds.get(workflowId);
+            if (statusLayerId == null) {
+                throw new IllegalArgumentException("Workflow " + workflowValue + " has no status layers");
+            }
+        }
+
+        TaskPriority priority = TaskPriority.MEDIUM;
+        String priorityValue = columns.value(line, columns.priority);
+        if (priorityValue != null) {
+            try {
+                priority = TaskPriority.valueOf(priorityValue.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid priority '" + priorityValue + "', expected one of "
+                        + Arrays.toString(TaskPriority.values()));
+            }
+        }
+
+        Long assigneeId = null;
+        String assigneeValue = columns.value(line, columns.assignee);
+        if (assigneeValue != null) {
+            assigneeId = lookup.userIds.get(assigneeValue.toLowerCase(Locale.ROOT));
+            if (assigneeId == null) {
+                throw new IllegalArgumentException("Assignee not found: " + assigneeValue);
+            }
+        }
+
+        String dueDateValue = columns.value(line, columns.dueDate);
+        if (dueDateValue == null) {
+            throw new IllegalArgumentException("Due date is required");
+        }
+        LocalDateTime dueDate = parseDueDate(dueDateValue);
+
+        Integer estimatedHours = null;
+        String estimatedHoursValue = columns.value(line, columns.estimatedHours);
+        if (estimatedHoursValue != null) {
+            try {
+                estimatedHours = Integer.valueOf(estimatedHoursValue);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid estimated hours: " + estimatedHoursValue);
+            }
+            if (estimatedHours < 0) {
+                throw new IllegalArgumentException("Estimated hours must not be negative");
+            }
+        }
+
+        // Titles are unique per workflow, both against existing tasks and earlier rows of the file
+        if (!lookup.titlesFor(workflowId).add(title.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Task with title '" + title + "' already exists in this workflow");
+        }
+
+        return new ImportRow(rowNumber, title, description, workflowId, statusLayerId, priority, assigneeId,
+                dueDate, estimatedHours);
+    }
+
+    private LocalDateTime parseDueDate(String value) {
+        try {
+            if (value.length() <= 10) {
+                return LocalDate.parse(value).atTime(23, 59);
+            }
+            if (value.indexOf('T') > 0) {
+                return LocalDateTime.parse(value);
+            }
+            return LocalDateTime.parse(value, DATE_TIME_WITH_SPACE);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid due date '" + value + "', expected yyyy-MM-dd or yyyy-MM-dd HH:mm");
+        }
+    }
+
+    private boolean isBlankLine(String[] line) {
+        return Arrays.stream(line).allMatch(value -> value == null || value.isBlank());
+    }
+
+    // Workflows, status layers and users are loaded once per import as plain IDs and names
+    private ImportLookup loadLookup() {
+        ImportLookup lookup = new ImportLookup();
+        for (Object[] row : workflowRepository.findWorkflowNames()) {
+            lookup.workflowNames.put((Long) row[0], (String) row[1]);
+            lookup.workflowIdsByName.put(((String) row[1]).toLowerCase(Locale.ROOT), (Long) row[0]);
+        }
+        for (Object[] row : workflowStatusLayerRepository.findStatusLayerNames()) {
+            Long layerId = (Long) row[0];
+            Long workflowId = (Long) row[1];
+            lookup.statusLayerIds.computeIfAbsent(workflowId, id -> new HashMap<>())
+                    .putIfAbsent(((String) row[2]).toLowerCase(Locale.ROOT), layerId);
+            lookup.firstStatusLayerIds.putIfAbsent(workflowId, layerId);
+        }
+        for (Object[] row : userRepository.findUsernamesAndEmails()) {
+            if (row[2] != null) {
+                lookup.userIds.put(((String) row[2]).toLowerCase(Locale.ROOT), (Long) row[0]);
+            }
+            lookup.userIds.put(((String) row[1]).toLowerCase(Locale.ROOT), (Long) row[0]);
+        }
+        return lookup;
+    }
+
+    private void removeExpiredImports() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(JOB_RETENTION);
+        imports.values().removeIf(progress -> progress.isFinished()
+                && progress.getFinishedAt() != null && progress.getFinishedAt().isBefore(cutoff));
+    }
+
+    private record ImportRow(long row, String title, String description, Long workflowId, Long statusLayerId,
+                             TaskPriority priority, Long assigneeId, LocalDateTime dueDate, Integer estimatedHours) {
+    }
+
+    // Column positions resolved from the header row, -1 when an optional column is missing
+    private static class ImportColumns {
+        private int title = -1;
+        private int description = -1;
+        private int workflow = -1;
+        private int status = -1;
+        private int priority = -1;
+        private int assignee = -1;
+        private int dueDate = -1;
+        private int estimatedHours = -1;
+
+        static ImportColumns of(String[] header) {
+            ImportColumns columns = new ImportColumns();
+            for (int i = 0; i < header.length; i++) {
+                String name = header[i] == null ? "" : header[i].trim().toLowerCase(Locale.ROOT)
+                        .replace(' ', '_').replace("\uFEFF", "");
+                switch (name) {
+                    case "title" -> columns.title = i;
+                    case "description" -> columns.description = i;
+                    case "workflow" -> columns.workflow = i;
+                    case "status" -> columns.status = i;
+                    case "priority" -> columns.priority = i;
+                    case "assignee" -> columns.assignee = i;
+                    case "due_date" -> columns.dueDate = i;
+                    case "estimated_hours" -> columns.estimatedHours = i;
+                    default -> { }
+                }
+            }
+            if (columns.title < 0 || columns.workflow < 0 || columns.dueDate < 0) {
+                throw new IllegalArgumentException("The header must contain the title, workflow and due_date columns");
+            }
+            return columns;
+        }
+
+        // Trimmed cell value, null when the column is missing or the cell is empty
+        String value(String[] line, int column) {
+            if (column < 0 || column >= line.length || line[column] == null || line[column].isBlank()) {
+                return null;
+            }
+            return line[column].trim();
+        }
+    }
+
+    private class ImportLookup {
+        private final Map<Long, String> workflowNames = new HashMap<>();
+        private final Map<String, Long> workflowIdsByName = new HashMap<>();
+        private final Map<Long, Map<String, Long>> statusLayerIds = new HashMap<>();
+        private final Map<Long, Long> firstStatusLayerIds = new HashMap<>();
+        private final Map<String, Long> userIds = new HashMap<>();
+        // Existing titles are loaded the first time a workflow appears in the file
+        private final Map<Long, Set<String>> titles = new HashMap<>();
+
+        Long findWorkflowId(String value) {
+            Long workflowId = workflowIdsByName.get(value.toLowerCase(Locale.ROOT));
+            if (workflowId == null && value.chars().allMatch(Character::isDigit)) {
+                Long id = Long.valueOf(value);
+                workflowId = workflowNames.containsKey(id) ? id : null;
+            }
+            return workflowId;
+        }
+
+        Set<String> titlesFor(Long workflowId) {
+            return titles.computeIfAbsent(workflowId,
+                    id -> new HashSet<>(taskRepository.findLowerCaseTitlesByWorkflowId(id)));
+        }
+    }
+}
\ No newline at end of file
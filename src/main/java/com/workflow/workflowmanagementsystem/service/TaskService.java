@@ -1,10 +1,14 @@
 package com.workflow.workflowmanagementsystem.service;
 
-import com.workflow.workflowmanagementsystem.Repository.AuditLogRepository;
 import com.workflow.workflowmanagementsystem.Repository.TaskRepository;
 import com.workflow.workflowmanagementsystem.Repository.UserRepository;
 import com.workflow.workflowmanagementsystem.Repository.WorkflowRepository;
 import com.workflow.workflowmanagementsystem.Repository.WorkflowStatusLayerRepository;
+import com.workflow.workflowmanagementsystem.component.FullTextSearchSetup;
+import com.workflow.workflowmanagementsystem.dto.KeysetPage;
+import com.workflow.workflowmanagementsystem.dto.TaskLifecycleCounts;
+import com.workflow.workflowmanagementsystem.dto.TaskSummary;
+import com.workflow.workflowmanagementsystem.dto.WorkflowStateMachine;
 import com.workflow.workflowmanagementsystem.entity.AuditLog;
 import com.workflow.workflowmanagementsystem.entity.Task;
 import com.workflow.workflowmanagementsystem.entity.Task.TaskPriority;
@@ -12,23 +16,40 @@ import com.workflow.workflowmanagementsystem.entity.Task.TaskStatus;
 import com.workflow.workflowmanagementsystem.entity.User;
 import com.workflow.workflowmanagementsystem.entity.Workflow;
 import com.workflow.workflowmanagementsystem.entity.WorkflowStatusLayer;
+import com.workflow.workflowmanagementsystem.util.AuditDiffUtil;
+import com.workflow.workflowmanagementsystem.util.CursorUtil;
+import com.workflow.workflowmanagementsystem.util.SearchQueryUtil;
+import com.workflow.workflowmanagementsystem.util.TaskStatusUtil;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class TaskService {
     
+    // Status transitions that keep losing to concurrent updates give up after this many attempts
+    private static final int MAX_TRANSITION_ATTEMPTS = 3;
+    
     @Autowired
     private TaskRepository taskRepository;
     
@@ -39,11 +60,29 @@ public class TaskService {
     private WorkflowRepository workflowRepository;
     
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditSink auditSink;
     
     @Autowired
     private WorkflowStatusLayerRepository workflowStatusLayerRepository;
     
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+    
+    @Autowired
+    private TaskTrendService taskTrendService;
+    
+    @Autowired
+    private WorkflowStateMachineService workflowStateMachineService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private FullTextSearchSetup fullTextSearchSetup;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     // Create a new task
     public Task createTask(Task task, Long createdByUserId) {
         // Validate workflow exists
@@ -78,10 +117,13 @@ public class TaskService {
         }
         
         Task savedTask = this.taskRepository.save(task);
+        dashboardCounterService.taskCreated(savedTask);
+        taskTrendService.recordCreated(savedTask);
         
         // Log the creation
         logAuditAction(AuditLog.ActionType.CREATE, "Task", savedTask.getId(),
                       "Created task: " + savedTask.getTitle() + " in workflow: " + workflow.getName(), createdBy);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Task"));
         
         return savedTask;
     }
@@ -101,12 +143,11 @@ public class TaskService {
             throw new IllegalArgumentException("Task with title '" + taskDetails.getTitle() + "' already exists in this workflow");
         }
         
+        DashboardCounterService.TaskCounterKey counterKey = DashboardCounterService.TaskCounterKey.of(existingTask);
+        
         // Store old values for audit
-        String oldValues = String.format("Title: %s, Status: %s, Priority: %s, AssignedTo: %s",
-                existingTask.getTitle(),
-                existingTask.getWorkflowStatusLayer() != null ? existingTask.getWorkflowStatusLayer().getName() : "None",
-                existingTask.getPriority(),
-                existingTask.getAssignedTo() != null ? existingTask.getAssignedTo().getUsername() : "Unassigned");
+        Map<String, String> oldValues = AuditDiffUtil.snapshot(existingTask);
+        LocalDateTime previousDueDate = existingTask.getDueDate();
         
         // Update fields
         existingTask.setTitle(taskDetails.getTitle());
@@ -125,16 +166,13 @@ public class TaskService {
         }
         
         Task updatedTask = this.taskRepository.save(existingTask);
+        dashboardCounterService.taskChanged(counterKey, updatedTask);
+        taskTrendService.recordDueDateChange(updatedTask, previousDueDate);
         
-        // Log the update
-        String newValues = String.format("Title: %s, Status: %s, Priority: %s, AssignedTo: %s",
-                updatedTask.getTitle(),
-                updatedTask.getWorkflowStatusLayer() != null ? updatedTask.getWorkflowStatusLayer().getName() : "None",
-                updatedTask.getPriority(),
-                updatedTask.getAssignedTo() != null ? updatedTask.getAssignedTo().getUsername() : "Unassigned");
-        
+        // Log the update with the changed fields only
         logAuditAction(AuditLog.ActionType.UPDATE, "Task", updatedTask.getId(), 
-                      "Updated task: " + updatedTask.getTitle(), updatedBy, oldValues, newValues);
+                      "Updated task: " + updatedTask.getTitle(), updatedBy, oldValues, AuditDiffUtil.snapshot(updatedTask));
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Task"));
         
         return updatedTask;
     }
@@ -171,6 +209,34 @@ public class TaskService {
         return taskRepository.findByWorkflowId(workflowId);
     }
     
+    // Read-only projections for the JSON endpoints - no entities are loaded into the persistence context
+    @Transactional(readOnly = true)
+    public List<TaskSummary> getTaskSummariesByPriority(TaskPriority priority) {
+        return taskRepository.findTaskSummariesByPriority(priority);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<TaskSummary> getTaskSummariesByAssignedUser(Long assignedToId) {
+        return taskRepository.findTaskSummariesByAssignedToId(assignedToId);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<TaskSummary> getOverdueTaskSummaries() {
+        return taskRepository.findOverdueTaskSummaries(LocalDateTime.now());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<TaskSummary> getTaskSummariesDueWithinDays(int days) {
+        LocalDateTime startDate = LocalDateTime.now();
+        LocalDateTime endDate = startDate.plusDays(days);
+        return taskRepository.findTaskSummariesDueWithinDateRange(startDate, endDate);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<TaskSummary> getTaskSummariesByWorkflowStatusLayer(Long workflowStatusLayerId) {
+        return taskRepository.findTaskSummariesByWorkflowStatusLayerId(workflowStatusLayerId);
+    }
+    
     // Get tasks created by user
     public List<Task> getTasksByCreator(Long createdBy) {
         return taskRepository.findByCreatedById(createdBy);
@@ -181,6 +247,40 @@ public class TaskService {
         return taskRepository.findOverdueTasks(LocalDateTime.now());
     }
     
+    // Count overdue tasks without loading them, optionally within a department
+    @Transactional(readOnly = true)
+    public long countOverdueTasks(Long departmentId) {
+        return taskRepository.countOverdueTasks(LocalDateTime.now(), departmentId);
+    }
+    
+    // Per status layer, per status and overdue counts for the lifecycle pages in one query
+    @Transactional(readOnly = true)
+    public TaskLifecycleCounts getLifecycleCounts() {
+        long totalTasks = 0;
+        long overdueTasks = 0;
+        Map<Long, Long> countsByStatusLayer = new HashMap<>();
+        Map<TaskStatus, Long> countsByStatus = new EnumMap<>(TaskStatus.class);
+        
+        for (Object[] row : taskRepository.countTasksForLifecycle(LocalDateTime.now())) {
+            Long statusLayerId = (Long) row[0];
+            TaskStatus status = TaskStatusUtil.getStatus((TaskStatus) row[1], (Boolean) row[2]);
+            long count = ((Number) row[3]).longValue();
+            long pastDue = row[4] != null ? ((Number) row[4]).longValue() : 0L;
+            
+            totalTasks += count;
+            if (statusLayerId != null) {
+                countsByStatusLayer.put(statusLayerId, count);
+            }
+            countsByStatus.merge(status, count, Long::sum);
+            // Past-due tasks only count as overdue while they are not completed
+            if (status != TaskStatus.COMPLETED) {
+                overdueTasks += pastDue;
+            }
+        }
+        
+        return new TaskLifecycleCounts(totalTasks, overdueTasks, countsByStatusLayer, countsByStatus);
+    }
+    
     // Get tasks due within next N days
     public List<Task> getTasksDueWithinDays(int days) {
         LocalDateTime startDate = LocalDateTime.now();
@@ -190,7 +290,28 @@ public class TaskService {
     
     // Search tasks
     public Page<Task> searchTasks(String searchTerm, Pageable pageable) {
-        return taskRepository.searchTasks(searchTerm, pageable);
+        String query = SearchQueryUtil.toPrefixQuery(searchTerm);
+        if (query == null || !fullTextSearchSetup.isAvailable("tasks")) {
+            return taskRepository.searchTasks(searchTerm, pageable);
+        }
+        // Results are ranked by relevance, so the requested sort is not applied
+        return taskRepository.searchTasksFullText(query, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+    
+    // Get highlighted search fragments keyed by task ID for a page of search results
+    @Transactional(readOnly = true)
+    public Map<Long, String> getSearchHighlights(String searchTerm, List<Task> tasks) {
+        Map<Long, String> highlights = new HashMap<>();
+        String query = SearchQueryUtil.toPrefixQuery(searchTerm);
+        if (query == null || tasks.isEmpty() || !fullTextSearchSetup.isAvailable("tasks")) {
+            return highlights;
+        }
+        
+        List<Long> ids = tasks.stream().map(Task::getId).collect(Collectors.toList());
+        for (Object[] row : taskRepository.findSearchHeadlines(ids, query, SearchQueryUtil.HEADLINE_OPTIONS)) {
+            highlights.put(((Number) row[0]).longValue(), SearchQueryUtil.toHighlightHtml((String) row[1]));
+        }
+        return highlights;
     }
     
     // Get tasks with filters
@@ -199,6 +320,23 @@ public class TaskService {
         return taskRepository.findTasksWithFilters(status, priority, assignedToId, workflowId, pageable);
     }
     
+    // Get filtered tasks as a keyset page ordered by newest first; the total is only counted when requested.
+    // Sizes below 1 are rejected and larger ones capped at CursorUtil.MAX_PAGE_SIZE
+    @Transactional(readOnly = true)
+    public KeysetPage<Task> getTasksWithFiltersKeyset(TaskStatus status, TaskPriority priority, Long assignedToId,
+                                                      Long workflowId, Long workflowStatusLayerId, String cursor,
+                                                      int size, boolean includeTotal) {
+        int pageSize = CursorUtil.pageSize(size);
+        CursorUtil.Cursor position = CursorUtil.decode(cursor);
+        List<Task> rows = taskRepository.findTasksWithFiltersAfter(status, priority, assignedToId, workflowId,
+                workflowStatusLayerId, position != null ? position.getKey() : null,
+                position != null ? position.getId() : null, PageRequest.of(0, pageSize + 1));
+        Long total = includeTotal
+                ? taskRepository.countTasksWithFilters(status, priority, assignedToId, workflowId, workflowStatusLayerId)
+                : null;
+        return toKeysetPage(rows, pageSize, total, Task::getCreatedAt);
+    }
+    
     // Delete task
     public void deleteTask(Long id, Long deletedByUserId) {
         Task task = taskRepository.findById(id)
@@ -208,10 +346,13 @@ public class TaskService {
                 .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + deletedByUserId));
         
         taskRepository.delete(task);
+        dashboardCounterService.taskDeleted(task);
+        taskTrendService.recordDeleted(task);
         
         // Log the deletion
         logAuditAction(AuditLog.ActionType.DELETE, "Task", id, 
                       "Deleted task: " + task.getTitle(), deletedBy);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Task"));
     }
     
     // Assign task to user
@@ -225,10 +366,12 @@ public class TaskService {
         User assignedBy = userRepository.findById(assignedByUserId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + assignedByUserId));
         
+        DashboardCounterService.TaskCounterKey counterKey = DashboardCounterService.TaskCounterKey.of(task);
         User previousAssignee = task.getAssignedTo();
         task.setAssignedTo(assignedTo);
         
         Task updatedTask = this.taskRepository.save(task);
+        dashboardCounterService.taskChanged(counterKey, updatedTask);
         
         // Log the assignment
         String description = String.format("Assigned task '%s' to %s", task.getTitle(), assignedTo.getUsername());
@@ -236,7 +379,10 @@ public class TaskService {
             description += String.format(" (reassigned from %s)", previousAssignee.getUsername());
         }
         
-        logAuditAction(AuditLog.ActionType.ASSIGN, "Task", taskId, description, assignedBy);
+        logAuditAction(AuditLog.ActionType.ASSIGN, "Task", taskId, description, assignedBy,
+                      Collections.singletonMap("assignedToId", previousAssignee != null ? previousAssignee.getId().toString() : null),
+                      Collections.singletonMap("assignedToId", assignedTo.getId().toString()));
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Task"));
         
         return updatedTask;
     }
@@ -248,37 +394,20 @@ public class TaskService {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found with ID: " + id));
         
-        List<WorkflowStatusLayer> statusLayers = workflowStatusLayerRepository
-                .findByWorkflowIdOrderByOrderAsc(task.getWorkflow().getId());
+        WorkflowStateMachine stateMachine = workflowStateMachineService.forWorkflow(task.getWorkflow().getId());
         
-        WorkflowStatusLayer targetLayer = null;
+        Optional<WorkflowStateMachine.StatusLayer> targetLayer;
         if (newStatus == TaskStatus.COMPLETED) {
-            targetLayer = statusLayers.stream()
-                    .filter(WorkflowStatusLayer::getIsFinal)
-                    .findFirst()
-                    .orElse(null);
-        } else if (newStatus == TaskStatus.ON_HOLD) {
-            targetLayer = statusLayers.stream()
-                    .filter(layer -> !layer.getIsFinal() &&
-                            (layer.getName().toLowerCase().contains("hold") || layer.getName().toLowerCase().contains("pause")))
-                    .findFirst()
-                    .orElse(null);
-        } else if (newStatus == TaskStatus.IN_PROGRESS) {
-            targetLayer = statusLayers.stream()
-                    .filter(layer -> !layer.getIsFinal() &&
-                            (layer.getName().toLowerCase().contains("progress") || layer.getName().toLowerCase().contains("active")))
-                    .findFirst()
-                    .orElse(null);
+            targetLayer = stateMachine.getFirstFinalLayer();
+        } else if (newStatus == TaskStatus.ON_HOLD || newStatus == TaskStatus.IN_PROGRESS) {
+            targetLayer = stateMachine.getFirstLayerInCategory(newStatus);
         } else {
             // Find first non-final status layer for PENDING
-            targetLayer = statusLayers.stream()
-                    .filter(layer -> !layer.getIsFinal())
-                    .findFirst()
-                    .orElse(null);
+            targetLayer = stateMachine.getFirstNonFinalLayer();
         }
         
-        if (targetLayer != null) {
-            return changeTaskWorkflowStatus(id, targetLayer.getId(), changedByUserId);
+        if (targetLayer.isPresent()) {
+            return changeTaskWorkflowStatus(id, targetLayer.get().id(), changedByUserId);
         }
         
         return task;
@@ -292,30 +421,20 @@ public class TaskService {
         User completedBy = userRepository.findById(completedByUserId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + completedByUserId));
         
-        // Find final status layer in the workflow
-        List<WorkflowStatusLayer> statusLayers = workflowStatusLayerRepository
-                .findByWorkflowIdOrderByOrderAsc(task.getWorkflow().getId());
-        
-        WorkflowStatusLayer finalStatusLayer = statusLayers.stream()
-                .filter(WorkflowStatusLayer::getIsFinal)
-                .findFirst()
-                .orElse(null);
-        
-        if (finalStatusLayer != null) {
-            task.setWorkflowStatusLayer(finalStatusLayer);
-        }
-        
-        if (actualHours != null) {
-            task.setActualHours(actualHours);
-        }
+        // Move to the first final status layer in the workflow, or keep the current layer if there is none
+        StatusTransition transition = applyStatusTransition(task, null, actualHours,
+                stateMachine -> stateMachine.getFirstFinalLayer().orElse(null));
         
-        Task completedTask = this.taskRepository.save(task);
+        dashboardCounterService.taskChanged(transition.counterKey(), task);
+        taskTrendService.recordCompletionChange(task, transition.previousCompletedAt());
         
         // Log the completion
         logAuditAction(AuditLog.ActionType.COMPLETE, "Task", id,
-                      "Completed task: " + task.getTitle(), completedBy);
+                      "Completed task: " + task.getTitle(), completedBy,
+                      transition.previousState(), transitionState(task, transition));
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Task"));
         
-        return completedTask;
+        return task;
     }
     
     // Get task statistics
@@ -336,23 +455,118 @@ public class TaskService {
         return taskRepository.findTasksForUser(userId, status, priority, pageable);
     }
     
+    // Get tasks for a user as a keyset page ordered by due date; the total is only counted when requested.
+    // Sizes below 1 are rejected and larger ones capped at CursorUtil.MAX_PAGE_SIZE
+    @Transactional(readOnly = true)
+    public KeysetPage<Task> getTasksForUserKeyset(Long userId, TaskStatus status, TaskPriority priority,
+                                                  String cursor, int size, boolean includeTotal) {
+        int pageSize = CursorUtil.pageSize(size);
+        CursorUtil.Cursor position = CursorUtil.decode(cursor);
+        List<Task> rows = taskRepository.findTasksForUserAfter(userId, status, priority,
+                position != null ? position.getKey() : null,
+                position != null ? position.getId() : null, PageRequest.of(0, pageSize + 1));
+        Long total = includeTotal ? taskRepository.countTasksForUser(userId, status, priority) : null;
+        return toKeysetPage(rows, pageSize, total, Task::getDueDate);
+    }
+    
+    // Trim the look-ahead row and build the cursor from the last row of the page
+    private KeysetPage<Task> toKeysetPage(List<Task> rows, int size, Long total,
+                                          Function<Task, LocalDateTime> sortKey) {
+        boolean hasNext = rows.size() > size;
+        List<Task> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Task last = content.get(content.size() - 1);
+            nextCursor = CursorUtil.encode(sortKey.apply(last), last.getId());
+        }
+        return new KeysetPage<>(content, size, hasNext, nextCursor, total);
+    }
+    
     // Get workflow task statistics
     public Object[] getWorkflowTaskStatistics(Long workflowId) {
         return taskRepository.getTaskStatisticsByWorkflow(workflowId);
     }
     
+    // State of a task just before a status transition was applied, and the layer it moved to (null if it stayed)
+    private record StatusTransition(DashboardCounterService.TaskCounterKey counterKey,
+                                    LocalDateTime previousCompletedAt, Integer previousActualHours,
+                                    WorkflowStateMachine.StatusLayer oldStatusLayer,
+                                    WorkflowStateMachine.StatusLayer newStatusLayer) {
+        
+        String oldStatusLayerName() {
+            return oldStatusLayer != null ? oldStatusLayer.name() : "None";
+        }
+        
+        // Audited fields a transition can change, as they were before it
+        Map<String, String> previousState() {
+            Map<String, String> state = new LinkedHashMap<>();
+            state.put("statusLayerId", oldStatusLayer != null ? oldStatusLayer.id().toString() : null);
+            state.put("actualHours", previousActualHours != null ? previousActualHours.toString() : null);
+            return state;
+        }
+    }
+    
+    // The fields of StatusTransition.previousState() after the transition was applied
+    private Map<String, String> transitionState(Task task, StatusTransition transition) {
+        Map<String, String> state = new LinkedHashMap<>();
+        state.put("statusLayerId", transition.newStatusLayer() != null ? transition.newStatusLayer().id().toString()
+                : transition.previousState().get("statusLayerId"));
+        state.put("actualHours", task.getActualHours() != null ? task.getActualHours().toString() : null);
+        return state;
+    }
+    
+    // Move a task to the layer chosen by targetLayer (null keeps its current layer) with a compare-and-set update
+    // on its version. Layers come from the workflow's cached state machine rather than status layer queries.
+    // A lost race re-reads the task and chooses again; the task is refreshed to the committed state on success.
+    private StatusTransition applyStatusTransition(Task task, Long expectedStatusLayerId, Integer actualHours,
+                                                   Function<WorkflowStateMachine, WorkflowStateMachine.StatusLayer> targetLayer) {
+        for (int attempt = 1; ; attempt++) {
+            WorkflowStateMachine stateMachine = workflowStateMachineService.forWorkflow(task.getWorkflow().getId());
+            Long currentLayerId = task.getWorkflowStatusLayer() != null ? task.getWorkflowStatusLayer().getId() : null;
+            WorkflowStateMachine.StatusLayer currentLayer = stateMachine.getLayer(currentLayerId).orElse(null);
+            if (expectedStatusLayerId != null && !expectedStatusLayerId.equals(currentLayerId)) {
+                throw new OptimisticLockingFailureException("Task was moved to "
+                        + (currentLayer != null ? currentLayer.name() : "None") + " by another user. Please reload and try again.");
+            }
+            
+            WorkflowStateMachine.StatusLayer newLayer = targetLayer.apply(stateMachine);
+            StatusTransition transition = new StatusTransition(DashboardCounterService.TaskCounterKey.of(task),
+                    task.getCompletedAt(), task.getActualHours(), currentLayer, newLayer);
+            
+            LocalDateTime now = LocalDateTime.now();
+            WorkflowStatusLayer statusLayer = task.getWorkflowStatusLayer();
+            LocalDateTime completedAt = task.getCompletedAt();
+            if (newLayer != null) {
+                // Same completedAt rules as Task.setWorkflowStatusLayer
+                statusLayer = entityManager.getReference(WorkflowStatusLayer.class, newLayer.id());
+                completedAt = newLayer.isFinal() ? (completedAt != null ? completedAt : now) : null;
+            }
+            
+            int updated = taskRepository.compareAndSetStatusLayer(
+                    task.getId(), task.getVersion(), statusLayer, completedAt, actualHours, now);
+            entityManager.refresh(task);
+            if (updated == 1) {
+                return transition;
+            }
+            if (attempt >= MAX_TRANSITION_ATTEMPTS) {
+                throw new OptimisticLockingFailureException(
+                        "Task is being changed by other users. Please reload and try again.");
+            }
+        }
+    }
+    
     // Helper method to log audit actions
     private void logAuditAction(AuditLog.ActionType actionType, String entityType, Long entityId, 
                                String description, User user) {
-        logAuditAction(actionType, entityType, entityId, description, user, null, null);
+        auditSink.record(new AuditLog(actionType, entityType, entityId, description, user));
     }
     
+    // Old and new values hold only the fields that differ between the two snapshots
     private void logAuditAction(AuditLog.ActionType actionType, String entityType, Long entityId, 
-                               String description, User user, String oldValues, String newValues) {
+                               String description, User user, Map<String, String> oldValues, Map<String, String> newValues) {
         AuditLog auditLog = new AuditLog(actionType, entityType, entityId, description, user);
-        auditLog.setOldValues(oldValues);
-        auditLog.setNewValues(newValues);
-        auditLogRepository.save(auditLog);
+        AuditDiffUtil.recordChanges(auditLog, oldValues, newValues);
+        auditSink.record(auditLog);
     }
     
     // Dynamic Workflow Status Methods
@@ -398,11 +612,14 @@ public class TaskService {
         // The getStatus() method will derive the correct status based on the workflowStatusLayer
         
         Task savedTask = this.taskRepository.save(task);
+        dashboardCounterService.taskCreated(savedTask);
+        taskTrendService.recordCreated(savedTask);
         
         // Log the creation
         logAuditAction(AuditLog.ActionType.CREATE, "Task", savedTask.getId(),
                       "Created task: " + savedTask.getTitle() + " with status: " + workflowStatusLayer.getName() +
                       " in workflow: " + workflow.getName(), createdBy);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Task"));
         
         return savedTask;
     }
@@ -411,56 +628,56 @@ public class TaskService {
      * Change task workflow status layer
      */
     public Task changeTaskWorkflowStatus(Long taskId, Long newWorkflowStatusLayerId, Long changedByUserId) {
+        return changeTaskWorkflowStatus(taskId, newWorkflowStatusLayerId, null, changedByUserId);
+    }
+    
+    /**
+     * Change task workflow status layer only if the task is still in the layer the caller saw.
+     * A null expectedWorkflowStatusLayerId moves the task from whatever layer it is in.
+     * @throws OptimisticLockingFailureException if the task was moved by someone else, or kept changing concurrently
+     */
+    public Task changeTaskWorkflowStatus(Long taskId, Long newWorkflowStatusLayerId, Long expectedWorkflowStatusLayerId,
+                                         Long changedByUserId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found with ID: " + taskId));
         
         User changedBy = userRepository.findById(changedByUserId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + changedByUserId));
         
-        WorkflowStatusLayer newWorkflowStatusLayer = workflowStatusLayerRepository.findById(newWorkflowStatusLayerId)
-                .orElseThrow(() -> new EntityNotFoundException("Workflow status layer not found with ID: " + newWorkflowStatusLayerId));
+        StatusTransition transition = applyStatusTransition(task, expectedWorkflowStatusLayerId, null,
+                stateMachine -> stateMachine.getLayer(newWorkflowStatusLayerId).orElseThrow(() -> {
+                    // Validate that the status layer exists and belongs to the task's workflow
+                    if (!workflowStatusLayerRepository.existsById(newWorkflowStatusLayerId)) {
+                        return new EntityNotFoundException("Workflow status layer not found with ID: " + newWorkflowStatusLayerId);
+                    }
+                    return new IllegalArgumentException("Status layer does not belong to the task's workflow");
+                }));
+        String newStatusLayerName = transition.newStatusLayer().name();
         
-        // Validate that the status layer belongs to the task's workflow
-        if (!newWorkflowStatusLayer.getWorkflow().getId().equals(task.getWorkflow().getId())) {
-            throw new IllegalArgumentException("Status layer does not belong to the task's workflow");
-        }
-        
-        WorkflowStatusLayer oldWorkflowStatusLayer = task.getWorkflowStatusLayer();
-        task.setWorkflowStatusLayer(newWorkflowStatusLayer);
-        
-        // completedAt is now automatically managed by setWorkflowStatusLayer method
-        
-        Task updatedTask = this.taskRepository.save(task);
+        dashboardCounterService.taskChanged(transition.counterKey(), task);
+        taskTrendService.recordCompletionChange(task, transition.previousCompletedAt());
         
         // Log the status change
         String description = String.format("Changed workflow status from %s to %s for task: %s",
-                oldWorkflowStatusLayer != null ? oldWorkflowStatusLayer.getName() : "None",
-                newWorkflowStatusLayer.getName(), task.getTitle());
+                transition.oldStatusLayerName(), newStatusLayerName, task.getTitle());
         
         logAuditAction(AuditLog.ActionType.UPDATE, "Task", taskId, description, changedBy,
-                      oldWorkflowStatusLayer != null ? oldWorkflowStatusLayer.getName() : "None",
-                      newWorkflowStatusLayer.getName());
+                      transition.previousState(), transitionState(task, transition));
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Task"));
         
-        return updatedTask;
+        return task;
     }
     
     /**
      * Get next available workflow status layers for a task
      */
-    public List<WorkflowStatusLayer> getNextWorkflowStatusLayers(Long taskId) {
+    public List<WorkflowStateMachine.StatusLayer> getNextWorkflowStatusLayers(Long taskId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found with ID: " + taskId));
         
-        if (task.getWorkflowStatusLayer() == null) {
-            // Return all status layers for the workflow if task has no current status
-            return workflowStatusLayerRepository.findByWorkflowIdOrderByOrderAsc(task.getWorkflow().getId());
-        }
-        
-        // Return status layers with higher order than current
-        return workflowStatusLayerRepository.findByWorkflowIdOrderByOrderAsc(task.getWorkflow().getId())
-                .stream()
-                .filter(statusLayer -> statusLayer.getOrder() > task.getWorkflowStatusLayer().getOrder())
-                .toList();
+        // All status layers if the task has no current status, otherwise the ones with higher order than current
+        Long currentLayerId = task.getWorkflowStatusLayer() != null ? task.getWorkflowStatusLayer().getId() : null;
+        return workflowStateMachineService.forWorkflow(task.getWorkflow().getId()).getLayersAfter(currentLayerId);
     }
     
     /**
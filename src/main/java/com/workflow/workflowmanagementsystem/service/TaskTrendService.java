@@ -0,0 +1,224 @@
+package com.workflow.workflowmanagementsystem.service;
+
+import com.workflow.workflowmanagementsystem.Repository.TaskTrendRollupRepository;
+import com.workflow.workflowmanagementsystem.entity.Task;
+import com.workflow.workflowmanagementsystem.entity.TaskTrendRollup.Granularity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains the hourly and daily task trend rollups and reads the dashboard trend series from them.
+ * Created, completed and overdue counts are adjusted in the same transaction as the task change, including
+ * deletes and due date changes. Overdue counts are also recomputed by a scheduled job for every bucket the
+ * dashboard can show, because tasks become overdue with the passage of time.
+ */
+@Service
+@Transactional
+public class TaskTrendService {
+    
+    public static final int MAX_TREND_DAYS = 365;
+    
+    private static final DateTimeFormatter HOUR_LABEL = DateTimeFormatter.ofPattern("HH:00");
+    
+    // Positions in the per-bucket delta arrays
+    private static final int CREATED = 0;
+    private static final int COMPLETED = 1;
+    private static final int OVERDUE = 2;
+    
+    @Autowired
+    private TaskTrendRollupRepository taskTrendRollupRepository;
+    
+    // Record a newly created task
+    public void recordCreated(Task task) {
+        recordCreatedTasks(List.of(task));
+    }
+    
+    // Record a change of the task's completion time (completed, reopened or completed again)
+    public void recordCompletionChange(Task task, LocalDateTime previousCompletedAt) {
+        Map<Long, LocalDateTime> previous = new HashMap<>();
+        previous.put(task.getId(), previousCompletedAt);
+        recordCompletionChanges(List.of(task), previous);
+    }
+    
+    // Record a change of the task's due date, which moves it between overdue buckets
+    public void recordDueDateChange(Task task, LocalDateTime previousDueDate) {
+        Map<TrendBucket, long[]> deltas = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        addOverdueChange(deltas, task, overdueAt(previousDueDate, task.getCompletedAt(), now),
+                overdueAt(task.getDueDate(), task.getCompletedAt(), now));
+        write(deltas);
+    }
+    
+    // Record a deleted task
+    public void recordDeleted(Task task) {
+        recordDeletedTasks(List.of(task));
+    }
+    
+    // Record many newly created tasks, with one upsert per bucket and workflow
+    public void recordCreatedTasks(Collection<Task> tasks) {
+        Map<TrendBucket, long[]> deltas = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : tasks) {
+            addDelta(deltas, task, task.getCreatedAt(), CREATED, 1);
+            // Tasks can be created already overdue, or already completed
+            addDelta(deltas, task, task.getCompletedAt(), COMPLETED, 1);
+            addDelta(deltas, task, overdueAt(task.getDueDate(), task.getCompletedAt(), now), OVERDUE, 1);
+        }
+        write(deltas);
+    }
+    
+    // Record completion changes of many tasks, with one upsert per bucket and workflow
+    public void recordCompletionChanges(Collection<Task> tasks, Map<Long, LocalDateTime> previousCompletedAt) {
+        Map<TrendBucket, long[]> deltas = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : tasks) {
+            LocalDateTime previous = previousCompletedAt.get(task.getId());
+            LocalDateTime completedAt = task.getCompletedAt();
+            if (Objects.equals(previous, completedAt)) {
+                continue;
+            }
+            addDelta(deltas, task, previous, COMPLETED, -1);
+            addDelta(deltas, task, completedAt, COMPLETED, 1);
+            addOverdueChange(deltas, task, overdueAt(task.getDueDate(), previous, now),
+                    overdueAt(task.getDueDate(), completedAt, now));
+        }
+        write(deltas);
+    }
+    
+    // Take many deleted tasks out of every bucket that counts them, with one upsert per bucket and workflow
+    public void recordDeletedTasks(Collection<Task> tasks) {
+        Map<TrendBucket, long[]> deltas = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : tasks) {
+            addDelta(deltas, task, task.getCreatedAt(), CREATED, -1);
+            addDelta(deltas, task, task.getCompletedAt(), COMPLETED, -1);
+            addDelta(deltas, task, overdueAt(task.getDueDate(), task.getCompletedAt(), now), OVERDUE, -1);
+        }
+        write(deltas);
+    }
+    
+    // Recompute overdue counts for every bucket the dashboard can show, including the hour that just passed
+    @Scheduled(cron = "${app.dashboard.trend.overdue-refresh-cron:0 5 * * * *}")
+    public void refreshOverdueCounts() {
+        LocalDateTime now = LocalDateTime.now();
+        // The hourly series covers the last 24 hours, the daily series up to MAX_TREND_DAYS days
+        recountOverdue(Granularity.HOUR, now.minusDays(1).truncatedTo(ChronoUnit.HOURS), now);
+        recountOverdue(Granularity.DAY, now.minusDays(MAX_TREND_DAYS).truncatedTo(ChronoUnit.DAYS), now);
+    }
+    
+    // Both statements run in the caller's transaction, so the trend never shows the window zeroed
+    private void recountOverdue(Granularity granularity, LocalDateTime fromDate, LocalDateTime toDate) {
+        taskTrendRollupRepository.clearOverdueCounts(granularity.name(), fromDate, toDate);
+        taskTrendRollupRepository.refreshOverdueCounts(granularity.name(), fromDate, toDate);
+    }
+    
+    // Rebuild all rollups from the tasks table (created_at, completed_at and due_date)
+    public void backfill() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Granularity granularity : Granularity.values()) {
+            taskTrendRollupRepository.backfillCreatedCounts(granularity.name());
+            taskTrendRollupRepository.backfillCompletedCounts(granularity.name());
+            recountOverdue(granularity, LocalDateTime.of(1970, 1, 1, 0, 0), now);
+        }
+    }
+    
+    public boolean hasRollups() {
+        return taskTrendRollupRepository.count() > 0;
+    }
+    
+    /**
+     * Get the trend series for the dashboard. One day uses hourly buckets, longer ranges use daily buckets.
+     * @param days Number of days to show, capped at {@link #MAX_TREND_DAYS}
+     * @param departmentId Optional department filter
+     * @return labels plus created, completed and overdue series ("data" holds the completed series)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTrendData(int days, Long departmentId) {
+        int range = Math.max(1, Math.min(days, MAX_TREND_DAYS));
+        Granularity granularity = range == 1 ? Granularity.HOUR : Granularity.DAY;
+        ChronoUnit unit = granularity == Granularity.HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS;
+        int buckets = granularity == Granularity.HOUR ? 24 : range;
+        
+        LocalDateTime lastBucket = LocalDateTime.now().truncatedTo(unit);
+        LocalDateTime firstBucket = lastBucket.minus(buckets - 1L, unit);
+        
+        Map<LocalDateTime, Object[]> rows = new HashMap<>();
+        for (Object[] row : taskTrendRollupRepository.findTrend(granularity, firstBucket, departmentId)) {
+            rows.put((LocalDateTime) row[0], row);
+        }
+        
+        List<String> labels = new ArrayList<>();
+        List<Long> created = new ArrayList<>();
+        List<Long> completed = new ArrayList<>();
+        List<Long> overdue = new ArrayList<>();
+        for (int i = 0; i < buckets; i++) {
+            LocalDateTime bucket = firstBucket.plus(i, unit);
+            labels.add(granularity == Granularity.HOUR ? bucket.format(HOUR_LABEL) : bucket.toLocalDate().toString());
+            Object[] row = rows.get(bucket);
+            created.add(row != null ? ((Number) row[1]).longValue() : 0L);
+            completed.add(row != null ? ((Number) row[2]).longValue() : 0L);
+            overdue.add(row != null ? ((Number) row[3]).longValue() : 0L);
+        }
+        
+        Map<String, Object> trendData = new HashMap<>();
+        trendData.put("labels", labels);
+        trendData.put("data", completed);
+        trendData.put("created", created);
+        trendData.put("completed", completed);
+        trendData.put("overdue", overdue);
+        trendData.put("granularity", granularity.name());
+        return trendData;
+    }
+    
+    // Due date under which the task counts as overdue, or null. Matches refreshOverdueCounts: not completed
+    // by a due date that has passed
+    private LocalDateTime overdueAt(LocalDateTime dueDate, LocalDateTime completedAt, LocalDateTime now) {
+        if (dueDate == null || !dueDate.isBefore(now) || (completedAt != null && !completedAt.isAfter(dueDate))) {
+            return null;
+        }
+        return dueDate;
+    }
+    
+    private void addOverdueChange(Map<TrendBucket, long[]> deltas, Task task, LocalDateTime before, LocalDateTime after) {
+        if (!Objects.equals(before, after)) {
+            addDelta(deltas, task, before, OVERDUE, -1);
+            addDelta(deltas, task, after, OVERDUE, 1);
+        }
+    }
+    
+    private void addDelta(Map<TrendBucket, long[]> deltas, Task task, LocalDateTime at, int position, long delta) {
+        if (at == null || task.getWorkflow() == null) {
+            return;
+        }
+        Long workflowId = task.getWorkflow().getId();
+        Long departmentId = task.getWorkflow().getDepartment() != null ? task.getWorkflow().getDepartment().getId() : null;
+        deltas.computeIfAbsent(new TrendBucket(Granularity.HOUR, at.truncatedTo(ChronoUnit.HOURS), workflowId, departmentId),
+                bucket -> new long[3])[position] += delta;
+        deltas.computeIfAbsent(new TrendBucket(Granularity.DAY, at.truncatedTo(ChronoUnit.DAYS), workflowId, departmentId),
+                bucket -> new long[3])[position] += delta;
+    }
+    
+    private void write(Map<TrendBucket, long[]> deltas) {
+        deltas.forEach((bucket, delta) -> {
+            if (delta[CREATED] != 0 || delta[COMPLETED] != 0 || delta[OVERDUE] != 0) {
+                taskTrendRollupRepository.addCounts(bucket.granularity().name(), bucket.bucketStart(),
+                        bucket.workflowId(), bucket.departmentId(), delta[CREATED], delta[COMPLETED], delta[OVERDUE]);
+            }
+        });
+    }
+    
+    private record TrendBucket(Granularity granularity, LocalDateTime bucketStart, Long workflowId, Long departmentId) {
+    }
+}
\ No newline at end of file
@@ -11,6 +11,7 @@ import com.workflow.workflowmanagementsystem.entity.Team;
 import com.workflow.workflowmanagementsystem.entity.User;
 import com.workflow.workflowmanagementsystem.entity.UserRole;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,6 +37,9 @@ public class UserRoleService {
     
     @Autowired
     private TeamRepository teamRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public List<UserRole> getAllUserRoles() {
         return userRoleRepository.findAll();
@@ -181,7 +185,9 @@ public class UserRoleService {
         userRole.setAssignedBy(assignedBy);
         userRole.setAssignedAt(LocalDateTime.now());
         
-        return userRoleRepository.save(userRole);
+        UserRole savedUserRole = userRoleRepository.save(userRole);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("UserRole"));
+        return savedUserRole;
     }
     
     public UserRole assignRoleToUserInContext(Long userId, Long roleId, Long departmentId, Long teamId, Long assignedBy) {
@@ -220,7 +226,9 @@ public class UserRoleService {
             userRepository.save(user);
         }
         
-        return userRoleRepository.save(userRole);
+        UserRole savedUserRole = userRoleRepository.save(userRole);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("UserRole"));
+        return savedUserRole;
     }
 
     public UserRole updateUserRole(Long userId, Long roleId, Long newRoleId, Long departmentId, Long teamId, Long assignedBy) {
@@ -258,7 +266,9 @@ public class UserRoleService {
             userRepository.save(user);
         }
         
-        return userRoleRepository.save(userRoleToUpdate);
+        UserRole savedUserRole = userRoleRepository.save(userRoleToUpdate);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("UserRole"));
+        return savedUserRole;
     }
     
     public UserRole updateUserRoleStatus(Long userId, Long roleId, Boolean active) {
@@ -270,7 +280,9 @@ public class UserRoleService {
         
         userRoleToUpdate.setActive(active);
         
-        return userRoleRepository.save(userRoleToUpdate);
+        UserRole savedUserRole = userRoleRepository.save(userRoleToUpdate);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("UserRole"));
+        return savedUserRole;
     }
 
     public void removeRoleFromUser(Long userId, Long roleId) {
@@ -282,6 +294,7 @@ public class UserRoleService {
         
         userRoleToUpdate.setActive(false);
         userRoleRepository.save(userRoleToUpdate);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("UserRole"));
     }
     
     public void removeUserFromTeam(Long userId, Long teamId) {
@@ -301,6 +314,7 @@ public class UserRoleService {
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         user.setTeam(null);
         userRepository.save(user);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("UserRole"));
     }
     
     public void removeUserFromDepartment(Long userId, Long departmentId) {
@@ -314,6 +328,7 @@ public class UserRoleService {
                 userRoleRepository.save(userRole);
             }
         }
+        eventPublisher.publishEvent(new ReportDataChangedEvent("UserRole"));
     }
     
     public void transferUserToNewTeam(Long userId, Long oldTeamId, Long newTeamId, Long assignedBy) {
@@ -340,5 +355,6 @@ public class UserRoleService {
                 .orElseThrow(() -> new RuntimeException("New team not found with id: " + newTeamId));
         user.setTeam(newTeam);
         userRepository.save(user);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("UserRole"));
     }
 }
\ No newline at end of file
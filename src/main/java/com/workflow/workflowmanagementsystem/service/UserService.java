@@ -5,8 +5,10 @@ import com.workflow.workflowmanagementsystem.Repository.RoleRepository;
 import com.workflow.workflowmanagementsystem.Repository.TeamRepository;
 import com.workflow.workflowmanagementsystem.Repository.UserRepository;
 import com.workflow.workflowmanagementsystem.dto.RegistrationDto;
+import com.workflow.workflowmanagementsystem.dto.UserSummary;
 import com.workflow.workflowmanagementsystem.entity.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -35,6 +37,9 @@ public class UserService {
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public User registerUser(RegistrationDto registrationDto) {
         if (userRepository.existsByUsername(registrationDto.getUsername())) {
             throw new RuntimeException("Username already exists");
@@ -70,7 +75,9 @@ public class UserService {
 
         user.getUserRoles().add(userRole);
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("User"));
+        return savedUser;
     }
 
     public void createCEOUser() {
@@ -93,6 +100,7 @@ public class UserService {
             ceo.getUserRoles().add(userRole);
 
             userRepository.save(ceo);
+            eventPublisher.publishEvent(new ReportDataChangedEvent("User"));
         }
     }
     
@@ -124,13 +132,16 @@ public class UserService {
         user.setLastName(userDetails.getLastName());
         user.setEnabled(userDetails.isEnabled());
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("User"));
+        return savedUser;
     }
     
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         userRepository.delete(user);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("User"));
     }
     
     public List<User> getUsersByDepartment(Long departmentId) {
@@ -141,6 +152,27 @@ public class UserService {
         return userRepository.findActiveUsersByTeamId(teamId);
     }
     
+    // Read-only user rows for the JSON endpoints - no entities are loaded into the persistence context
+    @Transactional(readOnly = true)
+    public List<UserSummary> getAllUserSummaries() {
+        return userRepository.findUserSummaries();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<UserSummary> getActiveUserSummaries() {
+        return userRepository.findActiveUserSummaries();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<UserSummary> getUserSummariesByDepartment(Long departmentId) {
+        return userRepository.findActiveUserSummariesByDepartmentId(departmentId);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<UserSummary> getUserSummariesByTeam(Long teamId) {
+        return userRepository.findActiveUserSummariesByTeamId(teamId);
+    }
+    
     public List<User> searchUsers(String keyword) {
         return userRepository.findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCaseOrFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(keyword);
     }
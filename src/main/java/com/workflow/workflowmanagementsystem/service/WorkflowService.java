@@ -1,26 +1,36 @@
 package com.workflow.workflowmanagementsystem.service;
 
-import com.workflow.workflowmanagementsystem.Repository.AuditLogRepository;
 import com.workflow.workflowmanagementsystem.Repository.UserRepository;
 import com.workflow.workflowmanagementsystem.Repository.WorkflowRepository;
 import com.workflow.workflowmanagementsystem.Repository.WorkflowStatusLayerRepository;
+import com.workflow.workflowmanagementsystem.component.FullTextSearchSetup;
+import com.workflow.workflowmanagementsystem.dto.WorkflowStateMachine;
+import com.workflow.workflowmanagementsystem.dto.WorkflowSummary;
 import com.workflow.workflowmanagementsystem.entity.AuditLog;
 import com.workflow.workflowmanagementsystem.entity.Department;
+import com.workflow.workflowmanagementsystem.entity.Task;
 import com.workflow.workflowmanagementsystem.entity.User;
 import com.workflow.workflowmanagementsystem.entity.Workflow;
 import com.workflow.workflowmanagementsystem.entity.WorkflowStatusLayer;
 import com.workflow.workflowmanagementsystem.entity.Workflow.WorkflowStatus;
+import com.workflow.workflowmanagementsystem.util.AuditDiffUtil;
+import com.workflow.workflowmanagementsystem.util.SearchQueryUtil;
+import com.workflow.workflowmanagementsystem.util.TaskStatusUtil;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -40,11 +50,23 @@ public class WorkflowService {
     private UserService userService;
     
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditSink auditSink;
     
     @Autowired
     private WorkflowStatusLayerRepository workflowStatusLayerRepository;
     
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+    
+    @Autowired
+    private WorkflowStateMachineService workflowStateMachineService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private FullTextSearchSetup fullTextSearchSetup;
+    
     // Create a new workflow
     public Workflow createWorkflow(Workflow workflow, Long createdByUserId) {
         // Validate workflow name uniqueness
@@ -65,10 +87,12 @@ public class WorkflowService {
         }
         
         Workflow savedWorkflow = workflowRepository.save(workflow);
+        dashboardCounterService.workflowCreated(savedWorkflow);
         
         // Log the creation
         logAuditAction(AuditLog.ActionType.CREATE, "Workflow", savedWorkflow.getId(), 
                       "Created workflow: " + savedWorkflow.getName(), createdBy);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Workflow"));
         
         return savedWorkflow;
     }
@@ -87,9 +111,10 @@ public class WorkflowService {
         User updatedBy = userRepository.findById(updatedByUserId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + updatedByUserId));
         
+        DashboardCounterService.WorkflowCounterKey counterKey = DashboardCounterService.WorkflowCounterKey.of(existingWorkflow);
+        
         // Store old values for audit
-        String oldValues = String.format("Name: %s, Description: %s, Status: %s", 
-                existingWorkflow.getName(), existingWorkflow.getDescription(), existingWorkflow.getStatus());
+        Map<String, String> oldValues = AuditDiffUtil.snapshot(existingWorkflow);
         
         // Update fields
         existingWorkflow.setName(workflowDetails.getName());
@@ -105,13 +130,16 @@ public class WorkflowService {
         }
         
         Workflow updatedWorkflow = workflowRepository.save(existingWorkflow);
+        dashboardCounterService.workflowChanged(counterKey, updatedWorkflow);
+        if (!Objects.equals(counterKey.departmentId(), DashboardCounterService.WorkflowCounterKey.of(updatedWorkflow).departmentId())) {
+            // Every task of the workflow moved to another department
+            dashboardCounterService.reconcileAfterCommit();
+        }
         
-        // Log the update
-        String newValues = String.format("Name: %s, Description: %s, Status: %s", 
-                updatedWorkflow.getName(), updatedWorkflow.getDescription(), updatedWorkflow.getStatus());
-        
+        // Log the update with the changed fields only
         logAuditAction(AuditLog.ActionType.UPDATE, "Workflow", updatedWorkflow.getId(), 
-                      "Updated workflow: " + updatedWorkflow.getName(), updatedBy, oldValues, newValues);
+                      "Updated workflow: " + updatedWorkflow.getName(), updatedBy, oldValues, AuditDiffUtil.snapshot(updatedWorkflow));
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Workflow"));
         
         return updatedWorkflow;
     }
@@ -136,6 +164,12 @@ public class WorkflowService {
         return workflowRepository.findByDepartmentId(departmentId);
     }
     
+    // Get read-only workflow rows by department for the JSON endpoints
+    @Transactional(readOnly = true)
+    public List<WorkflowSummary> getWorkflowSummariesByDepartment(Long departmentId) {
+        return workflowRepository.findWorkflowSummariesByDepartmentId(departmentId);
+    }
+    
     // Get workflows created by user
     public List<Workflow> getWorkflowsByCreator(Long createdBy) {
         return workflowRepository.findByCreatedById(createdBy);
@@ -148,7 +182,12 @@ public class WorkflowService {
     
     // Search workflows
     public Page<Workflow> searchWorkflows(String searchTerm, Pageable pageable) {
-        return workflowRepository.searchWorkflows(searchTerm, pageable);
+        String query = SearchQueryUtil.toPrefixQuery(searchTerm);
+        if (query == null || !fullTextSearchSetup.isAvailable("workflows")) {
+            return workflowRepository.searchWorkflows(searchTerm, pageable);
+        }
+        // Results are ranked by relevance, so the requested sort is not applied
+        return workflowRepository.searchWorkflowsFullText(query, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
     }
     
     // Get workflows with filters
@@ -171,10 +210,13 @@ public class WorkflowService {
         }
         
         workflowRepository.delete(workflow);
+        dashboardCounterService.workflowDeleted(workflow);
+        workflowStateMachineService.evict(id);
         
         // Log the deletion
         logAuditAction(AuditLog.ActionType.DELETE, "Workflow", id, 
                       "Deleted workflow: " + workflow.getName(), deletedBy);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Workflow"));
     }
     
     // Change workflow status
@@ -185,15 +227,19 @@ public class WorkflowService {
         User changedBy = userRepository.findById(changedByUserId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + changedByUserId));
         
+        DashboardCounterService.WorkflowCounterKey counterKey = DashboardCounterService.WorkflowCounterKey.of(workflow);
         WorkflowStatus oldStatus = workflow.getStatus();
         workflow.setStatus(newStatus);
         
         Workflow updatedWorkflow = workflowRepository.save(workflow);
+        dashboardCounterService.workflowChanged(counterKey, updatedWorkflow);
         
         // Log the status change
         logAuditAction(AuditLog.ActionType.UPDATE, "Workflow", id, 
                       "Changed status from " + oldStatus + " to " + newStatus + " for workflow: " + workflow.getName(), 
-                      changedBy, oldStatus.toString(), newStatus.toString());
+                      changedBy, Collections.singletonMap("status", oldStatus.name()),
+                      Collections.singletonMap("status", newStatus.name()));
+        eventPublisher.publishEvent(new ReportDataChangedEvent("Workflow"));
         
         return updatedWorkflow;
     }
@@ -217,15 +263,15 @@ public class WorkflowService {
     // Helper method to log audit actions
     private void logAuditAction(AuditLog.ActionType actionType, String entityType, Long entityId, 
                                String description, User user) {
-        logAuditAction(actionType, entityType, entityId, description, user, null, null);
+        auditSink.record(new AuditLog(actionType, entityType, entityId, description, user));
     }
     
+    // Old and new values hold only the fields that differ between the two snapshots
     private void logAuditAction(AuditLog.ActionType actionType, String entityType, Long entityId,
-                               String description, User user, String oldValues, String newValues) {
+                               String description, User user, Map<String, String> oldValues, Map<String, String> newValues) {
         AuditLog auditLog = new AuditLog(actionType, entityType, entityId, description, user);
-        auditLog.setOldValues(oldValues);
-        auditLog.setNewValues(newValues);
-        auditLogRepository.save(auditLog);
+        AuditDiffUtil.recordChanges(auditLog, oldValues, newValues);
+        auditSink.record(auditLog);
     }
     
     // Workflow Status Layer Management Methods
@@ -259,11 +305,14 @@ public class WorkflowService {
         }
         
         statusLayer.setWorkflow(workflow);
+        statusLayer.setStatusCategory(resolveStatusCategory(statusLayer));
         WorkflowStatusLayer savedStatusLayer = workflowStatusLayerRepository.save(statusLayer);
+        workflowStateMachineService.evict(workflowId);
         
         // Log the creation
         logAuditAction(AuditLog.ActionType.CREATE, "WorkflowStatusLayer", savedStatusLayer.getId(),
                       "Added status layer '" + statusLayer.getName() + "' to workflow: " + workflow.getName(), createdBy);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("WorkflowStatusLayer"));
         
         return savedStatusLayer;
     }
@@ -284,10 +333,10 @@ public class WorkflowService {
             throw new IllegalArgumentException("Status with name '" + statusLayerDetails.getName() + "' already exists for this workflow");
         }
         
+        Task.TaskStatus oldCategory = TaskStatusUtil.getStatusFromWorkflowStatusLayer(existingStatusLayer);
+        
         // Store old values for audit
-        String oldValues = String.format("Name: %s, Description: %s, Order: %s, IsFinal: %s",
-                existingStatusLayer.getName(), existingStatusLayer.getDescription(),
-                existingStatusLayer.getOrder(), existingStatusLayer.getIsFinal());
+        Map<String, String> oldValues = AuditDiffUtil.snapshot(existingStatusLayer);
         
         // Update fields
         existingStatusLayer.setName(statusLayerDetails.getName());
@@ -295,16 +344,20 @@ public class WorkflowService {
         existingStatusLayer.setOrder(statusLayerDetails.getOrder());
         existingStatusLayer.setIsFinal(statusLayerDetails.getIsFinal());
         existingStatusLayer.setColor(statusLayerDetails.getColor());
+        existingStatusLayer.setStatusCategory(resolveStatusCategory(statusLayerDetails));
         
         WorkflowStatusLayer updatedStatusLayer = workflowStatusLayerRepository.save(existingStatusLayer);
+        workflowStateMachineService.evict(updatedStatusLayer.getWorkflow().getId());
+        if (oldCategory != updatedStatusLayer.getStatusCategory()) {
+            // Every task on this layer changed status
+            dashboardCounterService.reconcileAfterCommit();
+        }
         
-        // Log the update
-        String newValues = String.format("Name: %s, Description: %s, Order: %s, IsFinal: %s",
-                updatedStatusLayer.getName(), updatedStatusLayer.getDescription(),
-                updatedStatusLayer.getOrder(), updatedStatusLayer.getIsFinal());
-        
+        // Log the update with the changed fields only
         logAuditAction(AuditLog.ActionType.UPDATE, "WorkflowStatusLayer", updatedStatusLayer.getId(),
-                      "Updated status layer: " + updatedStatusLayer.getName(), updatedBy, oldValues, newValues);
+                      "Updated status layer: " + updatedStatusLayer.getName(), updatedBy,
+                      oldValues, AuditDiffUtil.snapshot(updatedStatusLayer));
+        eventPublisher.publishEvent(new ReportDataChangedEvent("WorkflowStatusLayer"));
         
         return updatedStatusLayer;
     }
@@ -323,10 +376,25 @@ public class WorkflowService {
         // Note: You might want to add this check based on your business requirements
         
         workflowStatusLayerRepository.delete(statusLayer);
+        workflowStateMachineService.evict(statusLayer.getWorkflow().getId());
+        dashboardCounterService.reconcileAfterCommit();
         
         // Log the deletion
         logAuditAction(AuditLog.ActionType.DELETE, "WorkflowStatusLayer", statusLayerId,
                       "Deleted status layer: " + statusLayer.getName(), deletedBy);
+        eventPublisher.publishEvent(new ReportDataChangedEvent("WorkflowStatusLayer"));
+    }
+    
+    /**
+     * Resolve the status category stored on a layer. An explicit non-completed category is kept
+     * for non-final layers; otherwise it is derived from the final flag and the layer name.
+     */
+    private Task.TaskStatus resolveStatusCategory(WorkflowStatusLayer statusLayer) {
+        Task.TaskStatus requested = statusLayer.getStatusCategory();
+        if (requested != null && requested != Task.TaskStatus.COMPLETED && !Boolean.TRUE.equals(statusLayer.getIsFinal())) {
+            return requested;
+        }
+        return TaskStatusUtil.deriveStatusCategory(statusLayer.getName(), statusLayer.getIsFinal());
     }
     
     /**
@@ -340,16 +408,16 @@ public class WorkflowService {
     /**
      * Get the next status layer in the workflow sequence
      */
-    public WorkflowStatusLayer getNextStatusLayer(Long workflowId, Integer currentOrder) {
-        return workflowStatusLayerRepository.findNextStatus(workflowId, currentOrder)
+    public WorkflowStateMachine.StatusLayer getNextStatusLayer(Long workflowId, Integer currentOrder) {
+        return workflowStateMachineService.forWorkflow(workflowId).getNextLayer(currentOrder)
                 .orElse(null);
     }
     
     /**
      * Get the previous status layer in the workflow sequence
      */
-    public WorkflowStatusLayer getPreviousStatusLayer(Long workflowId, Integer currentOrder) {
-        return workflowStatusLayerRepository.findPreviousStatus(workflowId, currentOrder)
+    public WorkflowStateMachine.StatusLayer getPreviousStatusLayer(Long workflowId, Integer currentOrder) {
+        return workflowStateMachineService.forWorkflow(workflowId).getPreviousLayer(currentOrder)
                 .orElse(null);
     }
     
@@ -0,0 +1,60 @@
+package com.workflow.workflowmanagementsystem.service;
+
+import com.workflow.workflowmanagementsystem.Repository.WorkflowStatusLayerRepository;
+import com.workflow.workflowmanagementsystem.dto.WorkflowStateMachine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-workflow cache of status layer state machines. WorkflowService evicts a workflow whenever
+ * its layers change; the eviction is repeated when the transaction completes so a state machine
+ * loaded from the old rows in the meantime is not kept.
+ */
+@Service
+public class WorkflowStateMachineService {
+
+    @Autowired
+    private WorkflowStatusLayerRepository workflowStatusLayerRepository;
+
+    private final Map<Long, WorkflowStateMachine> stateMachines = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction; a state machine loaded across an eviction is returned but not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    public WorkflowStateMachine forWorkflow(Long workflowId) {
+        WorkflowStateMachine cached = stateMachines.get(workflowId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long evictionsBeforeLoad = evictions.get();
+        WorkflowStateMachine loaded = new WorkflowStateMachine(workflowId,
+                workflowStatusLayerRepository.findByWorkflowIdOrderByOrderAsc(workflowId));
+        stateMachines.compute(workflowId,
+                (id, current) -> evictions.get() == evictionsBeforeLoad ? loaded : current);
+        return loaded;
+    }
+
+    public void evict(Long workflowId) {
+        evictNow(workflowId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(workflowId);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long workflowId) {
+        evictions.incrementAndGet();
+        stateMachines.remove(workflowId);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,200 @@
+package com.workflow.workflowmanagementsystem.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.workflowmanagementsystem.entity.AuditLog;
+import com.workflow.workflowmanagementsystem.entity.Task;
+import com.workflow.workflowmanagementsystem.entity.Workflow;
+import com.workflow.workflowmanagementsystem.entity.WorkflowStatusLayer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Utility class for the field-level diffs stored in audit log old/new values.
+ * An update stores only the fields it changed, as a pair of JSON objects: new values holds the changed fields
+ * after the update, old values the same fields before it, so either side can be applied as a patch to a snapshot.
+ * Associations are stored by id rather than by name, so a rebuilt state stays correct after the referenced
+ * status layer, user or department is renamed.
+ * Payloads longer than {@value #COMPRESSION_THRESHOLD} characters are Deflate-compressed and Base64-encoded
+ * behind a "deflate:" prefix. Values written before diffs were introduced are free text and are not decoded.
+ */
+public class AuditDiffUtil {
+
+    public static final int COMPRESSION_THRESHOLD = 512;
+
+    private static final String DEFLATE_PREFIX = "deflate:";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final TypeReference<LinkedHashMap<String, String>> FIELDS = new TypeReference<>() {};
+
+    /**
+     * Snapshot of the audited fields of a task
+     */
+    public static Map<String, String> snapshot(Task task) {
+        Map<String, String> state = new LinkedHashMap<>();
+        state.put("title", task.getTitle());
+        state.put("description", task.getDescription());
+        state.put("statusLayerId", task.getWorkflowStatusLayer() != null ? toValue(task.getWorkflowStatusLayer().getId()) : null);
+        state.put("priority", toValue(task.getPriority()));
+        state.put("dueDate", toValue(task.getDueDate()));
+        state.put("estimatedHours", toValue(task.getEstimatedHours()));
+        state.put("actualHours", toValue(task.getActualHours()));
+        state.put("assignedToId", task.getAssignedTo() != null ? toValue(task.getAssignedTo().getId()) : null);
+        return state;
+    }
+
+    /**
+     * Snapshot of the audited fields of a workflow
+     */
+    public static Map<String, String> snapshot(Workflow workflow) {
+        Map<String, String> state = new LinkedHashMap<>();
+        state.put("name", workflow.getName());
+        state.put("description", workflow.getDescription());
+        state.put("status", toValue(workflow.getStatus()));
+        state.put("isActive", toValue(workflow.getIsActive()));
+        state.put("departmentId", workflow.getDepartment() != null ? toValue(workflow.getDepartment().getId()) : null);
+        return state;
+    }
+
+    /**
+     * Snapshot of the audited fields of a workflow status layer
+     */
+    public static Map<String, String> snapshot(WorkflowStatusLayer statusLayer) {
+        Map<String, String> state = new LinkedHashMap<>();
+        state.put("name", statusLayer.getName());
+        state.put("description", statusLayer.getDescription());
+        state.put("order", toValue(statusLayer.getOrder()));
+        state.put("isFinal", toValue(statusLayer.getIsFinal()));
+        state.put("color", statusLayer.getColor());
+        state.put("statusCategory", toValue(statusLayer.getStatusCategory()));
+        return state;
+    }
+
+    /**
+     * Stores the fields that differ between two snapshots as the audit log's old and new values.
+     * Nothing is stored when the snapshots are equal.
+     */
+    public static void recordChanges(AuditLog auditLog, Map<String, String> before, Map<String, String> after) {
+        Map<String, String> oldValues = new LinkedHashMap<>();
+        Map<String, String> newValues = new LinkedHashMap<>();
+        for (Map.Entry<String, String> field : after.entrySet()) {
+            String oldValue = before.get(field.getKey());
+            if (!Objects.equals(oldValue, field.getValue())) {
+                oldValues.put(field.getKey(), oldValue);
+                newValues.put(field.getKey(), field.getValue());
+            }
+        }
+        if (!newValues.isEmpty()) {
+            auditLog.setOldValues(encode(oldValues));
+            auditLog.setNewValues(encode(newValues));
+        }
+    }
+
+    /**
+     * Stores a change of a single field as the audit log's old and new values
+     */
+    public static void recordChange(AuditLog auditLog, String field, Object oldValue, Object newValue) {
+        Map<String, String> before = new LinkedHashMap<>();
+        before.put(field, toValue(oldValue));
+        Map<String, String> after = new LinkedHashMap<>();
+        after.put(field, toValue(newValue));
+        recordChanges(auditLog, before, after);
+    }
+
+    /**
+     * Encodes changed fields as JSON, compressed when that is worthwhile
+     */
+    public static String encode(Map<String, String> fields) {
+        String json;
+        try {
+            json = MAPPER.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode audit diff", e);
+        }
+        if (json.length() <= COMPRESSION_THRESHOLD) {
+            return json;
+        }
+        String compressed = DEFLATE_PREFIX + Base64.getEncoder().encodeToString(deflate(json.getBytes(StandardCharsets.UTF_8)));
+        return compressed.length() < json.length() ? compressed : json;
+    }
+
+    /**
+     * Whether old or new values were written by {@link #encode(Map)} rather than as free text
+     */
+    public static boolean isDiff(String values) {
+        return values != null && (values.startsWith("{") || values.startsWith(DEFLATE_PREFIX));
+    }
+
+    /**
+     * Decodes old or new values written by {@link #encode(Map)}
+     * @return The changed fields in the order they were recorded
+     * @throws IllegalArgumentException if the values are not an encoded diff
+     */
+    public static Map<String, String> decode(String values) {
+        if (!isDiff(values)) {
+            throw new IllegalArgumentException("Audit values are not a field diff");
+        }
+        String json = values.startsWith(DEFLATE_PREFIX)
+                ? new String(inflate(Base64.getDecoder().decode(values.substring(DEFLATE_PREFIX.length()))), StandardCharsets.UTF_8)
+                : values;
+        try {
+            return MAPPER.readValue(json, FIELDS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid audit diff", e);
+        }
+    }
+
+    private static String toValue(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Enum<?> constant ? constant.name() : value.toString();
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated compressed audit diff");
+                }
+                output.write(buffer, 0, length);
+            }
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid compressed audit diff", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.workflow.workflowmanagementsystem.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Utility class for encoding and decoding opaque keyset pagination cursors.
+ * A cursor holds the sort key and id of the last row of a page.
+ */
+public class CursorUtil {
+    
+    private static final String SEPARATOR = "|";
+    
+    // Larger requested page sizes are capped to this
+    public static final int MAX_PAGE_SIZE = 100;
+    
+    /**
+     * Encodes the sort key and id of the last row into an opaque cursor token
+     * @param key The sort key (createdAt or dueDate) of the last row
+     * @param id The id of the last row
+     * @return The URL-safe cursor token
+     */
+    public static String encode(LocalDateTime key, Long id) {
+        String raw = key.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodes a cursor token produced by {@link #encode(LocalDateTime, Long)}
+     * @param token The cursor token, may be null or blank for the first page
+     * @return The decoded cursor, or null for the first page
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            LocalDateTime key = LocalDateTime.parse(raw.substring(0, separator), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return new Cursor(key, id);
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor: " + token);
+        }
+    }
+    
+    /**
+     * Checks a requested page size and caps it at {@link #MAX_PAGE_SIZE}
+     * @param size The requested page size
+     * @return The page size to use
+     * @throws IllegalArgumentException if the size is less than 1
+     */
+    public static int pageSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1: " + size);
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+    
+    /**
+     * Decoded position of a keyset cursor
+     */
+    public static class Cursor {
+        private final LocalDateTime key;
+        private final Long id;
+        
+        public Cursor(LocalDateTime key, Long id) {
+            this.key = key;
+            this.id = id;
+        }
+        
+        public LocalDateTime getKey() { return key; }
+        public Long getId() { return id; }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.workflow.workflowmanagementsystem.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * HyperLogLog sketch for approximate distinct counts of ids, with 2^{@value #PRECISION} one-byte registers
+ * (about 3% standard error). Sketches of different buckets merge by taking the register-wise maximum.
+ * An id hashes to the first 64 bits of the MD5 of its decimal form, so the register and rank can be computed
+ * the same way in SQL (see AuditActivityRollupRepository).
+ */
+public class HyperLogLog {
+
+    public static final int PRECISION = 10;
+
+    public static final int REGISTERS = 1 << PRECISION;
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    /**
+     * Wraps stored registers
+     * @throws IllegalArgumentException if the registers have the wrong length
+     */
+    public static HyperLogLog of(byte[] registers) {
+        if (registers.length != REGISTERS) {
+            throw new IllegalArgumentException("Expected " + REGISTERS + " registers, got " + registers.length);
+        }
+        HyperLogLog sketch = new HyperLogLog();
+        System.arraycopy(registers, 0, sketch.registers, 0, REGISTERS);
+        return sketch;
+    }
+
+    /**
+     * Register an id falls into
+     */
+    public static int registerIndex(long id) {
+        return (int) (hash(id) >>> (64 - PRECISION));
+    }
+
+    /**
+     * Rank of an id within its register: the position of the first set bit after the register bits
+     */
+    public static int rank(long id) {
+        return Long.numberOfLeadingZeros(hash(id) << PRECISION | 1L << (PRECISION - 1)) + 1;
+    }
+
+    public void add(long id) {
+        int index = registerIndex(id);
+        registers[index] = (byte) Math.max(registers[index], rank(id));
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / REGISTERS);
+        double estimate = alpha * REGISTERS * REGISTERS / sum;
+        // Linear counting is more accurate while many registers are still empty
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toByteArray() {
+        return registers.clone();
+    }
+
+    private static long hash(long id) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
\ No newline at end of file
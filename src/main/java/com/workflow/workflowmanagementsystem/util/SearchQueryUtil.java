@@ -0,0 +1,55 @@
+package com.workflow.workflowmanagementsystem.util;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Utility class for building PostgreSQL full-text queries from user input
+ * and rendering search headlines safely.
+ */
+public class SearchQueryUtil {
+    
+    /** Markers passed to ts_headline so highlighted fragments can be escaped before rendering */
+    public static final String HIGHLIGHT_START = "[[hl]]";
+    public static final String HIGHLIGHT_STOP = "[[/hl]]";
+    
+    /** Options for ts_headline, using the markers above */
+    public static final String HEADLINE_OPTIONS =
+            "StartSel=\"" + HIGHLIGHT_START + "\", StopSel=\"" + HIGHLIGHT_STOP + "\", MaxWords=20, MinWords=8";
+    
+    /**
+     * Converts a free-text search term into a prefix-matching tsquery, e.g. "data migr" becomes "data:* & migr:*"
+     * @param searchTerm The raw search term entered by the user
+     * @return The tsquery text, or null if the term has no searchable words
+     */
+    public static String toPrefixQuery(String searchTerm) {
+        if (searchTerm == null) {
+            return null;
+        }
+        
+        List<String> terms = new ArrayList<>();
+        for (String word : searchTerm.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                terms.add(word + ":*");
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" & ", terms);
+    }
+    
+    /**
+     * Escapes a ts_headline fragment and turns the highlight markers into mark tags
+     * @param headline The fragment returned by ts_headline with {@link #HEADLINE_OPTIONS}
+     * @return HTML safe to render unescaped
+     */
+    public static String toHighlightHtml(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(headline)
+                .replace(HIGHLIGHT_START, "<mark>")
+                .replace(HIGHLIGHT_STOP, "</mark>");
+    }
+}
\ No newline at end of file
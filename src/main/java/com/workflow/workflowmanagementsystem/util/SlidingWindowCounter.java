@@ -0,0 +1,65 @@
+package com.workflow.workflowmanagementsystem.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free count of events over a sliding time window. The window is split into slots, and each slot packs
+ * its slot number and its count into one long, so a slot left over from an earlier window is reset and
+ * incremented by a single compare-and-set. Events leave the window a whole slot at a time.
+ */
+public class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 24;
+
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final long slotMillis;
+
+    private final AtomicLongArray slots;
+
+    public SlidingWindowCounter(Duration window, int slotCount) {
+        if (slotCount < 1 || window.toMillis() < slotCount) {
+            throw new IllegalArgumentException("Window " + window + " cannot be split into " + slotCount + " slots");
+        }
+        this.slotMillis = window.toMillis() / slotCount;
+        this.slots = new AtomicLongArray(slotCount);
+    }
+
+    /**
+     * Counts one event
+     * @return The number of events in the window ending now, this one included
+     */
+    public int increment(long nowMillis) {
+        long slot = nowMillis / slotMillis;
+        int index = (int) (slot % slots.length());
+        while (true) {
+            long cell = slots.get(index);
+            long next;
+            if (cell >>> COUNT_BITS == slot) {
+                next = (cell & COUNT_MASK) == COUNT_MASK ? cell : cell + 1;
+            } else {
+                next = slot << COUNT_BITS | 1;
+            }
+            if (slots.compareAndSet(index, cell, next)) {
+                return count(nowMillis);
+            }
+        }
+    }
+
+    /**
+     * Number of events in the window ending now
+     */
+    public int count(long nowMillis) {
+        long currentSlot = nowMillis / slotMillis;
+        long total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long cell = slots.get(i);
+            long slot = cell >>> COUNT_BITS;
+            if (slot <= currentSlot && slot > currentSlot - slots.length()) {
+                total += cell & COUNT_MASK;
+            }
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+}
\ No newline at end of file
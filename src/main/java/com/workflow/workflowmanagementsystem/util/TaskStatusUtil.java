@@ -17,20 +17,45 @@ public class TaskStatusUtil {
         if (workflowStatusLayer == null) {
             return Task.TaskStatus.PENDING;
         }
+        return getStatus(workflowStatusLayer.getStatusCategory(), workflowStatusLayer.getIsFinal());
+    }
+    
+    /**
+     * Determines the TaskStatus from the status layer columns, for queries that project them directly
+     * @param statusCategory The status category stored on the layer, null if there is no layer or it was not saved yet
+     * @param isFinal Whether the status layer is final, null if there is no layer
+     * @return The corresponding TaskStatus
+     */
+    public static Task.TaskStatus getStatus(Task.TaskStatus statusCategory, Boolean isFinal) {
+        // Use the category stored on the layer
+        if (statusCategory != null) {
+            return statusCategory;
+        }
         
-        // Check if the status layer is final (completed)
-        if (workflowStatusLayer.getIsFinal()) {
+        // Layer not saved yet - fall back to its final flag
+        return Boolean.TRUE.equals(isFinal) ? Task.TaskStatus.COMPLETED : Task.TaskStatus.PENDING;
+    }
+    
+    /**
+     * Resolves the status category to store on a WorkflowStatusLayer when it is created or updated
+     * @param layerName The status layer name
+     * @param isFinal Whether the status layer is final
+     * @return The TaskStatus category for the layer
+     */
+    public static Task.TaskStatus deriveStatusCategory(String layerName, Boolean isFinal) {
+        // Final layers always complete the task
+        if (Boolean.TRUE.equals(isFinal)) {
             return Task.TaskStatus.COMPLETED;
         }
         
         // Check status layer name for specific status indicators
-        String layerName = workflowStatusLayer.getName().toLowerCase();
+        String name = layerName != null ? layerName.toLowerCase() : "";
         
-        if (layerName.contains("hold") || layerName.contains("pause")) {
+        if (name.contains("hold") || name.contains("pause")) {
             return Task.TaskStatus.ON_HOLD;
-        } else if (layerName.contains("cancel")) {
+        } else if (name.contains("cancel")) {
             return Task.TaskStatus.CANCELLED;
-        } else if (layerName.contains("progress") || layerName.contains("active") || layerName.contains("work")) {
+        } else if (name.contains("progress") || name.contains("active") || name.contains("work")) {
             return Task.TaskStatus.IN_PROGRESS;
         } else {
             // Default to PENDING for any other non-final status
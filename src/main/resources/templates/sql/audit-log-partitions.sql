@@ -0,0 +1,108 @@
+-- Monthly range partitioning of audit_logs by created_at
+-- The application applies this script on startup (AuditLogPartitionManager), after Hibernate has created or updated
+-- the table; it is idempotent:
+--   * ensure_audit_log_partition(month) creates the partition audit_logs_YYYY_MM if it is missing, moving any rows
+--     of that month out of the default partition
+--   * a plain audit_logs table is converted once: the rows are copied into a partitioned table with the same columns,
+--     defaults, foreign keys and indexes, keyed by (id, created_at), and the old table is dropped
+--   * rows outside every monthly partition land in audit_logs_default
+--   * archived partitions are made read-only with triggers calling reject_archived_audit_log_change() until they are
+--     dropped, and are recorded in audit_log_archives
+
+-- Columns copied between audit log tables; generated columns (search_vector) are recomputed on insert
+CREATE OR REPLACE FUNCTION audit_log_copy_columns() RETURNS TEXT AS $$
+BEGIN
+    RETURN (SELECT string_agg(quote_ident(attname), ', ' ORDER BY attnum)
+            FROM pg_attribute
+            WHERE attrelid = to_regclass('audit_logs') AND attnum > 0 AND NOT attisdropped AND attgenerated = '');
+END $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION ensure_audit_log_partition(month DATE) RETURNS TEXT AS $$
+DECLARE
+    month_start TIMESTAMP := date_trunc('month', month);
+    month_end TIMESTAMP := date_trunc('month', month) + INTERVAL '1 month';
+    partition_name TEXT := 'audit_logs_' || to_char(month, 'YYYY_MM');
+    column_list TEXT;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    IF to_regclass('audit_logs_default') IS NOT NULL
+       AND EXISTS (SELECT 1 FROM audit_logs_default WHERE created_at >= month_start AND created_at < month_end) THEN
+        column_list := audit_log_copy_columns();
+        ALTER TABLE audit_logs DETACH PARTITION audit_logs_default;
+        EXECUTE format('CREATE TABLE %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, month_start, month_end);
+        EXECUTE format('INSERT INTO audit_logs (%s) SELECT %s FROM audit_logs_default WHERE created_at >= %L AND created_at < %L',
+                       column_list, column_list, month_start, month_end);
+        DELETE FROM audit_logs_default WHERE created_at >= month_start AND created_at < month_end;
+        ALTER TABLE audit_logs ATTACH PARTITION audit_logs_default DEFAULT;
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, month_start, month_end);
+    END IF;
+    RETURN partition_name;
+END $$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    constraint_row RECORD;
+    index_definitions TEXT[];
+    index_definition TEXT;
+    month DATE;
+    column_list TEXT;
+BEGIN
+    IF to_regclass('audit_logs') IS NULL
+       OR EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'audit_logs'::regclass) THEN
+        RETURN;
+    END IF;
+
+    -- Secondary indexes are recreated on the partitioned table; the primary key becomes (id, created_at)
+    SELECT array_agg(pg_get_indexdef(indexrelid)) INTO index_definitions
+    FROM pg_index
+    WHERE indrelid = 'audit_logs'::regclass AND NOT indisunique;
+
+    ALTER TABLE audit_logs RENAME TO audit_logs_unpartitioned;
+    ALTER INDEX IF EXISTS audit_logs_pkey RENAME TO audit_logs_unpartitioned_pkey;
+
+    CREATE TABLE audit_logs (LIKE audit_logs_unpartitioned INCLUDING DEFAULTS INCLUDING GENERATED INCLUDING STORAGE)
+        PARTITION BY RANGE (created_at);
+    ALTER TABLE audit_logs ADD CONSTRAINT audit_logs_pkey PRIMARY KEY (id, created_at);
+    FOR constraint_row IN SELECT conname, pg_get_constraintdef(oid) AS definition
+                          FROM pg_constraint
+                          WHERE conrelid = 'audit_logs_unpartitioned'::regclass AND contype = 'f' LOOP
+        EXECUTE format('ALTER TABLE audit_logs ADD CONSTRAINT %I %s', constraint_row.conname, constraint_row.definition);
+    END LOOP;
+    CREATE TABLE audit_logs_default PARTITION OF audit_logs DEFAULT;
+
+    FOR month IN SELECT DISTINCT date_trunc('month', created_at)::date FROM audit_logs_unpartitioned LOOP
+        PERFORM ensure_audit_log_partition(month);
+    END LOOP;
+
+    column_list := audit_log_copy_columns();
+    EXECUTE format('INSERT INTO audit_logs (%s) SELECT %s FROM audit_logs_unpartitioned', column_list, column_list);
+    DROP TABLE audit_logs_unpartitioned;
+
+    -- The definitions still name audit_logs, which is now the partitioned table
+    IF index_definitions IS NOT NULL THEN
+        FOREACH index_definition IN ARRAY index_definitions LOOP
+            EXECUTE index_definition;
+        END LOOP;
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_created_at ON audit_logs (created_at);
+
+-- Archived months; restored_at is set once a month is made writable again, which keeps it out of the retention job
+CREATE TABLE IF NOT EXISTS audit_log_archives (
+    partition_name TEXT PRIMARY KEY,
+    archived_at TIMESTAMP NOT NULL,
+    row_count BIGINT NOT NULL,
+    restored_at TIMESTAMP
+);
+
+CREATE OR REPLACE FUNCTION reject_archived_audit_log_change() RETURNS TRIGGER AS $$
+BEGIN
+    RAISE EXCEPTION 'Audit log partition % is archived and read-only', TG_TABLE_NAME;
+END $$ LANGUAGE plpgsql;
@@ -0,0 +1,21 @@
+-- Full-text search columns and GIN indexes for tasks, workflows and audit logs
+-- The search_vector columns are generated by PostgreSQL, so they are maintained on every insert and update
+-- The application applies this script on startup (FullTextSearchSetup); every statement is idempotent
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', COALESCE(title, '')), 'A') ||
+        setweight(to_tsvector('english', COALESCE(description, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_tasks_search_vector ON tasks USING GIN (search_vector);
+
+ALTER TABLE workflows ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', COALESCE(name, '')), 'A') ||
+        setweight(to_tsvector('english', COALESCE(description, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_workflows_search_vector ON workflows USING GIN (search_vector);
+
+ALTER TABLE audit_logs ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('english', COALESCE(description, ''))) STORED;
+CREATE INDEX IF NOT EXISTS idx_audit_logs_search_vector ON audit_logs USING GIN (search_vector);
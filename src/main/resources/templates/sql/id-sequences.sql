@@ -0,0 +1,30 @@
+-- Pooled id sequences for tasks, audit_logs, comments and workflow_status_layers
+-- The entities allocate ids in blocks of 50 from <table>_seq, which lets Hibernate batch their inserts
+-- The application applies this script before Hibernate starts (IdSequenceMigration); it is idempotent:
+--   * the sequences are created with the increment Hibernate expects
+--   * existing tables move from identity/serial ids to the sequence, which is advanced past MAX(id) and never moved back
+--   * tables that do not exist yet are skipped and created by Hibernate with the sequence already in place
+
+DO $$
+DECLARE
+    target RECORD;
+    max_id BIGINT;
+BEGIN
+    FOR target IN SELECT * FROM (VALUES
+            ('tasks', 'tasks_seq'),
+            ('audit_logs', 'audit_logs_seq'),
+            ('comments', 'comments_seq'),
+            ('workflow_status_layers', 'workflow_status_layers_seq')
+        ) AS t(table_name, sequence_name)
+    LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I START WITH 1 INCREMENT BY 50', target.sequence_name);
+
+        IF to_regclass(target.table_name) IS NOT NULL THEN
+            EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', target.table_name) INTO max_id;
+            EXECUTE format('SELECT setval(%L, GREATEST(%s, (SELECT last_value FROM %I), 1))',
+                           target.sequence_name, max_id, target.sequence_name);
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', target.table_name);
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', target.table_name, target.sequence_name);
+        END IF;
+    END LOOP;
+END $$;
@@ -16,17 +16,13 @@ SELECT setval('roles_id_seq', (SELECT COALESCE(MAX(id), 0) FROM roles)) FROM rol
 -- Reset workflow sequence to start after the highest existing workflow ID
 SELECT setval('workflows_id_seq', (SELECT COALESCE(MAX(id), 0) FROM workflows)) FROM workflows;
 
--- Reset task sequence to start after the highest existing task ID
-SELECT setval('tasks_id_seq', (SELECT COALESCE(MAX(id), 0) FROM tasks)) FROM tasks;
+-- Tasks, workflow status layers, comments and audit logs use the pooled sequences from id-sequences.sql
+-- Advance them past the highest existing IDs (the pooled sequences hand out the 49 IDs below each value)
+SELECT setval('tasks_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM tasks), 1));
 
--- Reset workflow_status_layer sequence to start after the highest existing workflow_status_layer ID
-SELECT setval('workflow_status_layers_id_seq', (SELECT COALESCE(MAX(id), 0) FROM workflow_status_layers)) FROM workflow_status_layers;
-
--- Reset comment sequence to start after the highest existing comment ID
-SELECT setval('comments_id_seq', (SELECT COALESCE(MAX(id), 0) FROM comments)) FROM comments;
-
--- Reset audit_log sequence to start after the highest existing audit_log ID
-SELECT setval('audit_logs_id_seq', (SELECT COALESCE(MAX(id), 0) FROM audit_logs)) FROM audit_logs;
+SELECT setval('workflow_status_layers_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM workflow_status_layers), 1));
+SELECT setval('comments_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM comments), 1));
+SELECT setval('audit_logs_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM audit_logs), 1));
 
 -- Reset role_permission sequence (if it exists)
 -- This table might not have a sequence if it's not auto-increment
@@ -308,6 +308,16 @@ INSERT INTO audit_logs (id, action_type, entity_type, entity_id, description, us
                                                                                                                                (14, 'COMPLETE', 'Task', 1, 'Marked task as completed: Gather requirements for new feature', 3, '127.0.0.1', 'Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36', NOW() + INTERVAL '4 hours'),
                                                                                                                                (15, 'CREATE', 'AuditLog', 1, 'System audit log initialized', 1, '127.0.0.1', 'Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36', NOW());
 
+-- Resolve status categories for the workflow status layers
+UPDATE workflow_status_layers SET status_category = CASE
+    WHEN is_final = true THEN 'COMPLETED'
+    WHEN LOWER(name) LIKE '%hold%' OR LOWER(name) LIKE '%pause%' THEN 'ON_HOLD'
+    WHEN LOWER(name) LIKE '%cancel%' THEN 'CANCELLED'
+    WHEN LOWER(name) LIKE '%progress%' OR LOWER(name) LIKE '%active%' OR LOWER(name) LIKE '%work%' THEN 'IN_PROGRESS'
+    ELSE 'PENDING'
+END
+WHERE status_category IS NULL;
+
 -- Re-enable foreign key checks
 SET session_replication_role = DEFAULT;
 
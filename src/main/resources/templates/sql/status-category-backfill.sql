@@ -0,0 +1,17 @@
+-- Backfill workflow_status_layers.status_category for rows created before the column existed
+-- The application runs the same backfill on startup (StatusCategoryBackfill); this script is for manual migrations
+
+ALTER TABLE workflow_status_layers ADD COLUMN IF NOT EXISTS status_category VARCHAR(20);
+
+UPDATE workflow_status_layers SET status_category = CASE
+    WHEN is_final = true THEN 'COMPLETED'
+    WHEN LOWER(name) LIKE '%hold%' OR LOWER(name) LIKE '%pause%' THEN 'ON_HOLD'
+    WHEN LOWER(name) LIKE '%cancel%' THEN 'CANCELLED'
+    WHEN LOWER(name) LIKE '%progress%' OR LOWER(name) LIKE '%active%' OR LOWER(name) LIKE '%work%' THEN 'IN_PROGRESS'
+    ELSE 'PENDING'
+END
+WHERE status_category IS NULL;
+
+-- Indexes used by the task list, "my tasks" and dashboard status queries
+CREATE INDEX IF NOT EXISTS idx_wsl_status_category ON workflow_status_layers (status_category, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_workflow_status_layer ON tasks (workflow_status_layer_id);
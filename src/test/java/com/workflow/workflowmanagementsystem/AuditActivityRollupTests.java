@@ -0,0 +1,169 @@
+package com.workflow.workflowmanagementsystem;
+
+import com.workflow.workflowmanagementsystem.Repository.AuditLogRepository;
+import com.workflow.workflowmanagementsystem.Repository.AuditUserSketchRepository;
+import com.workflow.workflowmanagementsystem.Repository.UserRepository;
+import com.workflow.workflowmanagementsystem.entity.AuditLog;
+import com.workflow.workflowmanagementsystem.entity.TaskTrendRollup.Granularity;
+import com.workflow.workflowmanagementsystem.entity.User;
+import com.workflow.workflowmanagementsystem.service.AuditActivityService;
+import com.workflow.workflowmanagementsystem.util.HyperLogLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// Distinct user estimates from the HyperLogLog sketches, sketches built in SQL by the backfill agreeing with
+// the ones built in Java as audit logs are written, activity written by the background flush only once committed,
+// and recent activity that never reached a flush recounted from audit_logs.
+// The scheduled flush is pushed out of the way so the test decides when pending activity is written.
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "app.audit.activity.flush-interval-ms=3600000"})
+class AuditActivityRollupTests {
+
+    // An hour no other data uses
+    private static final LocalDateTime BUCKET = LocalDateTime.of(2001, 5, 14, 10, 0);
+
+    @Autowired
+    private AuditUserSketchRepository auditUserSketchRepository;
+
+    @Autowired
+    private AuditActivityService auditActivityService;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sketchEstimatesDistinctIdsWithinAFewPercent() {
+        for (int distinct : new int[] {10, 1_000, 100_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (long id = 1; id <= distinct; id++) {
+                sketch.add(id);
+                sketch.add(id);
+            }
+            assertThat((double) sketch.estimate()).isCloseTo(distinct, within(Math.max(1, distinct * 0.05)));
+        }
+    }
+
+    @Test
+    void mergedSketchesCountUsersOnce() {
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        for (long id = 1; id <= 6_000; id++) {
+            monday.add(id);
+            tuesday.add(id + 4_000);
+        }
+        monday.merge(HyperLogLog.of(tuesday.toByteArray()));
+        assertThat((double) monday.estimate()).isCloseTo(10_000, within(500.0));
+    }
+
+    @Test
+    @Transactional
+    void backfilledSketchesMatchJavaSketches() {
+        jdbcTemplate.update("DELETE FROM audit_user_sketches WHERE granularity = 'DAY'");
+        auditUserSketchRepository.backfillSketches(Granularity.DAY.name(), HyperLogLog.PRECISION, HyperLogLog.REGISTERS,
+                LocalDateTime.of(1970, 1, 1, 0, 0));
+
+        HyperLogLog expected = new HyperLogLog();
+        jdbcTemplate.query("SELECT DISTINCT user_id FROM audit_logs WHERE user_id IS NOT NULL",
+                rs -> {
+                    expected.add(rs.getLong(1));
+                });
+        HyperLogLog backfilled = new HyperLogLog();
+        for (byte[] registers : auditUserSketchRepository.findRegisters(Granularity.DAY,
+                LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.of(3000, 1, 1, 0, 0))) {
+            backfilled.merge(HyperLogLog.of(registers));
+        }
+        assertThat(backfilled.toByteArray()).isEqualTo(expected.toByteArray());
+    }
+
+    @Test
+    void committedActivityIsWrittenByTheFlush() {
+        List<AuditActivityService.Activity> activities = List.of(
+                new AuditActivityService.Activity(BUCKET.plusMinutes(5), AuditLog.ActionType.CREATE, "Task", 1L),
+                new AuditActivityService.Activity(BUCKET.plusMinutes(10), AuditLog.ActionType.UPDATE, "Task", 1L),
+                new AuditActivityService.Activity(BUCKET.plusMinutes(15), AuditLog.ActionType.UPDATE, "Task", 2L));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                auditActivityService.recordActivities(activities);
+                status.setRollbackOnly();
+            });
+            transactionTemplate.executeWithoutResult(status -> {
+                auditActivityService.recordActivities(activities);
+                // The recording transaction does not touch the shared rollup rows
+                assertThat(rollupCount()).isZero();
+            });
+            assertThat(rollupCount()).isZero();
+
+            auditActivityService.flush();
+            assertThat(rollupCount()).isEqualTo(activities.size());
+            assertThat(auditActivityService.getAuditLogStatistics(BUCKET, BUCKET.plusMinutes(59)))
+                    .satisfies(stats -> {
+                        assertThat(stats.totalLogs()).isEqualTo(activities.size());
+                        assertThat(stats.uniqueUsers()).isEqualTo(2);
+                        assertThat(stats.updates()).isEqualTo(2);
+                    });
+        } finally {
+            jdbcTemplate.update("DELETE FROM audit_activity_rollups WHERE bucket_start >= ? AND bucket_start < ?",
+                    BUCKET.toLocalDate().atStartOfDay(), BUCKET.toLocalDate().plusDays(1).atStartOfDay());
+            jdbcTemplate.update("DELETE FROM audit_user_sketches WHERE bucket_start >= ? AND bucket_start < ?",
+                    BUCKET.toLocalDate().atStartOfDay(), BUCKET.toLocalDate().plusDays(1).atStartOfDay());
+        }
+    }
+
+    @Test
+    @Transactional
+    void reconcileRecountsRecentActivityThatWasNeverFlushed() {
+        LocalDateTime hour = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.HOURS);
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(new User("reconcile-" + suffix, "reconcile-" + suffix + "@example.com",
+                "password", "Reconcile", "User"));
+        // Saved without the audit sink, as if the application stopped before their activity was flushed
+        for (int i = 0; i < 3; i++) {
+            AuditLog auditLog = new AuditLog(AuditLog.ActionType.UPDATE, "Task", (long) i, "Reconcile test", user);
+            auditLog.setCreatedAt(hour.plusMinutes(i));
+            auditLogRepository.save(auditLog);
+        }
+        auditLogRepository.flush();
+        assertThat(userCount(Granularity.HOUR, hour, user)).isZero();
+
+        auditActivityService.reconcile();
+
+        assertThat(userCount(Granularity.HOUR, hour, user)).isEqualTo(3);
+        assertThat(userCount(Granularity.DAY, hour.truncatedTo(ChronoUnit.DAYS), user)).isEqualTo(3);
+    }
+
+    private long userCount(Granularity granularity, LocalDateTime bucketStart, User user) {
+        Long count = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(activity_count), 0) FROM audit_activity_rollups " +
+                "WHERE granularity = ? AND bucket_start = ? AND user_id = ?", Long.class, granularity.name(), bucketStart,
+                user.getId());
+        return count != null ? count : 0;
+    }
+
+    // Hourly count of the test bucket
+    private long rollupCount() {
+        Long count = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(activity_count), 0) FROM audit_activity_rollups " +
+                "WHERE granularity = 'HOUR' AND bucket_start = ?", Long.class, BUCKET);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,190 @@
+package com.workflow.workflowmanagementsystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.workflowmanagementsystem.Repository.AuditLogRepository;
+import com.workflow.workflowmanagementsystem.Repository.DepartmentRepository;
+import com.workflow.workflowmanagementsystem.Repository.TaskRepository;
+import com.workflow.workflowmanagementsystem.Repository.UserRepository;
+import com.workflow.workflowmanagementsystem.Repository.WorkflowRepository;
+import com.workflow.workflowmanagementsystem.Repository.WorkflowStatusLayerRepository;
+import com.workflow.workflowmanagementsystem.entity.AuditLog;
+import com.workflow.workflowmanagementsystem.entity.Department;
+import com.workflow.workflowmanagementsystem.entity.Task;
+import com.workflow.workflowmanagementsystem.entity.User;
+import com.workflow.workflowmanagementsystem.entity.Workflow;
+import com.workflow.workflowmanagementsystem.entity.WorkflowStatusLayer;
+import com.workflow.workflowmanagementsystem.service.AuditHistoryService;
+import com.workflow.workflowmanagementsystem.util.AuditDiffUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Storage benchmark: a realistic edit history of one task stored as field diffs versus full before/after snapshots.
+// The history is persisted and every intermediate state is rebuilt through AuditHistoryService, also after the
+// status layers and users it refers to were renamed.
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@Transactional
+class AuditDiffStorageTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditDiffStorageTests.class);
+
+    private static final int EDITS = 500;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private AuditHistoryService auditHistoryService;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private WorkflowStatusLayerRepository workflowStatusLayerRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void diffsAreMuchSmallerThanSnapshotsAndRebuildEveryState() throws Exception {
+        Random random = new Random(42);
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            users.add(userRepository.save(new User("audit-" + i + "-" + suffix, "audit-" + i + "-" + suffix + "@example.com",
+                    "password", "Audit", "User " + i)));
+        }
+        Department department = departmentRepository.save(new Department("Audit diff " + suffix, null));
+        Workflow workflow = workflowRepository.save(new Workflow("Audit diff " + suffix, null, users.get(0), department));
+        List<WorkflowStatusLayer> layers = new ArrayList<>();
+        for (String name : List.of("Backlog", "In Development", "Code Review", "Testing", "Done")) {
+            WorkflowStatusLayer layer = new WorkflowStatusLayer(name, null, layers.size() + 1, workflow);
+            layer.setIsFinal(name.equals("Done"));
+            layers.add(workflowStatusLayerRepository.save(layer));
+        }
+
+        Task task = new Task("Migrate billing service to the new payment gateway", paragraph(random, 1500), workflow,
+                users.get(0), LocalDateTime.of(2025, 6, 30, 17, 0));
+        task.setPriority(Task.TaskPriority.MEDIUM);
+        task.setEstimatedHours(40);
+        task.setWorkflowStatusLayer(layers.get(0));
+        task.setAssignedTo(users.get(0));
+        task = taskRepository.save(task);
+
+        // State of the task right after each audit entry
+        List<Map<String, String>> states = new ArrayList<>();
+        List<AuditLog> auditLogs = new ArrayList<>();
+        long snapshotBytes = 0;
+        long diffBytes = 0;
+        for (int i = 0; i < EDITS; i++) {
+            Map<String, String> before = AuditDiffUtil.snapshot(task);
+            edit(task, random, layers, users);
+            Map<String, String> after = AuditDiffUtil.snapshot(task);
+            states.add(after);
+
+            AuditLog auditLog = new AuditLog(AuditLog.ActionType.UPDATE, "Task", task.getId(),
+                    "Updated task: " + task.getTitle(), users.get(0));
+            AuditDiffUtil.recordChanges(auditLog, before, after);
+            auditLogs.add(auditLogRepository.save(auditLog));
+            snapshotBytes += bytes(objectMapper.writeValueAsString(before)) + bytes(objectMapper.writeValueAsString(after));
+            diffBytes += bytes(auditLog.getOldValues()) + bytes(auditLog.getNewValues());
+        }
+        taskRepository.save(task);
+        logger.info("Audit storage for {} edits: full snapshots {} bytes, field diffs {} bytes ({}%)",
+                EDITS, snapshotBytes, diffBytes, String.format("%.1f", 100.0 * diffBytes / snapshotBytes));
+        assertThat(diffBytes).isLessThan(snapshotBytes / 5);
+
+        for (WorkflowStatusLayer layer : layers) {
+            layer.setName(layer.getName() + " (renamed)");
+        }
+        for (User user : users) {
+            user.setUsername(user.getUsername() + "-renamed");
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        for (int i = EDITS - 1; i >= 0; i--) {
+            assertThat(auditHistoryService.getStateAt("Task", task.getId(), auditLogs.get(i).getId()))
+                    .isEqualTo(states.get(i));
+        }
+    }
+
+    @Test
+    void largeDiffsAreCompressed() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("description", paragraph(new Random(7), 4000));
+        fields.put("assignedTo", null);
+
+        String encoded = AuditDiffUtil.encode(fields);
+        assertThat(encoded).startsWith("deflate:");
+        assertThat(encoded.length()).isLessThan(fields.get("description").length());
+        assertThat(AuditDiffUtil.decode(encoded)).isEqualTo(fields);
+    }
+
+    @Test
+    void freeTextValuesAreNotDiffs() {
+        assertThat(AuditDiffUtil.isDiff("Title: Fix login, Status: Open, Priority: HIGH, AssignedTo: Unassigned")).isFalse();
+        assertThat(AuditDiffUtil.isDiff(AuditDiffUtil.encode(Map.of("priority", "HIGH")))).isTrue();
+    }
+
+    // Mostly small field changes, with the occasional rewrite of part of the description
+    private void edit(Task task, Random random, List<WorkflowStatusLayer> layers, List<User> users) {
+        int kind = random.nextInt(100);
+        if (kind < 30) {
+            task.setWorkflowStatusLayer(layers.get(random.nextInt(layers.size())));
+        } else if (kind < 50) {
+            task.setAssignedTo(users.get(random.nextInt(users.size())));
+        } else if (kind < 65) {
+            task.setPriority(Task.TaskPriority.values()[random.nextInt(Task.TaskPriority.values().length)]);
+        } else if (kind < 75) {
+            task.setDueDate(task.getDueDate().plusDays(1 + random.nextInt(7)));
+        } else if (kind < 90) {
+            task.setActualHours((task.getActualHours() != null ? task.getActualHours() : 0) + 1 + random.nextInt(4));
+        } else {
+            String description = task.getDescription();
+            int cut = random.nextInt(description.length());
+            task.setDescription(description.substring(0, cut) + paragraph(random, 80) + description.substring(cut));
+        }
+    }
+
+    private String paragraph(Random random, int length) {
+        String[] words = {"payment", "gateway", "retry", "invoice", "customer", "webhook", "settlement", "refund",
+                "ledger", "currency", "the", "and", "with", "before", "after", "migration", "rollback", "timeout"};
+        StringBuilder text = new StringBuilder();
+        while (text.length() < length) {
+            text.append(words[random.nextInt(words.length)]).append(random.nextInt(12) == 0 ? ". " : " ");
+        }
+        return text.toString();
+    }
+
+    private long bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+}
@@ -0,0 +1,120 @@
+package com.workflow.workflowmanagementsystem;
+
+import com.workflow.workflowmanagementsystem.Repository.AuditLogRepository;
+import com.workflow.workflowmanagementsystem.Repository.UserRepository;
+import com.workflow.workflowmanagementsystem.component.AuditLogPartitionManager;
+import com.workflow.workflowmanagementsystem.entity.AuditLog;
+import com.workflow.workflowmanagementsystem.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// audit_logs is converted to monthly partitions on startup, and created_at range queries only scan the matching month.
+// Archived months are written to a file and dropped, and come back through AuditLogRepository once restored.
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "app.audit.archive.dir=target/audit-archive-test"})
+class AuditLogPartitionTests {
+
+    // A month no other data uses, so archiving it does not affect other tests
+    private static final YearMonth ARCHIVED_MONTH = YearMonth.of(2001, 3);
+
+    private static final String ARCHIVED_PARTITION = "audit_logs_2001_03";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditLogPartitionManager auditLogPartitionManager;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @AfterEach
+    void dropArchivedMonth() throws Exception {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + ARCHIVED_PARTITION);
+        jdbcTemplate.update("DELETE FROM audit_log_archives WHERE partition_name = ?", ARCHIVED_PARTITION);
+        Files.deleteIfExists(archiveFile());
+        if (user != null) {
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    void auditLogsArePartitionedByMonth() {
+        Integer partitioned = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table WHERE partrelid = 'audit_logs'::regclass", Integer.class);
+        assertThat(partitioned).isEqualTo(1);
+
+        YearMonth month = YearMonth.now();
+        String partition = "audit_logs_" + month.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class, partition)).isEqualTo(partition);
+    }
+
+    @Test
+    void createdAtRangeQueriesArePruned() {
+        YearMonth month = YearMonth.now();
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN SELECT * FROM audit_logs WHERE created_at >= '"
+                + month.atDay(1) + "' AND created_at < '" + month.plusMonths(1).atDay(1) + "'", String.class);
+
+        String planText = String.join("\n", plan);
+        assertThat(planText).contains("audit_logs_" + month.format(DateTimeFormatter.ofPattern("yyyy_MM")));
+        assertThat(planText).doesNotContain("audit_logs_default");
+    }
+
+    @Test
+    void archivedMonthsAreDroppedUntilRestoredFromTheirFile() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(new User("archive-" + suffix, "archive-" + suffix + "@example.com",
+                "password", "Archive", "Test"));
+        jdbcTemplate.queryForObject("SELECT ensure_audit_log_partition(?)", String.class,
+                Date.valueOf(ARCHIVED_MONTH.atDay(1)));
+        for (int day = 1; day <= 3; day++) {
+            auditLogRepository.save(auditLog(ARCHIVED_MONTH.atDay(day).atTime(12, 0)));
+        }
+
+        assertThat(auditLogPartitionManager.archivePartition(ARCHIVED_MONTH)).isEqualTo(3);
+        assertThat(archiveFile()).exists();
+
+        // The partition is dropped, so its rows are only in the archive file
+        LocalDateTime monthStart = ARCHIVED_MONTH.atDay(1).atStartOfDay();
+        LocalDateTime monthEnd = ARCHIVED_MONTH.atEndOfMonth().atTime(23, 59, 59);
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class, ARCHIVED_PARTITION)).isNull();
+        assertThat(auditLogRepository.findAuditLogsByDateRange(monthStart, monthEnd)).isEmpty();
+
+        // A restored month is loaded back, writable, and not archived again by the retention job
+        assertThat(auditLogPartitionManager.restorePartition(ARCHIVED_MONTH)).isEqualTo(3);
+        assertThat(auditLogRepository.findAuditLogsByDateRange(monthStart, monthEnd)).hasSize(3);
+        auditLogRepository.save(auditLog(ARCHIVED_MONTH.atDay(4).atTime(12, 0)));
+        assertThat(auditLogRepository.findAuditLogsByDateRange(monthStart, monthEnd)).hasSize(4);
+        assertThat(jdbcTemplate.queryForObject("SELECT restored_at IS NOT NULL FROM audit_log_archives " +
+                "WHERE partition_name = ?", Boolean.class, ARCHIVED_PARTITION)).isTrue();
+    }
+
+    private AuditLog auditLog(LocalDateTime createdAt) {
+        AuditLog auditLog = new AuditLog(AuditLog.ActionType.UPDATE, "Task", 1L, "Archived change", user);
+        auditLog.setCreatedAt(createdAt);
+        return auditLog;
+    }
+
+    private Path archiveFile() {
+        return Paths.get("target/audit-archive-test").toAbsolutePath().resolve(ARCHIVED_PARTITION + ".csv.gz");
+    }
+}
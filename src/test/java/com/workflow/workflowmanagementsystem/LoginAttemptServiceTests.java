@@ -0,0 +1,74 @@
+package com.workflow.workflowmanagementsystem;
+
+import com.workflow.workflowmanagementsystem.service.LoginAttemptService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Lockouts under a credential-stuffing burst: random usernames filling their cap must not stop an attacker's IP
+// from being counted, and new IPs beyond their cap still get tracked
+class LoginAttemptServiceTests {
+
+    private static final int MAX_TRACKED = 100;
+
+    private static final int MAX_FAILURES_PER_IP = 50;
+
+    private LoginAttemptService loginAttemptService;
+
+    @BeforeEach
+    void setUp() {
+        loginAttemptService = new LoginAttemptService();
+        ReflectionTestUtils.setField(loginAttemptService, "windowMinutes", 15);
+        ReflectionTestUtils.setField(loginAttemptService, "maxFailuresPerUser", 5);
+        ReflectionTestUtils.setField(loginAttemptService, "maxFailuresPerIp", MAX_FAILURES_PER_IP);
+        ReflectionTestUtils.setField(loginAttemptService, "lockoutMinutes", 15);
+        ReflectionTestUtils.setField(loginAttemptService, "maxTrackedUsernames", MAX_TRACKED);
+        ReflectionTestUtils.setField(loginAttemptService, "maxTrackedIps", MAX_TRACKED);
+    }
+
+    @Test
+    void attackerIpIsLockedOutAfterUsernamesFillTheirCap() {
+        for (int i = 0; i < MAX_TRACKED * 2; i++) {
+            fail("user" + i, "10.0.0.1");
+        }
+        assertThat(loginAttemptService.isBlocked("someone", "10.0.0.1")).isTrue();
+
+        // A second attacker address arriving once usernames are full is still counted
+        for (int i = 0; i < MAX_FAILURES_PER_IP; i++) {
+            fail("random" + i, "10.0.0.2");
+        }
+        assertThat(loginAttemptService.isBlocked("someone", "10.0.0.2")).isTrue();
+        assertThat(loginAttemptService.isBlocked("someone", "10.0.0.3")).isFalse();
+    }
+
+    @Test
+    void newIpsBeyondTheCapReplaceUnlockedOnes() {
+        for (int i = 0; i < MAX_FAILURES_PER_IP; i++) {
+            fail("alice", "10.0.0.1");
+        }
+        for (int i = 0; i < MAX_TRACKED * 2; i++) {
+            fail("bob", "192.168.0." + i);
+        }
+        for (int i = 0; i < MAX_FAILURES_PER_IP; i++) {
+            fail("carol", "10.0.0.2");
+        }
+
+        // The locked-out address was never evicted, and the latest one was tracked despite the full map
+        assertThat(loginAttemptService.isBlocked("someone", "10.0.0.1")).isTrue();
+        assertThat(loginAttemptService.isBlocked("someone", "10.0.0.2")).isTrue();
+    }
+
+    private void fail(String username, String ipAddress) {
+        UsernamePasswordAuthenticationToken authentication =
+                UsernamePasswordAuthenticationToken.unauthenticated(username, "wrong");
+        authentication.setDetails(new WebAuthenticationDetails(ipAddress, null));
+        loginAttemptService.onAuthenticationFailure(
+                new AuthenticationFailureBadCredentialsEvent(authentication, new BadCredentialsException("Bad credentials")));
+    }
+}
@@ -0,0 +1,79 @@
+package com.workflow.workflowmanagementsystem;
+
+import com.workflow.workflowmanagementsystem.dto.ReportCacheStats;
+import com.workflow.workflowmanagementsystem.service.ReportCacheService;
+import com.workflow.workflowmanagementsystem.service.ReportDataChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Report cache: equivalent filters share an entry, least recently used entries are evicted,
+// and a report computed across a data change is never cached
+class ReportCacheTests {
+
+    private ReportCacheService cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReportCacheService();
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        ReflectionTestUtils.setField(cache, "maxAgeSeconds", 600L);
+    }
+
+    @Test
+    void equivalentFiltersShareAnEntry() {
+        cache.get(ReportCacheService.key("task-report", "In Progress", "", 3L), this::load);
+        cache.get(ReportCacheService.key("task-report", " in progress ", null, 3L), this::load);
+
+        ReportCacheStats stats = cache.getStats();
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        List<String> first = ReportCacheService.key("workflow-report", "Active", null);
+        List<String> second = ReportCacheService.key("workflow-report", "Draft", null);
+        List<String> third = ReportCacheService.key("workflow-report", "Archived", null);
+        cache.get(first, this::load);
+        cache.get(second, this::load);
+        cache.get(first, this::load);
+        cache.get(third, this::load);
+        cache.get(first, this::load);
+        cache.get(second, this::load);
+
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(cache.getStats().evictions()).isEqualTo(2);
+        assertThat(cache.getStats().size()).isEqualTo(2);
+    }
+
+    @Test
+    void changesClearTheCacheAndReportsComputedAcrossThemAreNotStored() {
+        List<String> key = ReportCacheService.key("user-productivity", null, null);
+        cache.get(key, this::load);
+        cache.onReportDataChanged(new ReportDataChangedEvent("Task"));
+        assertThat(cache.getStats().size()).isZero();
+
+        cache.get(key, () -> {
+            cache.onReportDataChanged(new ReportDataChangedEvent("Task"));
+            return load();
+        });
+        cache.get(key, this::load);
+
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(cache.getStats().invalidations()).isEqualTo(2);
+    }
+
+    private Map<String, Object> load() {
+        return Map.of("load", loads.incrementAndGet());
+    }
+}
@@ -0,0 +1,101 @@
+package com.workflow.workflowmanagementsystem;
+
+import com.workflow.workflowmanagementsystem.service.ReportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Streaming task export over a large generated dataset (rolled back): throughput, peak heap and incremental flushes.
+// Run with -Dreports.benchmark=true; -Dreports.benchmark.tasks sets the dataset size (one million by default).
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@Transactional
+@EnabledIfSystemProperty(named = "reports.benchmark", matches = "true")
+class ReportExportBenchmarkTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportExportBenchmarkTests.class);
+
+    private static final int TASKS = Integer.getInteger("reports.benchmark.tasks", 1_000_000);
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void taskExportStreamsInBoundedMemory() throws Exception {
+        Long workflowId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM workflows", Long.class);
+        Long userId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+        assertThat(workflowId).as("benchmark needs a workflow and a user").isNotNull();
+        assertThat(userId).as("benchmark needs a workflow and a user").isNotNull();
+
+        long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Long.class);
+        jdbcTemplate.update("INSERT INTO tasks (id, title, description, priority, workflow_id, assigned_to, created_by, " +
+                "due_date, estimated_hours, created_at, version) " +
+                "SELECT (SELECT COALESCE(MAX(id), 0) FROM tasks) + g, 'Benchmark task ' || g, " +
+                "'Generated task description for the streaming export benchmark, row ' || g, " +
+                "(ARRAY['LOW', 'MEDIUM', 'HIGH', 'URGENT'])[1 + g % 4], ?, ?, ?, " +
+                "now() + (g % 90) * INTERVAL '1 day', g % 40, now(), 0 " +
+                "FROM generate_series(1, ?) AS g", workflowId, userId, userId, TASKS);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+        MeasuringOutputStream output = new MeasuringOutputStream(memory);
+
+        long start = System.nanoTime();
+        long rows = reportService.streamTaskReportToCSV(null, null, null, output);
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        logger.info("Exported {} tasks ({} MB of CSV) in {} ms: {} rows/s, {} flushes, peak heap {} MB above baseline",
+                rows, output.bytes / (1024 * 1024), elapsedMs, rows * 1000 / elapsedMs, output.flushes,
+                Math.max(0, output.peakHeap - baselineHeap) / (1024 * 1024));
+
+        assertThat(rows).isEqualTo(existing + TASKS);
+        // Rows reach the client while the cursor is still being read, not in one write at the end
+        assertThat(output.flushes).isGreaterThanOrEqualTo(TASKS / 1000);
+    }
+
+    // Discards the export, counting bytes and flushes and sampling heap use at every flush
+    private static class MeasuringOutputStream extends OutputStream {
+
+        private final MemoryMXBean memory;
+
+        private long bytes;
+
+        private long flushes;
+
+        private long peakHeap;
+
+        MeasuringOutputStream(MemoryMXBean memory) {
+            this.memory = memory;
+        }
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+            peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.workflow.workflowmanagementsystem;
+
+import com.workflow.workflowmanagementsystem.dto.ReportJobProgress;
+import com.workflow.workflowmanagementsystem.service.ReportJobService;
+import com.workflow.workflowmanagementsystem.service.ReportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Background report jobs against an export that keeps writing rows until the test lets it finish:
+// per-user limits, a full queue, cancelling queued and running jobs, and expiry of finished jobs and their results
+class ReportJobServiceTests {
+
+    private static final ReportJobService.Filters NO_FILTERS = new ReportJobService.Filters(null, null, null, null, null, null);
+
+    @TempDir
+    Path resultDir;
+
+    private BlockingReportService reportService;
+
+    private ReportJobService reportJobService;
+
+    @BeforeEach
+    void setUp() {
+        reportService = new BlockingReportService();
+        reportJobService = new ReportJobService();
+        ReflectionTestUtils.setField(reportJobService, "reportService", reportService);
+        ReflectionTestUtils.setField(reportJobService, "threads", 1);
+        ReflectionTestUtils.setField(reportJobService, "queueCapacity", 2);
+        ReflectionTestUtils.setField(reportJobService, "maxJobsPerUser", 2);
+        ReflectionTestUtils.setField(reportJobService, "resultTtlHours", 24L);
+        ReflectionTestUtils.setField(reportJobService, "resultDir", resultDir.toString());
+        reportJobService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportService.finish.release(100);
+        reportJobService.cleanup();
+    }
+
+    @Test
+    void usersAreLimitedToTheirOwnJobs() throws Exception {
+        ReportJobProgress first = submit("alice");
+        reportService.awaitStarted(1);
+        submit("alice");
+
+        assertThatThrownBy(() -> submit("alice"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("2 report jobs");
+        assertThat(reportJobService.getJobs("alice")).hasSize(2);
+
+        // A finished job no longer counts against the limit
+        reportService.finish.release();
+        awaitStatus(first, ReportJobProgress.Status.COMPLETED);
+        assertThat(submit("alice")).isNotNull();
+    }
+
+    @Test
+    void submitsAreRejectedWhenTheQueueIsFull() throws Exception {
+        submit("alice");
+        reportService.awaitStarted(1);
+        submit("bob");
+        submit("carol");
+
+        assertThatThrownBy(() -> submit("dave"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Too many report jobs");
+        assertThat(reportJobService.getJobs("dave")).isEmpty();
+    }
+
+    @Test
+    void cancelledQueuedJobNeverRuns() throws Exception {
+        ReportJobProgress running = submit("alice");
+        reportService.awaitStarted(1);
+        ReportJobProgress queued = submit("bob");
+
+        assertThat(reportJobService.cancel(queued.getId(), "alice")).isEmpty();
+        assertThat(reportJobService.cancel(queued.getId(), "bob")).isPresent();
+        assertThat(queued.getStatus()).isEqualTo(ReportJobProgress.Status.CANCELLED);
+
+        // Jobs run in submission order, so the cancelled one has been dequeued once the next one finishes
+        ReportJobProgress next = submit("carol");
+        reportService.finish.release(2);
+        awaitStatus(running, ReportJobProgress.Status.COMPLETED);
+        awaitStatus(next, ReportJobProgress.Status.COMPLETED);
+        assertThat(reportService.exports.get()).isEqualTo(2);
+        assertThat(queued.getStatus()).isEqualTo(ReportJobProgress.Status.CANCELLED);
+        assertThat(queued.getStartedAt()).isNull();
+        assertThat(reportJobService.getResult(queued.getId(), "bob")).isEmpty();
+    }
+
+    @Test
+    void cancelledRunningJobStopsAndDeletesItsPartialFile() throws Exception {
+        ReportJobProgress job = submit("alice");
+        reportService.awaitStarted(1);
+        Path partial = resultDir.resolve(job.getId() + ".csv.gz.tmp");
+        assertThat(partial).exists();
+
+        assertThat(reportJobService.cancel(job.getId(), "alice")).isPresent();
+        awaitStatus(job, ReportJobProgress.Status.CANCELLED);
+
+        assertThat(partial).doesNotExist();
+        assertThat(resultDir.resolve(job.getId() + ".csv.gz")).doesNotExist();
+        assertThat(reportJobService.getResult(job.getId(), "alice")).isEmpty();
+    }
+
+    @Test
+    void finishedJobsAndResultsExpireAfterTheTtl() throws Exception {
+        ReportJobProgress completed = submit("alice");
+        reportService.finish.release();
+        awaitStatus(completed, ReportJobProgress.Status.COMPLETED);
+        Path result = reportJobService.getResult(completed.getId(), "alice").orElseThrow();
+        assertThat(result).exists();
+        ReportJobProgress running = submit("alice");
+        reportService.awaitStarted(2);
+
+        reportJobService.removeExpiredJobs();
+        assertThat(reportJobService.getJob(completed.getId(), "alice")).isPresent();
+        assertThat(result).exists();
+
+        ReflectionTestUtils.setField(reportJobService, "resultTtlHours", 0L);
+        Thread.sleep(10);
+        reportJobService.removeExpiredJobs();
+        assertThat(reportJobService.getJob(completed.getId(), "alice")).isEmpty();
+        assertThat(result).doesNotExist();
+        // Jobs that have not finished are kept whatever their age
+        assertThat(reportJobService.getJob(running.getId(), "alice")).isPresent();
+    }
+
+    private ReportJobProgress submit(String owner) {
+        return reportJobService.submit(ReportJobService.ReportType.TASK_REPORT, NO_FILTERS, owner);
+    }
+
+    private void awaitStatus(ReportJobProgress job, ReportJobProgress.Status status) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (job.getStatus() != status && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(job.getStatus()).isEqualTo(status);
+    }
+
+    // Writes a row every few milliseconds until a permit is released, so a running job can be cancelled mid-export
+    private static class BlockingReportService extends ReportService {
+
+        private final Semaphore finish = new Semaphore(0);
+
+        private final AtomicInteger exports = new AtomicInteger();
+
+        private final CountDownLatch[] started = {new CountDownLatch(1), new CountDownLatch(2)};
+
+        @Override
+        public long streamTaskReportToCSV(String status, String priority, Long departmentId,
+                OutputStream outputStream) throws IOException {
+            exports.incrementAndGet();
+            for (CountDownLatch latch : started) {
+                latch.countDown();
+            }
+            long rows = 0;
+            try {
+                while (!finish.tryAcquire(5, TimeUnit.MILLISECONDS)) {
+                    outputStream.write(("row " + rows++ + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (InterruptedException e) {
+                // The pool is shut down after each test
+                Thread.currentThread().interrupt();
+            }
+            return rows;
+        }
+
+        void awaitStarted(int count) throws InterruptedException {
+            assertThat(started[count - 1].await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+}
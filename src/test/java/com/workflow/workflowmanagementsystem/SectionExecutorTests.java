@@ -0,0 +1,144 @@
+package com.workflow.workflowmanagementsystem;
+
+import com.workflow.workflowmanagementsystem.service.SectionExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Parallel sections: latency is the slowest section rather than the sum, slow or failing sections are left out,
+// and each section's transaction times out at its deadline
+class SectionExecutorTests {
+
+    private SectionExecutor sectionExecutor;
+
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+
+    @BeforeEach
+    void setUp() {
+        sectionExecutor = new SectionExecutor();
+        ReflectionTestUtils.setField(sectionExecutor, "threads", 4);
+        ReflectionTestUtils.setField(sectionExecutor, "queueCapacity", 10);
+        ReflectionTestUtils.setField(sectionExecutor, "defaultTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(sectionExecutor, "transactionManager", transactionManager);
+        sectionExecutor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sectionExecutor.cleanup();
+    }
+
+    @Test
+    void sectionsRunConcurrently() {
+        long start = System.nanoTime();
+        try (SectionExecutor.Scope scope = sectionExecutor.open()) {
+            List<SectionExecutor.Section<Integer>> sections = List.of(
+                    scope.fork("a", () -> sleepAndReturn(300, 1)),
+                    scope.fork("b", () -> sleepAndReturn(300, 2)),
+                    scope.fork("c", () -> sleepAndReturn(300, 3)));
+            scope.join();
+
+            assertThat(sections).allMatch(SectionExecutor.Section::isCompleted);
+            assertThat(sections.stream().mapToInt(section -> section.get(0)).sum()).isEqualTo(6);
+            assertThat(scope.getIncompleteSections()).isEmpty();
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(800));
+    }
+
+    @Test
+    void slowAndFailingSectionsAreLeftOut() {
+        long start = System.nanoTime();
+        try (SectionExecutor.Scope scope = sectionExecutor.open()) {
+            SectionExecutor.Section<Integer> fast = scope.fork("fast", () -> 1);
+            SectionExecutor.Section<Integer> slow = scope.fork("slow", Duration.ofMillis(200), () -> sleepAndReturn(5000, 2));
+            SectionExecutor.Section<Integer> failing = scope.fork("failing", () -> {
+                throw new IllegalStateException("query failed");
+            });
+            scope.join();
+
+            assertThat(fast.get(0)).isEqualTo(1);
+            assertThat(slow.isCompleted()).isFalse();
+            assertThat(slow.get(-1)).isEqualTo(-1);
+            assertThat(failing.isCompleted()).isFalse();
+            assertThat(scope.getIncompleteSections()).containsExactly("slow", "failing");
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+    }
+
+    @Test
+    void sectionsRunInReadOnlyTransactionsThatTimeOutAtTheirDeadline() {
+        try (SectionExecutor.Scope scope = sectionExecutor.open()) {
+            SectionExecutor.Section<Boolean> readOnly = scope.fork("readOnly", Duration.ofMillis(2500),
+                    TransactionSynchronizationManager::isCurrentTransactionReadOnly);
+            scope.fork("default", () -> true);
+            scope.join();
+
+            assertThat(readOnly.get(false)).isTrue();
+        }
+        assertThat(transactionManager.timeouts).containsExactlyInAnyOrder(3, 2);
+    }
+
+    @Test
+    void closingTheScopeInterruptsLateSections() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try (SectionExecutor.Scope scope = sectionExecutor.open()) {
+            scope.fork("slow", Duration.ofMillis(100), () -> {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return 1;
+            });
+            scope.join();
+            assertThat(scope.getIncompleteSections()).containsExactly("slow");
+        }
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private int sleepAndReturn(long millis, int value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    // Records the timeout of each transaction it begins; there is no resource behind it
+    private static class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+
+        private final List<Integer> timeouts = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            timeouts.add(definition.getTimeout());
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
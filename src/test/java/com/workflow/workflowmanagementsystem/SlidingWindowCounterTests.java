@@ -0,0 +1,72 @@
+package com.workflow.workflowmanagementsystem;
+
+import com.workflow.workflowmanagementsystem.util.SlidingWindowCounter;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Failed-login counting: no increment is lost under a burst from many threads, and failures leave the window as it slides
+class SlidingWindowCounterTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlidingWindowCounterTests.class);
+
+    private static final int THREADS = 16;
+
+    private static final int FAILURES_PER_THREAD = 50_000;
+
+    @Test
+    void concurrentIncrementsAreAllCounted() throws Exception {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofMinutes(15), 15);
+        long now = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < FAILURES_PER_THREAD; i++) {
+                    counter.increment(now);
+                }
+                return null;
+            }));
+        }
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        executor.shutdown();
+
+        logger.info("{} failed logins counted by {} threads in {} ms", THREADS * FAILURES_PER_THREAD, THREADS, elapsedMs);
+        assertThat(counter.count(now)).isEqualTo(THREADS * FAILURES_PER_THREAD);
+    }
+
+    @Test
+    void failuresLeaveTheWindowAsItSlides() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofMinutes(15), 15);
+        long minute = Duration.ofMinutes(1).toMillis();
+        long start = 1_000 * minute;
+
+        counter.increment(start);
+        counter.increment(start);
+        assertThat(counter.increment(start + 5 * minute)).isEqualTo(3);
+        assertThat(counter.count(start + 14 * minute)).isEqualTo(3);
+        assertThat(counter.count(start + 15 * minute)).isEqualTo(1);
+        assertThat(counter.count(start + 20 * minute)).isZero();
+
+        // A slot reused by a later window starts again from zero
+        assertThat(counter.increment(start + 30 * minute)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,191 @@
+package com.workflow.workflowmanagementsystem;
+
+import com.workflow.workflowmanagementsystem.Repository.DepartmentRepository;
+import com.workflow.workflowmanagementsystem.Repository.TaskRepository;
+import com.workflow.workflowmanagementsystem.Repository.TeamRepository;
+import com.workflow.workflowmanagementsystem.Repository.UserRepository;
+import com.workflow.workflowmanagementsystem.Repository.WorkflowRepository;
+import com.workflow.workflowmanagementsystem.Repository.WorkflowStatusLayerRepository;
+import com.workflow.workflowmanagementsystem.entity.Department;
+import com.workflow.workflowmanagementsystem.entity.Task;
+import com.workflow.workflowmanagementsystem.entity.Team;
+import com.workflow.workflowmanagementsystem.entity.User;
+import com.workflow.workflowmanagementsystem.entity.Workflow;
+import com.workflow.workflowmanagementsystem.entity.WorkflowStatusLayer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Statement counts of the task list endpoints over tasks spread across several users, workflows and status layers.
+// Every bound is well below the number of tasks returned, so a lazy load per row (1+N statements) fails the test.
+// The fixture is flushed and evicted before each request so associations really come from the database.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@Transactional
+class TaskFetchPlanTests {
+
+    private static final int USERS = 4;
+
+    private static final int WORKFLOWS = 3;
+
+    private static final int TASKS = 40;
+
+    // One list query plus batched loads of eager user teams, departments and roles
+    private static final long MAX_STATEMENTS = 8;
+
+    // Pages also load the current user, their roles, the page count and the workflow filter options
+    private static final long MAX_PAGE_STATEMENTS = 16;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private WorkflowStatusLayerRepository workflowStatusLayerRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final List<User> users = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void createTasks() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Department department = departmentRepository.save(new Department("Fetch plan " + suffix, null));
+        List<Team> teams = List.of(
+                teamRepository.save(new Team("Fetch plan A " + suffix, null, department)),
+                teamRepository.save(new Team("Fetch plan B " + suffix, null, department)));
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("fetch-" + i + "-" + suffix, "fetch-" + i + "-" + suffix + "@example.com",
+                    "password", "Fetch", "Plan " + i);
+            user.setTeam(teams.get(i % teams.size()));
+            users.add(userRepository.save(user));
+        }
+
+        List<List<WorkflowStatusLayer>> layers = new ArrayList<>();
+        for (int i = 0; i < WORKFLOWS; i++) {
+            Workflow workflow = workflowRepository.save(new Workflow("Fetch plan " + i + " " + suffix, null,
+                    users.get(i % USERS), department));
+            List<WorkflowStatusLayer> workflowLayers = new ArrayList<>();
+            for (Task.TaskStatus category : List.of(Task.TaskStatus.PENDING, Task.TaskStatus.IN_PROGRESS,
+                    Task.TaskStatus.COMPLETED)) {
+                WorkflowStatusLayer layer = new WorkflowStatusLayer(category.name(), null, workflowLayers.size() + 1, workflow);
+                layer.setStatusCategory(category);
+                layer.setIsFinal(category == Task.TaskStatus.COMPLETED);
+                workflowLayers.add(workflowStatusLayerRepository.save(layer));
+            }
+            layers.add(workflowLayers);
+        }
+
+        // Half the tasks are past due, the rest are due within the week; creators and assignees differ per task
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < TASKS; i++) {
+            Workflow workflow = layers.get(i % WORKFLOWS).get(0).getWorkflow();
+            LocalDateTime dueDate = i % 2 == 0 ? now.minusDays(1 + i % 5) : now.plusDays(1 + i % 5);
+            Task task = new Task("Fetch plan task " + i, null, workflow, users.get(i % USERS), dueDate);
+            task.setAssignedTo(users.get((i + 1) % USERS));
+            task.setWorkflowStatusLayer(layers.get(i % WORKFLOWS).get((i / WORKFLOWS) % 3));
+            taskRepository.save(task);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void taskListPageUsesBoundedStatements() throws Exception {
+        assertBoundedStatements(get("/tasks").param("size", String.valueOf(TASKS)), MAX_PAGE_STATEMENTS);
+    }
+
+    @Test
+    void taskListKeysetPageUsesBoundedStatements() throws Exception {
+        assertBoundedStatements(get("/tasks").param("keyset", "true").param("size", String.valueOf(TASKS)),
+                MAX_PAGE_STATEMENTS);
+    }
+
+    @Test
+    void myTasksPageUsesBoundedStatements() throws Exception {
+        assertBoundedStatements(get("/tasks/my-tasks").param("size", String.valueOf(TASKS)), MAX_PAGE_STATEMENTS);
+    }
+
+    @Test
+    void taskListApiUsesBoundedStatements() throws Exception {
+        assertBoundedStatements(get("/tasks/api/list").param("size", String.valueOf(TASKS)), MAX_STATEMENTS);
+    }
+
+    @Test
+    void assignedTasksApiUsesBoundedStatements() throws Exception {
+        // Users are assigned round-robin, so each one has a quarter of the tasks
+        assertBoundedStatements(get("/tasks/api/assigned/{userId}", users.get(1).getId()), MAX_STATEMENTS)
+                .andExpect(jsonPath("$.length()").value(TASKS / USERS));
+    }
+
+    @Test
+    void overdueTasksApiUsesBoundedStatements() throws Exception {
+        assertBoundedStatements(get("/tasks/api/overdue"), MAX_STATEMENTS);
+    }
+
+    @Test
+    void tasksDueSoonApiUsesBoundedStatements() throws Exception {
+        assertBoundedStatements(get("/tasks/api/due-soon"), MAX_STATEMENTS);
+    }
+
+    private ResultActions assertBoundedStatements(MockHttpServletRequestBuilder request, long maxStatements)
+            throws Exception {
+        statistics.clear();
+        ResultActions result = mockMvc.perform(request.with(user(currentUsername()).roles("EMPLOYEE")))
+                .andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount())
+                .isLessThanOrEqualTo(maxStatements)
+                .isLessThan(TASKS);
+        return result;
+    }
+
+    // The first seeded user, who created and is assigned some of the tasks
+    private String currentUsername() {
+        return users.get(0).getUsername();
+    }
+
+}
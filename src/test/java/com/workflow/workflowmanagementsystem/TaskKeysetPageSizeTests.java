@@ -0,0 +1,97 @@
+package com.workflow.workflowmanagementsystem;
+
+import com.workflow.workflowmanagementsystem.Repository.TaskRepository;
+import com.workflow.workflowmanagementsystem.dto.KeysetPage;
+import com.workflow.workflowmanagementsystem.entity.Task;
+import com.workflow.workflowmanagementsystem.service.TaskService;
+import com.workflow.workflowmanagementsystem.util.CursorUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+// Keyset page sizes: sizes below 1 are rejected before any query runs, and large or overflowing sizes are capped
+class TaskKeysetPageSizeTests {
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+
+    private TaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new TaskService();
+        ReflectionTestUtils.setField(taskService, "taskRepository", taskRepository);
+    }
+
+    @Test
+    void sizesBelowOneAreRejected() {
+        for (int size : new int[] {0, -1, Integer.MIN_VALUE}) {
+            assertThatThrownBy(() -> taskService.getTasksWithFiltersKeyset(null, null, null, null, null, null, size, false))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Page size");
+            assertThatThrownBy(() -> taskService.getTasksForUserKeyset(1L, null, null, null, size, false))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Page size");
+        }
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void largeSizesAreCapped() {
+        for (int size : new int[] {CursorUtil.MAX_PAGE_SIZE + 1, 10_000_000, Integer.MAX_VALUE}) {
+            ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+            when(taskRepository.findTasksWithFiltersAfter(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
+                    isNull(), pageable.capture())).thenReturn(tasks(CursorUtil.MAX_PAGE_SIZE + 1));
+
+            KeysetPage<Task> page = taskService.getTasksWithFiltersKeyset(null, null, null, null, null, null, size, false);
+
+            // One look-ahead row beyond the capped size tells whether there is a next page
+            assertThat(pageable.getValue().getPageSize()).isEqualTo(CursorUtil.MAX_PAGE_SIZE + 1);
+            assertThat(page.getSize()).isEqualTo(CursorUtil.MAX_PAGE_SIZE);
+            assertThat(page.getContent()).hasSize(CursorUtil.MAX_PAGE_SIZE);
+            assertThat(page.isHasNext()).isTrue();
+            assertThat(page.getNextCursor()).isNotNull();
+        }
+    }
+
+    @Test
+    void smallestPageHasOneRowAndACursor() {
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        when(taskRepository.findTasksForUserAfter(eq(1L), isNull(), isNull(), isNull(), isNull(), pageable.capture()))
+                .thenReturn(tasks(2));
+
+        KeysetPage<Task> page = taskService.getTasksForUserKeyset(1L, null, null, null, 1, false);
+
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(2);
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(CursorUtil.decode(page.getNextCursor()).getId()).isEqualTo(1L);
+    }
+
+    private List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= count; i++) {
+            Task task = new Task();
+            task.setId((long) i);
+            task.setCreatedAt(now.minusMinutes(i));
+            task.setDueDate(now.plusDays(i));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,149 @@
+package com.workflow.workflowmanagementsystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.workflowmanagementsystem.Repository.DepartmentRepository;
+import com.workflow.workflowmanagementsystem.Repository.TaskRepository;
+import com.workflow.workflowmanagementsystem.Repository.TeamRepository;
+import com.workflow.workflowmanagementsystem.Repository.UserRepository;
+import com.workflow.workflowmanagementsystem.controller.TaskController;
+import com.workflow.workflowmanagementsystem.dto.TaskDto;
+import com.workflow.workflowmanagementsystem.dto.TaskSummary;
+import com.workflow.workflowmanagementsystem.entity.Department;
+import com.workflow.workflowmanagementsystem.entity.Task.TaskPriority;
+import com.workflow.workflowmanagementsystem.entity.Team;
+import com.workflow.workflowmanagementsystem.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Read-only task JSON over a generated dataset (rolled back): entity loading plus TaskDto mapping against the
+// TaskSummary projection, and the projection with and without its per-row SIZE(tm.members) team member count.
+// Run with -Dtasks.benchmark=true; -Dtasks.benchmark.tasks sets the dataset size (10,000 by default).
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@Transactional
+@EnabledIfSystemProperty(named = "tasks.benchmark", matches = "true")
+class TaskProjectionBenchmarkTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskProjectionBenchmarkTests.class);
+
+    private static final int TASKS = Integer.getInteger("tasks.benchmark.tasks", 10_000);
+
+    private static final int TEAMS = 20;
+
+    private static final int MEMBERS_PER_TEAM = 25;
+
+    private static final int RUNS = 5;
+
+    private static final TaskPriority PRIORITY = TaskPriority.URGENT;
+
+    @Autowired
+    private TaskController taskController;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void projectionServesTaskRowsFasterThanEntities() throws Exception {
+        Long workflowId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM workflows", Long.class);
+        assertThat(workflowId).as("benchmark needs a workflow").isNotNull();
+        seedTasks(workflowId);
+
+        List<TaskDto> entityRows = taskRepository.findByPriority(PRIORITY).stream()
+                .map(task -> (TaskDto) ReflectionTestUtils.invokeMethod(taskController, "convertToTaskDto", task))
+                .collect(Collectors.toList());
+        List<TaskSummary> projectionRows = taskController.getTasksByPriority(PRIORITY);
+        assertThat(projectionRows).hasSizeGreaterThanOrEqualTo(TASKS);
+        assertThat(projectionRows.stream().map(TaskSummary::id).collect(Collectors.toSet()))
+                .isEqualTo(entityRows.stream().map(TaskDto::getId).collect(Collectors.toSet()));
+
+        String withoutMemberCount = TaskRepository.TASK_SUMMARY_SELECT.replace("SIZE(tm.members)", "0") +
+                "WHERE t.priority = :priority";
+
+        long entityMs = measure(() -> taskRepository.findByPriority(PRIORITY).stream()
+                .map(task -> (TaskDto) ReflectionTestUtils.invokeMethod(taskController, "convertToTaskDto", task))
+                .collect(Collectors.toList()));
+        long projectionMs = measure(() -> taskController.getTasksByPriority(PRIORITY));
+        long noMemberCountMs = measure(() -> entityManager.createQuery(withoutMemberCount, TaskSummary.class)
+                .setParameter("priority", PRIORITY)
+                .getResultList());
+
+        logger.info("{} task rows as JSON, average of {} runs: entities {} ms, projection {} ms, " +
+                        "projection without the team member count subquery {} ms ({} ms per response for SIZE(tm.members))",
+                projectionRows.size(), RUNS, entityMs, projectionMs, noMemberCountMs, projectionMs - noMemberCountMs);
+
+        assertThat(projectionMs).isLessThan(entityMs);
+    }
+
+    // Tasks assigned round-robin to members of several teams, so every row carries a team member count
+    private void seedTasks(Long workflowId) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Department department = departmentRepository.save(new Department("Benchmark " + suffix, null));
+        for (int t = 0; t < TEAMS; t++) {
+            Team team = teamRepository.save(new Team("Benchmark team " + t + " " + suffix, null, department));
+            for (int m = 0; m < MEMBERS_PER_TEAM; m++) {
+                String username = "bench-" + suffix + "-" + t + "-" + m;
+                User user = new User(username, username + "@example.com", "password", "Bench", "User " + m);
+                user.setTeam(team);
+                userRepository.save(user);
+            }
+        }
+        entityManager.flush();
+
+        jdbcTemplate.update("INSERT INTO tasks (id, title, description, priority, workflow_id, assigned_to, created_by, " +
+                "due_date, estimated_hours, created_at, version) " +
+                "SELECT (SELECT COALESCE(MAX(id), 0) FROM tasks) + g, 'Benchmark task ' || g, " +
+                "'Generated task description for the projection benchmark, row ' || g, ?, ?, u.id, u.id, " +
+                "now() + (g % 90) * INTERVAL '1 day', g % 40, now(), 0 " +
+                "FROM generate_series(1, ?) AS g " +
+                "JOIN (SELECT id, ROW_NUMBER() OVER (ORDER BY id) - 1 AS n FROM users WHERE username LIKE ?) u " +
+                "ON u.n = g % ?", PRIORITY.name(), workflowId, TASKS, "bench-" + suffix + "-%",
+                TEAMS * MEMBERS_PER_TEAM);
+    }
+
+    // Average time to load the rows and write them as JSON, after one warm-up run, each from an empty session
+    private long measure(Callable<List<?>> rows) throws Exception {
+        long total = 0;
+        for (int run = 0; run <= RUNS; run++) {
+            entityManager.clear();
+            long start = System.nanoTime();
+            objectMapper.writeValueAsBytes(rows.call());
+            if (run > 0) {
+                total += System.nanoTime() - start;
+            }
+        }
+        return total / RUNS / 1_000_000;
+    }
+}
@@ -0,0 +1,168 @@
+package com.workflow.workflowmanagementsystem;
+
+import com.workflow.workflowmanagementsystem.Repository.AuditLogRepository;
+import com.workflow.workflowmanagementsystem.Repository.TaskRepository;
+import com.workflow.workflowmanagementsystem.Repository.UserRepository;
+import com.workflow.workflowmanagementsystem.Repository.WorkflowRepository;
+import com.workflow.workflowmanagementsystem.Repository.WorkflowStatusLayerRepository;
+import com.workflow.workflowmanagementsystem.entity.AuditLog;
+import com.workflow.workflowmanagementsystem.entity.Task;
+import com.workflow.workflowmanagementsystem.entity.User;
+import com.workflow.workflowmanagementsystem.entity.Workflow;
+import com.workflow.workflowmanagementsystem.entity.WorkflowStatusLayer;
+import com.workflow.workflowmanagementsystem.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Concurrent status transitions on one task: every successful transition must be applied and audited exactly once.
+// Not transactional - each transition commits on its own, so the fixture is removed after each test.
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class TaskStatusTransitionConcurrencyTests {
+
+    private static final int THREADS = 8;
+
+    private static final int TRANSITIONS_PER_THREAD = 25;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private WorkflowStatusLayerRepository workflowStatusLayerRepository;
+
+    private User user;
+
+    private Workflow workflow;
+
+    private List<WorkflowStatusLayer> layers;
+
+    private Task task;
+
+    @BeforeEach
+    void createTask() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(new User("transition-" + suffix, "transition-" + suffix + "@example.com",
+                "password", "Transition", "Test"));
+        workflow = workflowRepository.save(new Workflow("Transitions " + suffix, null, user, null));
+        layers = new ArrayList<>();
+        for (String name : List.of("Open", "Doing", "Review")) {
+            layers.add(workflowStatusLayerRepository.save(new WorkflowStatusLayer(name, null, layers.size() + 1, workflow)));
+        }
+        Task newTask = new Task("Contended task", null, workflow, user, LocalDateTime.now().plusDays(7));
+        newTask.setWorkflowStatusLayer(layers.get(0));
+        task = taskRepository.save(newTask);
+    }
+
+    @AfterEach
+    void deleteTask() {
+        auditLogRepository.deleteAll(taskAuditLogs());
+        taskRepository.deleteById(task.getId());
+        workflowStatusLayerRepository.deleteAll(layers);
+        workflowRepository.deleteById(workflow.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void concurrentTransitionsAreNeverLost() throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < TRANSITIONS_PER_THREAD; i++) {
+                WorkflowStatusLayer target = layers.get((thread + i) % layers.size());
+                try {
+                    taskService.changeTaskWorkflowStatus(task.getId(), target.getId(), user.getId());
+                    succeeded.incrementAndGet();
+                } catch (OptimisticLockingFailureException e) {
+                    conflicts.incrementAndGet();
+                }
+            }
+        });
+
+        Task result = taskRepository.findById(task.getId()).orElseThrow();
+        assertThat(succeeded.get() + conflicts.get()).isEqualTo(THREADS * TRANSITIONS_PER_THREAD);
+        assertThat(succeeded.get()).isPositive();
+        assertThat(result.getVersion()).isEqualTo(task.getVersion() + succeeded.get());
+        assertThat(taskAuditLogs()).hasSize(succeeded.get());
+    }
+
+    @Test
+    void onlyOneTransitionFromTheExpectedLayerWins() throws Exception {
+        Long expectedLayerId = layers.get(0).getId();
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        runConcurrently(thread -> {
+            WorkflowStatusLayer target = layers.get(1 + thread % 2);
+            try {
+                taskService.changeTaskWorkflowStatus(task.getId(), target.getId(), expectedLayerId, user.getId());
+                succeeded.incrementAndGet();
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.incrementAndGet();
+            }
+        });
+
+        assertThat(succeeded.get()).isEqualTo(1);
+        assertThat(conflicts.get()).isEqualTo(THREADS - 1);
+        assertThat(taskAuditLogs()).hasSize(1);
+    }
+
+    private void runConcurrently(ThreadBody body) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int threadIndex = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    body.run(threadIndex);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<AuditLog> taskAuditLogs() {
+        return auditLogRepository.findByEntityTypeAndEntityIdOrderByCreatedAtDesc("Task", task.getId());
+    }
+
+    private interface ThreadBody {
+        void run(int thread);
+    }
+
+}
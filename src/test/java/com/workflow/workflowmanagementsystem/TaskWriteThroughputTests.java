@@ -0,0 +1,95 @@
+package com.workflow.workflowmanagementsystem;
+
+import com.workflow.workflowmanagementsystem.Repository.AuditLogRepository;
+import com.workflow.workflowmanagementsystem.Repository.TaskRepository;
+import com.workflow.workflowmanagementsystem.Repository.UserRepository;
+import com.workflow.workflowmanagementsystem.Repository.WorkflowRepository;
+import com.workflow.workflowmanagementsystem.entity.AuditLog;
+import com.workflow.workflowmanagementsystem.entity.Task;
+import com.workflow.workflowmanagementsystem.entity.User;
+import com.workflow.workflowmanagementsystem.entity.Workflow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Write-throughput check for task and audit inserts; the inserted rows are rolled back
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional
+class TaskWriteThroughputTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskWriteThroughputTests.class);
+
+    private static final int TASKS = 2000;
+
+    // One insert batch and one sequence call per 50 rows of each table, with headroom - unbatched inserts need 2 * TASKS
+    private static final long MAX_STATEMENTS = TASKS / 8;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void taskAndAuditInsertsAreBatched() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(new User("throughput-" + suffix, "throughput-" + suffix + "@example.com",
+                "password", "Throughput", "Test"));
+        Workflow workflow = workflowRepository.save(new Workflow("Throughput " + suffix, null, user, null));
+        entityManager.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(new Task("Throughput task " + i, null, workflow, user, LocalDateTime.now().plusDays(7)));
+        }
+        List<Task> savedTasks = taskRepository.saveAll(tasks);
+
+        List<AuditLog> auditLogs = new ArrayList<>(TASKS);
+        for (Task task : savedTasks) {
+            auditLogs.add(new AuditLog(AuditLog.ActionType.CREATE, "Task", task.getId(), "Created task: " + task.getTitle(), user));
+        }
+        auditLogRepository.saveAll(auditLogs);
+        entityManager.flush();
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        logger.info("Inserted {} tasks and {} audit rows in {} ms: {} rows/s using {} JDBC statements",
+                TASKS, TASKS, elapsedMillis, 2L * TASKS * 1000 / elapsedMillis, statistics.getPrepareStatementCount());
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(2L * TASKS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+}